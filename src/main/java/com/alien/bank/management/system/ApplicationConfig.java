@@ -2,6 +2,7 @@ package com.alien.bank.management.system;
 
 import com.alien.bank.management.system.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -26,6 +27,10 @@ public class ApplicationConfig implements WebMvcConfigurer {
 
     private final UserRepository userRepository;
 
+    // BCrypt cost (log2 rounds); lower it in dev/test, raise it in prod. Existing hashes keep their own cost.
+    @Value("${security.bcrypt.strength:10}")
+    private int bcryptStrength;
+
     @Bean
     public AuthenticationManager authenticationManager(AuthenticationConfiguration config) throws Exception {
         return config.getAuthenticationManager();
@@ -48,7 +53,7 @@ public class ApplicationConfig implements WebMvcConfigurer {
 
     @Bean
     public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+        return new BCryptPasswordEncoder(bcryptStrength);
     }
 
 }
@@ -9,8 +9,10 @@ import com.alien.bank.management.system.repository.UserRepository;
 import com.alien.bank.management.system.entity.User;
 import com.alien.bank.management.system.entity.Role;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class BankManagementSystemApplication {
 
 	public static void main(String[] args) {
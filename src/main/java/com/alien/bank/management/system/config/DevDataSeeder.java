@@ -2,6 +2,7 @@ package com.alien.bank.management.system.config;
 
 import com.alien.bank.management.system.entity.*;
 import com.alien.bank.management.system.repository.*;
+import com.alien.bank.management.system.service.LedgerService;
 import com.alien.bank.management.system.service.PaymentService;
 import com.alien.bank.management.system.service.RewardsService;
 import com.alien.bank.management.system.utils.EncryptionUtil;
@@ -11,6 +12,8 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.security.SecureRandom;
 import java.util.*;
@@ -28,8 +31,10 @@ public class DevDataSeeder {
     private final RewardWalletRepository walletRepository;
     private final RewardLedgerRepository ledgerRepository;
     private final RewardDailySummaryRepository summaryRepository;
-    private final TransactionRepository transactionRepository;
+    private final LedgerService ledgerService;
+    private final LedgerProjectionOffsetRepository offsetRepository;
     private final EncryptionUtil encryptionUtil;
+    private final PlatformTransactionManager transactionManager;
 
     private static final SecureRandom RANDOM = new SecureRandom();
 
@@ -76,72 +81,84 @@ public class DevDataSeeder {
     private void generatePaymentsAndRewards() {
         List<User> users = userRepository.findAll();
         List<PaymentCategory> categories = categoryRepository.findAll();
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
         for (User u : users) {
-            List<Account> accounts = accountRepository.findAllByUser(u);
-            if (accounts.isEmpty()) continue;
-            Account a = accounts.get(0);
-            // create transactions and ledger directly to avoid invoking services in init
-            Calendar cal = Calendar.getInstance();
-            cal.add(Calendar.DAY_OF_YEAR, -30);
-            for (int i = 0; i < 200; i++) {
-                cal.add(Calendar.HOUR_OF_DAY, RANDOM.nextInt(6));
-                Date ts = cal.getTime();
-                double amount = 10 + RANDOM.nextInt(900);
-                PaymentCategory cat = categories.get(RANDOM.nextInt(categories.size()));
-
-                if (a.getBalance() < amount) {
-                    a.setBalance(a.getBalance() + amount + RANDOM.nextInt(200));
-                    accountRepository.save(a);
-                    Transaction dep = Transaction.builder()
-                            .type(TransactionType.DEPOSIT)
-                            .amount(amount)
-                            .balanceAfter(a.getBalance())
-                            .timestamp(ts)
-                            .notes("Seed deposit")
-                            .account(a)
-                            .build();
-                    transactionRepository.save(dep);
-                }
-
-                a.setBalance(a.getBalance() - amount);
-                accountRepository.save(a);
-                Transaction out = Transaction.builder()
-                        .type(TransactionType.WITHDRAW)
+            // one transaction per user, so its rows reach the database as JDBC batches
+            transactionTemplate.executeWithoutResult(status -> seedUser(u, categories));
+        }
+    }
+
+    private void seedUser(User u, List<PaymentCategory> categories) {
+        List<Account> accounts = accountRepository.findAllByUser(u);
+        if (accounts.isEmpty()) return;
+        Account a = accounts.get(0);
+        // the journal owns the balance of an account it has opened
+        if (offsetRepository.existsById(a.getId())) return;
+        // create transactions and ledger directly to avoid invoking services in init
+        List<Transaction> transactions = new ArrayList<>();
+        List<RewardLedger> rewards = new ArrayList<>();
+        Map<Date, Integer> paymentsPerDay = new TreeMap<>();
+        int coins = 0;
+        Calendar cal = Calendar.getInstance();
+        cal.add(Calendar.DAY_OF_YEAR, -30);
+        for (int i = 0; i < 200; i++) {
+            cal.add(Calendar.HOUR_OF_DAY, RANDOM.nextInt(6));
+            Date ts = cal.getTime();
+            double amount = 10 + RANDOM.nextInt(900);
+            PaymentCategory cat = categories.get(RANDOM.nextInt(categories.size()));
+
+            if (a.getBalance() < amount) {
+                a.setBalance(a.getBalance() + amount + RANDOM.nextInt(200));
+                transactions.add(Transaction.builder()
+                        .type(TransactionType.DEPOSIT)
                         .amount(amount)
                         .balanceAfter(a.getBalance())
                         .timestamp(ts)
-                        .notes(cat.getCode())
+                        .notes("Seed deposit")
                         .account(a)
-                        .build();
-                transactionRepository.save(out);
-
-                // wallet and ledger
-                RewardWallet wallet = walletRepository.findByUserId(u.getId()).orElseGet(() -> RewardWallet.builder().userId(u.getId()).coins(0).build());
-                int earn = Math.max(1, (int) Math.floor(amount / 100));
-                wallet.setCoins(wallet.getCoins() + earn);
-                walletRepository.save(wallet);
+                        .build());
+            }
 
-                RewardLedger earnEntry = RewardLedger.builder()
-                        .user(u)
-                        .type(RewardType.EARN)
-                        .coins(earn)
-                        .note("Seed earn")
-                        .build();
-                ledgerRepository.save(earnEntry);
-
-                Date day = truncate(ts);
-                RewardDailySummary ds = summaryRepository.findByUserAndDay(u, day)
-                        .orElseGet(() -> RewardDailySummary.builder().user(u).day(day).txCount(0).bonusGiven(false).build());
-                ds.setTxCount(ds.getTxCount() + 1);
-                if (!ds.getBonusGiven() && ds.getTxCount() >= 5) {
-                    ds.setBonusGiven(true);
-                    wallet.setCoins(wallet.getCoins() + 20);
-                    walletRepository.save(wallet);
-                    ledgerRepository.save(RewardLedger.builder().user(u).type(RewardType.BONUS).coins(20).note("Seed bonus").build());
-                }
-                summaryRepository.save(ds);
+            a.setBalance(a.getBalance() - amount);
+            transactions.add(Transaction.builder()
+                    .type(TransactionType.WITHDRAW)
+                    .amount(amount)
+                    .balanceAfter(a.getBalance())
+                    .timestamp(ts)
+                    .notes(cat.getCode())
+                    .account(a)
+                    .build());
+
+            int earn = Math.max(1, (int) Math.floor(amount / 100));
+            coins += earn;
+            rewards.add(RewardLedger.builder()
+                    .user(u)
+                    .type(RewardType.EARN)
+                    .coins(earn)
+                    .note("Seed earn")
+                    .build());
+            paymentsPerDay.merge(truncate(ts), 1, Integer::sum);
+        }
+        accountRepository.save(a);
+        ledgerService.recordAll(transactions);
+
+        for (Map.Entry<Date, Integer> day : paymentsPerDay.entrySet()) {
+            RewardDailySummary ds = summaryRepository.findByUserAndDay(u, day.getKey())
+                    .orElseGet(() -> RewardDailySummary.builder().user(u).day(day.getKey()).txCount(0).bonusGiven(false).build());
+            ds.setTxCount(ds.getTxCount() + day.getValue());
+            if (!ds.getBonusGiven() && ds.getTxCount() >= 5) {
+                ds.setBonusGiven(true);
+                coins += 20;
+                rewards.add(RewardLedger.builder().user(u).type(RewardType.BONUS).coins(20).note("Seed bonus").build());
             }
+            summaryRepository.save(ds);
         }
+
+        RewardWallet wallet = walletRepository.findByUserId(u.getId()).orElseGet(() -> RewardWallet.builder().userId(u.getId()).coins(0).build());
+        wallet.setCoins(wallet.getCoins() + coins);
+        walletRepository.save(wallet);
+        // saved last: nothing queried after this forces an early flush, so they go out in batches at commit
+        ledgerRepository.saveAll(rewards);
     }
 
     private Date truncate(Date ts) {
@@ -0,0 +1,65 @@
+package com.alien.bank.management.system.config;
+
+import com.alien.bank.management.system.repository.AccountRepository;
+import com.alien.bank.management.system.service.BalanceSnapshotService;
+import com.alien.bank.management.system.service.MonthlyRollupService;
+import com.alien.bank.management.system.service.NotesSearchService;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Rebuilds the ledger read models (daily balance snapshots, monthly rollups, notes search index)
+ * from transaction history. Runs on startup when ledger.backfill-on-startup=true (first deploy of a new read model)
+ * and is also reachable from the admin API. Each account is rebuilt in its own transactions.
+ */
+@Component
+@RequiredArgsConstructor
+public class LedgerBackfillJob implements ApplicationRunner {
+    private static final Logger log = LoggerFactory.getLogger(LedgerBackfillJob.class);
+
+    private final AccountRepository accountRepository;
+    private final BalanceSnapshotService balanceSnapshotService;
+    private final MonthlyRollupService monthlyRollupService;
+    private final NotesSearchService notesSearchService;
+
+    @Value("${ledger.backfill-on-startup:false}")
+    private boolean backfillOnStartup;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (backfillOnStartup) {
+            backfillAll();
+        }
+    }
+
+    public Map<String, Object> backfill(Long accountId) {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("accountId", accountId);
+        result.put("snapshotDays", balanceSnapshotService.backfill(accountId));
+        result.put("monthlyRollups", monthlyRollupService.backfill(accountId));
+        result.put("noteTrigrams", notesSearchService.backfill(accountId));
+        return result;
+    }
+
+    public int backfillAll() {
+        int accounts = 0;
+        for (Long accountId : accountRepository.findAllIds()) {
+            try {
+                backfill(accountId);
+                accounts++;
+            } catch (RuntimeException e) {
+                log.warn("Ledger backfill failed for account {}: {}", accountId, e.getMessage());
+            }
+        }
+        log.info("Ledger backfill finished for {} accounts", accounts);
+        return accounts;
+    }
+}
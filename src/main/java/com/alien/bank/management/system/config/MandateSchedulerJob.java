@@ -0,0 +1,243 @@
+package com.alien.bank.management.system.config;
+
+import com.alien.bank.management.system.entity.UpiMandate;
+import com.alien.bank.management.system.entity.UpiMandateStatus;
+import com.alien.bank.management.system.exception.ServiceBusyException;
+import com.alien.bank.management.system.model.upi.DueMandate;
+import com.alien.bank.management.system.repository.UpiMandateRepository;
+import com.alien.bank.management.system.service.MandateService;
+import com.alien.bank.management.system.utils.HierarchicalTimingWheel;
+import com.alien.bank.management.system.utils.PartitionedExecutor;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Runs due mandates. Every load interval the mandates due within the horizon are read from
+ * idx_upi_mandate_due in keyset pages and put on a hierarchical timing wheel (1 s ticks by
+ * default), so between loads nothing scans the table and each run fires within a tick of its
+ * next_run_at. Expired entries are grouped by payer account and handed to a partitioned executor:
+ * one account's runs execute one after another, which keeps them off each other's balance and
+ * daily-limit rows, while different accounts run in parallel up to mandate.execution.max-in-flight.
+ *
+ * The wheel is only an index; the claim in {@link MandateService#runDue} decides who runs, so a
+ * stale entry or a second instance loading the same rows does no harm.
+ *
+ * Ticks run on a thread of their own rather than on Spring's shared scheduler, where a slow load,
+ * outbox relay or expiry sweep would hold them up and make every run late by that much.
+ */
+@Component
+@RequiredArgsConstructor
+public class MandateSchedulerJob {
+    private static final Logger log = LoggerFactory.getLogger(MandateSchedulerJob.class);
+
+    private final UpiMandateRepository mandateRepository;
+    private final MandateService mandateService;
+
+    @Value("${mandate.scheduler-enabled:true}")
+    private boolean enabled;
+
+    @Value("${mandate.wheel.tick-ms:1000}")
+    private long tickMs;
+
+    @Value("${mandate.wheel.size:60}")
+    private int wheelSize;
+
+    @Value("${mandate.horizon-ms:600000}")
+    private long horizonMs;
+
+    @Value("${mandate.load-page:1000}")
+    private int loadPage;
+
+    @Value("${mandate.max-loaded:200000}")
+    private int maxLoaded;
+
+    @Value("${mandate.execution.partitions:4}")
+    private int partitions;
+
+    @Value("${mandate.execution.max-in-flight:5000}")
+    private int maxInFlight;
+
+    @Value("${mandate.run-timeout-ms:600000}")
+    private long runTimeoutMs;
+
+    private HierarchicalTimingWheel<DueMandate> wheel;
+    private PartitionedExecutor runners;
+    private ScheduledExecutorService ticker;
+    // mandate id -> the next_run_at it is on the wheel for
+    private final Map<Long, Long> loaded = new ConcurrentHashMap<>();
+    private final LongAdder dispatched = new LongAdder();
+    private final LongAdder deferred = new LongAdder();
+    private volatile long lastLoadMs;
+
+    @PostConstruct
+    void start() {
+        wheel = new HierarchicalTimingWheel<>(tickMs, wheelSize, System.currentTimeMillis());
+        runners = new PartitionedExecutor("mandate-run", partitions, maxInFlight);
+        if (enabled) {
+            ticker = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread t = new Thread(r, "mandate-wheel-tick");
+                t.setDaemon(true);
+                return t;
+            });
+            ticker.scheduleWithFixedDelay(this::scheduledTick, tickMs, tickMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @PreDestroy
+    void stop() {
+        if (ticker != null) {
+            ticker.shutdownNow();
+        }
+        runners.shutdown();
+    }
+
+    // Same cutoff as the periodic load: a run claimed more recently may belong to another instance
+    // that is executing it right now
+    @EventListener(ApplicationReadyEvent.class)
+    public void recoverOnStartup() {
+        if (enabled) {
+            mandateService.recoverInterrupted(new Date(System.currentTimeMillis() - runTimeoutMs));
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${mandate.load-interval-ms:60000}")
+    public void scheduledLoad() {
+        if (enabled) {
+            mandateService.recoverInterrupted(new Date(System.currentTimeMillis() - runTimeoutMs));
+            load();
+        }
+    }
+
+    // An exception escaping here would cancel every later tick
+    private void scheduledTick() {
+        try {
+            tick(System.currentTimeMillis());
+        } catch (RuntimeException e) {
+            log.error("Mandate wheel tick failed: {}", e.getMessage(), e);
+        }
+    }
+
+    /** Puts every active mandate due before now + horizon on the wheel; returns how many were new. */
+    public int load() {
+        long now = System.currentTimeMillis();
+        // bring the wheel's clock up to date first, so "already due" below means due by the real clock
+        tick(now);
+        Date horizon = new Date(now + horizonMs);
+        List<DueMandate> dueNow = new ArrayList<>();
+        int added = 0;
+        Date afterTs = null;
+        Long afterId = null;
+        List<DueMandate> page;
+        do {
+            page = mandateRepository.findDuePage(horizon, afterTs, afterId, PageRequest.of(0, loadPage));
+            for (DueMandate due : page) {
+                if (loaded.size() >= maxLoaded) {
+                    log.warn("Mandate wheel is full ({} loaded); the rest waits for the next load", loaded.size());
+                    page = List.of();
+                    break;
+                }
+                if (schedule(due, dueNow)) {
+                    added++;
+                }
+            }
+            if (!page.isEmpty()) {
+                DueMandate last = page.get(page.size() - 1);
+                afterTs = last.nextRunAt();
+                afterId = last.id();
+            }
+        } while (page.size() == loadPage);
+        lastLoadMs = now;
+        dispatch(dueNow);
+        return added;
+    }
+
+    /** Advances the wheel to nowMs and dispatches what fell due; returns how many runs were dispatched. */
+    public int tick(long nowMs) {
+        List<DueMandate> expired = new ArrayList<>();
+        wheel.advance(nowMs, expired::add);
+        return dispatch(expired);
+    }
+
+    private boolean schedule(DueMandate due, List<DueMandate> dueNow) {
+        long at = due.nextRunAt().getTime();
+        Long previous = loaded.put(due.id(), at);
+        if (previous != null && previous == at) {
+            return false;
+        }
+        if (at <= System.currentTimeMillis() || !wheel.add(at, due)) {
+            dueNow.add(due);
+        }
+        return true;
+    }
+
+    private int dispatch(List<DueMandate> expired) {
+        // a mandate rescheduled after this entry was added has a newer one on the wheel
+        Map<Long, List<DueMandate>> byPayer = new LinkedHashMap<>();
+        for (DueMandate due : expired) {
+            if (loaded.remove(due.id(), due.nextRunAt().getTime())) {
+                byPayer.computeIfAbsent(due.payerAccountId(), k -> new ArrayList<>()).add(due);
+            }
+        }
+        int count = 0;
+        for (Map.Entry<Long, List<DueMandate>> batch : byPayer.entrySet()) {
+            try {
+                runners.submit(batch.getKey(), () -> runBatch(batch.getValue()));
+                count += batch.getValue().size();
+            } catch (ServiceBusyException e) {
+                // still due; the next load puts them back on the wheel
+                deferred.add(batch.getValue().size());
+            }
+        }
+        dispatched.add(count);
+        return count;
+    }
+
+    private void runBatch(List<DueMandate> batch) {
+        long horizon = System.currentTimeMillis() + horizonMs;
+        List<DueMandate> dueNow = new ArrayList<>();
+        for (DueMandate due : batch) {
+            try {
+                UpiMandate after = mandateService.runDue(due.id());
+                // a retry soon after a failure goes straight back on the wheel instead of waiting for the next load
+                if (after != null && after.getStatus() == UpiMandateStatus.ACTIVE && after.getNextRunAt() != null
+                        && after.getNextRunAt().getTime() < horizon) {
+                    schedule(new DueMandate(after.getId(), after.getPayerAccountId(), after.getNextRunAt()), dueNow);
+                }
+            } catch (RuntimeException e) {
+                log.error("Mandate {} run failed: {}", due.id(), e.getMessage(), e);
+            }
+        }
+        if (!dueNow.isEmpty()) {
+            dispatch(dueNow);
+        }
+    }
+
+    public Map<String, Object> getMetrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("enabled", enabled);
+        metrics.put("loaded", loaded.size());
+        metrics.put("horizonMs", horizonMs);
+        metrics.put("lastLoadAt", lastLoadMs == 0 ? null : new Date(lastLoadMs));
+        metrics.put("wheel", wheel.levels());
+        metrics.put("dispatched", dispatched.sum());
+        metrics.put("deferred", deferred.sum());
+        metrics.put("runners", runners.getMetrics());
+        return metrics;
+    }
+}
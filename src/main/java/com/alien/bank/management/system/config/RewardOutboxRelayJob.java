@@ -0,0 +1,101 @@
+package com.alien.bank.management.system.config;
+
+import com.alien.bank.management.system.entity.RewardOutboxEvent;
+import com.alien.bank.management.system.repository.RewardOutboxRepository;
+import com.alien.bank.management.system.service.RewardsService;
+import com.alien.bank.management.system.utils.OptimisticRetryExecutor;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Credits queued payment rewards. Each pass reads the oldest pending outbox events in pages of
+ * rewards.outbox.batch-size, groups a page by user and applies each user's events as one
+ * micro-batch: one transaction holding that user's wallet lock for all of them. A batch that
+ * fails is counted against its events and retried on a later pass; events that reach
+ * rewards.outbox.max-attempts stay in the table for inspection.
+ */
+@Component
+@RequiredArgsConstructor
+public class RewardOutboxRelayJob {
+    private static final Logger log = LoggerFactory.getLogger(RewardOutboxRelayJob.class);
+    private static final int ERROR_LENGTH = 255;
+
+    private final RewardOutboxRepository outboxRepository;
+    private final RewardsService rewardsService;
+    private final OptimisticRetryExecutor retryExecutor;
+
+    @Value("${rewards.outbox.enabled:true}")
+    private boolean enabled;
+
+    @Value("${rewards.outbox.batch-size:500}")
+    private int batchSize;
+
+    @Value("${rewards.outbox.max-attempts:5}")
+    private int maxAttempts;
+
+    private final LongAdder applied = new LongAdder();
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder failedBatches = new LongAdder();
+    private volatile long lastRelayMs;
+
+    @Scheduled(fixedDelayString = "${rewards.outbox.relay-interval-ms:1000}")
+    public void scheduledRelay() {
+        if (enabled) {
+            relay();
+        }
+    }
+
+    /** Applies pending events until a page comes back short or a batch fails; returns how many were credited. */
+    public int relay() {
+        int credited = 0;
+        boolean failed = false;
+        List<RewardOutboxEvent> page;
+        do {
+            page = outboxRepository.findPending(maxAttempts, PageRequest.of(0, batchSize));
+            Map<Long, List<Long>> byUser = new LinkedHashMap<>();
+            for (RewardOutboxEvent event : page) {
+                byUser.computeIfAbsent(event.getUserId(), k -> new ArrayList<>()).add(event.getId());
+            }
+            for (Map.Entry<Long, List<Long>> batch : byUser.entrySet()) {
+                Long userId = batch.getKey();
+                try {
+                    credited += retryExecutor.execute("rewardOutbox", "user:" + userId,
+                            () -> rewardsService.applyOutboxEvents(userId, batch.getValue()));
+                    batches.increment();
+                } catch (RuntimeException e) {
+                    // a failing batch would come straight back in the next page; leave it for the next pass
+                    failed = true;
+                    failedBatches.increment();
+                    log.error("Reward outbox batch of {} events for user {} failed: {}", batch.getValue().size(), userId, e.getMessage(), e);
+                    String error = e.getClass().getSimpleName() + ": " + e.getMessage();
+                    outboxRepository.markFailed(batch.getValue(), error.length() > ERROR_LENGTH ? error.substring(0, ERROR_LENGTH) : error);
+                }
+            }
+        } while (page.size() == batchSize && !failed);
+        applied.add(credited);
+        lastRelayMs = System.currentTimeMillis();
+        return credited;
+    }
+
+    public Map<String, Object> getMetrics() {
+        Date oldest = outboxRepository.findOldestPendingCreatedAt(maxAttempts);
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("enabled", enabled);
+        metrics.put("pending", outboxRepository.countByAttemptsLessThan(maxAttempts));
+        metrics.put("oldestPendingAgeMs", oldest == null ? 0 : System.currentTimeMillis() - oldest.getTime());
+        metrics.put("givenUp", outboxRepository.countByAttemptsGreaterThanEqual(maxAttempts));
+        metrics.put("applied", applied.sum());
+        metrics.put("batches", batches.sum());
+        metrics.put("failedBatches", failedBatches.sum());
+        metrics.put("lastRelayAt", lastRelayMs == 0 ? null : new Date(lastRelayMs));
+        return metrics;
+    }
+}
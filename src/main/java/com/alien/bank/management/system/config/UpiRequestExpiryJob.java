@@ -0,0 +1,57 @@
+package com.alien.bank.management.system.config;
+
+import com.alien.bank.management.system.repository.UpiRequestRepository;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Moves PENDING collect requests past their expires_at to EXPIRED. Each chunk of ids is read from
+ * idx_upi_request_expiry and updated in its own short transaction, so a large backlog never holds
+ * locks on more than one chunk. An approval racing the sweeper is settled by the status condition
+ * on both UPDATEs.
+ */
+@Component
+@RequiredArgsConstructor
+public class UpiRequestExpiryJob {
+    private static final Logger log = LoggerFactory.getLogger(UpiRequestExpiryJob.class);
+
+    private final UpiRequestRepository upiRequestRepository;
+
+    @Value("${upi.collect.sweeper-enabled:true}")
+    private boolean enabled;
+
+    @Value("${upi.collect.sweep-chunk:500}")
+    private int chunkSize;
+
+    @Scheduled(fixedDelayString = "${upi.collect.sweep-interval-ms:60000}",
+               initialDelayString = "${upi.collect.sweep-interval-ms:60000}")
+    public void scheduledSweep() {
+        if (enabled) {
+            sweep();
+        }
+    }
+
+    public int sweep() {
+        Date now = new Date();
+        int expired = 0;
+        List<Long> ids;
+        do {
+            ids = upiRequestRepository.findExpiredPendingIds(now, PageRequest.of(0, chunkSize));
+            if (!ids.isEmpty()) {
+                expired += upiRequestRepository.expire(ids);
+            }
+        } while (ids.size() == chunkSize);
+        if (expired > 0) {
+            log.info("Expired {} UPI collect requests", expired);
+        }
+        return expired;
+    }
+}
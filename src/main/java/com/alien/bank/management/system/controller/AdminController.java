@@ -1,5 +1,8 @@
 package com.alien.bank.management.system.controller;
 
+import com.alien.bank.management.system.config.LedgerBackfillJob;
+import com.alien.bank.management.system.config.MandateSchedulerJob;
+import com.alien.bank.management.system.config.RewardOutboxRelayJob;
 import com.alien.bank.management.system.entity.Account;
 import com.alien.bank.management.system.entity.Role;
 import com.alien.bank.management.system.entity.Transaction;
@@ -9,6 +12,13 @@ import com.alien.bank.management.system.model.ResponseModel;
 import com.alien.bank.management.system.repository.AccountRepository;
 import com.alien.bank.management.system.repository.TransactionRepository;
 import com.alien.bank.management.system.repository.UserRepository;
+import com.alien.bank.management.system.service.LedgerJournalService;
+import com.alien.bank.management.system.service.MandateService;
+import com.alien.bank.management.system.service.PartitionedLedgerService;
+import com.alien.bank.management.system.service.PinVerificationService;
+import com.alien.bank.management.system.service.UpiService;
+import com.alien.bank.management.system.service.VpaResolver;
+import com.alien.bank.management.system.utils.OptimisticRetryExecutor;
 import lombok.Data;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
@@ -31,6 +41,16 @@ public class AdminController {
     private final UserRepository userRepository;
     private final AccountRepository accountRepository;
     private final TransactionRepository transactionRepository;
+    private final LedgerBackfillJob ledgerBackfillJob;
+    private final OptimisticRetryExecutor retryExecutor;
+    private final LedgerJournalService ledgerJournalService;
+    private final PartitionedLedgerService partitionedLedgerService;
+    private final VpaResolver vpaResolver;
+    private final PinVerificationService pinVerificationService;
+    private final UpiService upiService;
+    private final MandateService mandateService;
+    private final MandateSchedulerJob mandateSchedulerJob;
+    private final RewardOutboxRelayJob rewardOutboxRelayJob;
 
     @GetMapping("/summary")
     @PreAuthorize("hasRole('ADMIN')")
@@ -49,6 +69,77 @@ public class AdminController {
         return ResponseEntity.ok(ResponseModel.builder().status(HttpStatus.OK).success(true).data(result).build());
     }
 
+    @PostMapping("/ledger/backfill")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ResponseModel> backfillLedgerReadModels(@RequestParam(required = false) Long accountId) {
+        Map<String, Object> result;
+        if (accountId != null) {
+            result = ledgerBackfillJob.backfill(accountId);
+        } else {
+            result = new HashMap<>();
+            result.put("accounts", ledgerBackfillJob.backfillAll());
+        }
+        return ResponseEntity.ok(ResponseModel.builder().status(HttpStatus.OK).success(true).data(result).build());
+    }
+
+    // Dry run by default: reports journal vs Account balance drift; apply=true overwrites Account.balance,
+    // except on accounts that also took writes outside the journal (reported as writesOutsideJournal)
+    @PostMapping("/ledger/journal/replay")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ResponseModel> replayLedgerJournal(@RequestParam(required = false) Long accountId,
+                                                             @RequestParam(defaultValue = "false") boolean apply) {
+        Object result = accountId != null
+                ? ledgerJournalService.replay(accountId, apply)
+                : ledgerJournalService.replayAll(apply);
+        return ResponseEntity.ok(ResponseModel.builder().status(HttpStatus.OK).success(true).data(result).build());
+    }
+
+    @GetMapping("/metrics/contention")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ResponseModel> getContentionMetrics() {
+        return ResponseEntity.ok(ResponseModel.builder().status(HttpStatus.OK).success(true).data(retryExecutor.getMetrics()).build());
+    }
+
+    @GetMapping("/metrics/vpa-cache")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ResponseModel> getVpaCacheMetrics() {
+        return ResponseEntity.ok(ResponseModel.builder().status(HttpStatus.OK).success(true).data(vpaResolver.getMetrics()).build());
+    }
+
+    @GetMapping("/metrics/pin-verification")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ResponseModel> getPinVerificationMetrics() {
+        return ResponseEntity.ok(ResponseModel.builder().status(HttpStatus.OK).success(true).data(pinVerificationService.getMetrics()).build());
+    }
+
+    @GetMapping("/metrics/upi-async")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ResponseModel> getUpiAsyncMetrics() {
+        return ResponseEntity.ok(ResponseModel.builder().status(HttpStatus.OK).success(true).data(upiService.getAsyncMetrics()).build());
+    }
+
+    @GetMapping("/metrics/ledger-partitions")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ResponseModel> getLedgerPartitionMetrics() {
+        return ResponseEntity.ok(ResponseModel.builder().status(HttpStatus.OK).success(true).data(partitionedLedgerService.getMetrics()).build());
+    }
+
+    // Mandates due per upcoming window plus what the scheduler has loaded and dispatched
+    @GetMapping("/metrics/mandates")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ResponseModel> getMandateMetrics() {
+        Map<String, Object> result = new LinkedHashMap<>(mandateService.getMetrics());
+        result.put("scheduler", mandateSchedulerJob.getMetrics());
+        return ResponseEntity.ok(ResponseModel.builder().status(HttpStatus.OK).success(true).data(result).build());
+    }
+
+    // Payment rewards still waiting for the relay, how far behind it is, and what it has applied
+    @GetMapping("/metrics/rewards-outbox")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ResponseModel> getRewardsOutboxMetrics() {
+        return ResponseEntity.ok(ResponseModel.builder().status(HttpStatus.OK).success(true).data(rewardOutboxRelayJob.getMetrics()).build());
+    }
+
     @GetMapping("/users")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<ResponseModel> listUsers(
@@ -0,0 +1,56 @@
+package com.alien.bank.management.system.controller;
+
+import com.alien.bank.management.system.entity.UpiMandate;
+import com.alien.bank.management.system.model.ResponseModel;
+import com.alien.bank.management.system.model.upi.CreateMandateRequest;
+import com.alien.bank.management.system.service.MandateService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/upi/mandates")
+@RequiredArgsConstructor
+public class MandateController {
+
+    private final MandateService mandateService;
+
+    // POST /upi/mandates
+    @PostMapping
+    public ResponseEntity<ResponseModel> create(@Valid @RequestBody CreateMandateRequest request) {
+        UpiMandate mandate = mandateService.createMandate(request);
+        return ResponseEntity.ok(ResponseModel.builder().status(HttpStatus.OK).success(true).data(mandate).build());
+    }
+
+    // GET /upi/mandates - mandates paying from any of the caller's VPAs
+    @GetMapping
+    public ResponseEntity<ResponseModel> getMine() {
+        List<UpiMandate> mandates = mandateService.getMyMandates();
+        return ResponseEntity.ok(ResponseModel.builder().status(HttpStatus.OK).success(true).data(mandates).build());
+    }
+
+    // POST /upi/mandates/{id}/pause
+    @PostMapping("/{id}/pause")
+    public ResponseEntity<ResponseModel> pause(@PathVariable Long id) {
+        UpiMandate mandate = mandateService.pauseMandate(id);
+        return ResponseEntity.ok(ResponseModel.builder().status(HttpStatus.OK).success(true).data(mandate).build());
+    }
+
+    // POST /upi/mandates/{id}/resume
+    @PostMapping("/{id}/resume")
+    public ResponseEntity<ResponseModel> resume(@PathVariable Long id) {
+        UpiMandate mandate = mandateService.resumeMandate(id);
+        return ResponseEntity.ok(ResponseModel.builder().status(HttpStatus.OK).success(true).data(mandate).build());
+    }
+
+    // POST /upi/mandates/{id}/cancel
+    @PostMapping("/{id}/cancel")
+    public ResponseEntity<ResponseModel> cancel(@PathVariable Long id) {
+        UpiMandate mandate = mandateService.cancelMandate(id);
+        return ResponseEntity.ok(ResponseModel.builder().status(HttpStatus.OK).success(true).data(mandate).build());
+    }
+}
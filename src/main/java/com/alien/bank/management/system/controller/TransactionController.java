@@ -1,6 +1,8 @@
 package com.alien.bank.management.system.controller;
 
+import com.alien.bank.management.system.entity.Account;
 import com.alien.bank.management.system.model.ResponseModel;
+import com.alien.bank.management.system.model.transaction.BatchPostingRequest;
 import com.alien.bank.management.system.model.transaction.DepositRequestModel;
 import com.alien.bank.management.system.model.transaction.WithdrawRequestModel;
 import com.alien.bank.management.system.model.transaction.TransactionHistoryItem;
@@ -12,7 +14,9 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
@@ -47,14 +51,32 @@ public class TransactionController {
         );
     }
 
-    // ✅ Existing endpoint: Basic Transaction History
+    // Back-office bulk postings (salary/cashback runs); per-item results, one DB transaction
+    @PostMapping("/batch")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ResponseModel> postBatch(@Valid @RequestBody BatchPostingRequest request) {
+        return ResponseEntity.ok(
+                ResponseModel
+                        .builder()
+                        .status(HttpStatus.OK)
+                        .success(true)
+                        .data(transactionService.postBatch(request))
+                        .build()
+        );
+    }
+
+    // ✅ Existing endpoint: Basic Transaction History (newest first, paged with cursor/limit)
     @GetMapping("/history/{accountId}")
-    public ResponseEntity<ResponseModel> getHistory(@PathVariable Long accountId) {
+    public ResponseEntity<ResponseModel> getHistory(
+            @PathVariable Long accountId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit
+    ) {
         return ResponseEntity.ok(
                 ResponseModel.builder()
                         .status(HttpStatus.OK)
                         .success(true)
-                        .data(transactionService.getHistory(accountId))
+                        .data(transactionService.getHistory(accountId, cursor, limit))
                         .errors(null)
                         .build()
         );
@@ -83,10 +105,14 @@ public class TransactionController {
             @RequestParam(required = false) Double maxAmount,
             @RequestParam(required = false) List<String> transactionTypes,
             @RequestParam(required = false) String searchText,
+            @RequestParam(defaultValue = "CONTAINS") String searchMode,
             @RequestParam(defaultValue = "1") Integer page,
             @RequestParam(defaultValue = "20") Integer pageSize,
             @RequestParam(defaultValue = "timestamp") String sortBy,
-            @RequestParam(defaultValue = "DESC") String sortDirection
+            @RequestParam(defaultValue = "DESC") String sortDirection,
+            @RequestParam(defaultValue = "OFFSET") String paginationMode,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "false") Boolean includeTotal
     ) {
         TransactionStatementRequest request = TransactionStatementRequest.builder()
                 .accountId(accountId)
@@ -96,10 +122,14 @@ public class TransactionController {
                 .maxAmount(maxAmount)
                 .transactionTypes(transactionTypes)
                 .searchText(searchText)
+                .searchMode(searchMode)
                 .page(page)
                 .pageSize(pageSize)
                 .sortBy(sortBy)
                 .sortDirection(sortDirection)
+                .paginationMode(paginationMode)
+                .cursor(cursor)
+                .includeTotal(includeTotal)
                 .build();
         
         TransactionStatementResponse statement = transactionService.getTransactionStatement(request);
@@ -112,23 +142,25 @@ public class TransactionController {
         );
     }
     
-    // 🆕 NEW: Export statement as PDF
+    // 🆕 NEW: Export statement as PDF (pages are rendered and flushed one at a time)
+    // Exports check ownership and the request before the 200 and headers are committed
     @PostMapping(value = "/statement/export/pdf", produces = MediaType.APPLICATION_PDF_VALUE)
-    public ResponseEntity<byte[]> exportStatementAsPdf(@Valid @RequestBody TransactionStatementRequest request) {
-        byte[] pdfContent = transactionService.exportStatementAsPdf(request);
+    public ResponseEntity<StreamingResponseBody> exportStatementAsPdf(@Valid @RequestBody TransactionStatementRequest request) {
+        Account account = transactionService.getStatementAccount(request);
+        StreamingResponseBody body = outputStream -> transactionService.streamStatementAsPdf(account, request, outputStream);
         return ResponseEntity.ok()
                 .header("Content-Disposition", "attachment; filename=\"statement.pdf\"")
-                .body(pdfContent);
+                .body(body);
     }
     
-    // 🆕 NEW: Export statement as CSV
+    // 🆕 NEW: Export statement as CSV (streamed from a DB cursor, covers the whole date range)
     @PostMapping(value = "/statement/export/csv", produces = MediaType.TEXT_PLAIN_VALUE)
-    public ResponseEntity<byte[]> exportStatementAsCsv(@Valid @RequestBody TransactionStatementRequest request) {
-        TransactionStatementResponse statement = transactionService.getTransactionStatement(request);
-        byte[] csvContent = transactionService.exportStatementAsCsv(statement);
+    public ResponseEntity<StreamingResponseBody> exportStatementAsCsv(@Valid @RequestBody TransactionStatementRequest request) {
+        Account account = transactionService.getStatementAccount(request);
+        StreamingResponseBody body = outputStream -> transactionService.streamStatementAsCsv(account, request, outputStream);
         return ResponseEntity.ok()
                 .header("Content-Disposition", "attachment; filename=\"statement.csv\"")
-                .body(csvContent);
+                .body(body);
     }
     
     // 🆕 NEW: Quick statement for last 30 days
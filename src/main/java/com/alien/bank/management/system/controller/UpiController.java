@@ -1,18 +1,25 @@
 package com.alien.bank.management.system.controller;
 
 import com.alien.bank.management.system.entity.UpiRequest;
+import com.alien.bank.management.system.entity.UpiTransfer;
 import com.alien.bank.management.system.entity.UpiVpa;
 import com.alien.bank.management.system.model.ResponseModel;
 import com.alien.bank.management.system.model.upi.CreateUpiIdRequest;
 import com.alien.bank.management.system.model.upi.CreateUpiIdResponse;
+import com.alien.bank.management.system.model.upi.SplitBillRequest;
+import com.alien.bank.management.system.model.upi.SplitBillStatus;
 import com.alien.bank.management.system.service.UpiService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.net.URI;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 
 @RestController
 @RequestMapping("/upi")
@@ -49,6 +56,32 @@ public class UpiController {
         return ResponseEntity.ok(ResponseModel.builder().status(HttpStatus.OK).success(true).data(txnId).build());
     }
 
+    // POST /upi/send/async -> 202 with the transfer reference; poll /upi/transfers/{reference}
+    @PostMapping("/send/async")
+    public ResponseEntity<ResponseModel> sendAsync(@RequestBody SendMoneyDto request) {
+        UpiTransfer transfer = upiService.sendMoneyAsync(request.fromVpa, request.toVpa, request.amount, request.note, request.pin);
+        return ResponseEntity.accepted()
+                .location(URI.create("/upi/transfers/" + transfer.getReference()))
+                .body(ResponseModel.builder().status(HttpStatus.ACCEPTED).success(true).data(transfer).build());
+    }
+
+    // GET /upi/transfers/{reference}
+    @GetMapping("/transfers/{reference}")
+    public ResponseEntity<ResponseModel> getTransfer(@PathVariable String reference) {
+        UpiTransfer transfer = upiService.getTransfer(reference);
+        return ResponseEntity.ok(ResponseModel.builder().status(HttpStatus.OK).success(true).data(transfer).build());
+    }
+
+    // GET /upi/transfers/{reference}/wait?timeoutMs=
+    // Long-poll: answers as soon as the transfer completes or fails, or with the current status after timeoutMs.
+    // The servlet thread is released while waiting.
+    @GetMapping("/transfers/{reference}/wait")
+    public CompletableFuture<ResponseEntity<ResponseModel>> awaitTransfer(@PathVariable String reference,
+                                                                          @RequestParam(required = false) Long timeoutMs) {
+        return upiService.awaitTransfer(reference, timeoutMs)
+                .thenApply(transfer -> ResponseEntity.ok(ResponseModel.builder().status(HttpStatus.OK).success(true).data(transfer).build()));
+    }
+
     // POST /upi/request
     @PostMapping("/request")
     public ResponseEntity<ResponseModel> request(@RequestBody RequestMoneyDto request) {
@@ -56,6 +89,20 @@ public class UpiController {
         return ResponseEntity.ok(ResponseModel.builder().status(HttpStatus.OK).success(true).data(saved).build());
     }
 
+    // POST /upi/request/split
+    @PostMapping("/request/split")
+    public ResponseEntity<ResponseModel> splitBill(@Valid @RequestBody SplitBillRequest request) {
+        SplitBillStatus created = upiService.createSplitBill(request);
+        return ResponseEntity.ok(ResponseModel.builder().status(HttpStatus.OK).success(true).data(created).build());
+    }
+
+    // GET /upi/request/split/{groupId}
+    @GetMapping("/request/split/{groupId}")
+    public ResponseEntity<ResponseModel> getSplitBill(@PathVariable String groupId) {
+        SplitBillStatus status = upiService.getSplitBill(groupId);
+        return ResponseEntity.ok(ResponseModel.builder().status(HttpStatus.OK).success(true).data(status).build());
+    }
+
     // GET /upi/request/{vpa}
     @GetMapping("/request/{vpa}")
     public ResponseEntity<ResponseModel> getPending(@PathVariable String vpa) {
@@ -63,6 +110,15 @@ public class UpiController {
         return ResponseEntity.ok(ResponseModel.builder().status(HttpStatus.OK).success(true).data(list).build());
     }
 
+    // GET /upi/request/{vpa}/inbox?cursor=&limit=
+    @GetMapping("/request/{vpa}/inbox")
+    public ResponseEntity<ResponseModel> getInbox(@PathVariable String vpa,
+                                                  @RequestParam(required = false) String cursor,
+                                                  @RequestParam(required = false) Integer limit) {
+        var page = upiService.getPendingRequestPage(vpa, cursor, limit);
+        return ResponseEntity.ok(ResponseModel.builder().status(HttpStatus.OK).success(true).data(page).build());
+    }
+
     // POST /upi/request/{id}/approve?pin=
     @PostMapping("/request/{id}/approve")
     public ResponseEntity<ResponseModel> approve(@PathVariable Long id, @RequestParam String pin) {
@@ -117,10 +173,12 @@ public class UpiController {
                 .build());
     }
 
-    // GET /upi/transactions/{vpa}
+    // GET /upi/transactions/{vpa}?cursor=&limit=
     @GetMapping("/transactions/{vpa}")
-    public ResponseEntity<ResponseModel> getTransactionsByVpa(@PathVariable String vpa) {
-        var txns = upiService.getTransactionsByVpa(vpa);
+    public ResponseEntity<ResponseModel> getTransactionsByVpa(@PathVariable String vpa,
+                                                              @RequestParam(required = false) String cursor,
+                                                              @RequestParam(required = false) Integer limit) {
+        var txns = upiService.getTransactionsByVpa(vpa, cursor, limit);
         return ResponseEntity.ok(ResponseModel.builder().status(HttpStatus.OK).success(true).data(txns).build());
     }
 
@@ -131,6 +189,18 @@ public class UpiController {
         return ResponseEntity.ok(ResponseModel.builder().status(HttpStatus.OK).success(true).data(vpas).build());
     }
 
+    // GET /upi/search?q=&limit=
+    // Prefix autocomplete: blank q gives an empty list, results are in VPA order and may be cached
+    // briefly by the client, so re-typed prefixes after a backspace need no round trip.
+    @GetMapping("/search")
+    public ResponseEntity<ResponseModel> searchVpas(@RequestParam(required = false) String q,
+                                                    @RequestParam(required = false) Integer limit) {
+        List<String> vpas = upiService.suggestVpas(q, limit);
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.maxAge(10, TimeUnit.SECONDS).cachePrivate())
+                .body(ResponseModel.builder().status(HttpStatus.OK).success(true).data(vpas).build());
+    }
+
     // Minimal DTOs for controller binding
     static class SendMoneyDto {
         public String fromVpa;
@@ -16,7 +16,7 @@ public class UserController {
 
     private final UserService userService;
     private final com.alien.bank.management.system.repository.AccountRepository accountRepository;
-    private final com.alien.bank.management.system.repository.TransactionRepository transactionRepository;
+    private final com.alien.bank.management.system.service.MonthlyRollupService monthlyRollupService;
     private final com.alien.bank.management.system.repository.UserRepository userRepository;
     private final com.alien.bank.management.system.service.RewardsService rewardsService;
 
@@ -64,15 +64,16 @@ public class UserController {
         ));
 
         java.util.List<com.alien.bank.management.system.entity.Account> accounts = accountRepository.findAllByUser(user);
+        java.util.List<Long> accountIds = accounts.stream().map(com.alien.bank.management.system.entity.Account::getId).toList();
         long txCount = 0;
         double maxTxn = 0;
         java.util.Date firstTx = null;
-        for (com.alien.bank.management.system.entity.Account a : accounts) {
-            java.util.List<com.alien.bank.management.system.entity.Transaction> txs = transactionRepository.findByAccountIdOrderByTimestampDesc(a.getId());
-            txCount += txs.size();
-            for (com.alien.bank.management.system.entity.Transaction t : txs) {
-                if (Math.abs(t.getAmount()) > Math.abs(maxTxn)) maxTxn = t.getAmount();
-                if (firstTx == null || t.getTimestamp().before(firstTx)) firstTx = t.getTimestamp();
+        if (!accountIds.isEmpty()) {
+            com.alien.bank.management.system.repository.AccountMonthlyRollupRepository.LifetimeTotalsProjection lifetime = monthlyRollupService.getLifetimeTotals(accountIds);
+            if (lifetime != null) {
+                txCount = lifetime.getTxCount() != null ? lifetime.getTxCount() : 0;
+                maxTxn = lifetime.getMaxAmount() != null ? lifetime.getMaxAmount() : 0;
+                firstTx = lifetime.getFirstTxnAt();
             }
         }
         int activeDays = 0;
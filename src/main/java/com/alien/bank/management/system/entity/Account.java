@@ -25,6 +25,12 @@ public class Account {
     @Column(nullable = false)
     private Double balance;
 
+    // Optimistic lock for balance writes; see OptimisticRetryExecutor
+    @Version
+    @Builder.Default
+    @Column(nullable = false)
+    private Long version = 0L;
+
     @ManyToOne
     @JoinColumn(name = "user_id", referencedColumnName = "id")
     private User user;
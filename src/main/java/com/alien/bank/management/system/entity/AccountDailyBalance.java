@@ -0,0 +1,68 @@
+package com.alien.bank.management.system.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Date;
+
+/**
+ * End-of-day balance snapshot for one account, kept up to date as transactions are recorded.
+ * Statement boundaries and totals for whole days are read from here instead of scanning the
+ * account's transactions.
+ */
+@Entity
+@Table(name = "account_daily_balance", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_account_daily_balance", columnNames = {"account_id", "balance_day"})
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AccountDailyBalance {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "account_id", nullable = false)
+    private Long accountId;
+
+    // "day" is a reserved word in H2
+    @Temporal(TemporalType.DATE)
+    @Column(name = "balance_day", nullable = false)
+    private Date day;
+
+    // balanceAfter of the last transaction of the day
+    @Column(name = "closing_balance", nullable = false)
+    private Double closingBalance;
+
+    @Column(name = "total_deposits", nullable = false)
+    @Builder.Default
+    private Double totalDeposits = 0.0;
+
+    @Column(name = "total_withdrawals", nullable = false)
+    @Builder.Default
+    private Double totalWithdrawals = 0.0;
+
+    @Column(name = "total_fees", nullable = false)
+    @Builder.Default
+    private Double totalFees = 0.0;
+
+    @Column(name = "total_interest", nullable = false)
+    @Builder.Default
+    private Double totalInterest = 0.0;
+
+    @Column(name = "tx_count", nullable = false)
+    @Builder.Default
+    private Long txCount = 0L;
+
+    // position of the transaction that set closingBalance, so out-of-order writes cannot move it back
+    @Temporal(TemporalType.TIMESTAMP)
+    @Column(name = "last_txn_at", nullable = false)
+    private Date lastTxnAt;
+
+    @Column(name = "last_txn_id", nullable = false)
+    private Long lastTxnId;
+}
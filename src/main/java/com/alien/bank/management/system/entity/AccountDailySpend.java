@@ -0,0 +1,38 @@
+package com.alien.bank.management.system.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Date;
+
+/**
+ * Outgoing amount (UPI sends and payments) of one account for one day. Incremented in the same
+ * transaction as the debit, so the daily limit is a keyed read instead of a SUM over the day's rows.
+ */
+@Entity
+@Table(name = "account_daily_spend", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_account_daily_spend", columnNames = {"account_id", "spend_day"})
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AccountDailySpend {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "account_id", nullable = false)
+    private Long accountId;
+
+    // "day" is a reserved word in H2
+    @Temporal(TemporalType.DATE)
+    @Column(name = "spend_day", nullable = false)
+    private Date day;
+
+    @Column(nullable = false)
+    private Double amount;
+}
@@ -0,0 +1,56 @@
+package com.alien.bank.management.system.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Date;
+
+/**
+ * Per-account, per-month, per-type totals, updated in the same transaction as each ledger write.
+ * Analytics, the profile summary and long statement ranges read these instead of raw transactions.
+ */
+@Entity
+@Table(name = "account_monthly_rollup", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_account_monthly_rollup", columnNames = {"account_id", "rollup_month", "type"})
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AccountMonthlyRollup {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "account_id", nullable = false)
+    private Long accountId;
+
+    // first day of the month ("month" is a reserved word in H2)
+    @Temporal(TemporalType.DATE)
+    @Column(name = "rollup_month", nullable = false)
+    private Date month;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private TransactionType type;
+
+    @Builder.Default
+    @Column(name = "total_amount", nullable = false)
+    private Double totalAmount = 0.0;
+
+    @Builder.Default
+    @Column(name = "tx_count", nullable = false)
+    private Long txCount = 0L;
+
+    // amount of the largest (by absolute value) transaction in the bucket
+    @Builder.Default
+    @Column(name = "max_amount", nullable = false)
+    private Double maxAmount = 0.0;
+
+    @Temporal(TemporalType.TIMESTAMP)
+    @Column(name = "first_txn_at", nullable = false)
+    private Date firstTxnAt;
+}
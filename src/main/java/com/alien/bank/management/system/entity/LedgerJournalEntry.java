@@ -0,0 +1,49 @@
+package com.alien.bank.management.system.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Date;
+
+/**
+ * One leg of a posting in the append-only ledger journal. Rows are never updated or deleted; an
+ * account's balance is the sum of its entries, and Account.balance / Transaction rows are a
+ * projection of them (see LedgerJournalServiceImpl).
+ */
+@Entity
+@Table(name = "ledger_journal", indexes = {
+        @Index(name = "idx_ledger_journal_account", columnList = "account_id, id")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class LedgerJournalEntry {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // groups the legs of one posting (both sides of a transfer)
+    @Column(name = "posting_id", nullable = false, length = 36)
+    private String postingId;
+
+    @Column(name = "account_id", nullable = false)
+    private Long accountId;
+
+    // null for the opening entry that carries the balance the account had when it joined the journal
+    @Enumerated(EnumType.STRING)
+    private TransactionType type;
+
+    // signed: credits positive, debits negative
+    @Column(nullable = false)
+    private Double amount;
+
+    private String notes;
+
+    @Temporal(TemporalType.TIMESTAMP)
+    @Column(name = "created_at", nullable = false)
+    private Date createdAt;
+}
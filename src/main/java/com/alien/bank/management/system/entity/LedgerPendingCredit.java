@@ -0,0 +1,45 @@
+package com.alien.bank.management.system.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Date;
+
+/**
+ * Credit leg of a transfer made by the partitioned ledger engine. It is inserted in the same
+ * transaction as the sender's debit and deleted in the transaction that credits the receiver, so a
+ * crash between the two leaves the row behind to be applied on startup
+ * (see PartitionedLedgerServiceImpl).
+ */
+@Entity
+@Table(name = "ledger_pending_credit", indexes = {
+        @Index(name = "idx_ledger_pending_credit_account", columnList = "account_id, id")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class LedgerPendingCredit {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "account_id", nullable = false)
+    private Long accountId;
+
+    @Column(nullable = false)
+    private Double amount;
+
+    private String notes;
+
+    // TRANSFER_OUT row of the sender that this credit pairs with
+    @Column(name = "debit_transaction_id", nullable = false)
+    private Long debitTransactionId;
+
+    @Temporal(TemporalType.TIMESTAMP)
+    @Column(name = "created_at", nullable = false)
+    private Date createdAt;
+}
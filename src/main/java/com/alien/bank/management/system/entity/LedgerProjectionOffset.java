@@ -0,0 +1,26 @@
+package com.alien.bank.management.system.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Last journal entry applied to an account's projection. Advanced in the same transaction as the
+ * Account.balance update, so every entry is applied exactly once.
+ */
+@Entity
+@Table(name = "ledger_projection_offset")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class LedgerProjectionOffset {
+    @Id
+    @Column(name = "account_id")
+    private Long accountId;
+
+    @Column(name = "last_entry_id", nullable = false)
+    private Long lastEntryId;
+}
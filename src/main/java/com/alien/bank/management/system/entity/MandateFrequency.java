@@ -0,0 +1,23 @@
+package com.alien.bank.management.system.entity;
+
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.Date;
+
+public enum MandateFrequency {
+    DAILY,
+    WEEKLY,
+    MONTHLY;
+
+    // Counted from the first run rather than the previous one, so a mandate starting on the 31st
+    // runs on the last day of shorter months and returns to the 31st afterwards
+    public Date occurrence(Date start, int cycle) {
+        ZonedDateTime first = start.toInstant().atZone(ZoneId.systemDefault());
+        ZonedDateTime at = switch (this) {
+            case DAILY -> first.plusDays(cycle);
+            case WEEKLY -> first.plusWeeks(cycle);
+            case MONTHLY -> first.plusMonths(cycle);
+        };
+        return Date.from(at.toInstant());
+    }
+}
@@ -12,7 +12,8 @@ import java.util.Date;
 
 @Entity
 @Table(name = "reward_ledger", indexes = {
-        @Index(name = "idx_reward_ledger_user_created", columnList = "user_id, created_at")
+        @Index(name = "idx_reward_ledger_user_created", columnList = "user_id, created_at"),
+        @Index(name = "idx_reward_ledger_payment", columnList = "payment_id")
 })
 @Data
 @NoArgsConstructor
@@ -20,7 +21,8 @@ import java.util.Date;
 @Builder
 public class RewardLedger {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "reward_ledger_seq")
+    @SequenceGenerator(name = "reward_ledger_seq", sequenceName = "reward_ledger_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(optional = false)
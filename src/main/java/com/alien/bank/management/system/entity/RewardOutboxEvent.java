@@ -0,0 +1,52 @@
+package com.alien.bank.management.system.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.util.Date;
+
+/**
+ * A payment's reward accrual, written in the payment transaction and applied to the wallet, ledger
+ * and daily summary later by the outbox relay. The unique payment_id makes queueing idempotent; the
+ * relay deletes the row in the transaction that applies it.
+ */
+@Entity
+@Table(name = "reward_outbox", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_reward_outbox_payment", columnNames = {"payment_id"})
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RewardOutboxEvent {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "reward_outbox_seq")
+    @SequenceGenerator(name = "reward_outbox_seq", sequenceName = "reward_outbox_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "payment_id", nullable = false)
+    private Long paymentId;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(nullable = false)
+    private Integer coins;
+
+    // the payment's time; the daily bonus counts it on this day, whenever the relay gets to it
+    @Temporal(TemporalType.TIMESTAMP)
+    @Column(name = "created_at", nullable = false)
+    private Date createdAt;
+
+    // failed relay attempts; past rewards.outbox.max-attempts the event is left for inspection
+    @Column(nullable = false)
+    private int attempts;
+
+    @Column(name = "last_error", length = 255)
+    private String lastError;
+
+    @PrePersist
+    void onCreate() {
+        if (createdAt == null) createdAt = new Date();
+    }
+}
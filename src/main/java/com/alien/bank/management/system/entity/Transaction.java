@@ -16,8 +16,10 @@ import java.util.Date;
 @Builder
 public class Transaction {
 
+    // ids come from a pooled block of 50 (a next_val table on MySQL), so inserts can be JDBC-batched
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "transaction_seq")
+    @SequenceGenerator(name = "transaction_seq", sequenceName = "transaction_seq", allocationSize = 50)
     private Long id;
 
     // store the operation kind
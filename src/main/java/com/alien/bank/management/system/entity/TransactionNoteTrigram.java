@@ -0,0 +1,36 @@
+package com.alien.bank.management.system.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Inverted index over transaction notes: one row per distinct trigram of a transaction's notes.
+ * Not unique on purpose: case/accent-insensitive collations may treat two distinct trigrams as equal.
+ */
+@Entity
+@Table(name = "transaction_note_trigram", indexes = {
+        @Index(name = "idx_note_trigram_lookup", columnList = "account_id, trigram, transaction_id"),
+        // where an account's index starts, see NotesSearchService.getIndexedFrom
+        @Index(name = "idx_note_trigram_account_txn", columnList = "account_id, transaction_id")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TransactionNoteTrigram {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "account_id", nullable = false)
+    private Long accountId;
+
+    @Column(nullable = false, length = 3)
+    private String trigram;
+
+    @Column(name = "transaction_id", nullable = false)
+    private Long transactionId;
+}
@@ -0,0 +1,115 @@
+package com.alien.bank.management.system.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.util.Date;
+
+/**
+ * A recurring UPI send the payer authorized once with their PIN. Runs are found by next_run_at,
+ * which is the next cycle's date or, after a failed attempt, the retry time. running_since is set
+ * while one instance executes a run and doubles as the claim.
+ */
+@Entity
+@Table(name = "upi_mandate", indexes = {
+        // due scan for the scheduler and the due-window counts
+        @Index(name = "idx_upi_mandate_due", columnList = "status, next_run_at"),
+        @Index(name = "idx_upi_mandate_payer", columnList = "payer_vpa")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class UpiMandate {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "upi_mandate_seq")
+    @SequenceGenerator(name = "upi_mandate_seq", sequenceName = "upi_mandate_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "payer_vpa", nullable = false, length = 100)
+    private String payerVpa;
+
+    @Column(name = "payee_vpa", nullable = false, length = 100)
+    private String payeeVpa;
+
+    // runs are dispatched grouped by this account
+    @Column(name = "payer_account_id", nullable = false)
+    private Long payerAccountId;
+
+    @Column(nullable = false)
+    private Double amount;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private MandateFrequency frequency;
+
+    private String note;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    @Builder.Default
+    private UpiMandateStatus status = UpiMandateStatus.ACTIVE;
+
+    @Temporal(TemporalType.TIMESTAMP)
+    @Column(name = "start_at", nullable = false)
+    private Date startAt;
+
+    // last day a run may happen; null runs until cancelled
+    @Temporal(TemporalType.TIMESTAMP)
+    @Column(name = "end_at")
+    private Date endAt;
+
+    // index of the cycle due next, counted from startAt
+    @Column(name = "cycle_no", nullable = false)
+    @Builder.Default
+    private Integer cycle = 0;
+
+    // null once the mandate has completed; only ACTIVE mandates are scanned
+    @Temporal(TemporalType.TIMESTAMP)
+    @Column(name = "next_run_at")
+    private Date nextRunAt;
+
+    // failed attempts of the current cycle
+    @Column(nullable = false)
+    @Builder.Default
+    private Integer attempts = 0;
+
+    @Temporal(TemporalType.TIMESTAMP)
+    @Column(name = "running_since")
+    private Date runningSince;
+
+    // Bumped by every claim and status change too, so a run's write-back and crash recovery cannot
+    // both record an outcome for the same claim
+    @Version
+    @Builder.Default
+    @Column(nullable = false)
+    private Long version = 0L;
+
+    @Column(nullable = false)
+    @Builder.Default
+    private Integer runs = 0;
+
+    // cycles given up after the last retry, interrupted, or missed while the scheduler was down
+    @Column(name = "skipped_runs", nullable = false)
+    @Builder.Default
+    private Integer skippedRuns = 0;
+
+    @Temporal(TemporalType.TIMESTAMP)
+    @Column(name = "last_run_at")
+    private Date lastRunAt;
+
+    @Column(name = "last_transaction_id")
+    private Long lastTransactionId;
+
+    @Column(name = "last_failure_reason", length = 50)
+    private String lastFailureReason;
+
+    @Temporal(TemporalType.TIMESTAMP)
+    @Column(name = "created_at", nullable = false)
+    private Date createdAt;
+
+    @PrePersist
+    void onCreate() {
+        if (createdAt == null) createdAt = new Date();
+    }
+}
@@ -0,0 +1,8 @@
+package com.alien.bank.management.system.entity;
+
+public enum UpiMandateStatus {
+    ACTIVE,
+    PAUSED,
+    CANCELLED,
+    COMPLETED
+}
@@ -6,14 +6,22 @@ import lombok.*;
 import java.util.Date;
 
 @Entity
-@Table(name = "upi_request")
+@Table(name = "upi_request", indexes = {
+        // payer inbox: pending requests newest first
+        @Index(name = "idx_upi_request_inbox", columnList = "payer_vpa, status, created_at"),
+        // expiry sweeper
+        @Index(name = "idx_upi_request_expiry", columnList = "status, expires_at"),
+        // split-bill settlement tracking
+        @Index(name = "idx_upi_request_group", columnList = "group_id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
 public class UpiRequest {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "upi_request_seq")
+    @SequenceGenerator(name = "upi_request_seq", sequenceName = "upi_request_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "payer_vpa", nullable = false, length = 100)
@@ -34,6 +42,15 @@ public class UpiRequest {
     @Column(name = "created_at")
     private Date createdAt;
 
+    // null for requests created before expiry existed; those never expire
+    @Temporal(TemporalType.TIMESTAMP)
+    @Column(name = "expires_at")
+    private Date expiresAt;
+
+    // Shared by the requests of one split bill; null for single collect requests
+    @Column(name = "group_id", length = 36)
+    private String groupId;
+
     @PrePersist
     void onCreate() {
         if (createdAt == null) createdAt = new Date();
@@ -3,7 +3,8 @@ package com.alien.bank.management.system.entity;
 public enum UpiRequestStatus {
     PENDING,
     APPROVED,
-    REJECTED
+    REJECTED,
+    EXPIRED
 }
 
 
@@ -0,0 +1,66 @@
+package com.alien.bank.management.system.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.util.Date;
+
+/**
+ * An accepted asynchronous UPI send. The row is the durable queue: it is written when the request
+ * is accepted and moved to COMPLETED or FAILED by the transfer worker, so QUEUED rows left by a
+ * restart are picked up again.
+ */
+@Entity
+@Table(name = "upi_transfer", indexes = {
+        @Index(name = "idx_upi_transfer_status", columnList = "status, id")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class UpiTransfer {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "upi_transfer_seq")
+    @SequenceGenerator(name = "upi_transfer_seq", sequenceName = "upi_transfer_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(nullable = false, unique = true, length = 36)
+    private String reference;
+
+    @Column(name = "from_vpa", nullable = false, length = 100)
+    private String fromVpa;
+
+    @Column(name = "to_vpa", nullable = false, length = 100)
+    private String toVpa;
+
+    @Column(name = "from_account_id", nullable = false)
+    private Long fromAccountId;
+
+    @Column(name = "to_account_id", nullable = false)
+    private Long toAccountId;
+
+    @Column(nullable = false)
+    private Double amount;
+
+    private String note;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    @Builder.Default
+    private UpiTransferStatus status = UpiTransferStatus.QUEUED;
+
+    // sender's debit transaction once COMPLETED
+    @Column(name = "transaction_id")
+    private Long transactionId;
+
+    @Column(name = "failure_reason")
+    private String failureReason;
+
+    @Temporal(TemporalType.TIMESTAMP)
+    @Column(name = "created_at", nullable = false)
+    private Date createdAt;
+
+    @Temporal(TemporalType.TIMESTAMP)
+    @Column(name = "completed_at")
+    private Date completedAt;
+}
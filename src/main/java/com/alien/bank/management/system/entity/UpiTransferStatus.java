@@ -0,0 +1,8 @@
+package com.alien.bank.management.system.entity;
+
+public enum UpiTransferStatus {
+    QUEUED,
+    PROCESSING,
+    COMPLETED,
+    FAILED
+}
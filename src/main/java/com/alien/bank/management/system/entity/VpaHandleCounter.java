@@ -0,0 +1,26 @@
+package com.alien.bank.management.system.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Next numeric suffix to hand out for a VPA handle (suffix 0 is the bare handle@mybank), so
+ * allocating a VPA for a popular handle is one keyed increment instead of probing every suffix.
+ */
+@Entity
+@Table(name = "vpa_handle_counter")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class VpaHandleCounter {
+    @Id
+    @Column(length = 100)
+    private String handle;
+
+    @Column(name = "next_suffix", nullable = false)
+    private Long nextSuffix;
+}
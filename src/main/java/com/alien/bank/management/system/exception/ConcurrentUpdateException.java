@@ -0,0 +1,8 @@
+package com.alien.bank.management.system.exception;
+
+// Thrown when an optimistic update still conflicts after the configured number of retries
+public class ConcurrentUpdateException extends RuntimeException {
+    public ConcurrentUpdateException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
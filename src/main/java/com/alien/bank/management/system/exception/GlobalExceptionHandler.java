@@ -3,6 +3,7 @@ package com.alien.bank.management.system.exception;
 import com.alien.bank.management.system.model.ResponseModel;
 import jakarta.persistence.EntityExistsException;
 import jakarta.persistence.EntityNotFoundException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationCredentialsNotFoundException;
@@ -186,6 +187,41 @@ public class GlobalExceptionHandler {
                         .build());
     }
 
+    @ExceptionHandler(ConcurrentUpdateException.class)
+    @ResponseStatus(HttpStatus.CONFLICT)
+    @ResponseBody
+    public ResponseEntity<ResponseModel> handleConcurrentUpdate(ConcurrentUpdateException ex) {
+        Map<String, Object> body = new HashMap<>();
+        body.put("error", "CONCURRENT_UPDATE");
+        return ResponseEntity
+                .status(HttpStatus.CONFLICT)
+                .body(ResponseModel
+                        .builder()
+                        .status(HttpStatus.CONFLICT)
+                        .success(false)
+                        .data(body)
+                        .errors(ex.getMessage())
+                        .build());
+    }
+
+    @ExceptionHandler(ServiceBusyException.class)
+    @ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+    @ResponseBody
+    public ResponseEntity<ResponseModel> handleServiceBusy(ServiceBusyException ex) {
+        Map<String, Object> body = new HashMap<>();
+        body.put("error", "SERVICE_BUSY");
+        return ResponseEntity
+                .status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(ResponseModel
+                        .builder()
+                        .status(HttpStatus.SERVICE_UNAVAILABLE)
+                        .success(false)
+                        .data(body)
+                        .errors(ex.getMessage())
+                        .build());
+    }
+
     @ExceptionHandler(InsufficientCoinsException.class)
     @ResponseStatus(HttpStatus.CONFLICT)
     @ResponseBody
@@ -0,0 +1,8 @@
+package com.alien.bank.management.system.exception;
+
+// Thrown when a bounded worker pool is saturated and the request is shed instead of queued
+public class ServiceBusyException extends RuntimeException {
+    public ServiceBusyException(String message) {
+        super(message);
+    }
+}
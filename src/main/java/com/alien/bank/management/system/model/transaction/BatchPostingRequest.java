@@ -0,0 +1,44 @@
+package com.alien.bank.management.system.model.transaction;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+// Back-office bulk run (salary, cashback): postings are applied in order, each one succeeds or fails on its own
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BatchPostingRequest {
+
+    public static final int MAX_POSTINGS = 5000;
+
+    @NotEmpty(message = "At least one posting is required")
+    @Size(max = MAX_POSTINGS, message = "At most " + MAX_POSTINGS + " postings per batch")
+    @Valid
+    private List<Posting> postings;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class Posting {
+        @NotNull(message = "Account ID is required")
+        private Long accountId;
+
+        @NotNull(message = "Type is required")
+        private String type; // DEPOSIT or WITHDRAW
+
+        @NotNull(message = "Amount is required")
+        private Double amount;
+
+        private String notes;
+    }
+}
@@ -0,0 +1,32 @@
+package com.alien.bank.management.system.model.transaction;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BatchPostingResponse {
+    private Integer total;
+    private Integer succeeded;
+    private Integer failed;
+    private List<PostingResult> results;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class PostingResult {
+        private Integer index;       // position in the request
+        private Long accountId;
+        private String status;       // SUCCESS or FAILED
+        private Long transactionId;
+        private Double balanceAfter;
+        private String error;
+    }
+}
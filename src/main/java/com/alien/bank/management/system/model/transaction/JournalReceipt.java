@@ -0,0 +1,23 @@
+package com.alien.bank.management.system.model.transaction;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Result of a journal posting for the account that initiated it. In fast mode the receipt is
+ * returned once the journal append commits, so transactionId is null until the projection runs;
+ * balanceAfter is always the journal balance right after this posting.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder(toBuilder = true)
+public class JournalReceipt {
+    private String postingId;
+    private Long entryId;
+    private Long transactionId;
+    private Double balanceAfter;
+    private boolean projected;
+}
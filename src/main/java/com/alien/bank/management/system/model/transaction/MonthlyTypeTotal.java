@@ -0,0 +1,18 @@
+package com.alien.bank.management.system.model.transaction;
+
+import com.alien.bank.management.system.entity.TransactionType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class MonthlyTypeTotal {
+    private String month; // yyyy-MM
+    private TransactionType type;
+    private Double totalAmount;
+    private Long txCount;
+}
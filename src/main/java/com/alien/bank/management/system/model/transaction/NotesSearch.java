@@ -0,0 +1,51 @@
+package com.alien.bank.management.system.model.transaction;
+
+import com.alien.bank.management.system.utils.NoteTrigrams;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * A compiled notes filter for the statement queries: the LIKE pattern applied to " " + lower(notes)
+ * and the trigrams a matching row must have in transaction_note_trigram. Transactions with an id
+ * below indexedFrom predate the index (history not yet backfilled) and are matched by the LIKE alone.
+ */
+@Getter
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class NotesSearch {
+
+    public static final String MODE_CONTAINS = "CONTAINS";
+    public static final String MODE_PREFIX = "PREFIX"; // some word of the notes starts with the text
+
+    // JPQL "IN ()" is not portable, so an unused gram list still carries one value that never matches
+    private static final List<String> NO_GRAMS = List.of("");
+
+    private final String pattern;
+    private final List<String> grams;
+    private final long gramCount;
+    private final long indexedFrom;
+
+    public static NotesSearch none() {
+        return new NotesSearch(null, NO_GRAMS, 0, 0);
+    }
+
+    public static NotesSearch of(String searchText, String mode) {
+        if (searchText == null || searchText.isBlank()) {
+            return none();
+        }
+        String term = searchText.trim().toLowerCase(Locale.ROOT);
+        String pattern = MODE_PREFIX.equalsIgnoreCase(mode) ? " " + term : term;
+        // Terms shorter than a trigram cannot use the index and fall back to the LIKE alone
+        List<String> grams = new ArrayList<>(NoteTrigrams.of(pattern));
+        return grams.isEmpty() ? new NotesSearch(pattern, NO_GRAMS, 0, 0) : new NotesSearch(pattern, grams, grams.size(), 0);
+    }
+
+    // Same search, for an account whose notes index starts at the given transaction id
+    public NotesSearch indexedFrom(long firstIndexedId) {
+        return new NotesSearch(pattern, grams, gramCount, firstIndexedId);
+    }
+}
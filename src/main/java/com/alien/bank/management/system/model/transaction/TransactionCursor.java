@@ -0,0 +1,55 @@
+package com.alien.bank.management.system.model.transaction;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Date;
+
+/**
+ * Keyset position inside an account's transactions: the (timestamp, id) of a boundary row
+ * plus which way to read from it. Clients only ever see the opaque encoded form.
+ */
+@Getter
+@AllArgsConstructor
+public class TransactionCursor {
+
+    private static final String VERSION = "v1";
+
+    private final long timestamp;
+    private final long id;
+    // true = continue past this row in the listing order, false = go back before it
+    private final boolean forward;
+
+    public static TransactionCursor after(Date timestamp, Long id) {
+        return new TransactionCursor(timestamp.getTime(), id, true);
+    }
+
+    public static TransactionCursor before(Date timestamp, Long id) {
+        return new TransactionCursor(timestamp.getTime(), id, false);
+    }
+
+    public Date getTimestampAsDate() {
+        return new Date(timestamp);
+    }
+
+    public String encode() {
+        String raw = VERSION + ":" + timestamp + ":" + id + ":" + (forward ? "N" : "P");
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static TransactionCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split(":");
+            if (parts.length != 4 || !VERSION.equals(parts[0])) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            return new TransactionCursor(Long.parseLong(parts[1]), Long.parseLong(parts[2]), "N".equals(parts[3]));
+        } catch (IllegalArgumentException e) {
+            // also covers NumberFormatException and bad base64
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+}
@@ -17,4 +17,5 @@ public class TransactionHistoryItem {
     private Double amount;
     private Date dateTime;
     private Double balanceAfter;
+    private String notes;
 }
\ No newline at end of file
@@ -0,0 +1,20 @@
+package com.alien.bank.management.system.model.transaction;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+// One newest-first slice of an account's history; pass nextCursor back to continue
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TransactionHistoryPage {
+    private List<TransactionHistoryItem> items;
+    private Integer limit;
+    private Boolean hasMore;
+    private String nextCursor;
+}
@@ -34,8 +34,11 @@ public class TransactionStatementRequest {
     // Transaction type filtering
     private List<String> transactionTypes;
     
-    // Search by notes
+    // Search by notes (payee VPAs like "To x@mybank" included); uses the notes trigram index
     private String searchText;
+
+    @Builder.Default
+    private String searchMode = "CONTAINS"; // CONTAINS or PREFIX (a word in the notes starts with searchText)
     
     // Pagination
     @Min(value = 1, message = "Page number must be at least 1")
@@ -52,4 +55,15 @@ public class TransactionStatementRequest {
     
     @Builder.Default
     private String sortDirection = "DESC"; // ASC or DESC
+
+    // Keyset pagination: CURSOR seeks on (timestamp, id) and ignores page; OFFSET uses page/pageSize
+    @Builder.Default
+    private String paginationMode = "OFFSET"; // OFFSET or CURSOR
+
+    // Opaque nextCursor/prevCursor from a previous CURSOR response
+    private String cursor;
+
+    // CURSOR mode skips the COUNT(*) unless this is set
+    @Builder.Default
+    private Boolean includeTotal = false;
 }
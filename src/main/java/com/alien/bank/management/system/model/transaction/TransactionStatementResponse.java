@@ -59,6 +59,9 @@ public class TransactionStatementResponse {
         private Long totalElements;
         private Boolean hasNext;
         private Boolean hasPrevious;
+        // Set in CURSOR mode; pass back as request.cursor to move forward/back
+        private String nextCursor;
+        private String prevCursor;
     }
     
     @Data
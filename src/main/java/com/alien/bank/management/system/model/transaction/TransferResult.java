@@ -0,0 +1,17 @@
+package com.alien.bank.management.system.model.transaction;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TransferResult {
+    private Long debitTransactionId;
+    private Long creditTransactionId;
+    private Double senderBalance;
+    private Double receiverBalance;
+}
@@ -0,0 +1,44 @@
+package com.alien.bank.management.system.model.upi;
+
+import com.alien.bank.management.system.entity.MandateFrequency;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Date;
+
+/**
+ * A recurring send from one of the caller's VPAs. The PIN authorizes every future run and is not
+ * stored. startAt defaults to now; endAt is optional.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CreateMandateRequest {
+    @NotBlank(message = "Payer VPA is required")
+    private String payerVpa;
+
+    @NotBlank(message = "Payee VPA is required")
+    private String payeeVpa;
+
+    @NotNull(message = "Amount is required")
+    @Positive(message = "Amount must be positive")
+    private Double amount;
+
+    @NotNull(message = "Frequency is required")
+    private MandateFrequency frequency;
+
+    private Date startAt;
+
+    private Date endAt;
+
+    private String note;
+
+    @NotBlank(message = "PIN is required")
+    private String pin;
+}
@@ -0,0 +1,7 @@
+package com.alien.bank.management.system.model.upi;
+
+import java.util.Date;
+
+// What the scheduler keeps per loaded mandate; the run itself re-reads the row
+public record DueMandate(Long id, Long payerAccountId, Date nextRunAt) {
+}
@@ -0,0 +1,48 @@
+package com.alien.bank.management.system.model.upi;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * One payee collecting from several payers. Either every share carries its own amount, or none
+ * does and totalAmount is split equally (leftover paise go to the first payers).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SplitBillRequest {
+    @NotBlank(message = "Payee VPA is required")
+    private String payeeVpa;
+
+    @Positive(message = "Total amount must be positive")
+    private Double totalAmount;
+
+    @NotEmpty(message = "At least one payer is required")
+    @Size(max = 100, message = "A split bill can have at most 100 payers")
+    @Valid
+    private List<Share> payers;
+
+    private String reason;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class Share {
+        @NotBlank(message = "Payer VPA is required")
+        private String payerVpa;
+
+        @Positive(message = "Amount must be positive")
+        private Double amount;
+    }
+}
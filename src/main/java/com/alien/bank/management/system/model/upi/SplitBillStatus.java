@@ -0,0 +1,28 @@
+package com.alien.bank.management.system.model.upi;
+
+import com.alien.bank.management.system.entity.UpiRequest;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+// Settlement of one split bill, built from its collect requests
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SplitBillStatus {
+    private String groupId;
+    private String payeeVpa;
+    private Double totalAmount;
+    private Double collectedAmount;
+    private Integer pending;
+    private Integer approved;
+    private Integer rejected;
+    private Integer expired;
+    // every request approved
+    private Boolean settled;
+    private List<UpiRequest> requests;
+}
@@ -0,0 +1,21 @@
+package com.alien.bank.management.system.model.upi;
+
+import com.alien.bank.management.system.entity.UpiRequest;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+// One newest-first slice of a payer's pending collect requests; pass nextCursor back to continue
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class UpiRequestPage {
+    private List<UpiRequest> items;
+    private Integer limit;
+    private Boolean hasMore;
+    private String nextCursor;
+}
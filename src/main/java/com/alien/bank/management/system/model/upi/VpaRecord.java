@@ -0,0 +1,23 @@
+package com.alien.bank.management.system.model.upi;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * What UPI flows need to know about a VPA, without the User/Account graph. pinHash is the VPA's own
+ * UPI PIN hash, falling back to the owner's global one.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class VpaRecord {
+    private Long id;
+    private String vpa;
+    private Long userId;
+    private Long accountId;
+    private String pinHash;
+    private Boolean isDefault;
+}
@@ -0,0 +1,50 @@
+package com.alien.bank.management.system.repository;
+
+import com.alien.bank.management.system.entity.AccountDailyBalance;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import jakarta.persistence.LockModeType;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+
+public interface AccountDailyBalanceRepository extends JpaRepository<AccountDailyBalance, Long> {
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select d from AccountDailyBalance d where d.accountId = ?1 and d.day = ?2")
+    Optional<AccountDailyBalance> findByAccountIdAndDayForUpdate(Long accountId, Date day);
+
+    // Batch variant: every snapshot of the given accounts for one day, locked in account order
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select d from AccountDailyBalance d where d.accountId in :accountIds and d.day = :day order by d.accountId")
+    List<AccountDailyBalance> findAllForUpdate(@Param("accountIds") Collection<Long> accountIds, @Param("day") Date day);
+
+    // Latest snapshot strictly before the given day (unique key seek, LIMIT 1)
+    Optional<AccountDailyBalance> findFirstByAccountIdAndDayLessThanOrderByDayDesc(Long accountId, Date day);
+
+    // Oldest snapshot of the account: tells how far back the snapshots reach
+    Optional<AccountDailyBalance> findFirstByAccountIdOrderByDayAsc(Long accountId);
+
+    // Totals over whole days in [fromDay, toDayExclusive)
+    @Query("SELECT " +
+           "COALESCE(SUM(d.txCount), 0) as totalTransactions, " +
+           "COALESCE(SUM(d.totalDeposits), 0) as totalDeposits, " +
+           "COALESCE(SUM(d.totalWithdrawals), 0) as totalWithdrawals, " +
+           "COALESCE(SUM(d.totalFees), 0) as totalFees, " +
+           "COALESCE(SUM(d.totalInterest), 0) as totalInterest " +
+           "FROM AccountDailyBalance d WHERE d.accountId = :accountId AND d.day >= :fromDay AND d.day < :toDayExclusive")
+    TransactionRepository.TransactionSummaryProjection sumDays(
+            @Param("accountId") Long accountId,
+            @Param("fromDay") Date fromDay,
+            @Param("toDayExclusive") Date toDayExclusive
+    );
+
+    @Modifying
+    @Query("delete from AccountDailyBalance d where d.accountId = ?1")
+    int deleteByAccountId(Long accountId);
+}
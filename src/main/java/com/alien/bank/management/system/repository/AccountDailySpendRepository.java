@@ -0,0 +1,30 @@
+package com.alien.bank.management.system.repository;
+
+import com.alien.bank.management.system.entity.AccountDailySpend;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.Temporal;
+import org.springframework.data.repository.query.Param;
+
+import jakarta.persistence.TemporalType;
+import java.util.Date;
+import java.util.Optional;
+
+public interface AccountDailySpendRepository extends JpaRepository<AccountDailySpend, Long> {
+
+    Optional<AccountDailySpend> findByAccountIdAndDay(Long accountId, Date day);
+
+    // Check-and-increment in one statement; 0 rows means no counter yet or the limit would be exceeded.
+    // Native because Hibernate 6.1 renders double parameters in JPQL arithmetic as an invalid cast on H2.
+    @Modifying
+    @Query(value = "UPDATE account_daily_spend SET amount = amount + :amount " +
+                   "WHERE account_id = :accountId AND spend_day = :day AND amount + :amount <= :limit", nativeQuery = true)
+    int addWithinLimit(@Param("accountId") Long accountId, @Param("day") @Temporal(TemporalType.DATE) Date day,
+                       @Param("amount") double amount, @Param("limit") double limit);
+
+    @Modifying
+    @Query(value = "UPDATE account_daily_spend SET amount = CASE WHEN amount > :amount THEN amount - :amount ELSE 0 END " +
+                   "WHERE account_id = :accountId AND spend_day = :day", nativeQuery = true)
+    int subtract(@Param("accountId") Long accountId, @Param("day") @Temporal(TemporalType.DATE) Date day, @Param("amount") double amount);
+}
@@ -0,0 +1,68 @@
+package com.alien.bank.management.system.repository;
+
+import com.alien.bank.management.system.entity.AccountMonthlyRollup;
+import com.alien.bank.management.system.entity.TransactionType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import jakarta.persistence.LockModeType;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+
+public interface AccountMonthlyRollupRepository extends JpaRepository<AccountMonthlyRollup, Long> {
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select r from AccountMonthlyRollup r where r.accountId = ?1 and r.month = ?2 and r.type = ?3")
+    Optional<AccountMonthlyRollup> findForUpdate(Long accountId, Date month, TransactionType type);
+
+    // Batch variant: every rollup of the given accounts for one month, locked in account order
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select r from AccountMonthlyRollup r where r.accountId in :accountIds and r.month = :month order by r.accountId, r.type")
+    List<AccountMonthlyRollup> findAllForUpdate(@Param("accountIds") Collection<Long> accountIds, @Param("month") Date month);
+
+    // Rollups for whole months in [fromMonth, toMonthExclusive), oldest first
+    @Query("select r from AccountMonthlyRollup r where r.accountId = :accountId " +
+           "and r.month >= :fromMonth and r.month < :toMonthExclusive order by r.month asc")
+    List<AccountMonthlyRollup> findMonths(
+            @Param("accountId") Long accountId,
+            @Param("fromMonth") Date fromMonth,
+            @Param("toMonthExclusive") Date toMonthExclusive
+    );
+
+    // Statement-style totals over whole months in [fromMonth, toMonthExclusive)
+    @Query("SELECT " +
+           "COALESCE(SUM(r.txCount), 0) as totalTransactions, " +
+           "COALESCE(SUM(CASE WHEN r.type = com.alien.bank.management.system.entity.TransactionType.DEPOSIT THEN r.totalAmount ELSE 0 END), 0) as totalDeposits, " +
+           "COALESCE(SUM(CASE WHEN r.type = com.alien.bank.management.system.entity.TransactionType.WITHDRAW THEN r.totalAmount ELSE 0 END), 0) as totalWithdrawals, " +
+           "COALESCE(SUM(CASE WHEN r.type = com.alien.bank.management.system.entity.TransactionType.FEE THEN r.totalAmount ELSE 0 END), 0) as totalFees, " +
+           "COALESCE(SUM(CASE WHEN r.type = com.alien.bank.management.system.entity.TransactionType.INTEREST THEN r.totalAmount ELSE 0 END), 0) as totalInterest " +
+           "FROM AccountMonthlyRollup r WHERE r.accountId = :accountId AND r.month >= :fromMonth AND r.month < :toMonthExclusive")
+    TransactionRepository.TransactionSummaryProjection sumMonths(
+            @Param("accountId") Long accountId,
+            @Param("fromMonth") Date fromMonth,
+            @Param("toMonthExclusive") Date toMonthExclusive
+    );
+
+    // Oldest rollup of the account: tells how far back the rollups reach
+    Optional<AccountMonthlyRollup> findFirstByAccountIdOrderByMonthAsc(Long accountId);
+
+    // Totals of one account over the months from fromMonth on
+    @Query("SELECT COALESCE(SUM(r.txCount), 0) as txCount, MAX(r.maxAmount) as maxAmount, MIN(r.firstTxnAt) as firstTxnAt " +
+           "FROM AccountMonthlyRollup r WHERE r.accountId = :accountId AND r.month >= :fromMonth")
+    LifetimeTotalsProjection getLifetimeTotalsFrom(@Param("accountId") Long accountId, @Param("fromMonth") Date fromMonth);
+
+    @Modifying
+    @Query("delete from AccountMonthlyRollup r where r.accountId = ?1")
+    int deleteByAccountId(Long accountId);
+
+    interface LifetimeTotalsProjection {
+        Long getTxCount();
+        Double getMaxAmount();
+        Date getFirstTxnAt();
+    }
+}
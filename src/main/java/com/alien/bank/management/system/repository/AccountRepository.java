@@ -5,7 +5,9 @@ import com.alien.bank.management.system.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
 
 import java.util.List;
 import java.util.Optional;
@@ -17,7 +19,14 @@ public interface AccountRepository extends JpaRepository<Account, Long> {
     
     long countByUser(User user);
 
+    boolean existsByIdAndUser(Long id, User user);
+
+    @Query("select a.id from Account a order by a.id")
+    List<Long> findAllIds();
+
+    // Gives up after 3s instead of the database default; callers retry through OptimisticRetryExecutor
     @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "3000"))
     @Query("select a from Account a where a.id = ?1")
     Optional<Account> findByIdForUpdate(Long id);
 }
@@ -0,0 +1,158 @@
+package com.alien.bank.management.system.repository;
+
+import com.alien.bank.management.system.entity.LedgerPendingCredit;
+import com.alien.bank.management.system.entity.Transaction;
+import com.alien.bank.management.system.entity.TransactionNoteTrigram;
+import com.alien.bank.management.system.entity.UpiRequest;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.*;
+
+/**
+ * JDBC batch statements for bulk ledger postings. Everything here runs on the connection of the
+ * surrounding JPA transaction, but bypasses the persistence context: callers must not hold
+ * managed Account entities for the rows they update.
+ */
+@Repository
+@RequiredArgsConstructor
+public class LedgerBatchRepository {
+
+    // Keeps IN lists and batches within what every driver handles comfortably
+    private static final int CHUNK = 500;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+    private final EntityManager entityManager;
+
+    /** Locks the accounts in ascending id order and returns their current balances. */
+    public Map<Long, Double> lockBalances(Collection<Long> accountIds) {
+        List<Long> ordered = new ArrayList<>(new TreeSet<>(accountIds));
+        Map<Long, Double> balances = new HashMap<>();
+        for (int i = 0; i < ordered.size(); i += CHUNK) {
+            List<Long> chunk = ordered.subList(i, Math.min(i + CHUNK, ordered.size()));
+            namedParameterJdbcTemplate.query(
+                    "SELECT id, balance FROM account WHERE id IN (:ids) ORDER BY id FOR UPDATE",
+                    new MapSqlParameterSource("ids", chunk),
+                    (ResultSet rs) -> {
+                        balances.put(rs.getLong("id"), rs.getDouble("balance"));
+                    });
+        }
+        return balances;
+    }
+
+    public void updateBalances(Map<Long, Double> balances) {
+        List<Object[]> args = new ArrayList<>(balances.size());
+        new TreeMap<>(balances).forEach((id, balance) -> args.add(new Object[]{balance, id}));
+        jdbcTemplate.batchUpdate("UPDATE account SET balance = ?, version = version + 1 WHERE id = ?", args);
+    }
+
+    /** Inserts the rows in batches, with ids drawn from the entity's pooled generator. */
+    @Transactional
+    public void insertTransactions(List<Transaction> transactions) {
+        List<Object[]> args = new ArrayList<>(transactions.size());
+        for (Transaction t : transactions) {
+            t.setId(nextId(t));
+            args.add(new Object[]{t.getId(), t.getType().name(), t.getAmount(), t.getBalanceAfter(),
+                    new Timestamp(t.getTimestamp().getTime()), t.getNotes(), t.getAccount().getId()});
+        }
+        batchInsert("INSERT INTO transaction (id, type, amount, balance_after, timestamp, notes, account_id) VALUES (?, ?, ?, ?, ?, ?, ?)", args);
+    }
+
+    public void insertNoteTrigrams(List<TransactionNoteTrigram> rows) {
+        List<Object[]> args = new ArrayList<>(rows.size());
+        for (TransactionNoteTrigram row : rows) {
+            args.add(new Object[]{row.getAccountId(), row.getTrigram(), row.getTransactionId()});
+        }
+        batchInsert("INSERT INTO transaction_note_trigram (account_id, trigram, transaction_id) VALUES (?, ?, ?)", args);
+    }
+
+    /** Inserts collect requests in batches, with ids drawn from the entity's pooled generator. */
+    @Transactional
+    public void insertUpiRequests(List<UpiRequest> requests) {
+        List<Object[]> args = new ArrayList<>(requests.size());
+        for (UpiRequest r : requests) {
+            r.setId(nextId(r));
+            args.add(new Object[]{r.getId(), r.getPayerVpa(), r.getPayeeVpa(), r.getAmount(), r.getStatus().name(),
+                    new Timestamp(r.getCreatedAt().getTime()),
+                    r.getExpiresAt() != null ? new Timestamp(r.getExpiresAt().getTime()) : null, r.getGroupId()});
+        }
+        batchInsert("INSERT INTO upi_request (id, payer_vpa, payee_vpa, amount, status, created_at, expires_at, group_id) VALUES (?, ?, ?, ?, ?, ?, ?, ?)", args);
+    }
+
+    /** Inserts pending credit legs in batches and sets the generated ids back on them. */
+    public void insertPendingCredits(List<LedgerPendingCredit> credits) {
+        String sql = "INSERT INTO ledger_pending_credit (account_id, amount, notes, debit_transaction_id, created_at) VALUES (?, ?, ?, ?, ?)";
+        for (int i = 0; i < credits.size(); i += CHUNK) {
+            List<LedgerPendingCredit> chunk = credits.subList(i, Math.min(i + CHUNK, credits.size()));
+            jdbcTemplate.execute((java.sql.Connection con) -> {
+                try (PreparedStatement ps = con.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+                    for (LedgerPendingCredit c : chunk) {
+                        ps.setLong(1, c.getAccountId());
+                        ps.setDouble(2, c.getAmount());
+                        ps.setString(3, c.getNotes());
+                        ps.setLong(4, c.getDebitTransactionId());
+                        ps.setTimestamp(5, new Timestamp(c.getCreatedAt().getTime()));
+                        ps.addBatch();
+                    }
+                    ps.executeBatch();
+                    try (ResultSet keys = ps.getGeneratedKeys()) {
+                        int n = 0;
+                        while (keys.next()) {
+                            chunk.get(n++).setId(keys.getLong(1));
+                        }
+                        if (n != chunk.size()) {
+                            throw new IllegalStateException("Driver returned " + n + " generated keys for " + chunk.size() + " rows");
+                        }
+                    }
+                }
+                return null;
+            });
+        }
+    }
+
+    /**
+     * Deletes pending credits by id and returns the ids that were actually deleted, so a credit
+     * queued twice (live and by startup recovery) is applied once. The rows are locked and read back
+     * first: batch update counts can come back as SUCCESS_NO_INFO, which says nothing about which
+     * deletes matched.
+     */
+    public Set<Long> deletePendingCredits(List<Long> ids) {
+        List<Long> ordered = new ArrayList<>(new TreeSet<>(ids));
+        Set<Long> deleted = new HashSet<>();
+        for (int i = 0; i < ordered.size(); i += CHUNK) {
+            MapSqlParameterSource chunk = new MapSqlParameterSource("ids", ordered.subList(i, Math.min(i + CHUNK, ordered.size())));
+            List<Long> locked = namedParameterJdbcTemplate.queryForList(
+                    "SELECT id FROM ledger_pending_credit WHERE id IN (:ids) ORDER BY id FOR UPDATE", chunk, Long.class);
+            if (!locked.isEmpty()) {
+                namedParameterJdbcTemplate.update("DELETE FROM ledger_pending_credit WHERE id IN (:ids)",
+                        new MapSqlParameterSource("ids", locked));
+                deleted.addAll(locked);
+            }
+        }
+        return deleted;
+    }
+
+    private void batchInsert(String sql, List<Object[]> args) {
+        for (int i = 0; i < args.size(); i += CHUNK) {
+            jdbcTemplate.batchUpdate(sql, args.subList(i, Math.min(i + CHUNK, args.size())));
+        }
+    }
+
+    // Same generator and pooled block as a JPA persist, so rows inserted here and through the
+    // EntityManager never collide and neither needs a generated-keys round trip
+    private Long nextId(Object entity) {
+        SharedSessionContractImplementor session = entityManager.unwrap(SharedSessionContractImplementor.class);
+        return (Long) session.getEntityPersister(null, entity).getIdentifierGenerator().generate(session, entity);
+    }
+}
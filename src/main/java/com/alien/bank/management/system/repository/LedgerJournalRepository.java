@@ -0,0 +1,32 @@
+package com.alien.bank.management.system.repository;
+
+import com.alien.bank.management.system.entity.LedgerJournalEntry;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+import java.util.Optional;
+
+public interface LedgerJournalRepository extends JpaRepository<LedgerJournalEntry, Long> {
+
+    // Entries not yet applied to the projection, oldest first (index seek on account_id, id)
+    List<LedgerJournalEntry> findByAccountIdAndIdGreaterThanOrderByIdAsc(Long accountId, Long afterId, Pageable pageable);
+
+    @Query("SELECT COALESCE(SUM(e.amount), 0) FROM LedgerJournalEntry e WHERE e.accountId = :accountId AND e.id > :afterId")
+    double sumAfter(@Param("accountId") Long accountId, @Param("afterId") Long afterId);
+
+    @Query("SELECT COALESCE(SUM(e.amount), 0) FROM LedgerJournalEntry e WHERE e.accountId = :accountId")
+    double sumByAccountId(@Param("accountId") Long accountId);
+
+    // The account's opening entry: everything the journal knows about it starts here
+    Optional<LedgerJournalEntry> findFirstByAccountIdOrderByIdAsc(Long accountId);
+
+    // Entries that became Transaction rows when projected (the opening entry has no type)
+    long countByAccountIdAndTypeIsNotNullAndIdLessThanEqual(Long accountId, Long maxId);
+
+    @Query("SELECT DISTINCT e.accountId FROM LedgerJournalEntry e, LedgerProjectionOffset o " +
+           "WHERE e.accountId = o.accountId AND e.id > o.lastEntryId")
+    List<Long> findAccountIdsWithPendingEntries();
+}
@@ -0,0 +1,14 @@
+package com.alien.bank.management.system.repository;
+
+import com.alien.bank.management.system.entity.LedgerPendingCredit;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.Date;
+import java.util.List;
+
+public interface LedgerPendingCreditRepository extends JpaRepository<LedgerPendingCredit, Long> {
+
+    // Recovery walks the table in id order, one page at a time
+    List<LedgerPendingCredit> findByIdGreaterThanAndCreatedAtBeforeOrderByIdAsc(Long afterId, Date createdBefore, Pageable pageable);
+}
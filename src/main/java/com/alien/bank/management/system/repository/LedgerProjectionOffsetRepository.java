@@ -0,0 +1,13 @@
+package com.alien.bank.management.system.repository;
+
+import com.alien.bank.management.system.entity.LedgerProjectionOffset;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.List;
+
+public interface LedgerProjectionOffsetRepository extends JpaRepository<LedgerProjectionOffset, Long> {
+
+    @Query("SELECT o.accountId FROM LedgerProjectionOffset o ORDER BY o.accountId")
+    List<Long> findAllAccountIds();
+}
@@ -1,14 +1,22 @@
 package com.alien.bank.management.system.repository;
 
 import com.alien.bank.management.system.entity.RewardLedger;
+import com.alien.bank.management.system.entity.RewardType;
 import com.alien.bank.management.system.entity.User;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface RewardLedgerRepository extends JpaRepository<RewardLedger, Long> {
     List<RewardLedger> findByUserOrderByCreatedAtDesc(User user, Pageable pageable);
+
+    // Which of these payments already have a ledger row of the type; served by idx_reward_ledger_payment
+    @Query("SELECT l.payment.id FROM RewardLedger l WHERE l.type = :type AND l.payment.id IN :paymentIds")
+    List<Long> findPaymentIdsWithType(@Param("paymentIds") Collection<Long> paymentIds, @Param("type") RewardType type);
 }
 
 
@@ -0,0 +1,32 @@
+package com.alien.bank.management.system.repository;
+
+import com.alien.bank.management.system.entity.RewardOutboxEvent;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+
+public interface RewardOutboxRepository extends JpaRepository<RewardOutboxEvent, Long> {
+
+    // Oldest events first; ones that keep failing drop out once they reach maxAttempts
+    @Query("SELECT e FROM RewardOutboxEvent e WHERE e.attempts < :maxAttempts ORDER BY e.id")
+    List<RewardOutboxEvent> findPending(@Param("maxAttempts") int maxAttempts, Pageable pageable);
+
+    long countByAttemptsLessThan(int maxAttempts);
+
+    long countByAttemptsGreaterThanEqual(int maxAttempts);
+
+    @Query("SELECT MIN(e.createdAt) FROM RewardOutboxEvent e WHERE e.attempts < :maxAttempts")
+    Date findOldestPendingCreatedAt(@Param("maxAttempts") int maxAttempts);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE RewardOutboxEvent e SET e.attempts = e.attempts + 1, e.lastError = :error WHERE e.id IN :ids")
+    int markFailed(@Param("ids") Collection<Long> ids, @Param("error") String error);
+}
@@ -0,0 +1,17 @@
+package com.alien.bank.management.system.repository;
+
+import com.alien.bank.management.system.entity.TransactionNoteTrigram;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+public interface TransactionNoteTrigramRepository extends JpaRepository<TransactionNoteTrigram, Long> {
+
+    // Seek on idx_note_trigram_account_txn
+    @Query("select min(g.transactionId) from TransactionNoteTrigram g where g.accountId = ?1")
+    Long findFirstIndexedTransactionId(Long accountId);
+
+    @Modifying
+    @Query("delete from TransactionNoteTrigram g where g.accountId = ?1")
+    int deleteByAccountId(Long accountId);
+}
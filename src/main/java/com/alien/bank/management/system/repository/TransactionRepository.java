@@ -2,36 +2,63 @@ package com.alien.bank.management.system.repository;
 
 import com.alien.bank.management.system.entity.Transaction;
 import com.alien.bank.management.system.entity.TransactionType;
+import com.alien.bank.management.system.model.transaction.NotesSearch;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.Date;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface TransactionRepository extends JpaRepository<Transaction, Long> {
 
-    // ✅ Simple history lookup
-    List<Transaction> findByAccountIdOrderByTimestampDesc(Long accountId);
+    // Optional statement filters shared by the paging, seek and export queries (enum types, no .name();
+    // pass every TransactionType for "no type filter").
+    // Notes search takes its parameters from NotesSearch: the trigram index narrows the rows, the LIKE confirms them.
+    // Rows older than the index (id below searchIndexedFrom) skip the index and rely on the LIKE.
+    String STATEMENT_FILTERS =
+            "AND (:fromDate IS NULL OR t.timestamp >= :fromDate) " +
+            "AND (:toDate IS NULL OR t.timestamp <= :toDate) " +
+            "AND (:minAmount IS NULL OR t.amount >= :minAmount) " +
+            "AND (:maxAmount IS NULL OR t.amount <= :maxAmount) " +
+            "AND t.type IN :transactionTypes " +
+            "AND (:searchPattern IS NULL OR LOWER(CONCAT(' ', t.notes)) LIKE CONCAT('%', :searchPattern, '%')) " +
+            "AND (:searchGramCount = 0 OR t.id < :searchIndexedFrom OR t.id IN (" +
+            "SELECT g.transactionId FROM TransactionNoteTrigram g " +
+            "WHERE g.accountId = :accountId AND g.trigram IN :searchGrams " +
+            "GROUP BY g.transactionId HAVING COUNT(DISTINCT g.trigram) = :searchGramCount))";
 
-    // New: Find transactions for an account between dates, sorted by timestamp asc
-    List<Transaction> findByAccountIdAndTimestampBetweenOrderByTimestampAsc(Long accountId, Date fromDate, Date toDate);
+    // Rows pulled per round-trip when streaming exports (MySQL needs useCursorFetch=true to honour it)
+    String STATEMENT_EXPORT_FETCH_SIZE = "500";
+
+    // ✅ Bounded history page, newest first, seeking on (timestamp, id) from an optional cursor row.
+    // Projected columns only, so the Account/User graph is never loaded; pass PageRequest.of(0, n) as the limit.
+    @Query("SELECT t.id as id, t.type as type, t.amount as amount, t.timestamp as timestamp, " +
+           "t.balanceAfter as balanceAfter, t.notes as notes " +
+           "FROM Transaction t WHERE t.account.id = :accountId " +
+           "AND (:cursorTs IS NULL OR t.timestamp < :cursorTs OR (t.timestamp = :cursorTs AND t.id < :cursorId)) " +
+           "ORDER BY t.timestamp DESC, t.id DESC")
+    List<TransactionRowProjection> findHistoryPage(
+            @Param("accountId") Long accountId,
+            @Param("cursorTs") Date cursorTs,
+            @Param("cursorId") Long cursorId,
+            Pageable limit
+    );
 
     // New: Find recent N transactions (Spring will limit via Pageable when used)
     Page<Transaction> findByAccountId(Long accountId, Pageable pageable);
 
     // ✅ Enhanced querying with enum type
-    @Query("SELECT t FROM Transaction t WHERE t.account.id = :accountId " +
-           "AND (:fromDate IS NULL OR t.timestamp >= :fromDate) " +
-           "AND (:toDate IS NULL OR t.timestamp <= :toDate) " +
-           "AND (:minAmount IS NULL OR t.amount >= :minAmount) " +
-           "AND (:maxAmount IS NULL OR t.amount <= :maxAmount) " +
-           "AND (:transactionTypes IS NULL OR t.type IN :transactionTypes) " +  // enum, no .name()
-           "AND (:searchText IS NULL OR LOWER(t.notes) LIKE LOWER(CONCAT('%', :searchText, '%')))")
+    @Query("SELECT t FROM Transaction t WHERE t.account.id = :accountId " + STATEMENT_FILTERS)
     Page<Transaction> findTransactionsWithFilters(
             @Param("accountId") Long accountId,
             @Param("fromDate") Date fromDate,
@@ -39,10 +66,99 @@ public interface TransactionRepository extends JpaRepository<Transaction, Long>
             @Param("minAmount") Double minAmount,
             @Param("maxAmount") Double maxAmount,
             @Param("transactionTypes") List<TransactionType> transactionTypes,
-            @Param("searchText") String searchText,
+            @Param("searchPattern") String searchPattern,
+            @Param("searchGrams") List<String> searchGrams,
+            @Param("searchGramCount") long searchGramCount,
+            @Param("searchIndexedFrom") long searchIndexedFrom,
             Pageable pageable
     );
 
+    // ✅ Keyset (seek) pages on (timestamp, id), served by idx_txn_account_ts without OFFSET or COUNT.
+    // A null cursor starts from the newest (Before) or oldest (After) row; pass PageRequest.of(0, n) as the limit.
+    @Query("SELECT t FROM Transaction t WHERE t.account.id = :accountId " + STATEMENT_FILTERS +
+           " AND (:cursorTs IS NULL OR t.timestamp < :cursorTs OR (t.timestamp = :cursorTs AND t.id < :cursorId))" +
+           " ORDER BY t.timestamp DESC, t.id DESC")
+    List<Transaction> findPageBefore(
+            @Param("accountId") Long accountId,
+            @Param("fromDate") Date fromDate,
+            @Param("toDate") Date toDate,
+            @Param("minAmount") Double minAmount,
+            @Param("maxAmount") Double maxAmount,
+            @Param("transactionTypes") List<TransactionType> transactionTypes,
+            @Param("searchPattern") String searchPattern,
+            @Param("searchGrams") List<String> searchGrams,
+            @Param("searchGramCount") long searchGramCount,
+            @Param("searchIndexedFrom") long searchIndexedFrom,
+            @Param("cursorTs") Date cursorTs,
+            @Param("cursorId") Long cursorId,
+            Pageable limit
+    );
+
+    @Query("SELECT t FROM Transaction t WHERE t.account.id = :accountId " + STATEMENT_FILTERS +
+           " AND (:cursorTs IS NULL OR t.timestamp > :cursorTs OR (t.timestamp = :cursorTs AND t.id > :cursorId))" +
+           " ORDER BY t.timestamp ASC, t.id ASC")
+    List<Transaction> findPageAfter(
+            @Param("accountId") Long accountId,
+            @Param("fromDate") Date fromDate,
+            @Param("toDate") Date toDate,
+            @Param("minAmount") Double minAmount,
+            @Param("maxAmount") Double maxAmount,
+            @Param("transactionTypes") List<TransactionType> transactionTypes,
+            @Param("searchPattern") String searchPattern,
+            @Param("searchGrams") List<String> searchGrams,
+            @Param("searchGramCount") long searchGramCount,
+            @Param("searchIndexedFrom") long searchIndexedFrom,
+            @Param("cursorTs") Date cursorTs,
+            @Param("cursorId") Long cursorId,
+            Pageable limit
+    );
+
+    // Only run for cursor pages when the caller explicitly asks for a total
+    @Query("SELECT COUNT(t) FROM Transaction t WHERE t.account.id = :accountId " + STATEMENT_FILTERS)
+    long countTransactionsWithFilters(
+            @Param("accountId") Long accountId,
+            @Param("fromDate") Date fromDate,
+            @Param("toDate") Date toDate,
+            @Param("minAmount") Double minAmount,
+            @Param("maxAmount") Double maxAmount,
+            @Param("transactionTypes") List<TransactionType> transactionTypes,
+            @Param("searchPattern") String searchPattern,
+            @Param("searchGrams") List<String> searchGrams,
+            @Param("searchGramCount") long searchGramCount,
+            @Param("searchIndexedFrom") long searchIndexedFrom
+    );
+
+    // ✅ Forward-only stream for statement exports. Rows are projected instead of hydrated as
+    // entities, so the persistence context stays empty no matter how many rows are read.
+    // Must be consumed inside a transaction and closed by the caller.
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = STATEMENT_EXPORT_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "false")
+    })
+    @Query("SELECT t.id as id, t.type as type, t.amount as amount, t.timestamp as timestamp, " +
+           "t.balanceAfter as balanceAfter, t.notes as notes " +
+           "FROM Transaction t WHERE t.account.id = :accountId " + STATEMENT_FILTERS +
+           " ORDER BY t.timestamp ASC, t.id ASC")
+    Stream<TransactionRowProjection> streamTransactionsWithFilters(
+            @Param("accountId") Long accountId,
+            @Param("fromDate") Date fromDate,
+            @Param("toDate") Date toDate,
+            @Param("minAmount") Double minAmount,
+            @Param("maxAmount") Double maxAmount,
+            @Param("transactionTypes") List<TransactionType> transactionTypes,
+            @Param("searchPattern") String searchPattern,
+            @Param("searchGrams") List<String> searchGrams,
+            @Param("searchGramCount") long searchGramCount,
+            @Param("searchIndexedFrom") long searchIndexedFrom
+    );
+
+    default Stream<TransactionRowProjection> streamAllTransactions(Long accountId) {
+        NotesSearch none = NotesSearch.none();
+        return streamTransactionsWithFilters(accountId, null, null, null, null, List.of(TransactionType.values()),
+                none.getPattern(), none.getGrams(), none.getGramCount(), none.getIndexedFrom());
+    }
+
     // ✅ Summary statistics query (enum constants directly)
     @Query("SELECT " +
            "COUNT(t) as totalTransactions, " +
@@ -59,29 +175,53 @@ public interface TransactionRepository extends JpaRepository<Transaction, Long>
             @Param("toDate") Date toDate
     );
 
-    // ✅ Opening balance (fetch only first row)
-    @Query("SELECT t.balanceAfter - t.amount FROM Transaction t " +
-           "WHERE t.account.id = :accountId " +
-           "AND t.timestamp < :fromDate " +
-           "ORDER BY t.timestamp DESC")
-    List<Double> findOpeningBalanceRaw(@Param("accountId") Long accountId, @Param("fromDate") Date fromDate);
+    // ✅ Per-type totals in [from, to]; used for the partial months around the monthly rollups
+    @Query("SELECT t.type as type, COALESCE(SUM(t.amount), 0) as totalAmount, COUNT(t) as txCount " +
+           "FROM Transaction t WHERE t.account.id = :accountId " +
+           "AND t.timestamp >= :from AND t.timestamp <= :to " +
+           "GROUP BY t.type")
+    List<TypeTotalProjection> sumByTypeBetween(@Param("accountId") Long accountId, @Param("from") Date from, @Param("to") Date to);
 
-    // ✅ Closing balance (fetch only first row)
+    // ✅ balanceAfter of the last transaction in [from, to] (LIMIT 1 seek on idx_txn_account_ts).
+    // Callers keep the range to a single day and use the daily snapshots for anything older.
     @Query("SELECT t.balanceAfter FROM Transaction t " +
            "WHERE t.account.id = :accountId " +
-           "AND t.timestamp <= :toDate " +
-           "ORDER BY t.timestamp DESC")
-    List<Double> findClosingBalanceRaw(@Param("accountId") Long accountId, @Param("toDate") Date toDate);
-
-    // 👉 convenience default methods to unwrap first element
-    default Double getOpeningBalance(Long accountId, Date fromDate) {
-        List<Double> result = findOpeningBalanceRaw(accountId, fromDate);
-        return result.isEmpty() ? 0.0 : result.get(0);
+           "AND t.timestamp >= :from AND t.timestamp <= :to " +
+           "ORDER BY t.timestamp DESC, t.id DESC")
+    List<Double> findLastBalanceInRange(@Param("accountId") Long accountId, @Param("from") Date from, @Param("to") Date to, Pageable limit);
+
+    default Double findLastBalanceBetween(Long accountId, Date from, Date to) {
+        List<Double> result = findLastBalanceInRange(accountId, from, to, PageRequest.of(0, 1));
+        return result.isEmpty() ? null : result.get(0);
+    }
+
+    // ✅ balanceAfter of the last transaction before the given time; only used when no daily snapshot covers it
+    @Query("SELECT t.balanceAfter FROM Transaction t " +
+           "WHERE t.account.id = :accountId AND t.timestamp < :before " +
+           "ORDER BY t.timestamp DESC, t.id DESC")
+    List<Double> findLastBalancesBefore(@Param("accountId") Long accountId, @Param("before") Date before, Pageable limit);
+
+    default Double findLastBalanceBefore(Long accountId, Date before) {
+        List<Double> result = findLastBalancesBefore(accountId, before, PageRequest.of(0, 1));
+        return result.isEmpty() ? null : result.get(0);
     }
 
-    default Double getClosingBalance(Long accountId, Date toDate) {
-        List<Double> result = findClosingBalanceRaw(accountId, toDate);
-        return result.isEmpty() ? 0.0 : result.get(0);
+    // Transactions of the account at or after the given time
+    long countByAccountIdAndTimestampGreaterThanEqual(Long accountId, Date from);
+
+    // Time of the account's first transaction, or null when it has none
+    @Query("SELECT MIN(t.timestamp) FROM Transaction t WHERE t.account.id = :accountId")
+    Date findFirstTimestamp(@Param("accountId") Long accountId);
+
+    // Same totals as the monthly rollups' lifetime aggregate, for the history before the rollups start
+    @Query("SELECT COUNT(t) as txCount, MAX(t.amount) as maxAmount, MIN(t.timestamp) as firstTxnAt " +
+           "FROM Transaction t WHERE t.account.id = :accountId AND t.timestamp < :before")
+    AccountMonthlyRollupRepository.LifetimeTotalsProjection getLifetimeTotalsBefore(@Param("accountId") Long accountId, @Param("before") Date before);
+
+    interface TypeTotalProjection {
+        TransactionType getType();
+        Double getTotalAmount();
+        Long getTxCount();
     }
 
     // ✅ Interface for summary projection
@@ -93,6 +233,16 @@ public interface TransactionRepository extends JpaRepository<Transaction, Long>
         Double getTotalInterest();
     }
 
+    // ✅ Lightweight row projection (no Account/User graph)
+    interface TransactionRowProjection {
+        Long getId();
+        TransactionType getType();
+        Double getAmount();
+        Date getTimestamp();
+        Double getBalanceAfter();
+        String getNotes();
+    }
+
     // Sum of outgoing transfers/payments within a date range for daily limit enforcement
     @Query("SELECT COALESCE(SUM(t.amount),0) FROM Transaction t WHERE t.account.id = :accountId AND t.timestamp BETWEEN :from AND :to AND (t.type = com.alien.bank.management.system.entity.TransactionType.TRANSFER_OUT OR t.type = com.alien.bank.management.system.entity.TransactionType.PAYMENT)")
     Double sumOutgoingForRange(@Param("accountId") Long accountId, @Param("from") Date from, @Param("to") Date to);
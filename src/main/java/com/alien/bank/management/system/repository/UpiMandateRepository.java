@@ -0,0 +1,53 @@
+package com.alien.bank.management.system.repository;
+
+import com.alien.bank.management.system.entity.UpiMandate;
+import com.alien.bank.management.system.entity.UpiMandateStatus;
+import com.alien.bank.management.system.model.upi.DueMandate;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+
+public interface UpiMandateRepository extends JpaRepository<UpiMandate, Long> {
+    List<UpiMandate> findByPayerVpaInOrderByIdDesc(Collection<String> payerVpas);
+
+    // Active mandates due before the horizon, seeking on (nextRunAt, id) from an optional cursor; served by
+    // idx_upi_mandate_due. Rows being executed are left out.
+    @Query("SELECT new com.alien.bank.management.system.model.upi.DueMandate(m.id, m.payerAccountId, m.nextRunAt) " +
+           "FROM UpiMandate m WHERE m.status = com.alien.bank.management.system.entity.UpiMandateStatus.ACTIVE " +
+           "AND m.nextRunAt < :horizon AND m.runningSince IS NULL " +
+           "AND (:afterTs IS NULL OR m.nextRunAt > :afterTs OR (m.nextRunAt = :afterTs AND m.id > :afterId)) " +
+           "ORDER BY m.nextRunAt, m.id")
+    List<DueMandate> findDuePage(@Param("horizon") Date horizon,
+                                 @Param("afterTs") Date afterTs,
+                                 @Param("afterId") Long afterId,
+                                 Pageable limit);
+
+    @Query("SELECT COUNT(m) FROM UpiMandate m WHERE m.status = com.alien.bank.management.system.entity.UpiMandateStatus.ACTIVE " +
+           "AND m.nextRunAt >= :from AND m.nextRunAt < :to")
+    long countDueBetween(@Param("from") Date from, @Param("to") Date to);
+
+    // Takes a due run. The UPDATE row-locks the mandate until commit, so of two schedulers racing for it
+    // the second matches 0 rows.
+    @Transactional
+    @Modifying
+    @Query("UPDATE UpiMandate m SET m.runningSince = :now, m.version = m.version + 1 WHERE m.id = :id " +
+           "AND m.status = com.alien.bank.management.system.entity.UpiMandateStatus.ACTIVE " +
+           "AND m.runningSince IS NULL AND m.nextRunAt <= :now")
+    int claimRun(@Param("id") Long id, @Param("now") Date now);
+
+    // Status changes from the API; refused while a run holds the mandate
+    @Transactional
+    @Modifying
+    @Query("UPDATE UpiMandate m SET m.status = :status, m.version = m.version + 1 WHERE m.id = :id AND m.status IN :from AND m.runningSince IS NULL")
+    int changeStatus(@Param("id") Long id, @Param("from") Collection<UpiMandateStatus> from, @Param("status") UpiMandateStatus status);
+
+    @Query("SELECT m FROM UpiMandate m WHERE m.runningSince < :before ORDER BY m.id")
+    List<UpiMandate> findRunningSince(@Param("before") Date before);
+}
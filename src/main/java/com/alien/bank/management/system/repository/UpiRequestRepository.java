@@ -2,12 +2,56 @@ package com.alien.bank.management.system.repository;
 
 import com.alien.bank.management.system.entity.UpiRequest;
 import com.alien.bank.management.system.entity.UpiRequestStatus;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Date;
 import java.util.List;
 
 public interface UpiRequestRepository extends JpaRepository<UpiRequest, Long> {
     List<UpiRequest> findByPayerVpaAndStatus(String payerVpa, UpiRequestStatus status);
-}
 
+    List<UpiRequest> findByGroupIdOrderByIdAsc(String groupId);
+
+    // Payer inbox page, newest first, seeking on (createdAt, id) from an optional cursor row; served by
+    // idx_upi_request_inbox. Requests past their expiry are hidden even before the sweeper reaches them.
+    @Query("SELECT r FROM UpiRequest r WHERE r.payerVpa = :payerVpa AND r.status = com.alien.bank.management.system.entity.UpiRequestStatus.PENDING " +
+           "AND (r.expiresAt IS NULL OR r.expiresAt > :now) " +
+           "AND (:cursorTs IS NULL OR r.createdAt < :cursorTs OR (r.createdAt = :cursorTs AND r.id < :cursorId)) " +
+           "ORDER BY r.createdAt DESC, r.id DESC")
+    List<UpiRequest> findPendingPage(@Param("payerVpa") String payerVpa,
+                                     @Param("now") Date now,
+                                     @Param("cursorTs") Date cursorTs,
+                                     @Param("cursorId") Long cursorId,
+                                     Pageable limit);
+
+    // Moves a still-pending, unexpired request out of PENDING. The UPDATE row-locks the request until the
+    // caller's transaction ends, so a concurrent approve/reject blocks and then matches 0 rows.
+    @Transactional
+    @Modifying
+    @Query("UPDATE UpiRequest r SET r.status = :status WHERE r.id = :id " +
+           "AND r.status = com.alien.bank.management.system.entity.UpiRequestStatus.PENDING " +
+           "AND (r.expiresAt IS NULL OR r.expiresAt > :now)")
+    int claimPending(@Param("id") Long id, @Param("status") UpiRequestStatus status, @Param("now") Date now);
 
+    // Gives a claimed request back when its transfer failed outside a surrounding transaction
+    @Transactional
+    @Modifying
+    @Query("UPDATE UpiRequest r SET r.status = com.alien.bank.management.system.entity.UpiRequestStatus.PENDING " +
+           "WHERE r.id = :id AND r.status = :status")
+    int releaseClaim(@Param("id") Long id, @Param("status") UpiRequestStatus status);
+
+    @Query("SELECT r.id FROM UpiRequest r WHERE r.status = com.alien.bank.management.system.entity.UpiRequestStatus.PENDING " +
+           "AND r.expiresAt <= :now ORDER BY r.id")
+    List<Long> findExpiredPendingIds(@Param("now") Date now, Pageable limit);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE UpiRequest r SET r.status = com.alien.bank.management.system.entity.UpiRequestStatus.EXPIRED " +
+           "WHERE r.id IN :ids AND r.status = com.alien.bank.management.system.entity.UpiRequestStatus.PENDING")
+    int expire(@Param("ids") List<Long> ids);
+}
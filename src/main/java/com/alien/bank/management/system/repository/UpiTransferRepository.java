@@ -0,0 +1,25 @@
+package com.alien.bank.management.system.repository;
+
+import com.alien.bank.management.system.entity.UpiTransfer;
+import com.alien.bank.management.system.entity.UpiTransferStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Optional;
+
+public interface UpiTransferRepository extends JpaRepository<UpiTransfer, Long> {
+    Optional<UpiTransfer> findByReference(String reference);
+
+    List<UpiTransfer> findByStatusOrderByIdAsc(UpiTransferStatus status);
+
+    // QUEUED -> PROCESSING; 0 rows means another worker already took it
+    @Transactional
+    @Modifying
+    @Query("UPDATE UpiTransfer t SET t.status = com.alien.bank.management.system.entity.UpiTransferStatus.PROCESSING " +
+           "WHERE t.id = :id AND t.status = com.alien.bank.management.system.entity.UpiTransferStatus.QUEUED")
+    int claim(@Param("id") Long id);
+}
@@ -2,16 +2,41 @@ package com.alien.bank.management.system.repository;
 
 import com.alien.bank.management.system.entity.UpiVpa;
 import com.alien.bank.management.system.entity.User;
+import com.alien.bank.management.system.model.upi.VpaRecord;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 public interface UpiVpaRepository extends JpaRepository<UpiVpa, Long> {
     Optional<UpiVpa> findByVpa(String vpa);
+
+    // Flat lookup for VpaResolver: one join for the global PIN instead of loading User and Account
+    @Query("SELECT new com.alien.bank.management.system.model.upi.VpaRecord(" +
+           "v.id, v.vpa, u.id, v.account.id, COALESCE(v.upiPinHash, u.upiPinHash), v.isDefault) " +
+           "FROM UpiVpa v JOIN v.user u WHERE v.vpa = :vpa")
+    Optional<VpaRecord> findRecordByVpa(@Param("vpa") String vpa);
     List<UpiVpa> findByUser(User user);
+
+    // Which of the given VPAs exist, in one IN query
+    @Query("SELECT v.vpa FROM UpiVpa v WHERE v.vpa IN :vpas")
+    List<String> findExistingVpas(@Param("vpas") Collection<String> vpas);
     boolean existsByVpa(String vpa);
-    List<UpiVpa> findByVpaContainingIgnoreCase(String vpa);
-}
+    List<UpiVpa> findTop10ByVpaContainingIgnoreCaseOrderByVpaAsc(String vpa);
 
+    // Autocomplete fallback while the in-memory index loads; the prefix must have LIKE wildcards escaped
+    @Query("SELECT v.vpa FROM UpiVpa v WHERE v.vpa LIKE CONCAT(:prefix, '%') ESCAPE '!' ORDER BY v.vpa")
+    List<String> findVpasByPrefix(@Param("prefix") String prefix, Pageable limit);
 
+    // Every VPA of the form handle<anything>domain, for seeding the handle's suffix counter; handle must be escaped
+    @Query("SELECT v.vpa FROM UpiVpa v WHERE v.vpa LIKE CONCAT(:handle, '%', :domain) ESCAPE '!'")
+    List<String> findVpasForHandle(@Param("handle") String handle, @Param("domain") String domain);
+
+    // Keyset pages in VPA order for loading the autocomplete index
+    @Query("SELECT v.vpa FROM UpiVpa v WHERE v.vpa > :after ORDER BY v.vpa")
+    List<String> findVpasAfter(@Param("after") String after, Pageable limit);
+}
@@ -0,0 +1,25 @@
+package com.alien.bank.management.system.repository;
+
+import com.alien.bank.management.system.entity.VpaHandleCounter;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Optional;
+
+public interface VpaHandleCounterRepository extends JpaRepository<VpaHandleCounter, String> {
+
+    // Row-locks the counter until the allocating transaction commits; 0 rows means the handle has no counter yet
+    @Modifying
+    @Query("UPDATE VpaHandleCounter c SET c.nextSuffix = c.nextSuffix + 1 WHERE c.handle = :handle")
+    int increment(@Param("handle") String handle);
+
+    // Plain INSERT rather than save(): a merge would overwrite a counter another allocator just created
+    @Modifying
+    @Query(value = "INSERT INTO vpa_handle_counter (handle, next_suffix) VALUES (:handle, :nextSuffix)", nativeQuery = true)
+    int insert(@Param("handle") String handle, @Param("nextSuffix") long nextSuffix);
+
+    @Query("SELECT c.nextSuffix FROM VpaHandleCounter c WHERE c.handle = :handle")
+    Optional<Long> findNextSuffix(@Param("handle") String handle);
+}
@@ -2,6 +2,7 @@ package com.alien.bank.management.system.security;
 
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
+import jakarta.servlet.DispatcherType;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationProvider;
@@ -67,6 +68,8 @@ public class SecurityConfiguration {
                 .maxSessionsPreventsLogin(false)
             )
             .authorizeHttpRequests(auth -> auth
+                // async dispatches (long-poll results) belong to a request that was already authorized
+                .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                 .requestMatchers(
                         "/auth/**",
                         "/v3/api-docs/**",
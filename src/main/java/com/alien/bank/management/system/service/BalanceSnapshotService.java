@@ -0,0 +1,26 @@
+package com.alien.bank.management.system.service;
+
+import com.alien.bank.management.system.entity.Account;
+import com.alien.bank.management.system.entity.Transaction;
+import com.alien.bank.management.system.model.transaction.TransactionStatementResponse;
+
+import java.util.Date;
+import java.util.List;
+
+public interface BalanceSnapshotService {
+    // Folds a freshly saved transaction into its account's end-of-day snapshot
+    void recordTransaction(Transaction transaction);
+
+    // Same for a batch of saved transactions: one locking read per day touched
+    void recordTransactions(List<Transaction> transactions);
+
+    // Balance just before fromDate / at toDate, or null when the account has no transactions by then
+    Double getOpeningBalance(Long accountId, Date fromDate);
+    Double getClosingBalance(Long accountId, Date toDate);
+
+    // Totals and boundaries for a statement: whole days from snapshots, partial edge days from transactions
+    TransactionStatementResponse.TransactionSummary getStatementSummary(Account account, Date fromDate, Date toDate);
+
+    // Rebuilds one account's snapshots from its transaction history; returns the number of days written
+    int backfill(Long accountId);
+}
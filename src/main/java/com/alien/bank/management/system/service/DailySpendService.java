@@ -0,0 +1,20 @@
+package com.alien.bank.management.system.service;
+
+/**
+ * Per-account daily outgoing limit shared by UPI sends and UPI payments.
+ */
+public interface DailySpendService {
+    double getDailyLimit();
+
+    // Amount spent today, served from memory after the first read of the day
+    double getSpentToday(Long accountId);
+
+    // Fast pre-check against the cached counter; throws AccessDeniedException when over the limit
+    void checkLimit(Long accountId, double amount);
+
+    // Adds to today's counter inside the caller's debit transaction; throws AccessDeniedException when over the limit
+    void recordSpend(Long accountId, double amount);
+
+    // Gives back a spend recorded for a debit that did not go through
+    void releaseSpend(Long accountId, double amount);
+}
@@ -0,0 +1,32 @@
+package com.alien.bank.management.system.service;
+
+import com.alien.bank.management.system.entity.TransactionType;
+import com.alien.bank.management.system.model.transaction.JournalReceipt;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Journal-backed ledger engine, enabled with ledger.engine=journal. Postings are appended to the
+ * journal by a single writer per account and then projected into Account.balance and Transaction
+ * rows; ledger.journal.consistency selects whether callers wait for the projection (strict) or
+ * only for the append (fast).
+ */
+public interface LedgerJournalService {
+    boolean isEnabled();
+
+    // Single-leg posting; debit types are checked against the journal balance
+    JournalReceipt post(Long accountId, TransactionType type, double amount, String notes);
+
+    // Two-leg posting, TRANSFER_OUT on the sender and TRANSFER_IN on the receiver; receipt is the sender's
+    JournalReceipt transfer(Long fromAccountId, Long toAccountId, double amount, String debitNotes, String creditNotes);
+
+    // Applies pending journal entries of the account; returns how many were applied
+    int project(Long accountId);
+
+    // Recomputes the balance from the journal and reports drift; overwrites Account.balance only when apply is set
+    // and no transaction was written to the account outside the journal (postings made while the engine was off)
+    Map<String, Object> replay(Long accountId, boolean apply);
+
+    List<Map<String, Object>> replayAll(boolean apply);
+}
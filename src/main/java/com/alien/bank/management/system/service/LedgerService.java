@@ -0,0 +1,13 @@
+package com.alien.bank.management.system.service;
+
+import com.alien.bank.management.system.entity.Transaction;
+
+import java.util.List;
+
+public interface LedgerService {
+    // Saves a ledger row and updates the read models derived from it in the same transaction
+    Transaction record(Transaction transaction);
+
+    // Bulk variant: inserts the rows with JDBC batches (ids are set on the given objects), then updates the read models
+    List<Transaction> recordAll(List<Transaction> transactions);
+}
@@ -0,0 +1,26 @@
+package com.alien.bank.management.system.service;
+
+import com.alien.bank.management.system.entity.UpiMandate;
+import com.alien.bank.management.system.model.upi.CreateMandateRequest;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+public interface MandateService {
+    // Verifies the payer's PIN once; the first run is at startAt
+    UpiMandate createMandate(CreateMandateRequest request);
+    List<UpiMandate> getMyMandates();
+    UpiMandate pauseMandate(Long id);
+    // Continues with the next cycle that is still ahead; cycles missed while paused are not paid
+    UpiMandate resumeMandate(Long id);
+    UpiMandate cancelMandate(Long id);
+
+    // Executes the mandate's due run if this caller wins the claim and returns it as left for the next
+    // run, or null when it was not due or someone else is running it
+    UpiMandate runDue(Long mandateId);
+    // Runs left claimed since before the given time (a crash mid-run) are skipped for review
+    int recoverInterrupted(Date runningBefore);
+    // Run outcome counters and how many active mandates fall due in each upcoming window
+    Map<String, Object> getMetrics();
+}
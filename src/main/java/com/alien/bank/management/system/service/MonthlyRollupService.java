@@ -0,0 +1,30 @@
+package com.alien.bank.management.system.service;
+
+import com.alien.bank.management.system.entity.Transaction;
+import com.alien.bank.management.system.model.transaction.MonthlyTypeTotal;
+import com.alien.bank.management.system.repository.AccountMonthlyRollupRepository;
+
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+
+public interface MonthlyRollupService {
+    // Adds a freshly saved transaction to its (account, month, type) rollup
+    void recordTransaction(Transaction transaction);
+
+    // Same for a batch of saved transactions: one locking read per month touched
+    void recordTransactions(List<Transaction> transactions);
+
+    // Per-month, per-type totals for [fromDate, toDate]: whole months from rollups, partial months from transactions
+    List<MonthlyTypeTotal> getMonthlyTotals(Long accountId, Date fromDate, Date toDate);
+
+    // Transaction count, largest amount and first transaction time across the given accounts
+    AccountMonthlyRollupRepository.LifetimeTotalsProjection getLifetimeTotals(Collection<Long> accountIds);
+
+    // First month from which the rollups hold every transaction of the account; earlier months
+    // (history older than the rollups, not yet backfilled) have to be read from the transactions
+    Date getCompleteFrom(Long accountId);
+
+    // Rebuilds one account's rollups from its transaction history; returns the number of rows written
+    int backfill(Long accountId);
+}
@@ -0,0 +1,20 @@
+package com.alien.bank.management.system.service;
+
+import com.alien.bank.management.system.entity.Transaction;
+
+import java.util.List;
+
+public interface NotesSearchService {
+    // Adds a freshly saved transaction's notes to the trigram index
+    void index(Transaction transaction);
+
+    // Same for a batch of saved transactions, written with one JDBC batch
+    void indexAll(List<Transaction> transactions);
+
+    // Lowest transaction id in the account's notes index: older transactions were written before the
+    // index existed and are only indexed once backfilled. Long.MAX_VALUE when nothing is indexed yet.
+    long getIndexedFrom(Long accountId);
+
+    // Rebuilds one account's notes index from its transaction history; returns the number of rows written
+    int backfill(Long accountId);
+}
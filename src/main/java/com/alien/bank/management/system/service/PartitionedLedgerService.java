@@ -0,0 +1,25 @@
+package com.alien.bank.management.system.service;
+
+import com.alien.bank.management.system.entity.TransactionType;
+import com.alien.bank.management.system.model.transaction.TransferResult;
+
+import java.util.Map;
+
+/**
+ * Partitioned ledger engine, enabled with ledger.engine=partitioned. Every account belongs to one
+ * partition (accountId modulo ledger.partitioned.partitions) and only that partition's thread
+ * changes its balance; queued mutations are applied in micro-batches, one transaction per batch.
+ * Callers wait for their own debit to commit; the receiver of a transfer is credited by its own
+ * partition shortly after.
+ */
+public interface PartitionedLedgerService {
+    boolean isEnabled();
+
+    // Debits the sender and queues the durable credit leg; creditTransactionId and receiverBalance stay null
+    TransferResult transfer(Long fromAccountId, Long toAccountId, double amount, String debitNotes, String creditNotes);
+
+    // Single-leg debit (WITHDRAW for payments); the result carries the debit transaction and balance only
+    TransferResult debit(Long accountId, TransactionType type, double amount, String notes);
+
+    Map<String, Object> getMetrics();
+}
@@ -0,0 +1,14 @@
+package com.alien.bank.management.system.service;
+
+import java.util.Map;
+
+/**
+ * BCrypt checks of UPI PINs, run on their own bounded pool so a payment spike cannot occupy every
+ * request thread with hashing.
+ */
+public interface PinVerificationService {
+    // Throws ServiceBusyException when the pool and its queue are full or the check times out
+    boolean matches(String pin, String pinHash);
+
+    Map<String, Object> getMetrics();
+}
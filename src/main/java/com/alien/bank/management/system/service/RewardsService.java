@@ -2,9 +2,13 @@ package com.alien.bank.management.system.service;
 
 import com.alien.bank.management.system.entity.User;
 
+import java.util.Collection;
+
 public interface RewardsService {
     int calculateCoinsEarned(double amount);
     void recordEarnAndDailyBonus(User user, Long paymentId, int coinsEarned);
+    void accruePaymentReward(User user, Long paymentId, int coinsEarned);
+    int applyOutboxEvents(Long userId, Collection<Long> eventIds);
     int getWalletCoins(User user);
 }
 
@@ -1,20 +1,32 @@
 package com.alien.bank.management.system.service;
 
+import com.alien.bank.management.system.entity.Account;
+import com.alien.bank.management.system.model.transaction.BatchPostingRequest;
+import com.alien.bank.management.system.model.transaction.BatchPostingResponse;
 import com.alien.bank.management.system.model.transaction.DepositRequestModel;
 import com.alien.bank.management.system.model.transaction.TransactionResponseModel;
 import com.alien.bank.management.system.model.transaction.WithdrawRequestModel;
-import com.alien.bank.management.system.model.transaction.TransactionHistoryItem;
+import com.alien.bank.management.system.model.transaction.TransactionHistoryPage;
 import com.alien.bank.management.system.model.transaction.TransactionStatementRequest;
 import com.alien.bank.management.system.model.transaction.TransactionStatementResponse;
 
-import java.util.List;
+import java.io.OutputStream;
 
 public interface TransactionService {
+    int HISTORY_DEFAULT_LIMIT = 20;
+    int HISTORY_MAX_LIMIT = 100;
+
     TransactionResponseModel deposit(DepositRequestModel request);
     TransactionResponseModel withdraw(WithdrawRequestModel request);
 
-    // Existing method
-    List<TransactionHistoryItem> getHistory(Long accountId);
+    // Back-office bulk deposits/withdrawals in one transaction, with a result per posting
+    BatchPostingResponse postBatch(BatchPostingRequest request);
+
+    // Newest-first history of the caller's own account, at most HISTORY_MAX_LIMIT rows per call
+    TransactionHistoryPage getHistory(Long accountId, String cursor, Integer limit);
+
+    // Same page without the ownership check, for callers that resolved the account themselves
+    TransactionHistoryPage getHistoryPage(Long accountId, String cursor, Integer limit);
     
     // NEW: Enhanced statement functionality
     TransactionStatementResponse getTransactionStatement(TransactionStatementRequest request);
@@ -22,4 +34,12 @@ public interface TransactionService {
     // NEW: Export functionality
     byte[] exportStatementAsPdf(TransactionStatementRequest request);
     byte[] exportStatementAsCsv(TransactionStatementResponse statement);
+
+    // Checks the request and that the account belongs to the caller; streamed exports call this
+    // before the response is committed, so a bad request still gets its 400/404
+    Account getStatementAccount(TransactionStatementRequest request);
+
+    // Streams every matching row (not just one page) straight to the given output
+    void streamStatementAsCsv(Account account, TransactionStatementRequest request, OutputStream outputStream);
+    void streamStatementAsPdf(Account account, TransactionStatementRequest request, OutputStream outputStream);
 }
\ No newline at end of file
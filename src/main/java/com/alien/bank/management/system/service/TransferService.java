@@ -0,0 +1,11 @@
+package com.alien.bank.management.system.service;
+
+import com.alien.bank.management.system.model.transaction.TransferResult;
+
+/**
+ * Moves money between two accounts under row locks. Joins the caller's transaction when there is
+ * one, otherwise runs (and retries) in its own.
+ */
+public interface TransferService {
+    TransferResult transfer(Long fromAccountId, Long toAccountId, double amount, String debitNotes, String creditNotes);
+}
@@ -1,11 +1,17 @@
 package com.alien.bank.management.system.service;
 
 import com.alien.bank.management.system.entity.UpiRequest;
+import com.alien.bank.management.system.entity.UpiTransfer;
 import com.alien.bank.management.system.entity.UpiVpa;
 import com.alien.bank.management.system.model.upi.CreateUpiIdRequest;
 import com.alien.bank.management.system.model.upi.CreateUpiIdResponse;
+import com.alien.bank.management.system.model.upi.SplitBillRequest;
+import com.alien.bank.management.system.model.upi.SplitBillStatus;
+import com.alien.bank.management.system.model.upi.UpiRequestPage;
 
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 public interface UpiService {
     UpiVpa createVpa(Long accountId);
@@ -19,18 +25,36 @@ public interface UpiService {
 
     Long sendMoney(String fromVpa, String toVpa, double amount, String note, String pin);
 
+    // sendMoney for a payment the payer already authorized with their PIN (a mandate); limits still apply
+    Long sendMoneyPreAuthorized(String fromVpa, String toVpa, double amount, String note);
+
+    // Validates and queues the send; the returned transfer is QUEUED and completes on a worker
+    UpiTransfer sendMoneyAsync(String fromVpa, String toVpa, double amount, String note, String pin);
+    UpiTransfer getTransfer(String reference);
+    // Completes when the transfer finishes or after waitMs (capped), with its status at that point
+    CompletableFuture<UpiTransfer> awaitTransfer(String reference, Long waitMs);
+    Map<String, Object> getAsyncMetrics();
+
     UpiRequest createCollectRequest(String payerVpa, String payeeVpa, double amount, String reason);
     List<UpiRequest> getPendingRequests(String vpa);
+    // Keyset-paged inbox of unexpired pending requests, newest first
+    UpiRequestPage getPendingRequestPage(String vpa, String cursor, Integer limit);
+    // One collect request per payer, validated with one query and inserted in one batch
+    SplitBillStatus createSplitBill(SplitBillRequest request);
+    SplitBillStatus getSplitBill(String groupId);
     Long approveRequest(Long requestId, String pin);
     void rejectRequest(Long requestId);
 
     void setOrChangeUpiPin(String newPin);
 
     // History via VPA
-    java.util.List<com.alien.bank.management.system.entity.Transaction> getTransactionsByVpa(String vpa);
+    com.alien.bank.management.system.model.transaction.TransactionHistoryPage getTransactionsByVpa(String vpa, String cursor, Integer limit);
     
     // Search VPAs
     List<UpiVpa> searchVpas(String query);
+
+    // Prefix autocomplete for the payee picker; limit defaults to 10 and is capped at 20
+    List<String> suggestVpas(String prefix, Integer limit);
 }
 
 
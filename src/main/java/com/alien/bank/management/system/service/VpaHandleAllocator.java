@@ -0,0 +1,10 @@
+package com.alien.bank.management.system.service;
+
+/**
+ * Hands out generated VPAs for a handle in the order handle@mybank, handle1@mybank, handle2@mybank...
+ */
+public interface VpaHandleAllocator {
+    // Reserves the next suffix and returns its VPA. The reservation commits on its own, so a caller
+    // that rolls back leaves a gap; a caller that loses the unique insert should allocate again.
+    String allocate(String handle);
+}
@@ -0,0 +1,23 @@
+package com.alien.bank.management.system.service;
+
+import com.alien.bank.management.system.model.upi.VpaRecord;
+
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Cached VPA -> account resolution for the UPI hot paths. Writers of upi_vpa (and of a user's
+ * global UPI PIN) must invalidate the affected entries.
+ */
+public interface VpaResolver {
+    Optional<VpaRecord> resolve(String vpa);
+
+    boolean exists(String vpa);
+
+    void invalidate(String vpa);
+
+    // Every cached VPA of the user, e.g. after the default VPA or the global PIN changed
+    void invalidateUser(Long userId);
+
+    Map<String, Object> getMetrics();
+}
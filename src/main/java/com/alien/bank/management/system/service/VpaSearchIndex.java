@@ -0,0 +1,19 @@
+package com.alien.bank.management.system.service;
+
+import java.util.List;
+
+/**
+ * Prefix autocomplete over every VPA for the payee picker. Writers of upi_vpa must report
+ * created and deleted VPAs so the index stays in step with the table.
+ */
+public interface VpaSearchIndex {
+    // Up to limit VPAs starting with prefix (case-insensitive), in VPA order
+    List<String> suggest(String prefix, int limit);
+
+    void add(String vpa);
+
+    void remove(String vpa);
+
+    // Reloads the whole index from upi_vpa; returns the number of VPAs indexed
+    int rebuild();
+}
@@ -1,12 +1,12 @@
 package com.alien.bank.management.system.service.impl;
 
 import com.alien.bank.management.system.entity.Account;
-import com.alien.bank.management.system.entity.Transaction;
 import com.alien.bank.management.system.entity.TransactionType;
 import com.alien.bank.management.system.model.transaction.AiInsightsResponse;
+import com.alien.bank.management.system.model.transaction.MonthlyTypeTotal;
 import com.alien.bank.management.system.repository.AccountRepository;
-import com.alien.bank.management.system.repository.TransactionRepository;
 import com.alien.bank.management.system.service.AnalyticsService;
+import com.alien.bank.management.system.service.MonthlyRollupService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -20,7 +20,7 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class AnalyticsServiceImpl implements AnalyticsService {
 
-    private final TransactionRepository transactionRepository;
+    private final MonthlyRollupService monthlyRollupService;
     private final AccountRepository accountRepository;
 
     @Override
@@ -41,14 +41,14 @@ public class AnalyticsServiceImpl implements AnalyticsService {
         cal.add(Calendar.MONTH, -lookbackMonths);
         Date fromDate = cal.getTime();
 
-        List<Transaction> txs = transactionRepository
-                .findByAccountIdAndTimestampBetweenOrderByTimestampAsc(accountId, fromDate, toDate);
+        // Monthly per-type totals: fixed cost per month regardless of how many transactions it holds
+        List<MonthlyTypeTotal> totals = monthlyRollupService.getMonthlyTotals(accountId, fromDate, toDate);
 
         // Categorize by type as a simple heuristic
         Map<String, Double> categoryTotals = new HashMap<>();
-        for (Transaction t : txs) {
+        for (MonthlyTypeTotal t : totals) {
             String category = determineCategory(t.getType());
-            categoryTotals.merge(category, t.getAmount(), Double::sum);
+            categoryTotals.merge(category, t.getTotalAmount(), Double::sum);
         }
 
         List<Map<String, Object>> topCategories = categoryTotals.entrySet().stream()
@@ -71,17 +71,14 @@ public class AnalyticsServiceImpl implements AnalyticsService {
             monthNet.put(key, 0.0);
             iter.add(Calendar.MONTH, 1);
         }
-        for (Transaction t : txs) {
-            Calendar ts = Calendar.getInstance();
-            ts.setTime(t.getTimestamp());
-            String key = ts.get(Calendar.YEAR) + "-" + String.format("%02d", ts.get(Calendar.MONTH) + 1);
+        for (MonthlyTypeTotal t : totals) {
             double delta = 0.0;
             if (t.getType() == TransactionType.DEPOSIT || t.getType() == TransactionType.INTEREST || t.getType() == TransactionType.REFUND || t.getType() == TransactionType.TRANSFER_IN) {
-                delta = t.getAmount();
+                delta = t.getTotalAmount();
             } else if (t.getType() == TransactionType.WITHDRAW || t.getType() == TransactionType.FEE || t.getType() == TransactionType.PAYMENT || t.getType() == TransactionType.TRANSFER_OUT) {
-                delta = -t.getAmount();
+                delta = -t.getTotalAmount();
             }
-            monthNet.merge(key, delta, Double::sum);
+            monthNet.merge(t.getMonth(), delta, Double::sum);
         }
 
         List<Map<String, Object>> monthlyTrends = monthNet.entrySet().stream()
@@ -0,0 +1,270 @@
+package com.alien.bank.management.system.service.impl;
+
+import com.alien.bank.management.system.entity.Account;
+import com.alien.bank.management.system.entity.AccountDailyBalance;
+import com.alien.bank.management.system.entity.Transaction;
+import com.alien.bank.management.system.entity.TransactionType;
+import com.alien.bank.management.system.model.transaction.TransactionStatementResponse;
+import com.alien.bank.management.system.repository.AccountDailyBalanceRepository;
+import com.alien.bank.management.system.repository.AccountMonthlyRollupRepository;
+import com.alien.bank.management.system.repository.TransactionRepository;
+import com.alien.bank.management.system.service.BalanceSnapshotService;
+import com.alien.bank.management.system.service.MonthlyRollupService;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.*;
+import java.util.stream.Stream;
+
+import static com.alien.bank.management.system.utils.LedgerCalendar.nextDay;
+import static com.alien.bank.management.system.utils.LedgerCalendar.nextMonth;
+import static com.alien.bank.management.system.utils.LedgerCalendar.startOfDay;
+import static com.alien.bank.management.system.utils.LedgerCalendar.startOfMonth;
+
+@Service
+@RequiredArgsConstructor
+public class BalanceSnapshotServiceImpl implements BalanceSnapshotService {
+    private static final Logger logger = LoggerFactory.getLogger(BalanceSnapshotServiceImpl.class);
+
+    private final AccountDailyBalanceRepository snapshotRepository;
+    private final AccountMonthlyRollupRepository rollupRepository;
+    private final TransactionRepository transactionRepository;
+    private final MonthlyRollupService monthlyRollupService;
+
+    @Override
+    @Transactional
+    public void recordTransaction(Transaction transaction) {
+        recordTransactions(List.of(transaction));
+    }
+
+    @Override
+    @Transactional
+    public void recordTransactions(List<Transaction> transactions) {
+        Map<Date, List<Transaction>> byDay = new TreeMap<>();
+        for (Transaction t : transactions) {
+            byDay.computeIfAbsent(startOfDay(t.getTimestamp()), k -> new ArrayList<>()).add(t);
+        }
+        byDay.forEach((day, dayTransactions) -> {
+            Set<Long> accountIds = new TreeSet<>();
+            dayTransactions.forEach(t -> accountIds.add(t.getAccount().getId()));
+            Map<Long, AccountDailyBalance> snapshots = new HashMap<>();
+            for (AccountDailyBalance existing : snapshotRepository.findAllForUpdate(accountIds, day)) {
+                snapshots.put(existing.getAccountId(), existing);
+            }
+            for (Transaction t : dayTransactions) {
+                AccountDailyBalance snapshot = snapshots.computeIfAbsent(t.getAccount().getId(),
+                        accountId -> newSnapshot(accountId, day, t.getTimestamp(), t.getId(), t.getBalanceAfter()));
+                apply(snapshot, t.getType(), t.getAmount(), t.getBalanceAfter(), t.getTimestamp(), t.getId());
+            }
+            snapshotRepository.saveAll(snapshots.values());
+        });
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Double getOpeningBalance(Long accountId, Date fromDate) {
+        // Last transaction earlier on the same day, otherwise the previous day's close
+        Date fromDay = startOfDay(fromDate);
+        if (fromDate.after(fromDay)) {
+            Double sameDay = transactionRepository.findLastBalanceBetween(accountId, fromDay, new Date(fromDate.getTime() - 1));
+            if (sameDay != null) {
+                return sameDay;
+            }
+        }
+        return closeBefore(accountId, fromDay);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Double getClosingBalance(Long accountId, Date toDate) {
+        Date toDay = startOfDay(toDate);
+        Double sameDay = transactionRepository.findLastBalanceBetween(accountId, toDay, toDate);
+        if (sameDay != null) {
+            return sameDay;
+        }
+        return closeBefore(accountId, toDay);
+    }
+
+    // Closing balance of the last day before the given one. A snapshot's closing balance is right even
+    // for a day only partly recorded; with no snapshot at all (history older than the snapshots, not yet
+    // backfilled) the last earlier transaction is looked up instead.
+    private Double closeBefore(Long accountId, Date day) {
+        return snapshotRepository.findFirstByAccountIdAndDayLessThanOrderByDayDesc(accountId, day)
+                .map(AccountDailyBalance::getClosingBalance)
+                .orElseGet(() -> transactionRepository.findLastBalanceBefore(accountId, day));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public TransactionStatementResponse.TransactionSummary getStatementSummary(Account account, Date fromDate, Date toDate) {
+        Long accountId = account.getId();
+        Date fromDay = startOfDay(fromDate);
+        Date toDay = startOfDay(toDate);
+
+        Totals totals = new Totals();
+        if (!fromDay.before(toDay)) {
+            // whole range inside one day: the raw scan is already bounded
+            totals.add(transactionRepository.getTransactionSummary(accountId, fromDate, toDate));
+        } else {
+            Date firstFullDay = fromDate.equals(fromDay) ? fromDay : nextDay(fromDay);
+            if (firstFullDay.after(fromDate)) {
+                totals.add(transactionRepository.getTransactionSummary(accountId, fromDate, new Date(firstFullDay.getTime() - 1)));
+            }
+            if (firstFullDay.before(toDay)) {
+                // days the snapshots do not hold yet are summed from the transactions
+                Date snapshotsFrom = max(firstFullDay, snapshotsCompleteFrom(accountId));
+                if (snapshotsFrom.after(firstFullDay)) {
+                    Date rawTo = snapshotsFrom.before(toDay) ? snapshotsFrom : toDay;
+                    totals.add(transactionRepository.getTransactionSummary(accountId, firstFullDay, new Date(rawTo.getTime() - 1)));
+                }
+                if (snapshotsFrom.before(toDay)) {
+                    addWholeDays(totals, accountId, snapshotsFrom, toDay);
+                }
+            }
+            totals.add(transactionRepository.getTransactionSummary(accountId, toDay, toDate));
+        }
+
+        Double openingBalance = getOpeningBalance(accountId, fromDate);
+        Double closingBalance = getClosingBalance(accountId, toDate);
+        return TransactionStatementResponse.TransactionSummary.builder()
+                .totalTransactions((int) totals.count)
+                .totalDeposits(totals.deposits)
+                .totalWithdrawals(totals.withdrawals)
+                .totalFees(totals.fees)
+                .totalInterest(totals.interest)
+                .netChange(totals.deposits - totals.withdrawals + totals.interest - totals.fees)
+                .openingBalance(openingBalance != null ? openingBalance : 0.0)
+                .closingBalance(closingBalance != null ? closingBalance : account.getBalance())
+                .build();
+    }
+
+    @Override
+    @Transactional
+    public int backfill(Long accountId) {
+        snapshotRepository.deleteByAccountId(accountId);
+        int days = 0;
+        AccountDailyBalance current = null;
+        try (Stream<TransactionRepository.TransactionRowProjection> rows = transactionRepository.streamAllTransactions(accountId)) {
+            for (TransactionRepository.TransactionRowProjection row : (Iterable<TransactionRepository.TransactionRowProjection>) rows::iterator) {
+                Date day = startOfDay(row.getTimestamp());
+                if (current == null || !current.getDay().equals(day)) {
+                    if (current != null) {
+                        snapshotRepository.save(current);
+                        days++;
+                    }
+                    current = newSnapshot(accountId, day, row.getTimestamp(), row.getId(), row.getBalanceAfter());
+                }
+                apply(current, row.getType(), row.getAmount(), row.getBalanceAfter(), row.getTimestamp(), row.getId());
+            }
+        }
+        if (current != null) {
+            snapshotRepository.save(current);
+            days++;
+        }
+        logger.info("Rebuilt {} daily balance snapshots for account {}", days, accountId);
+        return days;
+    }
+
+    // First day from which the snapshots hold every transaction of the account. Snapshots are kept from
+    // the deploy that introduced them, so older days are missing and that first day only has its later
+    // part, until backfill() rebuilds the account from its first transaction.
+    private Date snapshotsCompleteFrom(Long accountId) {
+        Date firstTxnAt = transactionRepository.findFirstTimestamp(accountId);
+        if (firstTxnAt == null) {
+            return new Date(0);
+        }
+        Optional<AccountDailyBalance> oldest = snapshotRepository.findFirstByAccountIdOrderByDayAsc(accountId);
+        if (oldest.isEmpty()) {
+            return nextDay(startOfDay(new Date()));
+        }
+        Date firstDay = startOfDay(firstTxnAt);
+        Date oldestDay = oldest.get().getDay();
+        if (!oldestDay.after(firstDay)) {
+            TransactionRepository.TransactionSummaryProjection onFirstDay =
+                    transactionRepository.getTransactionSummary(accountId, firstDay, new Date(nextDay(firstDay).getTime() - 1));
+            if (onFirstDay == null || oldest.get().getTxCount() >= onFirstDay.getTotalTransactions()) {
+                return firstDay;
+            }
+        }
+        return nextDay(oldestDay);
+    }
+
+    private static Date max(Date a, Date b) {
+        return a.after(b) ? a : b;
+    }
+
+    // Whole months come from the monthly rollups, the leftover days at either end from the daily snapshots
+    private void addWholeDays(Totals totals, Long accountId, Date fromDay, Date toDayExclusive) {
+        Date firstFullMonth = fromDay.equals(startOfMonth(fromDay)) ? fromDay : nextMonth(startOfMonth(fromDay));
+        Date lastMonthStart = startOfMonth(toDayExclusive);
+        if (!firstFullMonth.before(lastMonthStart)) {
+            totals.add(snapshotRepository.sumDays(accountId, fromDay, toDayExclusive));
+            return;
+        }
+        if (fromDay.before(firstFullMonth)) {
+            totals.add(snapshotRepository.sumDays(accountId, fromDay, firstFullMonth));
+        }
+        // months the rollups do not hold yet come from the daily snapshots, which cover this range
+        Date rollupsFrom = max(firstFullMonth, monthlyRollupService.getCompleteFrom(accountId));
+        if (rollupsFrom.after(firstFullMonth)) {
+            totals.add(snapshotRepository.sumDays(accountId, firstFullMonth, rollupsFrom.before(lastMonthStart) ? rollupsFrom : lastMonthStart));
+        }
+        if (rollupsFrom.before(lastMonthStart)) {
+            totals.add(rollupRepository.sumMonths(accountId, rollupsFrom, lastMonthStart));
+        }
+        if (lastMonthStart.before(toDayExclusive)) {
+            totals.add(snapshotRepository.sumDays(accountId, lastMonthStart, toDayExclusive));
+        }
+    }
+
+    private AccountDailyBalance newSnapshot(Long accountId, Date day, Date timestamp, Long txnId, Double balanceAfter) {
+        return AccountDailyBalance.builder()
+                .accountId(accountId)
+                .day(day)
+                .closingBalance(balanceAfter)
+                .lastTxnAt(timestamp)
+                .lastTxnId(txnId)
+                .build();
+    }
+
+    private void apply(AccountDailyBalance snapshot, TransactionType type, Double amount, Double balanceAfter, Date timestamp, Long txnId) {
+        switch (type) {
+            case DEPOSIT -> snapshot.setTotalDeposits(snapshot.getTotalDeposits() + amount);
+            case WITHDRAW -> snapshot.setTotalWithdrawals(snapshot.getTotalWithdrawals() + amount);
+            case FEE -> snapshot.setTotalFees(snapshot.getTotalFees() + amount);
+            case INTEREST -> snapshot.setTotalInterest(snapshot.getTotalInterest() + amount);
+            default -> { }
+        }
+        snapshot.setTxCount(snapshot.getTxCount() + 1);
+
+        // Only the latest transaction of the day decides the closing balance
+        int order = timestamp.compareTo(snapshot.getLastTxnAt());
+        if (order > 0 || (order == 0 && txnId >= snapshot.getLastTxnId())) {
+            snapshot.setClosingBalance(balanceAfter);
+            snapshot.setLastTxnAt(timestamp);
+            snapshot.setLastTxnId(txnId);
+        }
+    }
+
+    private static class Totals {
+        private long count;
+        private double deposits;
+        private double withdrawals;
+        private double fees;
+        private double interest;
+
+        void add(TransactionRepository.TransactionSummaryProjection p) {
+            if (p == null) {
+                return;
+            }
+            count += p.getTotalTransactions() != null ? p.getTotalTransactions() : 0;
+            deposits += p.getTotalDeposits() != null ? p.getTotalDeposits() : 0.0;
+            withdrawals += p.getTotalWithdrawals() != null ? p.getTotalWithdrawals() : 0.0;
+            fees += p.getTotalFees() != null ? p.getTotalFees() : 0.0;
+            interest += p.getTotalInterest() != null ? p.getTotalInterest() : 0.0;
+        }
+    }
+}
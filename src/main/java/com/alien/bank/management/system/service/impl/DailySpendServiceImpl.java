@@ -0,0 +1,145 @@
+package com.alien.bank.management.system.service.impl;
+
+import com.alien.bank.management.system.entity.AccountDailySpend;
+import com.alien.bank.management.system.repository.AccountDailySpendRepository;
+import com.alien.bank.management.system.repository.TransactionRepository;
+import com.alien.bank.management.system.service.DailySpendService;
+import com.alien.bank.management.system.utils.LedgerCalendar;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The account_daily_spend row is the authority: recordSpend checks and increments it with one
+ * conditional UPDATE inside the debit transaction, so concurrent debits cannot overshoot the limit.
+ * Counters are cached in memory for the pre-check and adjusted only after the debit commits; the
+ * whole cache is dropped when the day rolls over.
+ *
+ * The first counter of the day is seeded from that day's outgoing transactions, which covers
+ * spends made before the counter existed (first deploy) without a backfill.
+ */
+@Service
+@RequiredArgsConstructor
+public class DailySpendServiceImpl implements DailySpendService {
+    private static final int MAX_CACHED_ACCOUNTS = 100_000;
+
+    private final AccountDailySpendRepository spendRepository;
+    private final TransactionRepository transactionRepository;
+
+    @Value("${upi.daily-limit:50000}")
+    private double dailyLimit;
+
+    private final Map<Long, DaySpend> cache = new ConcurrentHashMap<>();
+    private volatile Date cacheDay = LedgerCalendar.startOfDay(new Date());
+
+    @Override
+    public double getDailyLimit() {
+        return dailyLimit;
+    }
+
+    @Override
+    public double getSpentToday(Long accountId) {
+        Date day = today();
+        DaySpend cached = cache.get(accountId);
+        if (cached != null && cached.day().equals(day)) {
+            return cached.amount();
+        }
+        double spent = spendRepository.findByAccountIdAndDay(accountId, day)
+                .map(AccountDailySpend::getAmount)
+                .orElseGet(() -> seed(accountId, day));
+        if (cache.size() < MAX_CACHED_ACCOUNTS) {
+            cache.put(accountId, new DaySpend(day, spent));
+        }
+        return spent;
+    }
+
+    @Override
+    public void checkLimit(Long accountId, double amount) {
+        if (getSpentToday(accountId) + amount > dailyLimit) {
+            throw limitExceeded();
+        }
+    }
+
+    @Override
+    @Transactional
+    public void recordSpend(Long accountId, double amount) {
+        Date day = today();
+        if (spendRepository.addWithinLimit(accountId, day, amount, dailyLimit) == 0) {
+            if (spendRepository.findByAccountIdAndDay(accountId, day).isPresent()) {
+                throw limitExceeded();
+            }
+            // first spend of the day; a concurrent first insert loses on the unique key and is retried
+            double spent = seed(accountId, day);
+            if (spent + amount > dailyLimit) {
+                throw limitExceeded();
+            }
+            spendRepository.save(AccountDailySpend.builder()
+                    .accountId(accountId)
+                    .day(day)
+                    .amount(spent + amount)
+                    .build());
+        }
+        afterCommit(accountId, day, amount);
+    }
+
+    @Override
+    @Transactional
+    public void releaseSpend(Long accountId, double amount) {
+        Date day = today();
+        spendRepository.subtract(accountId, day, amount);
+        afterCommit(accountId, day, -amount);
+    }
+
+    private double seed(Long accountId, Date day) {
+        Date endOfDay = new Date(LedgerCalendar.nextDay(day).getTime() - 1);
+        Double spent = transactionRepository.sumOutgoingForRange(accountId, day, endOfDay);
+        return spent != null ? spent : 0.0;
+    }
+
+    private void afterCommit(Long accountId, Date day, double delta) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            adjustCache(accountId, day, delta);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                adjustCache(accountId, day, delta);
+            }
+        });
+    }
+
+    private void adjustCache(Long accountId, Date day, double delta) {
+        cache.computeIfPresent(accountId, (id, cached) -> cached.day().equals(day)
+                ? new DaySpend(day, Math.max(0.0, cached.amount() + delta))
+                : null);
+    }
+
+    private Date today() {
+        Date day = LedgerCalendar.startOfDay(new Date());
+        if (!day.equals(cacheDay)) {
+            synchronized (this) {
+                if (!day.equals(cacheDay)) {
+                    cache.clear();
+                    cacheDay = day;
+                }
+            }
+        }
+        return day;
+    }
+
+    private static AccessDeniedException limitExceeded() {
+        return new AccessDeniedException("Exceeded daily transfer limit");
+    }
+
+    private record DaySpend(Date day, double amount) {
+    }
+}
@@ -0,0 +1,463 @@
+package com.alien.bank.management.system.service.impl;
+
+import com.alien.bank.management.system.entity.Account;
+import com.alien.bank.management.system.entity.LedgerJournalEntry;
+import com.alien.bank.management.system.entity.LedgerProjectionOffset;
+import com.alien.bank.management.system.entity.Transaction;
+import com.alien.bank.management.system.entity.TransactionType;
+import com.alien.bank.management.system.exception.ConcurrentUpdateException;
+import com.alien.bank.management.system.exception.LowBalanceException;
+import com.alien.bank.management.system.model.transaction.JournalReceipt;
+import com.alien.bank.management.system.repository.AccountRepository;
+import com.alien.bank.management.system.repository.LedgerJournalRepository;
+import com.alien.bank.management.system.repository.LedgerProjectionOffsetRepository;
+import com.alien.bank.management.system.repository.TransactionRepository;
+import com.alien.bank.management.system.service.LedgerJournalService;
+import com.alien.bank.management.system.service.LedgerService;
+import com.alien.bank.management.system.utils.OptimisticRetryExecutor;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityNotFoundException;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Append-only journal engine. Every account is pinned to one writer thread (accountId modulo
+ * ledger.journal.writers); that thread is the only one in this JVM that appends debits for the
+ * account or applies its projection. Both also hold the account row with SELECT ... FOR UPDATE, so
+ * the writers of other instances queue behind them and the balance check cannot race an append
+ * made elsewhere. A transfer is appended by the sender's writer and projected on the receiver's writer.
+ *
+ * The projection applies entries after LedgerProjectionOffset.lastEntryId in id order, writes the
+ * Transaction rows through LedgerService (so snapshots, rollups and search stay in step) and
+ * advances the offset in the same transaction. Entries left pending by a failed projection are
+ * picked up by the account's next posting, or on startup.
+ */
+@Service
+@RequiredArgsConstructor
+public class LedgerJournalServiceImpl implements LedgerJournalService {
+    private static final Logger log = LoggerFactory.getLogger(LedgerJournalServiceImpl.class);
+    private static final int PROJECTION_PAGE = 500;
+    private static final double DRIFT_TOLERANCE = 1e-6;
+
+    private final AccountRepository accountRepository;
+    private final LedgerJournalRepository journalRepository;
+    private final LedgerProjectionOffsetRepository offsetRepository;
+    private final TransactionRepository transactionRepository;
+    private final LedgerService ledgerService;
+    private final OptimisticRetryExecutor retryExecutor;
+
+    @Value("${ledger.engine:direct}")
+    private String engine;
+
+    @Value("${ledger.journal.consistency:strict}")
+    private String consistency;
+
+    @Value("${ledger.journal.writers:4}")
+    private int writerCount;
+
+    @Value("${ledger.journal.timeout-ms:5000}")
+    private long timeoutMs;
+
+    private ExecutorService[] writers = new ExecutorService[0];
+
+    @PostConstruct
+    void startWriters() {
+        if (!isEnabled()) {
+            return;
+        }
+        writers = new ExecutorService[Math.max(1, writerCount)];
+        for (int i = 0; i < writers.length; i++) {
+            String name = "ledger-writer-" + i;
+            writers[i] = Executors.newSingleThreadExecutor(r -> {
+                Thread t = new Thread(r, name);
+                t.setDaemon(true);
+                return t;
+            });
+        }
+        log.info("Journal ledger engine started with {} writers, {} consistency", writers.length, consistency);
+    }
+
+    @PreDestroy
+    void stopWriters() {
+        for (ExecutorService writer : writers) {
+            writer.shutdown();
+        }
+    }
+
+    // Projections left behind by a crash or a failed apply
+    @EventListener(ApplicationReadyEvent.class)
+    public void catchUp() {
+        if (!isEnabled()) {
+            return;
+        }
+        for (Long accountId : journalRepository.findAccountIdsWithPendingEntries()) {
+            writerFor(accountId).execute(() -> projectQuietly(accountId));
+        }
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return "journal".equalsIgnoreCase(engine);
+    }
+
+    @Override
+    public JournalReceipt post(Long accountId, TransactionType type, double amount, String notes) {
+        if (amount <= 0) {
+            throw new IllegalArgumentException("Amount must be positive");
+        }
+        double delta = isCredit(type) ? amount : -amount;
+        return submit(accountId, List.of(leg(accountId, type, delta, notes)));
+    }
+
+    @Override
+    public JournalReceipt transfer(Long fromAccountId, Long toAccountId, double amount, String debitNotes, String creditNotes) {
+        if (amount <= 0) {
+            throw new IllegalArgumentException("Amount must be positive");
+        }
+        return submit(fromAccountId, List.of(
+                leg(fromAccountId, TransactionType.TRANSFER_OUT, -amount, debitNotes),
+                leg(toAccountId, TransactionType.TRANSFER_IN, amount, creditNotes)));
+    }
+
+    @Override
+    public int project(Long accountId) {
+        requireEnabled();
+        return await(CompletableFuture.supplyAsync(() -> applyPending(accountId).size(), writerFor(accountId)));
+    }
+
+    @Override
+    public Map<String, Object> replay(Long accountId, boolean apply) {
+        requireEnabled();
+        return await(CompletableFuture.supplyAsync(() -> doReplay(accountId, apply), writerFor(accountId)));
+    }
+
+    @Override
+    public List<Map<String, Object>> replayAll(boolean apply) {
+        List<Map<String, Object>> results = new ArrayList<>();
+        for (Long accountId : offsetRepository.findAllAccountIds()) {
+            results.add(replay(accountId, apply));
+        }
+        return results;
+    }
+
+    // Appends on the owner's writer, then projects; the caller waits for whichever the consistency mode needs
+    private JournalReceipt submit(Long ownerAccountId, List<LedgerJournalEntry> legs) {
+        requireEnabled();
+        AppendTicket ticket = new AppendTicket();
+        CompletableFuture<JournalReceipt> appended = new CompletableFuture<>();
+        CompletableFuture<JournalReceipt> projected = new CompletableFuture<>();
+        writerFor(ownerAccountId).execute(() -> {
+            if (!ticket.take()) {
+                // the caller stopped waiting and was told the posting failed; it must not happen later
+                return;
+            }
+            JournalReceipt receipt;
+            try {
+                receipt = retryExecutor.execute("journalAppend", "account:" + ownerAccountId,
+                        () -> append(ownerAccountId, legs));
+            } catch (RuntimeException e) {
+                appended.completeExceptionally(e);
+                projected.completeExceptionally(e);
+                return;
+            }
+            appended.complete(receipt);
+
+            List<CompletableFuture<?>> others = new ArrayList<>();
+            for (LedgerJournalEntry leg : legs) {
+                if (!leg.getAccountId().equals(ownerAccountId)) {
+                    Long otherId = leg.getAccountId();
+                    others.add(CompletableFuture.runAsync(() -> projectQuietly(otherId), writerFor(otherId)));
+                }
+            }
+            Transaction own = projectQuietly(ownerAccountId).get(receipt.getEntryId());
+            JournalReceipt result = own == null ? receipt : receipt.toBuilder()
+                    .transactionId(own.getId())
+                    .balanceAfter(own.getBalanceAfter())
+                    .projected(true)
+                    .build();
+            CompletableFuture.allOf(others.toArray(new CompletableFuture[0]))
+                    .whenComplete((v, e) -> projected.complete(result));
+        });
+        JournalReceipt receipt = awaitAppend(ticket, appended);
+        if (!isStrict()) {
+            return receipt;
+        }
+        try {
+            return await(projected);
+        } catch (ConcurrentUpdateException e) {
+            // the posting is durable once appended; a slow projection must not report it as failed
+            return receipt;
+        }
+    }
+
+    // Only a posting that never started may be reported as failed; one the writer took is waited for
+    private JournalReceipt awaitAppend(AppendTicket ticket, CompletableFuture<JournalReceipt> appended) {
+        try {
+            return appended.get(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            if (ticket.cancel()) {
+                throw new ConcurrentUpdateException("Ledger writer did not respond in time", e);
+            }
+            return awaitTaken(appended);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            if (ticket.cancel()) {
+                throw new ConcurrentUpdateException("Interrupted while waiting for the ledger writer", e);
+            }
+            return awaitTaken(appended);
+        } catch (ExecutionException e) {
+            throw unwrap(e.getCause());
+        }
+    }
+
+    private JournalReceipt awaitTaken(CompletableFuture<JournalReceipt> appended) {
+        try {
+            return appended.join();
+        } catch (CompletionException e) {
+            throw unwrap(e.getCause());
+        }
+    }
+
+    private JournalReceipt append(Long ownerAccountId, List<LedgerJournalEntry> legs) {
+        // locked before anything reads it, so the balance below is the committed one
+        Account owner = accountRepository.findByIdForUpdate(ownerAccountId)
+                .orElseThrow(() -> new EntityNotFoundException("Account not found"));
+        Map<Long, LedgerProjectionOffset> offsets = new HashMap<>();
+        for (LedgerJournalEntry leg : legs) {
+            offsets.computeIfAbsent(leg.getAccountId(), this::openAccount);
+        }
+
+        // projected balance plus everything appended but not yet applied
+        double balance = owner.getBalance()
+                + journalRepository.sumAfter(ownerAccountId, offsets.get(ownerAccountId).getLastEntryId());
+
+        String postingId = UUID.randomUUID().toString();
+        Date now = new Date();
+        int ownLeg = -1;
+        for (int i = 0; i < legs.size(); i++) {
+            LedgerJournalEntry leg = legs.get(i);
+            if (leg.getAccountId().equals(ownerAccountId)) {
+                balance += leg.getAmount();
+                if (ownLeg < 0) {
+                    ownLeg = i;
+                }
+            } else if (leg.getAmount() < 0) {
+                // only the owner's writer may debit an account
+                throw new IllegalArgumentException("Posting debits an account other than its owner");
+            }
+        }
+        if (balance < 0) {
+            throw new LowBalanceException("Insufficient balance");
+        }
+
+        List<LedgerJournalEntry> entries = new ArrayList<>(legs.size());
+        for (LedgerJournalEntry leg : legs) {
+            entries.add(LedgerJournalEntry.builder()
+                    .postingId(postingId)
+                    .accountId(leg.getAccountId())
+                    .type(leg.getType())
+                    .amount(leg.getAmount())
+                    .notes(leg.getNotes())
+                    .createdAt(now)
+                    .build());
+        }
+        entries = journalRepository.saveAll(entries);
+        Long entryId = entries.get(ownLeg).getId();
+
+        return JournalReceipt.builder()
+                .postingId(postingId)
+                .entryId(entryId)
+                .balanceAfter(balance)
+                .projected(false)
+                .build();
+    }
+
+    // First posting for an account: carry its current balance into the journal as an opening entry
+    private LedgerProjectionOffset openAccount(Long accountId) {
+        return offsetRepository.findById(accountId).orElseGet(() -> {
+            Account account = accountRepository.findById(accountId)
+                    .orElseThrow(() -> new EntityNotFoundException("Account " + accountId + " not found"));
+            LedgerJournalEntry opening = journalRepository.save(LedgerJournalEntry.builder()
+                    .postingId(UUID.randomUUID().toString())
+                    .accountId(accountId)
+                    .amount(account.getBalance())
+                    .notes("Opening balance")
+                    .createdAt(new Date())
+                    .build());
+            // the opening entry is already reflected in Account.balance
+            return offsetRepository.save(new LedgerProjectionOffset(accountId, opening.getId()));
+        });
+    }
+
+    private Map<Long, Transaction> projectQuietly(Long accountId) {
+        try {
+            return applyPending(accountId);
+        } catch (RuntimeException e) {
+            log.error("Journal projection failed for account {}: {}", accountId, e.getMessage(), e);
+            return Map.of();
+        }
+    }
+
+    // Must run on the account's writer
+    private Map<Long, Transaction> applyPending(Long accountId) {
+        return retryExecutor.execute("journalProject", "account:" + accountId, () -> {
+            LedgerProjectionOffset offset = offsetRepository.findById(accountId).orElse(null);
+            if (offset == null) {
+                return Map.<Long, Transaction>of();
+            }
+            Account account = accountRepository.findByIdForUpdate(accountId)
+                    .orElseThrow(() -> new EntityNotFoundException("Account " + accountId + " not found"));
+
+            Map<Long, Transaction> applied = new LinkedHashMap<>();
+            double balance = account.getBalance();
+            List<LedgerJournalEntry> page;
+            do {
+                page = journalRepository.findByAccountIdAndIdGreaterThanOrderByIdAsc(
+                        accountId, offset.getLastEntryId(), PageRequest.of(0, PROJECTION_PAGE));
+                for (LedgerJournalEntry entry : page) {
+                    offset.setLastEntryId(entry.getId());
+                    if (entry.getType() == null) {
+                        continue;
+                    }
+                    balance += entry.getAmount();
+                    if (entry.getAmount() < 0 && balance < 0) {
+                        // rolls the whole projection back; the entry stays pending for an operator
+                        throw new IllegalStateException("Journal entry " + entry.getId() + " would overdraw account " + accountId);
+                    }
+                    account.setBalance(balance);
+                    Transaction transaction = Transaction.builder()
+                            .type(entry.getType())
+                            .amount(Math.abs(entry.getAmount()))
+                            .balanceAfter(balance)
+                            .timestamp(entry.getCreatedAt())
+                            .notes(entry.getNotes() != null ? entry.getNotes() : "Account Balance " + balance)
+                            .account(account)
+                            .build();
+                    applied.put(entry.getId(), ledgerService.record(transaction));
+                }
+            } while (page.size() == PROJECTION_PAGE);
+
+            if (!applied.isEmpty()) {
+                accountRepository.save(account);
+            }
+            offsetRepository.save(offset);
+            return applied;
+        });
+    }
+
+    private Map<String, Object> doReplay(Long accountId, boolean apply) {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("accountId", accountId);
+        if (!offsetRepository.existsById(accountId)) {
+            result.put("journaled", false);
+            return result;
+        }
+        result.put("projectedEntries", applyPending(accountId).size());
+        return retryExecutor.execute("journalReplay", "account:" + accountId, () -> {
+            Account account = accountRepository.findById(accountId)
+                    .orElseThrow(() -> new EntityNotFoundException("Account " + accountId + " not found"));
+            double journalBalance = journalRepository.sumByAccountId(accountId);
+            double drift = account.getBalance() - journalBalance;
+            long writesOutside = countWritesOutsideJournal(accountId);
+            boolean rebuilt = apply && writesOutside == 0 && Math.abs(drift) > DRIFT_TOLERANCE;
+            if (apply && writesOutside > 0) {
+                log.warn("Not replacing balance of account {}: {} transactions were written outside the journal", accountId, writesOutside);
+            }
+            if (rebuilt) {
+                log.warn("Replacing balance of account {} ({}) with journal balance {}", accountId, account.getBalance(), journalBalance);
+                account.setBalance(journalBalance);
+                accountRepository.save(account);
+            }
+            result.put("journaled", true);
+            result.put("journalBalance", journalBalance);
+            result.put("accountBalance", account.getBalance());
+            result.put("drift", drift);
+            result.put("writesOutsideJournal", writesOutside);
+            result.put("rebuilt", rebuilt);
+            return result;
+        });
+    }
+
+    // Every posting path goes through the journal while it is enabled, but a posting made while the
+    // engine was off (or by an instance still running the direct engine) changes Account.balance
+    // without it. Then the journal sum is not the balance, so apply must not overwrite it. Counts the
+    // account's transactions since it was journaled that no entry produced.
+    private long countWritesOutsideJournal(Long accountId) {
+        LedgerJournalEntry opening = journalRepository.findFirstByAccountIdOrderByIdAsc(accountId).orElse(null);
+        LedgerProjectionOffset offset = offsetRepository.findById(accountId).orElse(null);
+        if (opening == null || offset == null) {
+            return 0;
+        }
+        long written = transactionRepository.countByAccountIdAndTimestampGreaterThanEqual(accountId, opening.getCreatedAt());
+        long projected = journalRepository.countByAccountIdAndTypeIsNotNullAndIdLessThanEqual(accountId, offset.getLastEntryId());
+        return Math.max(0, written - projected);
+    }
+
+    private ExecutorService writerFor(Long accountId) {
+        return writers[(int) Math.floorMod(accountId, (long) writers.length)];
+    }
+
+    private <T> T await(CompletableFuture<T> future) {
+        try {
+            return future.get(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            throw unwrap(e.getCause());
+        } catch (TimeoutException e) {
+            throw new ConcurrentUpdateException("Ledger writer did not respond in time", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ConcurrentUpdateException("Interrupted while waiting for the ledger writer", e);
+        }
+    }
+
+    private static RuntimeException unwrap(Throwable cause) {
+        return cause instanceof RuntimeException runtime ? runtime : new IllegalStateException(cause);
+    }
+
+    private void requireEnabled() {
+        if (!isEnabled()) {
+            throw new IllegalStateException("Journal ledger engine is disabled (ledger.engine=direct)");
+        }
+    }
+
+    private boolean isStrict() {
+        return !"fast".equalsIgnoreCase(consistency);
+    }
+
+    private static LedgerJournalEntry leg(Long accountId, TransactionType type, double amount, String notes) {
+        return LedgerJournalEntry.builder().accountId(accountId).type(type).amount(amount).notes(notes).build();
+    }
+
+    private static boolean isCredit(TransactionType type) {
+        return type == TransactionType.DEPOSIT || type == TransactionType.TRANSFER_IN
+                || type == TransactionType.INTEREST || type == TransactionType.REFUND;
+    }
+
+    // Claimed by the writer before it appends, or by a caller that stopped waiting; only one of them wins
+    private static final class AppendTicket {
+        private static final int QUEUED = 0;
+        private static final int TAKEN = 1;
+        private static final int CANCELLED = 2;
+
+        private final AtomicInteger state = new AtomicInteger(QUEUED);
+
+        boolean take() {
+            return state.compareAndSet(QUEUED, TAKEN);
+        }
+
+        boolean cancel() {
+            return state.compareAndSet(QUEUED, CANCELLED);
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.alien.bank.management.system.service.impl;
+
+import com.alien.bank.management.system.entity.Transaction;
+import com.alien.bank.management.system.repository.LedgerBatchRepository;
+import com.alien.bank.management.system.repository.TransactionRepository;
+import com.alien.bank.management.system.service.BalanceSnapshotService;
+import com.alien.bank.management.system.service.LedgerService;
+import com.alien.bank.management.system.service.MonthlyRollupService;
+import com.alien.bank.management.system.service.NotesSearchService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+@Service
+@RequiredArgsConstructor
+public class LedgerServiceImpl implements LedgerService {
+
+    private final TransactionRepository transactionRepository;
+    private final LedgerBatchRepository ledgerBatchRepository;
+    private final BalanceSnapshotService balanceSnapshotService;
+    private final MonthlyRollupService monthlyRollupService;
+    private final NotesSearchService notesSearchService;
+
+    @Override
+    @Transactional
+    public Transaction record(Transaction transaction) {
+        Transaction saved = transactionRepository.save(transaction);
+        balanceSnapshotService.recordTransaction(saved);
+        monthlyRollupService.recordTransaction(saved);
+        notesSearchService.index(saved);
+        return saved;
+    }
+
+    @Override
+    @Transactional
+    public List<Transaction> recordAll(List<Transaction> transactions) {
+        if (transactions.isEmpty()) {
+            return transactions;
+        }
+        ledgerBatchRepository.insertTransactions(transactions);
+        balanceSnapshotService.recordTransactions(transactions);
+        monthlyRollupService.recordTransactions(transactions);
+        notesSearchService.indexAll(transactions);
+        return transactions;
+    }
+}
@@ -0,0 +1,287 @@
+package com.alien.bank.management.system.service.impl;
+
+import com.alien.bank.management.system.entity.*;
+import com.alien.bank.management.system.exception.ConcurrentUpdateException;
+import com.alien.bank.management.system.model.upi.CreateMandateRequest;
+import com.alien.bank.management.system.model.upi.VpaRecord;
+import com.alien.bank.management.system.repository.AccountRepository;
+import com.alien.bank.management.system.repository.UpiMandateRepository;
+import com.alien.bank.management.system.repository.UpiVpaRepository;
+import com.alien.bank.management.system.repository.UserRepository;
+import com.alien.bank.management.system.service.MandateService;
+import com.alien.bank.management.system.service.PinVerificationService;
+import com.alien.bank.management.system.service.UpiService;
+import com.alien.bank.management.system.service.VpaResolver;
+import com.alien.bank.management.system.utils.LogRedactionUtil;
+import jakarta.persistence.EntityNotFoundException;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Mandate API and the execution of one due run. A run is claimed with a conditional UPDATE on
+ * running_since, the money moves through {@link UpiService#sendMoneyPreAuthorized}, and the outcome
+ * is written back: the next cycle after a success, a retry with exponential backoff after a
+ * failure, and the next cycle again once the retries of a cycle are used up.
+ */
+@Service
+@RequiredArgsConstructor
+public class MandateServiceImpl implements MandateService {
+    private static final Logger logger = LoggerFactory.getLogger(MandateServiceImpl.class);
+    private static final long MINUTE_MS = TimeUnit.MINUTES.toMillis(1);
+    // upper bounds of the due windows reported in the metrics, in minutes from now
+    private static final long[] DUE_WINDOWS_MINUTES = {1, 5, 15, 60, 24 * 60};
+
+    private final UpiMandateRepository mandateRepository;
+    private final UserRepository userRepository;
+    private final AccountRepository accountRepository;
+    private final UpiVpaRepository upiVpaRepository;
+    private final VpaResolver vpaResolver;
+    private final PinVerificationService pinVerificationService;
+    private final UpiService upiService;
+    private final LogRedactionUtil logRedactionUtil;
+
+    @Value("${mandate.retry.max-attempts:4}")
+    private int maxAttempts;
+
+    @Value("${mandate.retry.base-backoff-ms:300000}")
+    private long baseBackoffMs;
+
+    @Value("${mandate.retry.max-backoff-ms:3600000}")
+    private long maxBackoffMs;
+
+    private final LongAdder succeeded = new LongAdder();
+    private final LongAdder retried = new LongAdder();
+    private final LongAdder skipped = new LongAdder();
+    private final LongAdder interrupted = new LongAdder();
+
+    @Override
+    public UpiMandate createMandate(CreateMandateRequest request) {
+        User user = currentUser();
+        VpaRecord from = vpaResolver.resolve(request.getPayerVpa())
+                .orElseThrow(() -> new EntityNotFoundException("Payer VPA not found"));
+        if (!from.getUserId().equals(user.getId())) {
+            throw new BadCredentialsException("VPA does not belong to user");
+        }
+        VpaRecord to = vpaResolver.resolve(request.getPayeeVpa())
+                .orElseThrow(() -> new EntityNotFoundException("Payee VPA not found"));
+        if (from.getAccountId().equals(to.getAccountId())) {
+            throw new IllegalArgumentException("Payer and payee must be different accounts");
+        }
+        if (!pinVerificationService.matches(request.getPin(), from.getPinHash())) {
+            logger.warn("Invalid UPI PIN for mandate from VPA: {}", logRedactionUtil.lazy(request.getPayerVpa()));
+            throw new BadCredentialsException("Invalid UPI PIN");
+        }
+
+        Date now = new Date();
+        Date startAt = request.getStartAt() != null ? request.getStartAt() : now;
+        if (startAt.getTime() < now.getTime() - MINUTE_MS) {
+            throw new IllegalArgumentException("Start date must not be in the past");
+        }
+        if (request.getEndAt() != null && request.getEndAt().before(startAt)) {
+            throw new IllegalArgumentException("End date must be after the start date");
+        }
+
+        UpiMandate saved = mandateRepository.save(UpiMandate.builder()
+                .payerVpa(request.getPayerVpa())
+                .payeeVpa(request.getPayeeVpa())
+                .payerAccountId(from.getAccountId())
+                .amount(request.getAmount())
+                .frequency(request.getFrequency())
+                .note(request.getNote())
+                .status(UpiMandateStatus.ACTIVE)
+                .startAt(startAt)
+                .endAt(request.getEndAt())
+                .nextRunAt(startAt)
+                .createdAt(now)
+                .build());
+        logger.info("Mandate {} created: {} from {} to {}", saved.getId(), request.getFrequency(),
+                logRedactionUtil.lazy(request.getPayerVpa()), logRedactionUtil.lazy(request.getPayeeVpa()));
+        return saved;
+    }
+
+    @Override
+    public List<UpiMandate> getMyMandates() {
+        List<String> vpas = upiVpaRepository.findByUser(currentUser()).stream().map(UpiVpa::getVpa).toList();
+        return vpas.isEmpty() ? List.of() : mandateRepository.findByPayerVpaInOrderByIdDesc(vpas);
+    }
+
+    @Override
+    public UpiMandate pauseMandate(Long id) {
+        return changeStatus(id, EnumSet.of(UpiMandateStatus.ACTIVE), UpiMandateStatus.PAUSED);
+    }
+
+    @Override
+    public UpiMandate resumeMandate(Long id) {
+        UpiMandate mandate = ownedMandate(id);
+        if (mandate.getStatus() != UpiMandateStatus.PAUSED) {
+            throw new IllegalArgumentException("Only a paused mandate can be resumed");
+        }
+        // a paused mandate is never claimed, so nothing races this read-modify-write
+        Date now = new Date();
+        if (mandate.getNextRunAt() != null && mandate.getNextRunAt().before(now)) {
+            mandate.setCycle(mandate.getCycle() - 1);
+            advanceCycle(mandate, now);
+        }
+        if (mandate.getStatus() == UpiMandateStatus.PAUSED) {
+            mandate.setStatus(UpiMandateStatus.ACTIVE);
+        }
+        mandate.setAttempts(0);
+        return mandateRepository.save(mandate);
+    }
+
+    @Override
+    public UpiMandate cancelMandate(Long id) {
+        return changeStatus(id, EnumSet.of(UpiMandateStatus.ACTIVE, UpiMandateStatus.PAUSED), UpiMandateStatus.CANCELLED);
+    }
+
+    private UpiMandate changeStatus(Long id, Set<UpiMandateStatus> from, UpiMandateStatus status) {
+        UpiMandate mandate = ownedMandate(id);
+        if (!from.contains(mandate.getStatus())) {
+            throw new IllegalArgumentException("Mandate is " + mandate.getStatus());
+        }
+        if (mandateRepository.changeStatus(id, from, status) == 0) {
+            throw new ConcurrentUpdateException("Mandate is being executed, please retry", null);
+        }
+        return mandateRepository.findById(id).orElseThrow();
+    }
+
+    @Override
+    public UpiMandate runDue(Long mandateId) {
+        Date now = new Date();
+        if (mandateRepository.claimRun(mandateId, now) == 0) {
+            return null;
+        }
+        UpiMandate mandate = mandateRepository.findById(mandateId).orElseThrow();
+        try {
+            Long transactionId = upiService.sendMoneyPreAuthorized(mandate.getPayerVpa(), mandate.getPayeeVpa(),
+                    mandate.getAmount(), mandate.getNote() != null ? mandate.getNote() : "Mandate " + mandate.getId());
+            succeeded.increment();
+            mandate.setRuns(mandate.getRuns() + 1);
+            mandate.setLastRunAt(now);
+            mandate.setLastTransactionId(transactionId);
+            mandate.setLastFailureReason(null);
+            advanceCycle(mandate, now);
+        } catch (RuntimeException e) {
+            int attempt = mandate.getAttempts() + 1;
+            mandate.setLastFailureReason(UpiServiceImpl.failureReason(e));
+            if (attempt >= maxAttempts) {
+                skipped.increment();
+                logger.warn("Mandate {} skipped cycle {} after {} attempts: {}", mandateId, mandate.getCycle(), attempt, e.getMessage());
+                mandate.setSkippedRuns(mandate.getSkippedRuns() + 1);
+                advanceCycle(mandate, now);
+            } else {
+                retried.increment();
+                logger.info("Mandate {} attempt {} failed ({}), retrying", mandateId, attempt, e.getMessage());
+                mandate.setAttempts(attempt);
+                mandate.setNextRunAt(new Date(now.getTime() + backoff(attempt)));
+            }
+        }
+        mandate.setRunningSince(null);
+        try {
+            return mandateRepository.save(mandate);
+        } catch (OptimisticLockingFailureException e) {
+            // ran past mandate.run-timeout-ms and was recovered (cycle skipped) while the send was in flight
+            logger.error("Mandate {} was recovered as interrupted while its run was finishing (transaction {}); check the ledger",
+                    mandateId, mandate.getLastTransactionId());
+            return null;
+        }
+    }
+
+    // Each save checks the version read here, so a run that finishes in the meantime keeps its own outcome
+    @Override
+    public int recoverInterrupted(Date runningBefore) {
+        List<UpiMandate> stuck = mandateRepository.findRunningSince(runningBefore);
+        Date now = new Date();
+        int recovered = 0;
+        for (UpiMandate mandate : stuck) {
+            int cycle = mandate.getCycle();
+            // the send may or may not have committed; skipping the cycle never pays twice
+            mandate.setLastFailureReason("INTERRUPTED");
+            mandate.setSkippedRuns(mandate.getSkippedRuns() + 1);
+            advanceCycle(mandate, now);
+            mandate.setRunningSince(null);
+            try {
+                mandateRepository.save(mandate);
+            } catch (OptimisticLockingFailureException e) {
+                logger.info("Mandate {} finished its run before it could be recovered", mandate.getId());
+                continue;
+            }
+            logger.warn("Mandate {} was interrupted during cycle {}; check the ledger for its payment", mandate.getId(), cycle);
+            interrupted.increment();
+            recovered++;
+        }
+        return recovered;
+    }
+
+    @Override
+    public Map<String, Object> getMetrics() {
+        long now = System.currentTimeMillis();
+        Map<String, Object> due = new LinkedHashMap<>();
+        due.put("overdue", mandateRepository.countDueBetween(new Date(0), new Date(now)));
+        long from = 0;
+        for (long to : DUE_WINDOWS_MINUTES) {
+            due.put(window(from) + "-" + window(to), mandateRepository.countDueBetween(new Date(now + from * MINUTE_MS), new Date(now + to * MINUTE_MS)));
+            from = to;
+        }
+
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("dueWindows", due);
+        metrics.put("succeeded", succeeded.sum());
+        metrics.put("retried", retried.sum());
+        metrics.put("skipped", skipped.sum());
+        metrics.put("interrupted", interrupted.sum());
+        return metrics;
+    }
+
+    private static String window(long minutes) {
+        return minutes >= 60 && minutes % 60 == 0 ? (minutes / 60) + "h" : minutes + "m";
+    }
+
+    // Moves to the first cycle after now; cycles that fell due while the scheduler was down are not caught up
+    private void advanceCycle(UpiMandate mandate, Date now) {
+        int cycle = mandate.getCycle() + 1;
+        Date next = mandate.getFrequency().occurrence(mandate.getStartAt(), cycle);
+        while (!next.after(now)) {
+            mandate.setSkippedRuns(mandate.getSkippedRuns() + 1);
+            cycle++;
+            next = mandate.getFrequency().occurrence(mandate.getStartAt(), cycle);
+        }
+        mandate.setCycle(cycle);
+        mandate.setAttempts(0);
+        if (mandate.getEndAt() != null && next.after(mandate.getEndAt())) {
+            mandate.setStatus(UpiMandateStatus.COMPLETED);
+            mandate.setNextRunAt(null);
+        } else {
+            mandate.setNextRunAt(next);
+        }
+    }
+
+    private long backoff(int attempt) {
+        return Math.min(maxBackoffMs, baseBackoffMs << Math.min(attempt - 1, 20));
+    }
+
+    private UpiMandate ownedMandate(Long id) {
+        UpiMandate mandate = mandateRepository.findById(id).orElseThrow(() -> new EntityNotFoundException("Mandate not found"));
+        Account account = accountRepository.findById(mandate.getPayerAccountId())
+                .orElseThrow(() -> new EntityNotFoundException("Account not found"));
+        if (!account.getUser().getId().equals(currentUser().getId())) {
+            throw new BadCredentialsException("Mandate does not belong to user");
+        }
+        return mandate;
+    }
+
+    private User currentUser() {
+        String email = SecurityContextHolder.getContext().getAuthentication().getName();
+        return userRepository.findByEmail(email).orElseThrow(() -> new EntityNotFoundException("User not found"));
+    }
+}
@@ -0,0 +1,221 @@
+package com.alien.bank.management.system.service.impl;
+
+import com.alien.bank.management.system.entity.AccountMonthlyRollup;
+import com.alien.bank.management.system.entity.Transaction;
+import com.alien.bank.management.system.entity.TransactionType;
+import com.alien.bank.management.system.model.transaction.MonthlyTypeTotal;
+import com.alien.bank.management.system.repository.AccountMonthlyRollupRepository;
+import com.alien.bank.management.system.repository.TransactionRepository;
+import com.alien.bank.management.system.service.MonthlyRollupService;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.*;
+import java.util.stream.Stream;
+
+import static com.alien.bank.management.system.utils.LedgerCalendar.monthKey;
+import static com.alien.bank.management.system.utils.LedgerCalendar.nextMonth;
+import static com.alien.bank.management.system.utils.LedgerCalendar.startOfMonth;
+
+@Service
+@RequiredArgsConstructor
+public class MonthlyRollupServiceImpl implements MonthlyRollupService {
+    private static final Logger logger = LoggerFactory.getLogger(MonthlyRollupServiceImpl.class);
+
+    private final AccountMonthlyRollupRepository rollupRepository;
+    private final TransactionRepository transactionRepository;
+
+    @Override
+    @Transactional
+    public void recordTransaction(Transaction transaction) {
+        recordTransactions(List.of(transaction));
+    }
+
+    @Override
+    @Transactional
+    public void recordTransactions(List<Transaction> transactions) {
+        Map<Date, List<Transaction>> byMonth = new TreeMap<>();
+        for (Transaction t : transactions) {
+            byMonth.computeIfAbsent(startOfMonth(t.getTimestamp()), k -> new ArrayList<>()).add(t);
+        }
+        byMonth.forEach((month, monthTransactions) -> {
+            Set<Long> accountIds = new TreeSet<>();
+            monthTransactions.forEach(t -> accountIds.add(t.getAccount().getId()));
+            Map<String, AccountMonthlyRollup> rollups = new HashMap<>();
+            for (AccountMonthlyRollup existing : rollupRepository.findAllForUpdate(accountIds, month)) {
+                rollups.put(existing.getAccountId() + ":" + existing.getType(), existing);
+            }
+            for (Transaction t : monthTransactions) {
+                AccountMonthlyRollup rollup = rollups.computeIfAbsent(t.getAccount().getId() + ":" + t.getType(),
+                        k -> newRollup(t.getAccount().getId(), month, t.getType(), t.getTimestamp()));
+                apply(rollup, t.getAmount(), t.getTimestamp());
+            }
+            rollupRepository.saveAll(rollups.values());
+        });
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<MonthlyTypeTotal> getMonthlyTotals(Long accountId, Date fromDate, Date toDate) {
+        Map<String, Map<TransactionType, MonthlyTypeTotal>> byMonth = new TreeMap<>();
+        Date fromMonth = startOfMonth(fromDate);
+        Date toMonth = startOfMonth(toDate);
+
+        if (fromMonth.equals(toMonth)) {
+            addRaw(byMonth, accountId, fromDate, toDate);
+        } else {
+            Date firstFullMonth = fromDate.equals(fromMonth) ? fromMonth : nextMonth(fromMonth);
+            if (firstFullMonth.after(fromDate)) {
+                addRaw(byMonth, accountId, fromDate, new Date(firstFullMonth.getTime() - 1));
+            }
+            if (firstFullMonth.before(toMonth)) {
+                // months the rollups do not hold yet are read from the transactions, one month at a time
+                Date rollupsFrom = max(firstFullMonth, getCompleteFrom(accountId));
+                for (Date month = firstFullMonth; month.before(rollupsFrom) && month.before(toMonth); month = nextMonth(month)) {
+                    addRaw(byMonth, accountId, month, new Date(nextMonth(month).getTime() - 1));
+                }
+                if (rollupsFrom.before(toMonth)) {
+                    for (AccountMonthlyRollup r : rollupRepository.findMonths(accountId, rollupsFrom, toMonth)) {
+                        add(byMonth, monthKey(r.getMonth()), r.getType(), r.getTotalAmount(), r.getTxCount());
+                    }
+                }
+            }
+            // the current (partial) month is read from the transactions themselves
+            addRaw(byMonth, accountId, toMonth, toDate);
+        }
+
+        List<MonthlyTypeTotal> result = new ArrayList<>();
+        byMonth.values().forEach(types -> result.addAll(types.values()));
+        return result;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public AccountMonthlyRollupRepository.LifetimeTotalsProjection getLifetimeTotals(Collection<Long> accountIds) {
+        LifetimeTotals totals = new LifetimeTotals();
+        for (Long accountId : accountIds) {
+            Date rollupsFrom = getCompleteFrom(accountId);
+            totals.add(transactionRepository.getLifetimeTotalsBefore(accountId, rollupsFrom));
+            totals.add(rollupRepository.getLifetimeTotalsFrom(accountId, rollupsFrom));
+        }
+        return totals;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Date getCompleteFrom(Long accountId) {
+        Date firstTxnAt = transactionRepository.findFirstTimestamp(accountId);
+        if (firstTxnAt == null) {
+            return new Date(0);
+        }
+        Optional<AccountMonthlyRollup> oldest = rollupRepository.findFirstByAccountIdOrderByMonthAsc(accountId);
+        if (oldest.isEmpty()) {
+            // nothing recorded yet: only months still to come are complete
+            return nextMonth(new Date());
+        }
+        // Rollups are kept from the deploy that introduced them, so that month only has its later part,
+        // unless backfill() rebuilt the account from its first transaction
+        Date firstMonth = startOfMonth(firstTxnAt);
+        Date oldestMonth = oldest.get().getMonth();
+        if (!oldestMonth.after(firstMonth)) {
+            TransactionRepository.TransactionSummaryProjection recorded = rollupRepository.sumMonths(accountId, firstMonth, nextMonth(firstMonth));
+            TransactionRepository.TransactionSummaryProjection actual =
+                    transactionRepository.getTransactionSummary(accountId, firstMonth, new Date(nextMonth(firstMonth).getTime() - 1));
+            if (actual == null || (recorded != null && recorded.getTotalTransactions() >= actual.getTotalTransactions())) {
+                return firstMonth;
+            }
+        }
+        return nextMonth(oldestMonth);
+    }
+
+    @Override
+    @Transactional
+    public int backfill(Long accountId) {
+        rollupRepository.deleteByAccountId(accountId);
+        Map<String, AccountMonthlyRollup> rollups = new LinkedHashMap<>();
+        try (Stream<TransactionRepository.TransactionRowProjection> rows = transactionRepository.streamAllTransactions(accountId)) {
+            rows.forEach(row -> {
+                Date month = startOfMonth(row.getTimestamp());
+                AccountMonthlyRollup rollup = rollups.computeIfAbsent(monthKey(month) + ":" + row.getType(),
+                        k -> newRollup(accountId, month, row.getType(), row.getTimestamp()));
+                apply(rollup, row.getAmount(), row.getTimestamp());
+            });
+        }
+        rollupRepository.saveAll(rollups.values());
+        logger.info("Rebuilt {} monthly rollups for account {}", rollups.size(), accountId);
+        return rollups.size();
+    }
+
+    private static Date max(Date a, Date b) {
+        return a.after(b) ? a : b;
+    }
+
+    private void addRaw(Map<String, Map<TransactionType, MonthlyTypeTotal>> byMonth, Long accountId, Date from, Date to) {
+        String key = monthKey(from);
+        for (TransactionRepository.TypeTotalProjection p : transactionRepository.sumByTypeBetween(accountId, from, to)) {
+            add(byMonth, key, p.getType(), p.getTotalAmount(), p.getTxCount());
+        }
+    }
+
+    private void add(Map<String, Map<TransactionType, MonthlyTypeTotal>> byMonth, String month, TransactionType type, Double amount, Long count) {
+        MonthlyTypeTotal total = byMonth.computeIfAbsent(month, k -> new EnumMap<>(TransactionType.class))
+                .computeIfAbsent(type, k -> MonthlyTypeTotal.builder().month(month).type(type).totalAmount(0.0).txCount(0L).build());
+        total.setTotalAmount(total.getTotalAmount() + (amount != null ? amount : 0.0));
+        total.setTxCount(total.getTxCount() + (count != null ? count : 0L));
+    }
+
+    private AccountMonthlyRollup newRollup(Long accountId, Date month, TransactionType type, Date timestamp) {
+        return AccountMonthlyRollup.builder()
+                .accountId(accountId)
+                .month(month)
+                .type(type)
+                .firstTxnAt(timestamp)
+                .build();
+    }
+
+    private void apply(AccountMonthlyRollup rollup, Double amount, Date timestamp) {
+        rollup.setTotalAmount(rollup.getTotalAmount() + amount);
+        rollup.setTxCount(rollup.getTxCount() + 1);
+        if (Math.abs(amount) > Math.abs(rollup.getMaxAmount())) {
+            rollup.setMaxAmount(amount);
+        }
+        if (timestamp.before(rollup.getFirstTxnAt())) {
+            rollup.setFirstTxnAt(timestamp);
+        }
+    }
+
+    // Lifetime aggregate merged across accounts and across the raw/rollup split
+    private static class LifetimeTotals implements AccountMonthlyRollupRepository.LifetimeTotalsProjection {
+        private long txCount;
+        private Double maxAmount;
+        private Date firstTxnAt;
+
+        void add(AccountMonthlyRollupRepository.LifetimeTotalsProjection p) {
+            if (p == null) {
+                return;
+            }
+            txCount += p.getTxCount() != null ? p.getTxCount() : 0;
+            if (p.getMaxAmount() != null && (maxAmount == null || Math.abs(p.getMaxAmount()) > Math.abs(maxAmount))) {
+                maxAmount = p.getMaxAmount();
+            }
+            if (p.getFirstTxnAt() != null && (firstTxnAt == null || p.getFirstTxnAt().before(firstTxnAt))) {
+                firstTxnAt = p.getFirstTxnAt();
+            }
+        }
+
+        public Long getTxCount() {
+            return txCount;
+        }
+
+        public Double getMaxAmount() {
+            return maxAmount;
+        }
+
+        public Date getFirstTxnAt() {
+            return firstTxnAt;
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.alien.bank.management.system.service.impl;
+
+import com.alien.bank.management.system.entity.Transaction;
+import com.alien.bank.management.system.entity.TransactionNoteTrigram;
+import com.alien.bank.management.system.repository.LedgerBatchRepository;
+import com.alien.bank.management.system.repository.TransactionNoteTrigramRepository;
+import com.alien.bank.management.system.repository.TransactionRepository;
+import com.alien.bank.management.system.service.NotesSearchService;
+import com.alien.bank.management.system.utils.NoteTrigrams;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+@Service
+@RequiredArgsConstructor
+public class NotesSearchServiceImpl implements NotesSearchService {
+    private static final Logger logger = LoggerFactory.getLogger(NotesSearchServiceImpl.class);
+    private static final int BACKFILL_CHUNK = 500;
+
+    private final TransactionNoteTrigramRepository trigramRepository;
+    private final TransactionRepository transactionRepository;
+    private final LedgerBatchRepository ledgerBatchRepository;
+
+    @Override
+    @Transactional
+    public void index(Transaction transaction) {
+        indexAll(List.of(transaction));
+    }
+
+    @Override
+    @Transactional
+    public void indexAll(List<Transaction> transactions) {
+        List<TransactionNoteTrigram> rows = new ArrayList<>();
+        for (Transaction t : transactions) {
+            rows.addAll(toRows(t.getAccount().getId(), t.getId(), t.getNotes()));
+        }
+        if (!rows.isEmpty()) {
+            ledgerBatchRepository.insertNoteTrigrams(rows);
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long getIndexedFrom(Long accountId) {
+        Long first = trigramRepository.findFirstIndexedTransactionId(accountId);
+        return first != null ? first : Long.MAX_VALUE;
+    }
+
+    @Override
+    @Transactional
+    public int backfill(Long accountId) {
+        trigramRepository.deleteByAccountId(accountId);
+        List<TransactionNoteTrigram> pending = new ArrayList<>();
+        int written = 0;
+        try (Stream<TransactionRepository.TransactionRowProjection> rows = transactionRepository.streamAllTransactions(accountId)) {
+            for (TransactionRepository.TransactionRowProjection row : (Iterable<TransactionRepository.TransactionRowProjection>) rows::iterator) {
+                pending.addAll(toRows(accountId, row.getId(), row.getNotes()));
+                if (pending.size() >= BACKFILL_CHUNK) {
+                    ledgerBatchRepository.insertNoteTrigrams(pending);
+                    written += pending.size();
+                    pending.clear();
+                }
+            }
+        }
+        ledgerBatchRepository.insertNoteTrigrams(pending);
+        written += pending.size();
+        logger.info("Rebuilt {} note trigrams for account {}", written, accountId);
+        return written;
+    }
+
+    private List<TransactionNoteTrigram> toRows(Long accountId, Long transactionId, String notes) {
+        if (notes == null || notes.isBlank()) {
+            return List.of();
+        }
+        List<TransactionNoteTrigram> rows = new ArrayList<>();
+        for (String gram : NoteTrigrams.of(NoteTrigrams.normalize(notes))) {
+            rows.add(TransactionNoteTrigram.builder().accountId(accountId).trigram(gram).transactionId(transactionId).build());
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,511 @@
+package com.alien.bank.management.system.service.impl;
+
+import com.alien.bank.management.system.entity.Account;
+import com.alien.bank.management.system.entity.LedgerPendingCredit;
+import com.alien.bank.management.system.entity.Transaction;
+import com.alien.bank.management.system.entity.TransactionType;
+import com.alien.bank.management.system.exception.ConcurrentUpdateException;
+import com.alien.bank.management.system.exception.LowBalanceException;
+import com.alien.bank.management.system.exception.ServiceBusyException;
+import com.alien.bank.management.system.model.transaction.TransferResult;
+import com.alien.bank.management.system.repository.LedgerBatchRepository;
+import com.alien.bank.management.system.repository.LedgerPendingCreditRepository;
+import com.alien.bank.management.system.service.LedgerService;
+import com.alien.bank.management.system.service.PartitionedLedgerService;
+import com.alien.bank.management.system.utils.LatencyHistogram;
+import com.alien.bank.management.system.utils.OptimisticRetryExecutor;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityNotFoundException;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Each partition is one thread draining its own queue: it takes whatever is waiting (up to
+ * ledger.partitioned.batch-size mutations) and applies it in one transaction - one FOR UPDATE over
+ * the batch's accounts, one balance UPDATE per account and one JDBC batch of Transaction rows. A
+ * hot account receiving hundreds of credits therefore costs one row write per batch instead of one
+ * lock round trip per credit. The row locks are still taken so writers outside the engine
+ * (deposits, withdrawals) stay serialized with it.
+ *
+ * A transfer debits the sender on the sender's partition and inserts a LedgerPendingCredit in the
+ * same transaction; after commit the credit is queued on the receiver's partition, which deletes the
+ * row while applying it. Pending rows left by a crash or a failed batch are re-queued on startup.
+ *
+ * A failed batch is retried one mutation at a time so a single bad mutation cannot fail its
+ * neighbours. Callers that time out cancel their debit if it has not been taken into a batch yet,
+ * otherwise they wait for the batch to commit or roll back.
+ */
+@Service
+@RequiredArgsConstructor
+public class PartitionedLedgerServiceImpl implements PartitionedLedgerService {
+    private static final Logger log = LoggerFactory.getLogger(PartitionedLedgerServiceImpl.class);
+    private static final int RECOVERY_PAGE = 500;
+
+    private final LedgerBatchRepository ledgerBatchRepository;
+    private final LedgerPendingCreditRepository pendingCreditRepository;
+    private final LedgerService ledgerService;
+    private final OptimisticRetryExecutor retryExecutor;
+
+    @Value("${ledger.engine:direct}")
+    private String engine;
+
+    @Value("${ledger.partitioned.partitions:8}")
+    private int partitionCount;
+
+    @Value("${ledger.partitioned.batch-size:200}")
+    private int batchSize;
+
+    @Value("${ledger.partitioned.max-in-flight:10000}")
+    private int maxInFlight;
+
+    @Value("${ledger.partitioned.timeout-ms:5000}")
+    private long timeoutMs;
+
+    @Value("${ledger.partitioned.credit-sweep-min-age-ms:30000}")
+    private long creditSweepMinAgeMs;
+
+    private Partition[] partitions = new Partition[0];
+    private volatile boolean running;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder applied = new LongAdder();
+    private final LongAdder creditsApplied = new LongAdder();
+    private final LongAdder creditsRequeued = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder batchFailures = new LongAdder();
+    private final LatencyHistogram batchLatency = new LatencyHistogram();
+
+    @PostConstruct
+    void startPartitions() {
+        if (!isEnabled()) {
+            return;
+        }
+        running = true;
+        partitions = new Partition[Math.max(1, partitionCount)];
+        for (int i = 0; i < partitions.length; i++) {
+            Partition partition = new Partition(i);
+            partition.thread.start();
+            partitions[i] = partition;
+        }
+        log.info("Partitioned ledger engine started with {} partitions, batches of up to {}", partitions.length, batchSize);
+    }
+
+    @PreDestroy
+    void stopPartitions() {
+        running = false;
+        for (Partition partition : partitions) {
+            partition.thread.interrupt();
+        }
+        for (Partition partition : partitions) {
+            try {
+                partition.thread.join(timeoutMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            // queued credits are still in ledger_pending_credit; queued debits never ran
+            for (Mutation mutation : partition.queue) {
+                if (mutation.isDebit() && mutation.cancel()) {
+                    inFlight.decrementAndGet();
+                    mutation.result.completeExceptionally(new ServiceBusyException("Ledger is shutting down"));
+                }
+            }
+        }
+    }
+
+    // Credits whose receiver was never credited: crash after the debit committed, or a failed batch
+    @EventListener(ApplicationReadyEvent.class)
+    public void recoverPendingCredits() {
+        if (!isEnabled()) {
+            return;
+        }
+        int recovered = requeuePendingCredits(new Date());
+        if (recovered > 0) {
+            log.info("Re-queued {} pending ledger credits", recovered);
+        }
+    }
+
+    // A credit batch that failed for a transient reason (deadlock, lock timeout, lost connection) leaves
+    // its rows behind; this picks them up without waiting for a restart. Rows younger than the minimum
+    // age are most likely still queued and are left alone; queuing one twice is harmless, as only the
+    // delete that wins applies it.
+    @Scheduled(fixedDelayString = "${ledger.partitioned.credit-sweep-interval-ms:30000}")
+    public void sweepPendingCredits() {
+        if (!isEnabled()) {
+            return;
+        }
+        int swept = requeuePendingCredits(new Date(System.currentTimeMillis() - creditSweepMinAgeMs));
+        if (swept > 0) {
+            log.warn("Re-queued {} pending ledger credits left by failed batches", swept);
+        }
+    }
+
+    private int requeuePendingCredits(Date createdBefore) {
+        long afterId = 0L;
+        int requeued = 0;
+        List<LedgerPendingCredit> page;
+        do {
+            page = pendingCreditRepository.findByIdGreaterThanAndCreatedAtBeforeOrderByIdAsc(afterId, createdBefore, PageRequest.of(0, RECOVERY_PAGE));
+            for (LedgerPendingCredit credit : page) {
+                enqueueCredit(credit);
+                afterId = credit.getId();
+                requeued++;
+            }
+        } while (page.size() == RECOVERY_PAGE);
+        creditsRequeued.add(requeued);
+        return requeued;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return "partitioned".equalsIgnoreCase(engine);
+    }
+
+    @Override
+    public TransferResult transfer(Long fromAccountId, Long toAccountId, double amount, String debitNotes, String creditNotes) {
+        if (amount <= 0) {
+            throw new IllegalArgumentException("Amount must be positive");
+        }
+        return submit(Mutation.debit(fromAccountId, TransactionType.TRANSFER_OUT, amount, debitNotes, toAccountId, creditNotes));
+    }
+
+    @Override
+    public TransferResult debit(Long accountId, TransactionType type, double amount, String notes) {
+        if (amount <= 0) {
+            throw new IllegalArgumentException("Amount must be positive");
+        }
+        return submit(Mutation.debit(accountId, type, amount, notes, null, null));
+    }
+
+    @Override
+    public Map<String, Object> getMetrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        long batchCount = batches.sum();
+        long appliedCount = applied.sum();
+        metrics.put("enabled", isEnabled());
+        metrics.put("partitions", partitions.length);
+        metrics.put("batchSize", batchSize);
+        List<Integer> depths = new ArrayList<>(partitions.length);
+        for (Partition partition : partitions) {
+            depths.add(partition.queue.size());
+        }
+        metrics.put("queueDepths", depths);
+        metrics.put("inFlight", inFlight.get());
+        metrics.put("maxInFlight", maxInFlight);
+        metrics.put("batches", batchCount);
+        metrics.put("applied", appliedCount);
+        metrics.put("creditsApplied", creditsApplied.sum());
+        metrics.put("creditsRequeued", creditsRequeued.sum());
+        metrics.put("meanBatchSize", batchCount == 0 ? 0.0 : (double) appliedCount / batchCount);
+        metrics.put("rejected", rejected.sum());
+        metrics.put("batchFailures", batchFailures.sum());
+        metrics.put("batchLatency", batchLatency.snapshot());
+        return metrics;
+    }
+
+    private TransferResult submit(Mutation mutation) {
+        requireEnabled();
+        if (inFlight.incrementAndGet() > maxInFlight) {
+            inFlight.decrementAndGet();
+            throw new ServiceBusyException("Ledger partitions are saturated");
+        }
+        partitionFor(mutation.accountId).queue.add(mutation);
+        try {
+            return mutation.result.get(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            if (mutation.cancel()) {
+                inFlight.decrementAndGet();
+                throw new ConcurrentUpdateException("Ledger partition did not respond in time", e);
+            }
+            // already part of a batch: report what the batch did rather than guess
+            return awaitTaken(mutation);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            if (mutation.cancel()) {
+                inFlight.decrementAndGet();
+                throw new ConcurrentUpdateException("Interrupted while waiting for the ledger partition", e);
+            }
+            return awaitTaken(mutation);
+        } catch (ExecutionException e) {
+            throw unwrap(e);
+        }
+    }
+
+    private TransferResult awaitTaken(Mutation mutation) {
+        try {
+            return mutation.result.join();
+        } catch (CompletionException e) {
+            throw unwrap(e);
+        }
+    }
+
+    private void enqueueCredit(LedgerPendingCredit credit) {
+        partitionFor(credit.getAccountId()).queue.add(Mutation.credit(credit));
+    }
+
+    private void runPartition(Partition partition) {
+        List<Mutation> batch = new ArrayList<>(batchSize);
+        while (running) {
+            try {
+                batch.add(partition.queue.take());
+                partition.queue.drainTo(batch, Math.max(0, batchSize - 1));
+                List<Mutation> live = new ArrayList<>(batch.size());
+                for (Mutation mutation : batch) {
+                    if (mutation.take()) {
+                        live.add(mutation);
+                    }
+                }
+                if (!live.isEmpty()) {
+                    applyOrSplit(partition.index, live);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.error("Ledger partition {} failed to process a batch: {}", partition.index, e.getMessage(), e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void applyOrSplit(int partitionIndex, List<Mutation> batch) {
+        long started = System.nanoTime();
+        try {
+            publish(batch, retryExecutor.execute("partitionedBatch", "partition:" + partitionIndex, () -> applyBatch(batch)));
+            batchLatency.record(System.nanoTime() - started);
+            return;
+        } catch (RuntimeException e) {
+            batchFailures.increment();
+            if (batch.size() == 1) {
+                fail(batch.get(0), e);
+                return;
+            }
+            log.warn("Ledger partition {} batch of {} failed, retrying one by one: {}", partitionIndex, batch.size(), e.getMessage());
+        }
+        for (Mutation mutation : batch) {
+            try {
+                List<Mutation> single = List.of(mutation);
+                publish(single, retryExecutor.execute("partitionedBatch", "partition:" + partitionIndex, () -> applyBatch(single)));
+            } catch (RuntimeException e) {
+                fail(mutation, e);
+            }
+        }
+    }
+
+    // Runs in the batch transaction; nothing is published until it commits
+    private BatchOutcome applyBatch(List<Mutation> batch) {
+        List<Long> creditIds = new ArrayList<>();
+        for (Mutation mutation : batch) {
+            if (!mutation.isDebit()) {
+                creditIds.add(mutation.pendingCreditId);
+            }
+        }
+        // a credit can be queued twice (live and by recovery); only the delete that wins applies it,
+        // and only once when both copies land in this batch
+        Set<Long> claimed = creditIds.isEmpty() ? new HashSet<>() : ledgerBatchRepository.deletePendingCredits(creditIds);
+
+        Set<Long> accountIds = new HashSet<>();
+        for (Mutation mutation : batch) {
+            if (mutation.isDebit() || claimed.contains(mutation.pendingCreditId)) {
+                accountIds.add(mutation.accountId);
+            }
+        }
+        Map<Long, Double> balances = accountIds.isEmpty() ? Map.of() : ledgerBatchRepository.lockBalances(accountIds);
+
+        Date now = new Date();
+        Object[] results = new Object[batch.size()];
+        Map<Long, Double> changed = new HashMap<>();
+        List<Transaction> rows = new ArrayList<>(batch.size());
+        for (int i = 0; i < batch.size(); i++) {
+            Mutation mutation = batch.get(i);
+            if (!mutation.isDebit() && !claimed.remove(mutation.pendingCreditId)) {
+                continue;
+            }
+            Double balance = balances.get(mutation.accountId);
+            if (balance == null) {
+                if (!mutation.isDebit()) {
+                    // roll back so the pending credit stays for an operator instead of vanishing
+                    throw new EntityNotFoundException("Account " + mutation.accountId + " not found for pending credit " + mutation.pendingCreditId);
+                }
+                results[i] = new EntityNotFoundException("Account not found");
+                continue;
+            }
+            if (mutation.isDebit() && balance < mutation.amount) {
+                results[i] = new LowBalanceException("Insufficient balance");
+                continue;
+            }
+            balance = mutation.isDebit() ? balance - mutation.amount : balance + mutation.amount;
+            balances.put(mutation.accountId, balance);
+            changed.put(mutation.accountId, balance);
+            Transaction row = Transaction.builder()
+                    .type(mutation.type)
+                    .amount(mutation.amount)
+                    .balanceAfter(balance)
+                    .timestamp(now)
+                    .notes(mutation.notes)
+                    .account(Account.builder().id(mutation.accountId).build())
+                    .build();
+            rows.add(row);
+            results[i] = row;
+        }
+        if (!changed.isEmpty()) {
+            ledgerBatchRepository.updateBalances(changed);
+        }
+        ledgerService.recordAll(rows);
+
+        List<LedgerPendingCredit> credits = new ArrayList<>();
+        for (int i = 0; i < batch.size(); i++) {
+            Mutation mutation = batch.get(i);
+            if (mutation.creditAccountId != null && results[i] instanceof Transaction debit) {
+                credits.add(LedgerPendingCredit.builder()
+                        .accountId(mutation.creditAccountId)
+                        .amount(mutation.amount)
+                        .notes(mutation.creditNotes)
+                        .debitTransactionId(debit.getId())
+                        .createdAt(now)
+                        .build());
+            }
+        }
+        if (!credits.isEmpty()) {
+            ledgerBatchRepository.insertPendingCredits(credits);
+        }
+        return new BatchOutcome(results, credits);
+    }
+
+    private void publish(List<Mutation> batch, BatchOutcome outcome) {
+        batches.increment();
+        for (int i = 0; i < batch.size(); i++) {
+            Mutation mutation = batch.get(i);
+            Object result = outcome.results()[i];
+            if (result instanceof Transaction) {
+                applied.increment();
+                if (!mutation.isDebit()) {
+                    creditsApplied.increment();
+                }
+            }
+            if (!mutation.isDebit()) {
+                continue;
+            }
+            inFlight.decrementAndGet();
+            if (result instanceof Transaction row) {
+                mutation.result.complete(TransferResult.builder()
+                        .debitTransactionId(row.getId())
+                        .senderBalance(row.getBalanceAfter())
+                        .build());
+            } else {
+                rejected.increment();
+                mutation.result.completeExceptionally((RuntimeException) result);
+            }
+        }
+        for (LedgerPendingCredit credit : outcome.credits()) {
+            enqueueCredit(credit);
+        }
+    }
+
+    private void fail(Mutation mutation, RuntimeException e) {
+        if (mutation.isDebit()) {
+            inFlight.decrementAndGet();
+            mutation.result.completeExceptionally(e);
+        } else {
+            log.error("Pending credit {} for account {} left for the next sweep: {}", mutation.pendingCreditId, mutation.accountId, e.getMessage(), e);
+        }
+    }
+
+    private Partition partitionFor(Long accountId) {
+        return partitions[(int) Math.floorMod(accountId, (long) partitions.length)];
+    }
+
+    private void requireEnabled() {
+        if (!isEnabled()) {
+            throw new IllegalStateException("Partitioned ledger engine is disabled (ledger.engine=" + engine + ")");
+        }
+    }
+
+    private static RuntimeException unwrap(Exception e) {
+        if (e.getCause() instanceof RuntimeException cause) {
+            return cause;
+        }
+        return new IllegalStateException(e.getCause());
+    }
+
+    private final class Partition {
+        final int index;
+        final BlockingQueue<Mutation> queue = new LinkedBlockingQueue<>();
+        final Thread thread;
+
+        Partition(int index) {
+            this.index = index;
+            this.thread = new Thread(() -> runPartition(this), "ledger-partition-" + index);
+            this.thread.setDaemon(true);
+        }
+    }
+
+    private record BatchOutcome(Object[] results, List<LedgerPendingCredit> credits) {
+    }
+
+    // A debit owned by a waiting caller, or the credit leg of a committed transfer
+    private static final class Mutation {
+        private static final int QUEUED = 0;
+        private static final int TAKEN = 1;
+        private static final int CANCELLED = 2;
+
+        final Long accountId;
+        final TransactionType type;
+        final double amount;
+        final String notes;
+        final Long creditAccountId;
+        final String creditNotes;
+        final Long pendingCreditId;
+        final CompletableFuture<TransferResult> result;
+        private final AtomicInteger state = new AtomicInteger(QUEUED);
+
+        private Mutation(Long accountId, TransactionType type, double amount, String notes,
+                         Long creditAccountId, String creditNotes, Long pendingCreditId) {
+            this.accountId = accountId;
+            this.type = type;
+            this.amount = amount;
+            this.notes = notes;
+            this.creditAccountId = creditAccountId;
+            this.creditNotes = creditNotes;
+            this.pendingCreditId = pendingCreditId;
+            this.result = pendingCreditId == null ? new CompletableFuture<>() : null;
+        }
+
+        static Mutation debit(Long accountId, TransactionType type, double amount, String notes, Long creditAccountId, String creditNotes) {
+            return new Mutation(accountId, type, amount, notes, creditAccountId, creditNotes, null);
+        }
+
+        static Mutation credit(LedgerPendingCredit credit) {
+            return new Mutation(credit.getAccountId(), TransactionType.TRANSFER_IN, credit.getAmount(), credit.getNotes(),
+                    null, null, credit.getId());
+        }
+
+        boolean isDebit() {
+            return pendingCreditId == null;
+        }
+
+        // Called by the partition before applying; false when the caller already gave up
+        boolean take() {
+            return state.compareAndSet(QUEUED, TAKEN);
+        }
+
+        boolean cancel() {
+            return state.compareAndSet(QUEUED, CANCELLED);
+        }
+    }
+}
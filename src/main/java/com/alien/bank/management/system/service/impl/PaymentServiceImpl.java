@@ -2,13 +2,19 @@ package com.alien.bank.management.system.service.impl;
 
 import com.alien.bank.management.system.entity.*;
 import com.alien.bank.management.system.exception.InsufficientFundsException;
+import com.alien.bank.management.system.exception.LowBalanceException;
 import com.alien.bank.management.system.model.payments.UpiPaymentRequest;
 import com.alien.bank.management.system.model.payments.UpiPaymentResponse;
 import com.alien.bank.management.system.repository.*;
+import com.alien.bank.management.system.service.DailySpendService;
+import com.alien.bank.management.system.service.LedgerJournalService;
+import com.alien.bank.management.system.service.LedgerService;
+import com.alien.bank.management.system.service.PartitionedLedgerService;
 import com.alien.bank.management.system.service.PaymentService;
 import com.alien.bank.management.system.service.RewardsService;
+import com.alien.bank.management.system.service.VpaResolver;
+import com.alien.bank.management.system.utils.OptimisticRetryExecutor;
 import jakarta.persistence.EntityNotFoundException;
-import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
@@ -24,51 +30,47 @@ public class PaymentServiceImpl implements PaymentService {
     private final AccountRepository accountRepository;
     private final PaymentRepository paymentRepository;
     private final PaymentCategoryRepository categoryRepository;
-    private final TransactionRepository transactionRepository;
     private final RewardsService rewardsService;
-    private final UpiVpaRepository upiVpaRepository;
+    private final VpaResolver vpaResolver;
+    private final LedgerService ledgerService;
+    private final OptimisticRetryExecutor retryExecutor;
+    private final DailySpendService dailySpendService;
+    private final PartitionedLedgerService partitionedLedgerService;
+    private final LedgerJournalService ledgerJournalService;
 
     private static final String VPA_REGEX = "^[a-zA-Z0-9.\\-_]{3,}@[a-zA-Z]{2,}$";
     private static final SecureRandom RANDOM = new SecureRandom();
 
     @Override
-    @Transactional
     public UpiPaymentResponse upiPay(UpiPaymentRequest request) {
-        if (request.getAmount() == null || request.getAmount() <= 0) {
-            throw new IllegalArgumentException("Amount must be > 0");
+        if (partitionedLedgerService.isEnabled()) {
+            return upiPayOnLedgerWriter(request, (accountId, amount, notes) -> partitionedLedgerService
+                    .debit(accountId, TransactionType.WITHDRAW, amount, notes).getSenderBalance());
         }
-        if (request.getVpa() == null || !request.getVpa().matches(VPA_REGEX)) {
-            throw new IllegalArgumentException("Invalid UPI ID format");
-        }
-
-        User user = resolveUser(request.getUserId());
-
-        Account account = accountRepository.findByIdForUpdate(request.getAccountId())
-                .orElseThrow(() -> new EntityNotFoundException("Account not found"));
-        if (!account.getUser().getId().equals(user.getId())) {
-            throw new IllegalArgumentException("Account does not belong to user");
+        if (ledgerJournalService.isEnabled()) {
+            return upiPayOnLedgerWriter(request, (accountId, amount, notes) -> ledgerJournalService
+                    .post(accountId, TransactionType.WITHDRAW, amount, notes).getBalanceAfter());
         }
+        return retryExecutor.execute("upiPay", "account:" + request.getAccountId(), () -> doUpiPay(request));
+    }
 
-        PaymentCategory category = categoryRepository.findByCode(request.getCategory())
-                .orElseThrow(() -> new IllegalArgumentException("Invalid category"));
-
-        // Validate that the recipient VPA exists
-        if (!upiVpaRepository.existsByVpa(request.getVpa())) {
-            throw new IllegalArgumentException("Recipient UPI ID not found");
-        }
+    // One attempt of upiPay; a stale Account version at commit rolls back the payment row too
+    private UpiPaymentResponse doUpiPay(UpiPaymentRequest request) {
+        PayParties parties = validate(request);
+        User user = parties.user();
+        Account account = parties.account();
 
         String refId = generateRefId();
         Payment payment = Payment.builder()
                 .user(user)
                 .account(account)
-                .category(category)
+                .category(parties.category())
                 .method(PaymentMethod.UPI)
                 .amount(request.getAmount())
                 .status(PaymentStatus.PENDING)
                 .refId(refId)
                 .meta(buildMetaJson(request))
                 .build();
-        payment = paymentRepository.save(payment);
 
         double available = account.getBalance();
         if (available < request.getAmount()) {
@@ -79,6 +81,7 @@ public class PaymentServiceImpl implements PaymentService {
         }
 
         // debit
+        dailySpendService.recordSpend(account.getId(), request.getAmount());
         account.setBalance(available - request.getAmount());
         accountRepository.save(account);
 
@@ -88,18 +91,18 @@ public class PaymentServiceImpl implements PaymentService {
                 .amount(request.getAmount())
                 .balanceAfter(account.getBalance())
                 .timestamp(new Date())
-                .notes(request.getNote() != null ? request.getNote() : ("UPI " + request.getVpa()))
+                .notes(paymentNotes(request))
                 .account(account)
                 .build();
-        transactionRepository.save(txn);
+        ledgerService.record(txn);
 
-        // success
+        // success; nobody outside this transaction can see PENDING, so the row is written once with its final status
         payment.setStatus(PaymentStatus.SUCCESS);
-        paymentRepository.save(payment);
+        payment = paymentRepository.save(payment);
 
-        // rewards in same TX
+        // rewards are queued in the same TX and credited by the outbox relay
         int coinsEarned = rewardsService.calculateCoinsEarned(request.getAmount());
-        rewardsService.recordEarnAndDailyBonus(user, payment.getId(), coinsEarned);
+        rewardsService.accruePaymentReward(user, payment.getId(), coinsEarned);
 
         return UpiPaymentResponse.builder()
                 .id(payment.getId())
@@ -110,6 +113,99 @@ public class PaymentServiceImpl implements PaymentService {
                 .build();
     }
 
+    // Partitioned and journal engines: the debit commits on the account's partition or ledger writer, so
+    // the limit reservation and the PENDING payment are committed before it and the SUCCESS status and
+    // rewards after it. A failure in that last step leaves the payment PENDING with the debit recorded,
+    // for reconciliation.
+    private UpiPaymentResponse upiPayOnLedgerWriter(UpiPaymentRequest request, LedgerDebit ledgerDebit) {
+        PayParties parties = validate(request);
+        Long accountId = parties.account().getId();
+        double amount = request.getAmount();
+
+        retryExecutor.execute("dailySpend", "account:" + accountId, () -> {
+            dailySpendService.recordSpend(accountId, amount);
+            return null;
+        });
+        Payment payment = null;
+        double debited;
+        try {
+            payment = paymentRepository.save(Payment.builder()
+                    .user(parties.user())
+                    .account(parties.account())
+                    .category(parties.category())
+                    .method(PaymentMethod.UPI)
+                    .amount(amount)
+                    .status(PaymentStatus.PENDING)
+                    .refId(generateRefId())
+                    .meta(buildMetaJson(request))
+                    .build());
+            debited = ledgerDebit.debit(accountId, amount, paymentNotes(request));
+        } catch (RuntimeException e) {
+            dailySpendService.releaseSpend(accountId, amount);
+            if (payment != null) {
+                payment.setStatus(PaymentStatus.FAILED);
+                paymentRepository.save(payment);
+            }
+            if (e instanceof LowBalanceException) {
+                throw new InsufficientFundsException(accountRepository.findById(accountId).map(Account::getBalance).orElse(0.0));
+            }
+            throw e;
+        }
+
+        Long paymentId = payment.getId();
+        double balanceAfter = debited;
+        return retryExecutor.execute("upiPayFinish", "payment:" + paymentId, () -> {
+            Payment paid = paymentRepository.findById(paymentId).orElseThrow();
+            paid.setStatus(PaymentStatus.SUCCESS);
+            paymentRepository.save(paid);
+
+            int coinsEarned = rewardsService.calculateCoinsEarned(amount);
+            rewardsService.accruePaymentReward(parties.user(), paymentId, coinsEarned);
+
+            return UpiPaymentResponse.builder()
+                    .id(paymentId)
+                    .status(paid.getStatus().name())
+                    .refId(paid.getRefId())
+                    .balanceAfter(balanceAfter)
+                    .coinsEarned(coinsEarned)
+                    .build();
+        });
+    }
+
+    // Checks shared by both debit paths; nothing is written yet
+    private PayParties validate(UpiPaymentRequest request) {
+        if (request.getAmount() == null || request.getAmount() <= 0) {
+            throw new IllegalArgumentException("Amount must be > 0");
+        }
+        if (request.getVpa() == null || !request.getVpa().matches(VPA_REGEX)) {
+            throw new IllegalArgumentException("Invalid UPI ID format");
+        }
+
+        User user = resolveUser(request.getUserId());
+
+        Account account = accountRepository.findById(request.getAccountId())
+                .orElseThrow(() -> new EntityNotFoundException("Account not found"));
+        if (!account.getUser().getId().equals(user.getId())) {
+            throw new IllegalArgumentException("Account does not belong to user");
+        }
+
+        PaymentCategory category = categoryRepository.findByCode(request.getCategory())
+                .orElseThrow(() -> new IllegalArgumentException("Invalid category"));
+
+        // Validate that the recipient VPA exists
+        if (!vpaResolver.exists(request.getVpa())) {
+            throw new IllegalArgumentException("Recipient UPI ID not found");
+        }
+
+        // Same daily limit as UPI sends
+        dailySpendService.checkLimit(account.getId(), request.getAmount());
+        return new PayParties(user, account, category);
+    }
+
+    private static String paymentNotes(UpiPaymentRequest request) {
+        return request.getNote() != null ? request.getNote() : ("UPI " + request.getVpa());
+    }
+
     private User resolveUser(Long userIdOrNull) {
         if (userIdOrNull != null) {
             return userRepository.findById(userIdOrNull).orElseThrow(() -> new EntityNotFoundException("User not found"));
@@ -142,6 +238,13 @@ public class PaymentServiceImpl implements PaymentService {
                 "\"category\":\"" + category + "\"" +
                 "}";
     }
-}
 
+    private record PayParties(User user, Account account, PaymentCategory category) {
+    }
 
+    // Debits the account on the engine's own writer and returns the balance after it
+    @FunctionalInterface
+    private interface LedgerDebit {
+        double debit(Long accountId, double amount, String notes);
+    }
+}
@@ -0,0 +1,124 @@
+package com.alien.bank.management.system.service.impl;
+
+import com.alien.bank.management.system.exception.ServiceBusyException;
+import com.alien.bank.management.system.service.PinVerificationService;
+import com.alien.bank.management.system.utils.LatencyHistogram;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Fixed pool of upi.pin-verify.threads workers behind a queue of upi.pin-verify.queue-capacity.
+ * When both are full the check is rejected at once (503 with Retry-After) rather than parking
+ * another request thread behind the backlog; a check still waiting after upi.pin-verify.timeout-ms
+ * is cancelled the same way.
+ *
+ * The caller's request thread waits for the result, but never more than the pool plus queue
+ * can be waiting at a time, so cheap endpoints keep their share of the servlet threads.
+ */
+@Service
+public class PinVerificationServiceImpl implements PinVerificationService {
+    private static final Logger logger = LoggerFactory.getLogger(PinVerificationServiceImpl.class);
+
+    private final PasswordEncoder passwordEncoder;
+    private final ThreadPoolExecutor pool;
+    private final int queueCapacity;
+    private final long timeoutMs;
+
+    private final LatencyHistogram queueWait = new LatencyHistogram();
+    private final LatencyHistogram verification = new LatencyHistogram();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder timedOut = new LongAdder();
+    private final LongAdder mismatches = new LongAdder();
+
+    public PinVerificationServiceImpl(PasswordEncoder passwordEncoder,
+                                      @Value("${upi.pin-verify.threads:4}") int threads,
+                                      @Value("${upi.pin-verify.queue-capacity:64}") int queueCapacity,
+                                      @Value("${upi.pin-verify.timeout-ms:2000}") long timeoutMs) {
+        this.passwordEncoder = passwordEncoder;
+        this.queueCapacity = queueCapacity;
+        this.timeoutMs = timeoutMs;
+        AtomicInteger n = new AtomicInteger();
+        this.pool = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                r -> {
+                    Thread t = new Thread(r, "pin-verify-" + n.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @Override
+    public boolean matches(String pin, String pinHash) {
+        if (pin == null || pinHash == null) {
+            return false;
+        }
+        long submitted = System.nanoTime();
+        Future<Boolean> check;
+        try {
+            check = pool.submit(() -> {
+                long started = System.nanoTime();
+                queueWait.record(started - submitted);
+                boolean ok = passwordEncoder.matches(pin, pinHash);
+                verification.record(System.nanoTime() - started);
+                return ok;
+            });
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw busy();
+        }
+        try {
+            boolean ok = check.get(timeoutMs, TimeUnit.MILLISECONDS);
+            if (!ok) {
+                mismatches.increment();
+            }
+            return ok;
+        } catch (TimeoutException e) {
+            check.cancel(true);
+            timedOut.increment();
+            logger.warn("UPI PIN check timed out after {} ms", timeoutMs);
+            throw busy();
+        } catch (InterruptedException e) {
+            check.cancel(true);
+            Thread.currentThread().interrupt();
+            throw busy();
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof RuntimeException re ? re : new IllegalStateException(e.getCause());
+        }
+    }
+
+    @Override
+    public Map<String, Object> getMetrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("threads", pool.getMaximumPoolSize());
+        metrics.put("active", pool.getActiveCount());
+        metrics.put("queueDepth", pool.getQueue().size());
+        metrics.put("queueCapacity", queueCapacity);
+        metrics.put("completed", pool.getCompletedTaskCount());
+        metrics.put("rejected", rejected.sum());
+        metrics.put("timedOut", timedOut.sum());
+        metrics.put("mismatches", mismatches.sum());
+        metrics.put("queueWait", queueWait.snapshot());
+        metrics.put("verification", verification.snapshot());
+        return metrics;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        pool.shutdownNow();
+    }
+
+    private static ServiceBusyException busy() {
+        return new ServiceBusyException("UPI PIN verification is busy, please retry");
+    }
+}
@@ -5,11 +5,11 @@ import com.alien.bank.management.system.repository.*;
 import com.alien.bank.management.system.service.RewardsService;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
-import java.time.LocalDate;
 import java.time.ZoneId;
-import java.util.Date;
+import java.util.*;
 
 @Service
 @RequiredArgsConstructor
@@ -17,6 +17,10 @@ public class RewardsServiceImpl implements RewardsService {
     private final RewardWalletRepository walletRepository;
     private final RewardLedgerRepository ledgerRepository;
     private final RewardDailySummaryRepository summaryRepository;
+    private final RewardOutboxRepository outboxRepository;
+
+    @Value("${rewards.outbox.enabled:true}")
+    private boolean outboxEnabled;
 
     @Override
     public int calculateCoinsEarned(double amount) {
@@ -27,48 +31,96 @@ public class RewardsServiceImpl implements RewardsService {
     @Override
     @Transactional
     public void recordEarnAndDailyBonus(User user, Long paymentId, int coinsEarned) {
-        // Upsert wallet (with lock)
-        RewardWallet wallet = walletRepository.findByUserIdForUpdate(user.getId())
-                .orElseGet(() -> {
-                    RewardWallet w = RewardWallet.builder().userId(user.getId()).coins(0).build();
-                    return w;
-                });
-        wallet.setCoins(wallet.getCoins() + coinsEarned);
+        RewardWallet wallet = lockWallet(user.getId());
+        Map<Date, RewardDailySummary> summaries = new HashMap<>();
+        applyEarn(wallet, user, paymentId, coinsEarned, startOfDay(new Date()), summaries);
+        walletRepository.save(wallet);
+        summaryRepository.saveAll(summaries.values());
+    }
+
+    @Override
+    @Transactional
+    public void accruePaymentReward(User user, Long paymentId, int coinsEarned) {
+        if (!outboxEnabled) {
+            recordEarnAndDailyBonus(user, paymentId, coinsEarned);
+            return;
+        }
+        // joins the payment's transaction, so the event exists exactly when the payment committed
+        outboxRepository.save(RewardOutboxEvent.builder()
+                .paymentId(paymentId)
+                .userId(user.getId())
+                .coins(coinsEarned)
+                .build());
+    }
+
+    @Override
+    @Transactional
+    public int applyOutboxEvents(Long userId, Collection<Long> eventIds) {
+        // the wallet lock serializes relays on one user; events another relay applied meanwhile are already deleted
+        RewardWallet wallet = lockWallet(userId);
+        List<RewardOutboxEvent> events = new ArrayList<>(outboxRepository.findAllById(eventIds));
+        if (events.isEmpty()) {
+            return 0;
+        }
+        events.sort(Comparator.comparing(RewardOutboxEvent::getId));
+        List<Long> paymentIds = events.stream().map(RewardOutboxEvent::getPaymentId).toList();
+        // idempotent per payment: one that already has its EARN row is not credited again
+        Set<Long> rewarded = new HashSet<>(ledgerRepository.findPaymentIdsWithType(paymentIds, RewardType.EARN));
+
+        User user = User.builder().id(userId).build();
+        Map<Date, RewardDailySummary> summaries = new HashMap<>();
+        int applied = 0;
+        for (RewardOutboxEvent event : events) {
+            if (rewarded.add(event.getPaymentId())) {
+                applyEarn(wallet, user, event.getPaymentId(), event.getCoins(), startOfDay(event.getCreatedAt()), summaries);
+                applied++;
+            }
+        }
         walletRepository.save(wallet);
+        summaryRepository.saveAll(summaries.values());
+        outboxRepository.deleteAllByIdInBatch(events.stream().map(RewardOutboxEvent::getId).toList());
+        return applied;
+    }
+
+    // A missing wallet is created; two first accruals racing on its primary key are retried by the caller
+    private RewardWallet lockWallet(Long userId) {
+        return walletRepository.findByUserIdForUpdate(userId)
+                .orElseGet(() -> RewardWallet.builder().userId(userId).coins(0).build());
+    }
 
-        // Ledger: EARN
-        RewardLedger earn = RewardLedger.builder()
+    // EARN row, wallet credit and the day's count, plus the daily bonus on the fifth payment of the day
+    private void applyEarn(RewardWallet wallet, User user, Long paymentId, int coinsEarned, Date day,
+                           Map<Date, RewardDailySummary> summaries) {
+        wallet.setCoins(wallet.getCoins() + coinsEarned);
+        ledgerRepository.save(RewardLedger.builder()
                 .user(user)
                 .payment(paymentId != null ? Payment.builder().id(paymentId).build() : null)
                 .type(RewardType.EARN)
                 .coins(coinsEarned)
                 .note("Payment reward")
-                .build();
-        ledgerRepository.save(earn);
+                .build());
 
-        // Daily summary and potential bonus
-        Date dayDate = Date.from(LocalDate.now().atStartOfDay(ZoneId.systemDefault()).toInstant());
-        RewardDailySummary summary = summaryRepository.findByUserAndDayForUpdate(user, dayDate)
-                .orElseGet(() -> RewardDailySummary.builder().user(user).day(dayDate).txCount(0).bonusGiven(false).build());
+        RewardDailySummary summary = summaries.computeIfAbsent(day, d -> summaryRepository.findByUserAndDayForUpdate(user, d)
+                .orElseGet(() -> RewardDailySummary.builder().user(user).day(d).txCount(0).bonusGiven(false).build()));
         summary.setTxCount(summary.getTxCount() + 1);
 
         if (!summary.getBonusGiven() && summary.getTxCount() >= 5) {
             // give bonus of 20
-            RewardLedger bonus = RewardLedger.builder()
+            ledgerRepository.save(RewardLedger.builder()
                     .user(user)
                     .payment(null)
                     .type(RewardType.BONUS)
                     .coins(20)
                     .note("Daily 5 payments bonus")
-                    .build();
-            ledgerRepository.save(bonus);
-
+                    .build());
             wallet.setCoins(wallet.getCoins() + 20);
-            walletRepository.save(wallet);
-
             summary.setBonusGiven(true);
         }
-        summaryRepository.save(summary);
+    }
+
+    private static Date startOfDay(Date time) {
+        ZoneId zone = ZoneId.systemDefault();
+        return Date.from(time.toInstant().atZone(zone).toLocalDate().atStartOfDay(zone).toInstant());
     }
 
     @Override
@@ -4,18 +4,32 @@ import com.alien.bank.management.system.entity.Account;
 import com.alien.bank.management.system.entity.Transaction;
 import com.alien.bank.management.system.entity.TransactionType;
 import com.alien.bank.management.system.entity.User;
+import com.alien.bank.management.system.exception.ConcurrentUpdateException;
 import com.alien.bank.management.system.exception.LowBalanceException;
 import com.alien.bank.management.system.mapper.TransactionMapper;
+import com.alien.bank.management.system.model.transaction.BatchPostingRequest;
+import com.alien.bank.management.system.model.transaction.BatchPostingResponse;
 import com.alien.bank.management.system.model.transaction.DepositRequestModel;
+import com.alien.bank.management.system.model.transaction.JournalReceipt;
 import com.alien.bank.management.system.model.transaction.TransactionResponseModel;
 import com.alien.bank.management.system.model.transaction.WithdrawRequestModel;
+import com.alien.bank.management.system.model.transaction.NotesSearch;
+import com.alien.bank.management.system.model.transaction.TransactionCursor;
 import com.alien.bank.management.system.model.transaction.TransactionHistoryItem;
+import com.alien.bank.management.system.model.transaction.TransactionHistoryPage;
 import com.alien.bank.management.system.model.transaction.TransactionStatementRequest;
 import com.alien.bank.management.system.model.transaction.TransactionStatementResponse;
 import com.alien.bank.management.system.repository.AccountRepository;
+import com.alien.bank.management.system.repository.LedgerBatchRepository;
 import com.alien.bank.management.system.repository.TransactionRepository;
 import com.alien.bank.management.system.repository.UserRepository;
+import com.alien.bank.management.system.service.BalanceSnapshotService;
+import com.alien.bank.management.system.service.LedgerJournalService;
+import com.alien.bank.management.system.service.LedgerService;
+import com.alien.bank.management.system.service.NotesSearchService;
 import com.alien.bank.management.system.service.TransactionService;
+import com.alien.bank.management.system.utils.OptimisticRetryExecutor;
+import com.alien.bank.management.system.utils.StatementPdfWriter;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.stereotype.Service;
@@ -25,76 +39,249 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.transaction.annotation.Transactional;
 
 import jakarta.persistence.EntityNotFoundException;
+import java.io.BufferedWriter;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Calendar;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 public class TransactionServiceImpl implements TransactionService {
 
+    private static final String CSV_HEADER = "Transaction ID,Type,Amount,Date,Balance After,Notes,Category\n";
+    // Flush the response every N rows so the client sees progress and buffers stay small
+    private static final int CSV_FLUSH_EVERY = 500;
+
     private final AccountRepository accountRepository;
     private final TransactionRepository transactionRepository;
     private final TransactionMapper transactionMapper;
     private final UserRepository userRepository; // NEW
+    private final LedgerService ledgerService;
+    private final LedgerBatchRepository ledgerBatchRepository;
+    private final BalanceSnapshotService balanceSnapshotService;
+    private final OptimisticRetryExecutor retryExecutor;
+    private final LedgerJournalService ledgerJournalService;
+    private final NotesSearchService notesSearchService;
     
+    // Direct engine: each attempt is a fresh transaction and a stale Account version re-reads and
+    // re-applies. Journal engine: the account's ledger writer checks and appends the posting.
     @Override
     public TransactionResponseModel deposit(DepositRequestModel request) {
-        Account account = accountRepository.findById(request.getAccountId())
-                .orElseThrow(() -> new EntityNotFoundException("Account not found"));
-
-        // Ensure the current authenticated user owns this account
         String email = SecurityContextHolder.getContext().getAuthentication().getName();
-        if (!account.getUser().getEmail().equals(email)) {
-            throw new BadCredentialsException("Account does not belong to current user");
+        if (ledgerJournalService.isEnabled()) {
+            Account account = loadOwnedAccount(request.getAccountId(), email);
+            JournalReceipt receipt = ledgerJournalService.post(account.getId(), TransactionType.DEPOSIT, request.getAmount(), null);
+            return transactionMapper.toResponseModel(receipt.getTransactionId(), request.getAmount(), receipt.getBalanceAfter());
         }
-
-        Long transactionId = performDeposit(account, request.getAmount());
-        return transactionMapper.toResponseModel(transactionId, request.getAmount(), account.getBalance());
+        return retryExecutor.execute("deposit", "account:" + request.getAccountId(), () -> {
+            Account account = loadOwnedAccount(request.getAccountId(), email);
+            Long transactionId = performDeposit(account, request.getAmount());
+            return transactionMapper.toResponseModel(transactionId, request.getAmount(), account.getBalance());
+        });
     }
 
     @Override
     public TransactionResponseModel withdraw(WithdrawRequestModel request) {
-        Account account = accountRepository.findById(request.getAccountId())
-                .orElseThrow(() -> new jakarta.persistence.EntityNotFoundException("Account not found"));
+        String email = SecurityContextHolder.getContext().getAuthentication().getName();
+        if (ledgerJournalService.isEnabled()) {
+            Account account = loadOwnedAccount(request.getAccountId(), email);
+            JournalReceipt receipt = ledgerJournalService.post(account.getId(), TransactionType.WITHDRAW, request.getAmount(), null);
+            return transactionMapper.toResponseModel(receipt.getTransactionId(), request.getAmount(), receipt.getBalanceAfter());
+        }
+        return retryExecutor.execute("withdraw", "account:" + request.getAccountId(), () -> {
+            Account account = loadOwnedAccount(request.getAccountId(), email);
+            if (account.getBalance() < request.getAmount()) {
+                throw new LowBalanceException("Insufficient balance");
+            }
+
+            Long transactionId = performWithdrawal(account, request.getAmount());
+            return transactionMapper.toResponseModel(transactionId, request.getAmount(), account.getBalance());
+        });
+    }
+
+    private Account loadOwnedAccount(Long accountId, String email) {
+        Account account = accountRepository.findById(accountId)
+                .orElseThrow(() -> new EntityNotFoundException("Account not found"));
 
         // Ensure the current authenticated user owns this account
-        String email = org.springframework.security.core.context.SecurityContextHolder.getContext().getAuthentication().getName();
         if (!account.getUser().getEmail().equals(email)) {
-            throw new org.springframework.security.authentication.BadCredentialsException("Account does not belong to current user");
-        }
-
-        if (account.getBalance() < request.getAmount()) {
-            throw new LowBalanceException("Insufficient balance");
+            throw new BadCredentialsException("Account does not belong to current user");
         }
-
-        Long transactionId = performWithdrawal(account, request.getAmount());
-        return transactionMapper.toResponseModel(transactionId, request.getAmount(), account.getBalance());
+        return account;
     }
 
     private Long performDeposit(Account account, double amount) {
         updateAccountBalance(account, amount);
         Transaction transaction = transactionMapper.toEntity(amount, account, TransactionType.DEPOSIT);
-        transactionRepository.save(transaction);
+        ledgerService.record(transaction);
         return transaction.getId();
     }
 
     private Long performWithdrawal(Account account, double amount) {
         updateAccountBalance(account, -amount);
         Transaction transaction = transactionMapper.toEntity(amount, account, TransactionType.WITHDRAW);
-        transactionRepository.save(transaction);
+        ledgerService.record(transaction);
         return transaction.getId();
     }
 
+    // Accounts are locked once, in id order, so concurrent batches cannot deadlock on each other;
+    // balances and Transaction rows are then written with JDBC batches instead of per-row saves.
+    // Journal engine: each posting goes through its account's ledger writer and succeeds or fails on its own.
+    @Override
+    public BatchPostingResponse postBatch(BatchPostingRequest request) {
+        if (ledgerJournalService.isEnabled()) {
+            return postBatchToJournal(request.getPostings());
+        }
+        Set<Long> accountIds = new TreeSet<>();
+        request.getPostings().forEach(p -> accountIds.add(p.getAccountId()));
+        return retryExecutor.execute("postBatch", "accounts:" + accountIds, () -> doPostBatch(request.getPostings(), accountIds));
+    }
+
+    private BatchPostingResponse doPostBatch(List<BatchPostingRequest.Posting> postings, Set<Long> accountIds) {
+        Map<Long, Double> balances = ledgerBatchRepository.lockBalances(accountIds);
+
+        Date now = new Date();
+        List<BatchPostingResponse.PostingResult> results = new ArrayList<>(postings.size());
+        List<Transaction> transactions = new ArrayList<>();
+        List<BatchPostingResponse.PostingResult> posted = new ArrayList<>();
+        Map<Long, Double> updated = new HashMap<>();
+        for (int i = 0; i < postings.size(); i++) {
+            BatchPostingRequest.Posting posting = postings.get(i);
+            BatchPostingResponse.PostingResult result = BatchPostingResponse.PostingResult.builder()
+                    .index(i)
+                    .accountId(posting.getAccountId())
+                    .build();
+            results.add(result);
+
+            String error = validatePosting(posting, balances);
+            if (error != null) {
+                result.setStatus("FAILED");
+                result.setError(error);
+                continue;
+            }
+            TransactionType type = TransactionType.valueOf(posting.getType().toUpperCase());
+            double delta = type == TransactionType.DEPOSIT ? posting.getAmount() : -posting.getAmount();
+            double balanceAfter = balances.get(posting.getAccountId()) + delta;
+            balances.put(posting.getAccountId(), balanceAfter);
+            updated.put(posting.getAccountId(), balanceAfter);
+
+            transactions.add(Transaction.builder()
+                    .type(type)
+                    .amount(posting.getAmount())
+                    .balanceAfter(balanceAfter)
+                    .timestamp(now)
+                    .notes(posting.getNotes())
+                    .account(Account.builder().id(posting.getAccountId()).build())
+                    .build());
+            result.setStatus("SUCCESS");
+            result.setBalanceAfter(balanceAfter);
+            posted.add(result);
+        }
+
+        if (!updated.isEmpty()) {
+            ledgerBatchRepository.updateBalances(updated);
+            ledgerService.recordAll(transactions);
+            for (int i = 0; i < posted.size(); i++) {
+                posted.get(i).setTransactionId(transactions.get(i).getId());
+            }
+        }
+        return batchResponse(results, posted.size());
+    }
+
+    private BatchPostingResponse postBatchToJournal(List<BatchPostingRequest.Posting> postings) {
+        List<BatchPostingResponse.PostingResult> results = new ArrayList<>(postings.size());
+        int succeeded = 0;
+        for (int i = 0; i < postings.size(); i++) {
+            BatchPostingRequest.Posting posting = postings.get(i);
+            BatchPostingResponse.PostingResult result = BatchPostingResponse.PostingResult.builder()
+                    .index(i)
+                    .accountId(posting.getAccountId())
+                    .build();
+            results.add(result);
+
+            String error = validatePostingRequest(posting);
+            if (error == null) {
+                try {
+                    JournalReceipt receipt = ledgerJournalService.post(posting.getAccountId(),
+                            TransactionType.valueOf(posting.getType().toUpperCase()), posting.getAmount(), posting.getNotes());
+                    result.setStatus("SUCCESS");
+                    result.setTransactionId(receipt.getTransactionId());
+                    result.setBalanceAfter(receipt.getBalanceAfter());
+                    succeeded++;
+                    continue;
+                } catch (LowBalanceException e) {
+                    error = "Insufficient balance";
+                } catch (EntityNotFoundException e) {
+                    error = "Account not found";
+                } catch (ConcurrentUpdateException e) {
+                    // only thrown for a posting the writer never appended
+                    error = e.getMessage();
+                }
+            }
+            result.setStatus("FAILED");
+            result.setError(error);
+        }
+        return batchResponse(results, succeeded);
+    }
+
+    private static BatchPostingResponse batchResponse(List<BatchPostingResponse.PostingResult> results, int succeeded) {
+        return BatchPostingResponse.builder()
+                .total(results.size())
+                .succeeded(succeeded)
+                .failed(results.size() - succeeded)
+                .results(results)
+                .build();
+    }
+
+    private String validatePostingRequest(BatchPostingRequest.Posting posting) {
+        if (posting.getAmount() == null || posting.getAmount() <= 0) {
+            return "Amount must be > 0";
+        }
+        if (!"DEPOSIT".equalsIgnoreCase(posting.getType()) && !"WITHDRAW".equalsIgnoreCase(posting.getType())) {
+            return "Type must be DEPOSIT or WITHDRAW";
+        }
+        return null;
+    }
+
+    private String validatePosting(BatchPostingRequest.Posting posting, Map<Long, Double> balances) {
+        String error = validatePostingRequest(posting);
+        if (error != null) {
+            return error;
+        }
+        Double balance = balances.get(posting.getAccountId());
+        if (balance == null) {
+            return "Account not found";
+        }
+        if ("WITHDRAW".equalsIgnoreCase(posting.getType()) && balance < posting.getAmount()) {
+            return "Insufficient balance";
+        }
+        return null;
+    }
+
     private void updateAccountBalance(Account account, double amount) {
         account.setBalance(account.getBalance() + amount);
         accountRepository.save(account);
     }
 
     @Override
-    public List<TransactionHistoryItem> getHistory(Long accountId) {
+    public TransactionHistoryPage getHistory(Long accountId, String cursor, Integer limit) {
         // Security check
         String email = SecurityContextHolder.getContext().getAuthentication().getName();
         Account account = accountRepository.findById(accountId)
@@ -104,64 +291,145 @@ public class TransactionServiceImpl implements TransactionService {
             throw new AccessDeniedException("You cannot view another user's transactions");
         }
 
-        List<Transaction> transactions = transactionRepository.findByAccountIdOrderByTimestampDesc(accountId);
-        return transactions.stream()
-                .map(tx -> TransactionHistoryItem.builder()
-                        .transactionId(tx.getId())
-                        .type(tx.getType().name())
-                        .amount(tx.getAmount())
-                        .dateTime(tx.getTimestamp())
-                        .balanceAfter(tx.getBalanceAfter())
+        return getHistoryPage(accountId, cursor, limit);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public TransactionHistoryPage getHistoryPage(Long accountId, String cursor, Integer limit) {
+        // The cap is enforced here, whatever the client asks for
+        int pageSize = limit == null || limit < 1 ? HISTORY_DEFAULT_LIMIT : Math.min(limit, HISTORY_MAX_LIMIT);
+        TransactionCursor position = cursor != null ? TransactionCursor.decode(cursor) : null;
+
+        List<TransactionRepository.TransactionRowProjection> rows = transactionRepository.findHistoryPage(
+                accountId,
+                position != null ? position.getTimestampAsDate() : null,
+                position != null ? position.getId() : null,
+                PageRequest.of(0, pageSize + 1)
+        );
+
+        boolean hasMore = rows.size() > pageSize;
+        List<TransactionHistoryItem> items = (hasMore ? rows.subList(0, pageSize) : rows).stream()
+                .map(row -> TransactionHistoryItem.builder()
+                        .transactionId(row.getId())
+                        .type(row.getType().name())
+                        .amount(row.getAmount())
+                        .dateTime(row.getTimestamp())
+                        .balanceAfter(row.getBalanceAfter())
+                        .notes(row.getNotes())
                         .build())
                 .toList();
+
+        TransactionHistoryItem last = items.isEmpty() ? null : items.get(items.size() - 1);
+        return TransactionHistoryPage.builder()
+                .items(items)
+                .limit(pageSize)
+                .hasMore(hasMore)
+                .nextCursor(hasMore ? TransactionCursor.after(last.getDateTime(), last.getTransactionId()).encode() : null)
+                .build();
     }
 
     @Override
     public TransactionStatementResponse getTransactionStatement(TransactionStatementRequest request) {
         // Validate account exists and belongs to current user
-        Account account = accountRepository.findById(request.getAccountId())
-                .orElseThrow(() -> new EntityNotFoundException("Account not found"));
+        Account account = getStatementAccount(request.getAccountId());
+        
+        // Set default dates if not provided
+        Date fromDate = resolveFromDate(request.getFromDate());
+        Date toDate = resolveToDate(request.getToDate());
         
+        // Get filtered transactions
+        List<TransactionType> transactionTypes = parseTransactionTypes(request.getTransactionTypes());
+
+        StatementPage statementPage = isCursorMode(request)
+                ? findCursorPage(request, fromDate, toDate, transactionTypes)
+                : findOffsetPage(request, fromDate, toDate, transactionTypes);
+        
+        // Summary and boundaries come from the daily snapshots plus the partial days at either end
+        TransactionStatementResponse.TransactionSummary summary = balanceSnapshotService.getStatementSummary(account, fromDate, toDate);
+        
+        // Build response
+        return TransactionStatementResponse.builder()
+                .accountId(account.getId())
+                .cardNumber("****-****-****-" + account.getLast4Digits())
+                .currentBalance(account.getBalance())
+                .statementDate(new Date())
+                .fromDate(fromDate)
+                .toDate(toDate)
+                .summary(summary)
+                .pagination(statementPage.pagination())
+                .transactions(buildEnhancedTransactionItems(statementPage.transactions()))
+                .build();
+    }
+
+    @Override
+    public Account getStatementAccount(TransactionStatementRequest request) {
+        // an unknown transaction type fails here rather than half way through a streamed body
+        parseTransactionTypes(request.getTransactionTypes());
+        return getStatementAccount(request.getAccountId());
+    }
+
+    private Account getStatementAccount(Long accountId) {
+        Account account = accountRepository.findById(accountId)
+                .orElseThrow(() -> new EntityNotFoundException("Account not found"));
+
         // Get current user from security context
         String currentUserEmail = SecurityContextHolder.getContext().getAuthentication().getName();
         User currentUser = userRepository.findByEmail(currentUserEmail)
                 .orElseThrow(() -> new EntityNotFoundException("User not found"));
-        
+
         // Verify account belongs to current user
         if (!account.getUser().getId().equals(currentUser.getId())) {
             throw new IllegalArgumentException("Account does not belong to current user");
         }
-        
-        // Set default dates if not provided
-        Date fromDate = request.getFromDate();
-        Date toDate = request.getToDate();
-        
-        if (fromDate == null) {
-            // Default to 30 days ago
-            Calendar cal = Calendar.getInstance();
-            cal.add(Calendar.DAY_OF_MONTH, -30);
-            fromDate = cal.getTime();
+        return account;
+    }
+
+    private NotesSearch notesSearch(TransactionStatementRequest request) {
+        NotesSearch search = NotesSearch.of(request.getSearchText(), request.getSearchMode());
+        return search.getGramCount() > 0 ? search.indexedFrom(notesSearchService.getIndexedFrom(request.getAccountId())) : search;
+    }
+
+    private Date resolveFromDate(Date fromDate) {
+        if (fromDate != null) {
+            return fromDate;
         }
-        
-        if (toDate == null) {
-            // Default to current time
-            toDate = new Date();
+        // Default to 30 days ago
+        Calendar cal = Calendar.getInstance();
+        cal.add(Calendar.DAY_OF_MONTH, -30);
+        return cal.getTime();
+    }
+
+    private Date resolveToDate(Date toDate) {
+        // Default to current time
+        return toDate != null ? toDate : new Date();
+    }
+
+    // No filter means every type: Hibernate 6 cannot evaluate "IS NULL" on a bound collection
+    private List<TransactionType> parseTransactionTypes(List<String> types) {
+        if (types == null || types.isEmpty()) {
+            return List.of(TransactionType.values());
         }
-        
+        return types.stream()
+                .map(type -> TransactionType.valueOf(type.toUpperCase()))
+                .toList();
+    }
+
+    private record StatementPage(List<Transaction> transactions, TransactionStatementResponse.PaginationInfo pagination) {
+    }
+
+    private boolean isCursorMode(TransactionStatementRequest request) {
+        return request.getCursor() != null || "CURSOR".equalsIgnoreCase(request.getPaginationMode());
+    }
+
+    private StatementPage findOffsetPage(TransactionStatementRequest request, Date fromDate, Date toDate, List<TransactionType> transactionTypes) {
+        NotesSearch search = notesSearch(request);
         // Create pageable for pagination
         Pageable pageable = PageRequest.of(
                 request.getPage() - 1, // Spring Data uses 0-based indexing
                 request.getPageSize(),
                 Sort.by(Sort.Direction.fromString(request.getSortDirection()), request.getSortBy())
         );
-        
-        // Get filtered transactions
-        List<TransactionType> transactionTypes = null;
-        if (request.getTransactionTypes() != null && !request.getTransactionTypes().isEmpty()) {
-            transactionTypes = request.getTransactionTypes().stream()
-                    .map(type -> TransactionType.valueOf(type.toUpperCase()))
-                    .toList();
-        }
 
         Page<Transaction> transactionPage = transactionRepository.findTransactionsWithFilters(
                 request.getAccountId(),
@@ -170,74 +438,77 @@ public class TransactionServiceImpl implements TransactionService {
                 request.getMinAmount(),
                 request.getMaxAmount(),
                 transactionTypes,
-                request.getSearchText(),
+                search.getPattern(),
+                search.getGrams(),
+                search.getGramCount(),
+                search.getIndexedFrom(),
                 pageable
         );
 
-        
-        // Get summary statistics
-        TransactionRepository.TransactionSummaryProjection summaryData = transactionRepository.getTransactionSummary(
-                request.getAccountId(),
-                fromDate,
-                toDate
-        );
-        
-        // Get opening and closing balances
-        Double openingBalance = transactionRepository.getOpeningBalance(request.getAccountId(), fromDate);
-        if (openingBalance == null) {
-            openingBalance = 0.0;
-        }
-        
-        Double closingBalance = transactionRepository.getClosingBalance(request.getAccountId(), toDate);
-        if (closingBalance == null) {
-            closingBalance = account.getBalance();
-        }
-        
-        // Build response
-        return TransactionStatementResponse.builder()
-                .accountId(account.getId())
-                .cardNumber("****-****-****-" + account.getLast4Digits())
-                .currentBalance(account.getBalance())
-                .statementDate(new Date())
-                .fromDate(fromDate)
-                .toDate(toDate)
-                .summary(buildTransactionSummary(summaryData, openingBalance, closingBalance))
-                .pagination(buildPaginationInfo(transactionPage, request.getPage(), request.getPageSize()))
-                .transactions(buildEnhancedTransactionItems(transactionPage.getContent()))
+        TransactionStatementResponse.PaginationInfo pagination = TransactionStatementResponse.PaginationInfo.builder()
+                .currentPage(request.getPage())
+                .pageSize(request.getPageSize())
+                .totalPages(transactionPage.getTotalPages())
+                .totalElements(transactionPage.getTotalElements())
+                .hasNext(transactionPage.hasNext())
+                .hasPrevious(transactionPage.hasPrevious())
                 .build();
+        return new StatementPage(transactionPage.getContent(), pagination);
     }
 
-    private TransactionStatementResponse.TransactionSummary buildTransactionSummary(
-            TransactionRepository.TransactionSummaryProjection summaryData, 
-            Double openingBalance, 
-            Double closingBalance) {
-        
-        Double totalDeposits = summaryData.getTotalDeposits() != null ? summaryData.getTotalDeposits() : 0.0;
-        Double totalWithdrawals = summaryData.getTotalWithdrawals() != null ? summaryData.getTotalWithdrawals() : 0.0;
-        Double totalFees = summaryData.getTotalFees() != null ? summaryData.getTotalFees() : 0.0;
-        Double totalInterest = summaryData.getTotalInterest() != null ? summaryData.getTotalInterest() : 0.0;
-        
-        return TransactionStatementResponse.TransactionSummary.builder()
-                .totalTransactions(summaryData.getTotalTransactions() != null ? summaryData.getTotalTransactions().intValue() : 0)
-                .totalDeposits(totalDeposits)
-                .totalWithdrawals(totalWithdrawals)
-                .totalFees(totalFees)
-                .totalInterest(totalInterest)
-                .netChange(totalDeposits - totalWithdrawals + totalInterest - totalFees)
-                .openingBalance(openingBalance)
-                .closingBalance(closingBalance)
-                .build();
-    }
+    // Seeks on (timestamp, id) from the cursor row. One extra row is fetched to learn whether
+    // there is another page in the direction of travel, so no COUNT(*) is needed.
+    private StatementPage findCursorPage(TransactionStatementRequest request, Date fromDate, Date toDate, List<TransactionType> transactionTypes) {
+        NotesSearch search = notesSearch(request);
+        if (!"timestamp".equals(request.getSortBy())) {
+            throw new IllegalArgumentException("Cursor pagination only supports sortBy=timestamp");
+        }
+        boolean descending = Sort.Direction.fromString(request.getSortDirection()) == Sort.Direction.DESC;
+        TransactionCursor cursor = request.getCursor() != null ? TransactionCursor.decode(request.getCursor()) : null;
+        boolean forward = cursor == null || cursor.isForward();
+        Date cursorTs = cursor != null ? cursor.getTimestampAsDate() : null;
+        Long cursorId = cursor != null ? cursor.getId() : null;
+        int pageSize = request.getPageSize();
+        Pageable limit = PageRequest.of(0, pageSize + 1);
 
-    private TransactionStatementResponse.PaginationInfo buildPaginationInfo(Page<Transaction> transactionPage, Integer currentPage, Integer pageSize) {
-        return TransactionStatementResponse.PaginationInfo.builder()
-                .currentPage(currentPage)
+        // Newest-first listings read "before" the cursor going forward and "after" it going back
+        List<Transaction> rows = descending == forward
+                ? transactionRepository.findPageBefore(request.getAccountId(), fromDate, toDate, request.getMinAmount(),
+                        request.getMaxAmount(), transactionTypes, search.getPattern(), search.getGrams(), search.getGramCount(), search.getIndexedFrom(),
+                        cursorTs, cursorId, limit)
+                : transactionRepository.findPageAfter(request.getAccountId(), fromDate, toDate, request.getMinAmount(),
+                        request.getMaxAmount(), transactionTypes, search.getPattern(), search.getGrams(), search.getGramCount(), search.getIndexedFrom(),
+                        cursorTs, cursorId, limit);
+
+        boolean hasMore = rows.size() > pageSize;
+        List<Transaction> page = new ArrayList<>(hasMore ? rows.subList(0, pageSize) : rows);
+        if (!forward) {
+            Collections.reverse(page);
+        }
+        boolean hasNext = forward ? hasMore : true;
+        boolean hasPrevious = forward ? cursor != null : hasMore;
+
+        Long totalElements = null;
+        Integer totalPages = null;
+        if (Boolean.TRUE.equals(request.getIncludeTotal())) {
+            totalElements = transactionRepository.countTransactionsWithFilters(request.getAccountId(), fromDate, toDate,
+                    request.getMinAmount(), request.getMaxAmount(), transactionTypes,
+                    search.getPattern(), search.getGrams(), search.getGramCount(), search.getIndexedFrom());
+            totalPages = (int) ((totalElements + pageSize - 1) / pageSize);
+        }
+
+        Transaction first = page.isEmpty() ? null : page.get(0);
+        Transaction last = page.isEmpty() ? null : page.get(page.size() - 1);
+        TransactionStatementResponse.PaginationInfo pagination = TransactionStatementResponse.PaginationInfo.builder()
                 .pageSize(pageSize)
-                .totalPages(transactionPage.getTotalPages())
-                .totalElements(transactionPage.getTotalElements())
-                .hasNext(transactionPage.hasNext())
-                .hasPrevious(transactionPage.hasPrevious())
+                .totalPages(totalPages)
+                .totalElements(totalElements)
+                .hasNext(hasNext && last != null)
+                .hasPrevious(hasPrevious && first != null)
+                .nextCursor(hasNext && last != null ? TransactionCursor.after(last.getTimestamp(), last.getId()).encode() : null)
+                .prevCursor(hasPrevious && first != null ? TransactionCursor.before(first.getTimestamp(), first.getId()).encode() : null)
                 .build();
+        return new StatementPage(page, pagination);
     }
 
     private List<TransactionStatementResponse.EnhancedTransactionItem> buildEnhancedTransactionItems(List<Transaction> transactions) {
@@ -280,35 +551,140 @@ public class TransactionServiceImpl implements TransactionService {
     }
     
     @Override
+    @Transactional(readOnly = true)
     public byte[] exportStatementAsPdf(TransactionStatementRequest request) {
-        // TODO: Implement PDF export using libraries like iText or Apache PDFBox
-        // For now, return a simple text representation
-        TransactionStatementResponse statement = getTransactionStatement(request);
-        String content = "Account Statement\n" +
-                "Account: " + statement.getAccountId() + "\n" +
-                "Period: " + statement.getFromDate() + " to " + statement.getToDate() + "\n" +
-                "Total Transactions: " + statement.getSummary().getTotalTransactions();
-        return content.getBytes();
+        ByteArrayOutputStream pdf = new ByteArrayOutputStream();
+        writeStatementPdf(getStatementAccount(request.getAccountId()), request, pdf);
+        return pdf.toByteArray();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void streamStatementAsPdf(Account account, TransactionStatementRequest request, OutputStream outputStream) {
+        writeStatementPdf(account, request, outputStream);
+    }
+
+    private void writeStatementPdf(Account account, TransactionStatementRequest request, OutputStream outputStream) {
+        Date fromDate = resolveFromDate(request.getFromDate());
+        Date toDate = resolveToDate(request.getToDate());
+
+        // Boundaries are looked up once; totals are accumulated from the rows as they stream past
+        Double openingBalance = balanceSnapshotService.getOpeningBalance(account.getId(), fromDate);
+        Double closingBalance = balanceSnapshotService.getClosingBalance(account.getId(), toDate);
+        if (openingBalance == null) {
+            openingBalance = 0.0;
+        }
+        if (closingBalance == null) {
+            closingBalance = account.getBalance();
+        }
+        double totalDeposits = 0, totalWithdrawals = 0, totalFees = 0, totalInterest = 0;
+        int count = 0;
+
+        StatementPdfWriter pdf = new StatementPdfWriter(outputStream);
+        pdf.writeHeader("****-****-****-" + account.getLast4Digits(), account.getId(), fromDate, toDate, openingBalance);
+        NotesSearch search = notesSearch(request);
+        try (Stream<TransactionRepository.TransactionRowProjection> rows = transactionRepository.streamTransactionsWithFilters(
+                account.getId(),
+                fromDate,
+                toDate,
+                request.getMinAmount(),
+                request.getMaxAmount(),
+                parseTransactionTypes(request.getTransactionTypes()),
+                search.getPattern(),
+                search.getGrams(),
+                search.getGramCount(),
+                search.getIndexedFrom()
+        )) {
+            for (TransactionRepository.TransactionRowProjection row : (Iterable<TransactionRepository.TransactionRowProjection>) rows::iterator) {
+                pdf.addRow(row.getTimestamp(), "TXN" + String.format("%06d", row.getId()), row.getType().name(),
+                        row.getNotes(), row.getAmount(), row.getBalanceAfter());
+                count++;
+                switch (row.getType()) {
+                    case DEPOSIT -> totalDeposits += row.getAmount();
+                    case WITHDRAW -> totalWithdrawals += row.getAmount();
+                    case FEE -> totalFees += row.getAmount();
+                    case INTEREST -> totalInterest += row.getAmount();
+                    default -> { }
+                }
+            }
+        }
+
+        pdf.finish(List.of(
+                new String[]{"Transactions", String.valueOf(count)},
+                new String[]{"Opening balance", StatementPdfWriter.formatAmount(openingBalance)},
+                new String[]{"Total deposits", StatementPdfWriter.formatAmount(totalDeposits)},
+                new String[]{"Total withdrawals", StatementPdfWriter.formatAmount(totalWithdrawals)},
+                new String[]{"Total fees", StatementPdfWriter.formatAmount(totalFees)},
+                new String[]{"Total interest", StatementPdfWriter.formatAmount(totalInterest)},
+                new String[]{"Net change", StatementPdfWriter.formatAmount(totalDeposits - totalWithdrawals + totalInterest - totalFees)},
+                new String[]{"Closing balance", StatementPdfWriter.formatAmount(closingBalance)}
+        ));
     }
     
     @Override
     public byte[] exportStatementAsCsv(TransactionStatementResponse statement) {
-        // TODO: Implement CSV export
-        StringBuilder csv = new StringBuilder();
-        csv.append("Transaction ID,Type,Amount,Date,Balance After,Notes,Category\n");
-        
+        StringBuilder csv = new StringBuilder(CSV_HEADER);
         for (TransactionStatementResponse.EnhancedTransactionItem item : statement.getTransactions()) {
-            csv.append(String.format("%d,%s,%.2f,%s,%.2f,%s,%s\n",
-                    item.getTransactionId(),
-                    item.getType(),
-                    item.getAmount(),
-                    item.getTimestamp(),
-                    item.getBalanceAfter(),
-                    item.getNotes() != null ? item.getNotes() : "",
-                    item.getCategory()
-            ));
+            csv.append(toCsvRow(item.getTransactionId(), item.getType(), item.getAmount(), item.getTimestamp(),
+                    item.getBalanceAfter(), item.getNotes(), item.getCategory()));
         }
-        
-        return csv.toString().getBytes();
+        return csv.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void streamStatementAsCsv(Account account, TransactionStatementRequest request, OutputStream outputStream) {
+        Date fromDate = resolveFromDate(request.getFromDate());
+        Date toDate = resolveToDate(request.getToDate());
+
+        Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+        NotesSearch search = notesSearch(request);
+        try (Stream<TransactionRepository.TransactionRowProjection> rows = transactionRepository.streamTransactionsWithFilters(
+                account.getId(),
+                fromDate,
+                toDate,
+                request.getMinAmount(),
+                request.getMaxAmount(),
+                parseTransactionTypes(request.getTransactionTypes()),
+                search.getPattern(),
+                search.getGrams(),
+                search.getGramCount(),
+                search.getIndexedFrom()
+        )) {
+            writer.write(CSV_HEADER);
+            int written = 0;
+            for (TransactionRepository.TransactionRowProjection row : (Iterable<TransactionRepository.TransactionRowProjection>) rows::iterator) {
+                writer.write(toCsvRow(row.getId(), row.getType().name(), row.getAmount(), row.getTimestamp(),
+                        row.getBalanceAfter(), row.getNotes(), determineCategory(row.getType())));
+                if (++written % CSV_FLUSH_EVERY == 0) {
+                    writer.flush();
+                }
+            }
+            writer.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to stream statement CSV", e);
+        }
+    }
+
+    private String toCsvRow(Long id, String type, Double amount, Date timestamp, Double balanceAfter, String notes, String category) {
+        return String.format("%d,%s,%.2f,%s,%.2f,%s,%s\n",
+                id,
+                type,
+                amount,
+                timestamp,
+                balanceAfter,
+                escapeCsv(notes),
+                category
+        );
+    }
+
+    private String escapeCsv(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return "\"" + value.replace("\"", "\"\"") + "\"";
     }
-}
\ No newline at end of file
+}
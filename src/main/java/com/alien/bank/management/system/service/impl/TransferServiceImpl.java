@@ -0,0 +1,103 @@
+package com.alien.bank.management.system.service.impl;
+
+import com.alien.bank.management.system.entity.Account;
+import com.alien.bank.management.system.entity.Transaction;
+import com.alien.bank.management.system.entity.TransactionType;
+import com.alien.bank.management.system.exception.LowBalanceException;
+import com.alien.bank.management.system.model.transaction.TransferResult;
+import com.alien.bank.management.system.repository.AccountRepository;
+import com.alien.bank.management.system.service.LedgerJournalService;
+import com.alien.bank.management.system.service.LedgerService;
+import com.alien.bank.management.system.service.TransferService;
+import com.alien.bank.management.system.utils.OptimisticRetryExecutor;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityNotFoundException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Both accounts are locked with SELECT ... FOR UPDATE in ascending id order, so an A->B and a B->A
+ * transfer queue on the same first row instead of each holding one lock and waiting for the other.
+ * Lock timeouts and deadlock aborts are retried by OptimisticRetryExecutor like version conflicts.
+ * The TRANSFER_OUT and TRANSFER_IN rows go through LedgerService.recordAll as one JDBC batch.
+ * With ledger.engine=journal the balances belong to the journal writers, so transfers are refused here.
+ */
+@Service
+@RequiredArgsConstructor
+public class TransferServiceImpl implements TransferService {
+
+    private final AccountRepository accountRepository;
+    private final LedgerService ledgerService;
+    private final OptimisticRetryExecutor retryExecutor;
+    private final EntityManager entityManager;
+    private final LedgerJournalService ledgerJournalService;
+
+    @Override
+    public TransferResult transfer(Long fromAccountId, Long toAccountId, double amount, String debitNotes, String creditNotes) {
+        if (amount <= 0) {
+            throw new IllegalArgumentException("Amount must be positive");
+        }
+        if (ledgerJournalService.isEnabled()) {
+            throw new IllegalStateException("Row-lock transfers are disabled while ledger.engine=journal");
+        }
+        return retryExecutor.execute("transfer", "account:" + fromAccountId,
+                () -> doTransfer(fromAccountId, toAccountId, amount, debitNotes, creditNotes));
+    }
+
+    private TransferResult doTransfer(Long fromAccountId, Long toAccountId, double amount, String debitNotes, String creditNotes) {
+        Map<Long, Account> locked = lockInOrder(fromAccountId, toAccountId);
+        Account sender = locked.get(fromAccountId);
+        Account receiver = locked.get(toAccountId);
+        if (sender.getBalance() < amount) {
+            throw new LowBalanceException("Insufficient balance");
+        }
+
+        Date now = new Date();
+        sender.setBalance(sender.getBalance() - amount);
+        Transaction debit = Transaction.builder()
+                .type(TransactionType.TRANSFER_OUT)
+                .amount(amount)
+                .balanceAfter(sender.getBalance())
+                .timestamp(now)
+                .notes(debitNotes)
+                .account(sender)
+                .build();
+        receiver.setBalance(receiver.getBalance() + amount);
+        Transaction credit = Transaction.builder()
+                .type(TransactionType.TRANSFER_IN)
+                .amount(amount)
+                .balanceAfter(receiver.getBalance())
+                .timestamp(now)
+                .notes(creditNotes)
+                .account(receiver)
+                .build();
+        ledgerService.recordAll(List.of(debit, credit));
+
+        return TransferResult.builder()
+                .debitTransactionId(debit.getId())
+                .creditTransactionId(credit.getId())
+                .senderBalance(sender.getBalance())
+                .receiverBalance(receiver.getBalance())
+                .build();
+    }
+
+    private Map<Long, Account> lockInOrder(Long... accountIds) {
+        Map<Long, Account> locked = new TreeMap<>();
+        for (Long id : accountIds) {
+            locked.put(id, null);
+        }
+        for (Long id : locked.keySet()) {
+            Account account = accountRepository.findByIdForUpdate(id)
+                    .orElseThrow(() -> new EntityNotFoundException("Account " + id + " not found"));
+            // the caller may already hold this account from before the lock; reload it under the lock
+            entityManager.refresh(account);
+            locked.put(id, account);
+        }
+        return locked;
+    }
+}
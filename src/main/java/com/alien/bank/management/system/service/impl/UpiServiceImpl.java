@@ -1,42 +1,114 @@
 package com.alien.bank.management.system.service.impl;
 
 import com.alien.bank.management.system.entity.*;
+import com.alien.bank.management.system.exception.ConcurrentUpdateException;
 import com.alien.bank.management.system.exception.LowBalanceException;
+import com.alien.bank.management.system.exception.ServiceBusyException;
+import com.alien.bank.management.system.model.transaction.JournalReceipt;
+import com.alien.bank.management.system.model.transaction.TransactionCursor;
+import com.alien.bank.management.system.model.transaction.TransactionHistoryPage;
+import com.alien.bank.management.system.model.transaction.TransferResult;
 import com.alien.bank.management.system.model.upi.CreateUpiIdRequest;
 import com.alien.bank.management.system.model.upi.CreateUpiIdResponse;
+import com.alien.bank.management.system.model.upi.SplitBillRequest;
+import com.alien.bank.management.system.model.upi.SplitBillStatus;
+import com.alien.bank.management.system.model.upi.UpiRequestPage;
+import com.alien.bank.management.system.model.upi.VpaRecord;
 import com.alien.bank.management.system.repository.*;
+import com.alien.bank.management.system.service.DailySpendService;
+import com.alien.bank.management.system.service.LedgerJournalService;
+import com.alien.bank.management.system.service.PartitionedLedgerService;
+import com.alien.bank.management.system.service.PinVerificationService;
+import com.alien.bank.management.system.service.TransactionService;
+import com.alien.bank.management.system.service.TransferService;
 import com.alien.bank.management.system.service.UpiService;
+import com.alien.bank.management.system.service.VpaHandleAllocator;
+import com.alien.bank.management.system.service.VpaResolver;
+import com.alien.bank.management.system.service.VpaSearchIndex;
+import com.alien.bank.management.system.utils.LatencyHistogram;
 import com.alien.bank.management.system.utils.LogRedactionUtil;
+import com.alien.bank.management.system.utils.OptimisticRetryExecutor;
+import com.alien.bank.management.system.utils.PartitionedExecutor;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import jakarta.persistence.EntityNotFoundException;
-import java.util.Date;
-import java.util.List;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 
 @Service
 @RequiredArgsConstructor
 public class UpiServiceImpl implements UpiService {
     private static final Logger logger = LoggerFactory.getLogger(UpiServiceImpl.class);
+    private static final int DEFAULT_SUGGESTIONS = 10;
+    private static final int MAX_SUGGESTIONS = 20;
+    private static final int INBOX_DEFAULT_LIMIT = 20;
+    private static final int INBOX_MAX_LIMIT = 100;
     
     private final UserRepository userRepository;
     private final AccountRepository accountRepository;
-    private final TransactionRepository transactionRepository;
     private final UpiVpaRepository upiVpaRepository;
     private final UpiRequestRepository upiRequestRepository;
     private final PasswordEncoder passwordEncoder;
     private final LogRedactionUtil logRedactionUtil;
+    private final TransactionService transactionService;
+    private final OptimisticRetryExecutor retryExecutor;
+    private final LedgerJournalService ledgerJournalService;
+    private final PartitionedLedgerService partitionedLedgerService;
+    private final DailySpendService dailySpendService;
+    private final TransferService transferService;
+    private final VpaResolver vpaResolver;
+    private final VpaSearchIndex vpaSearchIndex;
+    private final VpaHandleAllocator vpaHandleAllocator;
+    private final PinVerificationService pinVerificationService;
+    private final LedgerBatchRepository ledgerBatchRepository;
+    private final UpiTransferRepository upiTransferRepository;
+
+    @Value("${upi.collect.expiry-minutes:1440}")
+    private long collectExpiryMinutes;
+
+    @Value("${upi.async.partitions:4}")
+    private int asyncPartitions;
+
+    @Value("${upi.async.max-in-flight:10000}")
+    private int asyncMaxInFlight;
+
+    @Value("${upi.async.long-poll-max-ms:30000}")
+    private long longPollMaxMs;
+
+    // Async sends: workers partitioned by sender account, waiters for long-polls on this instance
+    private PartitionedExecutor transferWorkers;
+    private final Map<String, CompletableFuture<UpiTransfer>> transferWaiters = new ConcurrentHashMap<>();
+    private final LatencyHistogram acceptLatency = new LatencyHistogram();
+    private final LatencyHistogram completionLatency = new LatencyHistogram();
+
+    @PostConstruct
+    void startTransferWorkers() {
+        transferWorkers = new PartitionedExecutor("upi-transfer", asyncPartitions, asyncMaxInFlight);
+    }
 
-    // Configurable daily limit (could move to properties)
-    private static final double DAILY_LIMIT = 50000.0;
+    @PreDestroy
+    void stopTransferWorkers() {
+        transferWorkers.shutdown();
+    }
 
+    // Not @Transactional: each attempt inserts in its own transaction, so losing the unique key on
+    // upi_vpa.vpa to an explicitly created UPI ID is retried with the next allocated suffix.
     @Override
-    @Transactional
     public UpiVpa createVpa(Long accountId) {
         String email = org.springframework.security.core.context.SecurityContextHolder.getContext().getAuthentication().getName();
         User user = userRepository.findByEmail(email).orElseThrow(() -> new EntityNotFoundException("User not found"));
@@ -47,25 +119,21 @@ public class UpiServiceImpl implements UpiService {
 
         // generate VPA as username@mybank (use part before @ from email or name)
         String handle = user.getEmail() != null ? user.getEmail().split("@")[0] : user.getName().replaceAll("\\s+", "").toLowerCase();
-        String baseVpa = handle + "@mybank";
-        String vpa = baseVpa;
-        int suffix = 1;
-        while (upiVpaRepository.existsByVpa(vpa)) {
-            vpa = handle + suffix + "@mybank";
-            suffix++;
-        }
-
-        // If no existing VPAs, mark as default
-        boolean isDefault = upiVpaRepository.findByUser(user).isEmpty();
-
-        UpiVpa entity = UpiVpa.builder()
-                .vpa(vpa)
-                .user(user)
-                .account(account)
-                .isDefault(isDefault)
-                .createdAt(new Date())
-                .build();
-        return upiVpaRepository.save(entity);
+        UpiVpa saved = retryExecutor.execute("vpaCreate", "handle:" + handle, () -> {
+            // If no existing VPAs, mark as default
+            boolean isDefault = upiVpaRepository.findByUser(user).isEmpty();
+            UpiVpa entity = UpiVpa.builder()
+                    .vpa(vpaHandleAllocator.allocate(handle))
+                    .user(user)
+                    .account(account)
+                    .isDefault(isDefault)
+                    .createdAt(new Date())
+                    .build();
+            return upiVpaRepository.save(entity);
+        });
+        vpaResolver.invalidate(saved.getVpa());
+        vpaSearchIndex.add(saved.getVpa());
+        return saved;
     }
 
     @Override
@@ -90,14 +158,53 @@ public class UpiServiceImpl implements UpiService {
             v.setIsDefault(v.getId().equals(target.getId()));
         }
         upiVpaRepository.saveAll(vpas);
+        vpaResolver.invalidateUser(user.getId());
     }
 
+    // Direct engine: each attempt is its own transaction and a stale Account version re-reads both
+    // sides instead of failing the transfer outright. Journal and partitioned engines: the sender's
+    // ledger writer commits the debit, so no transaction is held here while waiting for it. The PIN is
+    // checked once up front: a version conflict retries the money movement, not the BCrypt check.
     @Override
-    @Transactional
     public Long sendMoney(String fromVpa, String toVpa, double amount, String note, String pin) {
+        authorizeSend(fromVpa, toVpa, amount, pin);
+        return sendMoneyPreAuthorized(fromVpa, toVpa, amount, note);
+    }
+
+    @Override
+    public Long sendMoneyPreAuthorized(String fromVpa, String toVpa, double amount, String note) {
+        if (ledgerCommitsOnItsOwn()) {
+            return doSendPreAuthorized(fromVpa, toVpa, amount, note);
+        }
+        return retryExecutor.execute("upiSend", "vpa:" + fromVpa, () -> doSendPreAuthorized(fromVpa, toVpa, amount, note));
+    }
+
+    private Long doSendPreAuthorized(String fromVpa, String toVpa, double amount, String note) {
+        SendParties parties = resolveSend(fromVpa, toVpa, amount);
+        checkDailyLimit(parties.from(), fromVpa, amount);
+        return moveMoney(parties.from().getAccountId(), parties.to().getAccountId(), fromVpa, toVpa, amount, note);
+    }
+
+    // Everything that can reject a send before money moves: amount, both VPAs, PIN and the cached daily limit
+    private SendParties authorizeSend(String fromVpa, String toVpa, double amount, String pin) {
+        SendParties parties = resolveSend(fromVpa, toVpa, amount);
+        verifyPin(parties.from(), fromVpa, pin);
+        checkDailyLimit(parties.from(), fromVpa, amount);
+        return parties;
+    }
+
+    // PIN check - individual UPI PIN if set, otherwise the user's global PIN (resolved by VpaRecord)
+    private void verifyPin(VpaRecord from, String fromVpa, String pin) {
+        if (!pinVerificationService.matches(pin, from.getPinHash())) {
+            logger.warn("Invalid UPI PIN for VPA: {}", logRedactionUtil.lazy(fromVpa));
+            throw new BadCredentialsException("Invalid UPI PIN");
+        }
+    }
+
+    private SendParties resolveSend(String fromVpa, String toVpa, double amount) {
         logger.info("Starting UPI transfer from {} to {} for amount {}", 
-            logRedactionUtil.redactSensitiveData(fromVpa), 
-            logRedactionUtil.redactSensitiveData(toVpa), 
+            logRedactionUtil.lazy(fromVpa), 
+            logRedactionUtil.lazy(toVpa), 
             amount);
             
         if (amount <= 0) {
@@ -105,89 +212,277 @@ public class UpiServiceImpl implements UpiService {
             throw new IllegalArgumentException("Amount must be positive");
         }
         
-        UpiVpa from = upiVpaRepository.findByVpa(fromVpa)
+        VpaRecord from = vpaResolver.resolve(fromVpa)
             .orElseThrow(() -> {
-                logger.warn("Sender VPA not found: {}", logRedactionUtil.redactSensitiveData(fromVpa));
+                logger.warn("Sender VPA not found: {}", logRedactionUtil.lazy(fromVpa));
                 return new EntityNotFoundException("Sender VPA not found");
             });
-        UpiVpa to = upiVpaRepository.findByVpa(toVpa)
+        VpaRecord to = vpaResolver.resolve(toVpa)
             .orElseThrow(() -> {
-                logger.warn("Recipient VPA not found: {}", logRedactionUtil.redactSensitiveData(toVpa));
+                logger.warn("Recipient VPA not found: {}", logRedactionUtil.lazy(toVpa));
                 return new EntityNotFoundException("Recipient VPA not found");
             });
+        return new SendParties(from, to);
+    }
 
-        // PIN check - use individual UPI PIN if available, otherwise fall back to user's global PIN
-        String pinHash = from.getUpiPinHash();
-        if (pinHash == null) {
-            // Fall back to user's global UPI PIN
-            pinHash = from.getUser().getUpiPinHash();
-        }
-        
-        if (pinHash == null || !passwordEncoder.matches(pin, pinHash)) {
-            logger.warn("Invalid UPI PIN for VPA: {}", logRedactionUtil.redactSensitiveData(fromVpa));
-            throw new BadCredentialsException("Invalid UPI PIN");
-        }
-
-        // Daily limit (sum of TRANSFER_OUT and PAYMENT for today)
-        Date startOfDay = getStartOfDay();
-        Date endOfDay = getEndOfDay();
-        Double spentToday = transactionRepository.sumOutgoingForRange(from.getAccount().getId(), startOfDay, endOfDay);
-        if (spentToday + amount > DAILY_LIMIT) {
+    // Daily limit (cached per-account counter shared with UPI payments)
+    private void checkDailyLimit(VpaRecord from, String fromVpa, double amount) {
+        double spentToday = dailySpendService.getSpentToday(from.getAccountId());
+        if (spentToday + amount > dailySpendService.getDailyLimit()) {
             logger.warn("Daily limit exceeded for VPA: {}, spent: {}, attempting: {}", 
-                logRedactionUtil.redactSensitiveData(fromVpa), spentToday, amount);
+                logRedactionUtil.lazy(fromVpa), spentToday, amount);
             throw new org.springframework.security.access.AccessDeniedException("Exceeded daily transfer limit");
         }
+    }
 
-        Account sender = from.getAccount();
-        Account receiver = to.getAccount();
-        if (sender.getBalance() < amount) {
-            logger.warn("Insufficient balance for VPA: {}, balance: {}, required: {}", 
-                logRedactionUtil.redactSensitiveData(fromVpa), sender.getBalance(), amount);
-            throw new LowBalanceException("Insufficient balance");
+    private Long moveMoney(Long senderId, Long receiverId, String fromVpa, String toVpa, double amount, String note) {
+        if (ledgerJournalService.isEnabled()) {
+            // the debit commits on the ledger writer, so reserve the limit first and give it back on failure
+            retryExecutor.execute("dailySpend", "account:" + senderId, () -> {
+                dailySpendService.recordSpend(senderId, amount);
+                return null;
+            });
+            JournalReceipt receipt;
+            try {
+                receipt = ledgerJournalService.transfer(senderId, receiverId, amount,
+                        note != null ? note : ("To " + toVpa), note != null ? note : ("From " + fromVpa));
+            } catch (RuntimeException e) {
+                dailySpendService.releaseSpend(senderId, amount);
+                throw e;
+            }
+            logger.info("UPI transfer journaled. Posting: {}, Transaction ID: {}", receipt.getPostingId(), receipt.getTransactionId());
+            return receipt.getTransactionId();
+        }
+        if (partitionedLedgerService.isEnabled()) {
+            // same reservation as the journal; the receiver is credited by its own partition after the debit commits
+            retryExecutor.execute("dailySpend", "account:" + senderId, () -> {
+                dailySpendService.recordSpend(senderId, amount);
+                return null;
+            });
+            TransferResult result;
+            try {
+                result = partitionedLedgerService.transfer(senderId, receiverId, amount,
+                        note != null ? note : ("To " + toVpa), note != null ? note : ("From " + fromVpa));
+            } catch (RuntimeException e) {
+                dailySpendService.releaseSpend(senderId, amount);
+                if (e instanceof LowBalanceException) {
+                    logger.warn("Insufficient balance for VPA: {}, required: {}",
+                        logRedactionUtil.lazy(fromVpa), amount);
+                }
+                throw e;
+            }
+            logger.info("UPI transfer debited on its partition. Transaction ID: {}", result.getDebitTransactionId());
+            return result.getDebitTransactionId();
         }
-
         try {
-            // Perform transfer
-            sender.setBalance(sender.getBalance() - amount);
-            receiver.setBalance(receiver.getBalance() + amount);
-            accountRepository.save(sender);
-            accountRepository.save(receiver);
-
-            // Record transactions for both sides
-            Transaction debit = Transaction.builder()
-                    .type(TransactionType.TRANSFER_OUT)
-                    .amount(amount)
-                    .balanceAfter(sender.getBalance())
-                    .timestamp(new Date())
-                    .notes(note != null ? note : ("To " + toVpa))
-                    .account(sender)
-                    .build();
-            transactionRepository.save(debit);
-
-            Transaction credit = Transaction.builder()
-                    .type(TransactionType.TRANSFER_IN)
-                    .amount(amount)
-                    .balanceAfter(receiver.getBalance())
-                    .timestamp(new Date())
-                    .notes(note != null ? note : ("From " + fromVpa))
-                    .account(receiver)
-                    .build();
-            transactionRepository.save(credit);
-
-            logger.info("UPI transfer completed successfully. Transaction ID: {}", debit.getId());
-            return debit.getId();
+            // Locks both accounts in id order, checks the balance and records both sides in one batch
+            TransferResult result = transferService.transfer(senderId, receiverId, amount,
+                    note != null ? note : ("To " + toVpa), note != null ? note : ("From " + fromVpa));
+            // authoritative limit check, committed or rolled back together with the debit
+            dailySpendService.recordSpend(senderId, amount);
+
+            logger.info("UPI transfer completed successfully. Transaction ID: {}", result.getDebitTransactionId());
+            return result.getDebitTransactionId();
+        } catch (LowBalanceException e) {
+            logger.warn("Insufficient balance for VPA: {}, required: {}",
+                logRedactionUtil.lazy(fromVpa), amount);
+            throw e;
         } catch (Exception e) {
             logger.error("UPI transfer failed: {}", e.getMessage(), e);
             throw e;
         }
     }
 
+    // Journal and partitioned engines commit money movement on their own writer threads
+    private boolean ledgerCommitsOnItsOwn() {
+        return ledgerJournalService.isEnabled() || partitionedLedgerService.isEnabled();
+    }
+
+    // Validates like sendMoney (PIN included, so it is never stored), persists the transfer as QUEUED and
+    // hands it to the sender's partition. Money moves later; the reference is polled for the outcome.
+    @Override
+    public UpiTransfer sendMoneyAsync(String fromVpa, String toVpa, double amount, String note, String pin) {
+        long started = System.nanoTime();
+        if (transferWorkers.getInFlight() >= asyncMaxInFlight) {
+            throw new ServiceBusyException("Too many transfers in flight, please retry");
+        }
+        SendParties parties = authorizeSend(fromVpa, toVpa, amount, pin);
+        UpiTransfer transfer = upiTransferRepository.save(UpiTransfer.builder()
+                .reference(UUID.randomUUID().toString())
+                .fromVpa(fromVpa)
+                .toVpa(toVpa)
+                .fromAccountId(parties.from().getAccountId())
+                .toAccountId(parties.to().getAccountId())
+                .amount(amount)
+                .note(note)
+                .status(UpiTransferStatus.QUEUED)
+                .createdAt(new Date())
+                .build());
+        try {
+            dispatch(transfer);
+        } catch (ServiceBusyException e) {
+            finishTransfer(transfer.getId(), UpiTransferStatus.FAILED, null, "BUSY");
+            throw e;
+        }
+        acceptLatency.record(System.nanoTime() - started);
+        return transfer;
+    }
+
+    // Only the sender sees a transfer; anyone else gets the same 404 as an unknown reference
+    @Override
+    public UpiTransfer getTransfer(String reference) {
+        UpiTransfer transfer = findTransfer(reference);
+        String email = org.springframework.security.core.context.SecurityContextHolder.getContext().getAuthentication().getName();
+        User user = userRepository.findByEmail(email).orElseThrow(() -> new EntityNotFoundException("User not found"));
+        if (!accountRepository.existsByIdAndUser(transfer.getFromAccountId(), user)) {
+            logger.warn("Transfer {} requested by a user who did not send it", reference);
+            throw new EntityNotFoundException("Transfer not found");
+        }
+        return transfer;
+    }
+
+    private UpiTransfer findTransfer(String reference) {
+        return upiTransferRepository.findByReference(reference)
+                .orElseThrow(() -> new EntityNotFoundException("Transfer not found"));
+    }
+
+    // Ownership is checked on the first read; the later reads may run on the timeout thread
+    @Override
+    public CompletableFuture<UpiTransfer> awaitTransfer(String reference, Long waitMs) {
+        UpiTransfer current = getTransfer(reference);
+        if (isFinal(current)) {
+            return CompletableFuture.completedFuture(current);
+        }
+        CompletableFuture<UpiTransfer> waiter = transferWaiters.get(reference);
+        if (waiter == null) {
+            // finished between the two reads, or queued on another instance: one more read, then plain polling
+            current = findTransfer(reference);
+            if (isFinal(current)) {
+                return CompletableFuture.completedFuture(current);
+            }
+            waiter = new CompletableFuture<>();
+        }
+        long wait = waitMs == null ? longPollMaxMs : Math.max(0, Math.min(waitMs, longPollMaxMs));
+        return waiter.copy()
+                .completeOnTimeout(null, wait, TimeUnit.MILLISECONDS)
+                .thenApply(done -> done != null ? done : findTransfer(reference));
+    }
+
+    @Override
+    public Map<String, Object> getAsyncMetrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>(transferWorkers.getMetrics());
+        metrics.put("waiters", transferWaiters.size());
+        metrics.put("acceptLatency", acceptLatency.snapshot());
+        metrics.put("completionLatency", completionLatency.snapshot());
+        return metrics;
+    }
+
+    // QUEUED rows survive a restart and are dispatched again. A PROCESSING row can only be left by the
+    // journal or partitioned engine, whose debit commits separately; its outcome is unknown, so it is failed for review.
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeQueuedTransfers() {
+        for (UpiTransfer stuck : upiTransferRepository.findByStatusOrderByIdAsc(UpiTransferStatus.PROCESSING)) {
+            logger.warn("UPI transfer {} was interrupted while processing; check the ledger before retrying", stuck.getReference());
+            finishTransfer(stuck.getId(), UpiTransferStatus.FAILED, null, "INTERRUPTED");
+        }
+        List<UpiTransfer> queued = upiTransferRepository.findByStatusOrderByIdAsc(UpiTransferStatus.QUEUED);
+        for (UpiTransfer transfer : queued) {
+            while (transferWorkers.getInFlight() >= asyncMaxInFlight) {
+                try {
+                    Thread.sleep(50);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+            dispatch(transfer);
+        }
+        if (!queued.isEmpty()) {
+            logger.info("Resumed {} queued UPI transfers", queued.size());
+        }
+    }
+
+    private void dispatch(UpiTransfer transfer) {
+        transferWaiters.put(transfer.getReference(), new CompletableFuture<>());
+        try {
+            transferWorkers.submit(transfer.getFromAccountId(), () -> runTransfer(transfer));
+        } catch (ServiceBusyException e) {
+            transferWaiters.remove(transfer.getReference());
+            throw e;
+        }
+    }
+
+    private void runTransfer(UpiTransfer queued) {
+        UpiTransfer result;
+        try {
+            if (ledgerCommitsOnItsOwn()) {
+                // the ledger commits on its own, so the claim must be durable before the money moves
+                if (upiTransferRepository.claim(queued.getId()) == 0) {
+                    return;
+                }
+                result = finishTransfer(queued.getId(), UpiTransferStatus.COMPLETED, moveQueued(queued), null);
+            } else {
+                // claim, money movement and completion commit together; a crash leaves the row QUEUED
+                result = retryExecutor.execute("upiAsyncSend", "account:" + queued.getFromAccountId(), () ->
+                        upiTransferRepository.claim(queued.getId()) == 0 ? null
+                                : finishTransfer(queued.getId(), UpiTransferStatus.COMPLETED, moveQueued(queued), null));
+                if (result == null) {
+                    return;
+                }
+            }
+        } catch (RuntimeException e) {
+            logger.warn("Async UPI transfer {} failed: {}", queued.getReference(), e.getMessage());
+            result = finishTransfer(queued.getId(), UpiTransferStatus.FAILED, null, failureReason(e));
+        } finally {
+            completionLatency.record(TimeUnit.MILLISECONDS.toNanos(System.currentTimeMillis() - queued.getCreatedAt().getTime()));
+        }
+        CompletableFuture<UpiTransfer> waiter = transferWaiters.remove(queued.getReference());
+        if (waiter != null) {
+            waiter.complete(result);
+        }
+    }
+
+    private Long moveQueued(UpiTransfer transfer) {
+        return moveMoney(transfer.getFromAccountId(), transfer.getToAccountId(), transfer.getFromVpa(),
+                transfer.getToVpa(), transfer.getAmount(), transfer.getNote());
+    }
+
+    private UpiTransfer finishTransfer(Long id, UpiTransferStatus status, Long transactionId, String failureReason) {
+        UpiTransfer transfer = upiTransferRepository.findById(id).orElseThrow();
+        transfer.setStatus(status);
+        transfer.setTransactionId(transactionId);
+        transfer.setFailureReason(failureReason);
+        transfer.setCompletedAt(new Date());
+        return upiTransferRepository.save(transfer);
+    }
+
+    private static boolean isFinal(UpiTransfer transfer) {
+        return transfer.getStatus() == UpiTransferStatus.COMPLETED || transfer.getStatus() == UpiTransferStatus.FAILED;
+    }
+
+    // Shared with mandate runs
+    static String failureReason(RuntimeException e) {
+        if (e instanceof LowBalanceException) {
+            return "INSUFFICIENT_BALANCE";
+        }
+        if (e instanceof org.springframework.security.access.AccessDeniedException) {
+            return "DAILY_LIMIT_EXCEEDED";
+        }
+        if (e instanceof ConcurrentUpdateException) {
+            return "CONCURRENT_UPDATE";
+        }
+        return "TRANSFER_FAILED";
+    }
+
+    private record SendParties(VpaRecord from, VpaRecord to) {
+    }
+
     @Override
     @Transactional
     public UpiRequest createCollectRequest(String payerVpa, String payeeVpa, double amount, String reason) {
         logger.info("Creating UPI collect request from {} to {} for amount {}", 
-            logRedactionUtil.redactSensitiveData(payerVpa), 
-            logRedactionUtil.redactSensitiveData(payeeVpa), 
+            logRedactionUtil.lazy(payerVpa), 
+            logRedactionUtil.lazy(payeeVpa), 
             amount);
             
         if (amount <= 0) {
@@ -196,23 +491,25 @@ public class UpiServiceImpl implements UpiService {
         }
         
         // validate both VPAs
-        upiVpaRepository.findByVpa(payerVpa)
+        vpaResolver.resolve(payerVpa)
             .orElseThrow(() -> {
-                logger.warn("Payer VPA not found: {}", logRedactionUtil.redactSensitiveData(payerVpa));
+                logger.warn("Payer VPA not found: {}", logRedactionUtil.lazy(payerVpa));
                 return new EntityNotFoundException("Payer VPA not found");
             });
-        upiVpaRepository.findByVpa(payeeVpa)
+        vpaResolver.resolve(payeeVpa)
             .orElseThrow(() -> {
-                logger.warn("Payee VPA not found: {}", logRedactionUtil.redactSensitiveData(payeeVpa));
+                logger.warn("Payee VPA not found: {}", logRedactionUtil.lazy(payeeVpa));
                 return new EntityNotFoundException("Payee VPA not found");
             });
 
+        Date now = new Date();
         UpiRequest req = UpiRequest.builder()
                 .payerVpa(payerVpa)
                 .payeeVpa(payeeVpa)
                 .amount(amount)
                 .status(UpiRequestStatus.PENDING)
-                .createdAt(new Date())
+                .createdAt(now)
+                .expiresAt(new Date(now.getTime() + TimeUnit.MINUTES.toMillis(collectExpiryMinutes)))
                 .build();
         
         UpiRequest savedReq = upiRequestRepository.save(req);
@@ -220,34 +517,196 @@ public class UpiServiceImpl implements UpiService {
         return savedReq;
     }
 
+    @Override
+    @Transactional
+    public SplitBillStatus createSplitBill(SplitBillRequest request) {
+        String payeeVpa = request.getPayeeVpa();
+        List<SplitBillRequest.Share> shares = request.getPayers();
+        if (shares == null || shares.isEmpty()) {
+            throw new IllegalArgumentException("At least one payer is required");
+        }
+        Set<String> vpas = new HashSet<>();
+        vpas.add(payeeVpa);
+        for (SplitBillRequest.Share share : shares) {
+            if (!vpas.add(share.getPayerVpa())) {
+                throw new IllegalArgumentException("Payers must be distinct and different from the payee");
+            }
+        }
+        List<Double> amounts = splitAmounts(request);
+
+        Set<String> missing = new HashSet<>(vpas);
+        missing.removeAll(upiVpaRepository.findExistingVpas(vpas));
+        if (!missing.isEmpty()) {
+            logger.warn("Split bill rejected, {} unknown VPAs", missing.size());
+            throw new EntityNotFoundException("VPA not found: " + String.join(", ", new TreeSet<>(missing)));
+        }
+
+        String groupId = UUID.randomUUID().toString();
+        Date now = new Date();
+        Date expiresAt = new Date(now.getTime() + TimeUnit.MINUTES.toMillis(collectExpiryMinutes));
+        List<UpiRequest> requests = new ArrayList<>(shares.size());
+        for (int i = 0; i < shares.size(); i++) {
+            requests.add(UpiRequest.builder()
+                    .payerVpa(shares.get(i).getPayerVpa())
+                    .payeeVpa(payeeVpa)
+                    .amount(amounts.get(i))
+                    .status(UpiRequestStatus.PENDING)
+                    .createdAt(now)
+                    .expiresAt(expiresAt)
+                    .groupId(groupId)
+                    .build());
+        }
+        ledgerBatchRepository.insertUpiRequests(requests);
+        logger.info("Split bill {} created with {} collect requests for {}", groupId, requests.size(),
+                logRedactionUtil.lazy(payeeVpa));
+        return toSplitBillStatus(groupId, requests);
+    }
+
+    @Override
+    public SplitBillStatus getSplitBill(String groupId) {
+        List<UpiRequest> requests = upiRequestRepository.findByGroupIdOrderByIdAsc(groupId);
+        if (requests.isEmpty()) {
+            throw new EntityNotFoundException("Split bill not found");
+        }
+        return toSplitBillStatus(groupId, requests);
+    }
+
+    // Explicit per-payer amounts, or totalAmount split equally in paise with the remainder on the first payers
+    private static List<Double> splitAmounts(SplitBillRequest request) {
+        List<SplitBillRequest.Share> shares = request.getPayers();
+        long withAmount = shares.stream().filter(share -> share.getAmount() != null).count();
+        if (withAmount == shares.size()) {
+            for (SplitBillRequest.Share share : shares) {
+                if (share.getAmount() <= 0) {
+                    throw new IllegalArgumentException("Amount must be positive");
+                }
+            }
+            return shares.stream().map(SplitBillRequest.Share::getAmount).toList();
+        }
+        if (withAmount > 0 || request.getTotalAmount() == null) {
+            throw new IllegalArgumentException("Give an amount for every payer, or only a total amount to split equally");
+        }
+        long totalPaise = Math.round(request.getTotalAmount() * 100);
+        long base = totalPaise / shares.size();
+        long remainder = totalPaise % shares.size();
+        if (base <= 0) {
+            throw new IllegalArgumentException("Total amount is too small to split");
+        }
+        List<Double> amounts = new ArrayList<>(shares.size());
+        for (int i = 0; i < shares.size(); i++) {
+            amounts.add((base + (i < remainder ? 1 : 0)) / 100.0);
+        }
+        return amounts;
+    }
+
+    private static SplitBillStatus toSplitBillStatus(String groupId, List<UpiRequest> requests) {
+        Map<UpiRequestStatus, Integer> counts = new EnumMap<>(UpiRequestStatus.class);
+        double total = 0;
+        double collected = 0;
+        for (UpiRequest r : requests) {
+            UpiRequestStatus status = r.getStatus() == UpiRequestStatus.PENDING && isExpired(r) ? UpiRequestStatus.EXPIRED : r.getStatus();
+            counts.merge(status, 1, Integer::sum);
+            total += r.getAmount();
+            if (status == UpiRequestStatus.APPROVED) {
+                collected += r.getAmount();
+            }
+        }
+        int approved = counts.getOrDefault(UpiRequestStatus.APPROVED, 0);
+        return SplitBillStatus.builder()
+                .groupId(groupId)
+                .payeeVpa(requests.get(0).getPayeeVpa())
+                .totalAmount(total)
+                .collectedAmount(collected)
+                .pending(counts.getOrDefault(UpiRequestStatus.PENDING, 0))
+                .approved(approved)
+                .rejected(counts.getOrDefault(UpiRequestStatus.REJECTED, 0))
+                .expired(counts.getOrDefault(UpiRequestStatus.EXPIRED, 0))
+                .settled(approved == requests.size())
+                .requests(requests)
+                .build();
+    }
+
     @Override
     public List<UpiRequest> getPendingRequests(String vpa) {
-        return upiRequestRepository.findByPayerVpaAndStatus(vpa, UpiRequestStatus.PENDING);
+        // first page only; longer inboxes are read through getPendingRequestPage
+        return getPendingRequestPage(vpa, null, INBOX_MAX_LIMIT).getItems();
     }
 
     @Override
-    @Transactional
+    public UpiRequestPage getPendingRequestPage(String vpa, String cursor, Integer limit) {
+        int pageSize = limit == null || limit < 1 ? INBOX_DEFAULT_LIMIT : Math.min(limit, INBOX_MAX_LIMIT);
+        TransactionCursor position = cursor != null ? TransactionCursor.decode(cursor) : null;
+        List<UpiRequest> rows = upiRequestRepository.findPendingPage(
+                vpa,
+                new Date(),
+                position != null ? position.getTimestampAsDate() : null,
+                position != null ? position.getId() : null,
+                PageRequest.of(0, pageSize + 1));
+
+        boolean hasMore = rows.size() > pageSize;
+        List<UpiRequest> items = hasMore ? rows.subList(0, pageSize) : rows;
+        UpiRequest last = items.isEmpty() ? null : items.get(items.size() - 1);
+        return UpiRequestPage.builder()
+                .items(items)
+                .limit(pageSize)
+                .hasMore(hasMore)
+                .nextCursor(hasMore ? TransactionCursor.after(last.getCreatedAt(), last.getId()).encode() : null)
+                .build();
+    }
+
+    // The payer's PIN is checked once before the retried claim-and-pay, like sendMoney
+    @Override
     public Long approveRequest(Long requestId, String pin) {
-        logger.info("Approving UPI request ID: {}", requestId);
-        
-        UpiRequest req = upiRequestRepository.findById(requestId)
+        UpiRequest pending = findRequest(requestId);
+        VpaRecord payer = vpaResolver.resolve(pending.getPayerVpa())
+            .orElseThrow(() -> new EntityNotFoundException("Sender VPA not found"));
+        verifyPin(payer, pending.getPayerVpa(), pin);
+
+        if (ledgerCommitsOnItsOwn()) {
+            return doApproveRequest(requestId);
+        }
+        return retryExecutor.execute("upiApprove", "upiRequest:" + requestId, () -> doApproveRequest(requestId));
+    }
+
+    private UpiRequest findRequest(Long requestId) {
+        return upiRequestRepository.findById(requestId)
             .orElseThrow(() -> {
                 logger.warn("UPI request not found: {}", requestId);
                 return new EntityNotFoundException("Request not found");
             });
-            
+    }
+
+    private Long doApproveRequest(Long requestId) {
+        logger.info("Approving UPI request ID: {}", requestId);
+    
+        UpiRequest req = findRequest(requestId);
+        
         if (req.getStatus() != UpiRequestStatus.PENDING) {
             logger.warn("Cannot approve UPI request {} with status: {}", requestId, req.getStatus());
             throw new IllegalStateException("Request is not in PENDING status");
         }
-        
+        if (isExpired(req)) {
+            logger.warn("Cannot approve expired UPI request {}", requestId);
+            throw new IllegalStateException("Request has expired");
+        }
+
+        // Claim before paying: the conditional UPDATE row-locks the request, so a concurrent approval
+        // waits here and then finds it no longer PENDING instead of sending the money a second time.
+        if (upiRequestRepository.claimPending(requestId, UpiRequestStatus.APPROVED, new Date()) == 0) {
+            logger.warn("UPI request {} was approved, rejected or expired concurrently", requestId);
+            throw new IllegalStateException("Request is not in PENDING status");
+        }
+        // Without a surrounding transaction (journal or partitioned engine) the claim is already committed
+        boolean claimCommitted = !TransactionSynchronizationManager.isActualTransactionActive();
+
         try {
-            Long txnId = sendMoney(req.getPayerVpa(), req.getPayeeVpa(), req.getAmount(), "UPI Collect", pin);
-            req.setStatus(UpiRequestStatus.APPROVED);
-            upiRequestRepository.save(req);
+            Long txnId = doSendPreAuthorized(req.getPayerVpa(), req.getPayeeVpa(), req.getAmount(), "UPI Collect");
             logger.info("UPI request {} approved successfully. Transaction ID: {}", requestId, txnId);
             return txnId;
         } catch (Exception e) {
+            if (claimCommitted) {
+                upiRequestRepository.releaseClaim(requestId, UpiRequestStatus.APPROVED);
+            }
             logger.error("Failed to approve UPI request {}: {}", requestId, e.getMessage(), e);
             throw e;
         }
@@ -264,16 +723,18 @@ public class UpiServiceImpl implements UpiService {
                 return new EntityNotFoundException("Request not found");
             });
             
-        if (req.getStatus() != UpiRequestStatus.PENDING) {
+        if (req.getStatus() != UpiRequestStatus.PENDING
+                || upiRequestRepository.claimPending(requestId, UpiRequestStatus.REJECTED, new Date()) == 0) {
             logger.warn("Cannot reject UPI request {} with status: {}", requestId, req.getStatus());
             throw new IllegalStateException("Request is not in PENDING status");
         }
-        
-        req.setStatus(UpiRequestStatus.REJECTED);
-        upiRequestRepository.save(req);
         logger.info("UPI request {} rejected successfully", requestId);
     }
 
+    private static boolean isExpired(UpiRequest req) {
+        return req.getExpiresAt() != null && !req.getExpiresAt().after(new Date());
+    }
+
     @Override
     @Transactional
     public void setOrChangeUpiPin(String newPin) {
@@ -282,30 +743,14 @@ public class UpiServiceImpl implements UpiService {
         User user = userRepository.findByEmail(email).orElseThrow(() -> new EntityNotFoundException("User not found"));
         user.setUpiPinHash(passwordEncoder.encode(newPin));
         userRepository.save(user);
-    }
-
-    private Date getStartOfDay() {
-        java.util.Calendar cal = java.util.Calendar.getInstance();
-        cal.set(java.util.Calendar.HOUR_OF_DAY, 0);
-        cal.set(java.util.Calendar.MINUTE, 0);
-        cal.set(java.util.Calendar.SECOND, 0);
-        cal.set(java.util.Calendar.MILLISECOND, 0);
-        return cal.getTime();
-    }
-
-    private Date getEndOfDay() {
-        java.util.Calendar cal = java.util.Calendar.getInstance();
-        cal.set(java.util.Calendar.HOUR_OF_DAY, 23);
-        cal.set(java.util.Calendar.MINUTE, 59);
-        cal.set(java.util.Calendar.SECOND, 59);
-        cal.set(java.util.Calendar.MILLISECOND, 999);
-        return cal.getTime();
+        // cached VPAs without their own PIN carry the global one
+        vpaResolver.invalidateUser(user.getId());
     }
 
     @Override
-    public java.util.List<Transaction> getTransactionsByVpa(String vpa) {
-        UpiVpa ref = upiVpaRepository.findByVpa(vpa).orElseThrow(() -> new EntityNotFoundException("VPA not found"));
-        return transactionRepository.findByAccountIdOrderByTimestampDesc(ref.getAccount().getId());
+    public TransactionHistoryPage getTransactionsByVpa(String vpa, String cursor, Integer limit) {
+        VpaRecord ref = vpaResolver.resolve(vpa).orElseThrow(() -> new EntityNotFoundException("VPA not found"));
+        return transactionService.getHistoryPage(ref.getAccountId(), cursor, limit);
     }
 
     @Override
@@ -313,16 +758,20 @@ public class UpiServiceImpl implements UpiService {
         if (query == null || query.trim().isEmpty()) {
             return List.of();
         }
-        return upiVpaRepository.findByVpaContainingIgnoreCase(query.trim()).stream()
-                .limit(10)
-                .toList();
+        return upiVpaRepository.findTop10ByVpaContainingIgnoreCaseOrderByVpaAsc(query.trim());
+    }
+
+    @Override
+    public List<String> suggestVpas(String prefix, Integer limit) {
+        int k = limit == null ? DEFAULT_SUGGESTIONS : Math.max(1, Math.min(limit, MAX_SUGGESTIONS));
+        return vpaSearchIndex.suggest(prefix, k);
     }
 
     @Override
     @Transactional
     public CreateUpiIdResponse createUpiId(CreateUpiIdRequest request) {
         logger.info("Creating UPI ID: {} for account: {}", 
-            logRedactionUtil.redactSensitiveData(request.getVpa()), request.getAccountId());
+            logRedactionUtil.lazy(request.getVpa()), request.getAccountId());
             
         String email = org.springframework.security.core.context.SecurityContextHolder.getContext().getAuthentication().getName();
         User user = userRepository.findByEmail(email).orElseThrow(() -> new EntityNotFoundException("User not found"));
@@ -336,7 +785,7 @@ public class UpiServiceImpl implements UpiService {
         
         // Check if VPA already exists
         if (upiVpaRepository.existsByVpa(request.getVpa())) {
-            logger.warn("UPI ID already exists: {}", logRedactionUtil.redactSensitiveData(request.getVpa()));
+            logger.warn("UPI ID already exists: {}", logRedactionUtil.lazy(request.getVpa()));
             throw new IllegalArgumentException("UPI ID already exists");
         }
         
@@ -354,9 +803,11 @@ public class UpiServiceImpl implements UpiService {
                 .build();
                 
         UpiVpa savedUpiVpa = upiVpaRepository.save(upiVpa);
+        vpaResolver.invalidate(savedUpiVpa.getVpa());
+        vpaSearchIndex.add(savedUpiVpa.getVpa());
         
         logger.info("UPI ID created successfully: {} linked to account: {}", 
-            logRedactionUtil.redactSensitiveData(request.getVpa()), account.getId());
+            logRedactionUtil.lazy(request.getVpa()), account.getId());
             
         return CreateUpiIdResponse.builder()
                 .status("success")
@@ -369,7 +820,7 @@ public class UpiServiceImpl implements UpiService {
     @Override
     @Transactional
     public void deleteUpiId(String vpa) {
-        logger.info("Deleting UPI ID: {}", logRedactionUtil.redactSensitiveData(vpa));
+        logger.info("Deleting UPI ID: {}", logRedactionUtil.lazy(vpa));
         
         String email = org.springframework.security.core.context.SecurityContextHolder.getContext().getAuthentication().getName();
         User user = userRepository.findByEmail(email).orElseThrow(() -> new EntityNotFoundException("User not found"));
@@ -382,7 +833,9 @@ public class UpiServiceImpl implements UpiService {
         }
         
         upiVpaRepository.delete(upiVpa);
-        logger.info("UPI ID deleted successfully: {}", logRedactionUtil.redactSensitiveData(vpa));
+        vpaResolver.invalidate(vpa);
+        vpaSearchIndex.remove(upiVpa.getVpa());
+        logger.info("UPI ID deleted successfully: {}", logRedactionUtil.lazy(vpa));
     }
 
     @Override
@@ -0,0 +1,56 @@
+package com.alien.bank.management.system.service.impl;
+
+import com.alien.bank.management.system.repository.UpiVpaRepository;
+import com.alien.bank.management.system.repository.VpaHandleCounterRepository;
+import com.alien.bank.management.system.service.VpaHandleAllocator;
+import com.alien.bank.management.system.utils.Utils;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * One keyed increment of vpa_handle_counter per allocation, committed in its own short transaction
+ * so the counter row is not locked for the rest of the caller's work. The counter is created on the
+ * first allocation of a handle, starting after the highest suffix already in upi_vpa; two first
+ * allocations racing on it collide on the primary key and the loser retries through the increment.
+ *
+ * The counter only knows about generated VPAs. An explicitly created UPI ID can still occupy the
+ * next suffix, which the unique key on upi_vpa.vpa catches.
+ */
+@Service
+@RequiredArgsConstructor
+public class VpaHandleAllocatorImpl implements VpaHandleAllocator {
+    static final String DOMAIN = "@mybank";
+    private static final int MAX_SUFFIX_DIGITS = 18;
+
+    private final VpaHandleCounterRepository counterRepository;
+    private final UpiVpaRepository upiVpaRepository;
+
+    @Override
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public String allocate(String handle) {
+        long suffix;
+        if (counterRepository.increment(handle) == 1) {
+            suffix = counterRepository.findNextSuffix(handle).orElseThrow() - 1;
+        } else {
+            suffix = highestTakenSuffix(handle) + 1;
+            counterRepository.insert(handle, suffix + 1);
+        }
+        return suffix == 0 ? handle + DOMAIN : handle + suffix + DOMAIN;
+    }
+
+    // -1 when the handle is unused, 0 when only the bare handle is taken
+    private long highestTakenSuffix(String handle) {
+        long highest = -1;
+        for (String vpa : upiVpaRepository.findVpasForHandle(Utils.escapeLike(handle), DOMAIN)) {
+            String suffix = vpa.substring(handle.length(), vpa.length() - DOMAIN.length());
+            if (suffix.isEmpty()) {
+                highest = Math.max(highest, 0);
+            } else if (suffix.length() <= MAX_SUFFIX_DIGITS && suffix.chars().allMatch(Character::isDigit)) {
+                highest = Math.max(highest, Long.parseLong(suffix));
+            }
+        }
+        return highest;
+    }
+}
@@ -0,0 +1,153 @@
+package com.alien.bank.management.system.service.impl;
+
+import com.alien.bank.management.system.model.upi.VpaRecord;
+import com.alien.bank.management.system.repository.UpiVpaRepository;
+import com.alien.bank.management.system.service.VpaResolver;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * LRU map of VpaRecords bounded by upi.vpa-cache.max-size, each entry expiring after
+ * upi.vpa-cache.ttl-seconds. Only found VPAs are cached, so a newly created VPA is visible at once.
+ *
+ * Invalidation happens immediately and again after the writing transaction commits, so a reader
+ * that loaded the old row while the write was in flight cannot put it back. The TTL bounds how
+ * long another instance can serve a stale mapping.
+ */
+@Service
+public class VpaResolverImpl implements VpaResolver {
+
+    private final UpiVpaRepository upiVpaRepository;
+    private final int maxSize;
+    private final long ttlMillis;
+    private final Map<String, Entry> entries;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+
+    public VpaResolverImpl(UpiVpaRepository upiVpaRepository,
+                           @Value("${upi.vpa-cache.max-size:10000}") int maxSize,
+                           @Value("${upi.vpa-cache.ttl-seconds:300}") long ttlSeconds) {
+        this.upiVpaRepository = upiVpaRepository;
+        this.maxSize = maxSize;
+        this.ttlMillis = ttlSeconds * 1000;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                if (size() > VpaResolverImpl.this.maxSize) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    @Override
+    public Optional<VpaRecord> resolve(String vpa) {
+        if (vpa == null) {
+            return Optional.empty();
+        }
+        long now = System.currentTimeMillis();
+        synchronized (entries) {
+            Entry entry = entries.get(vpa);
+            if (entry != null) {
+                if (entry.expiresAt() > now) {
+                    hits.increment();
+                    return Optional.of(entry.record());
+                }
+                entries.remove(vpa);
+                expirations.increment();
+            }
+        }
+        misses.increment();
+        Optional<VpaRecord> loaded = upiVpaRepository.findRecordByVpa(vpa);
+        loaded.ifPresent(record -> {
+            synchronized (entries) {
+                entries.put(vpa, new Entry(record, now + ttlMillis));
+            }
+        });
+        return loaded;
+    }
+
+    @Override
+    public boolean exists(String vpa) {
+        return resolve(vpa).isPresent();
+    }
+
+    @Override
+    public void invalidate(String vpa) {
+        evict(vpa);
+        afterCommit(() -> evict(vpa));
+    }
+
+    @Override
+    public void invalidateUser(Long userId) {
+        evictUser(userId);
+        afterCommit(() -> evictUser(userId));
+    }
+
+    @Override
+    public Map<String, Object> getMetrics() {
+        long hitCount = hits.sum();
+        long missCount = misses.sum();
+        long lookups = hitCount + missCount;
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        synchronized (entries) {
+            metrics.put("size", entries.size());
+        }
+        metrics.put("maxSize", maxSize);
+        metrics.put("hits", hitCount);
+        metrics.put("misses", missCount);
+        metrics.put("hitRatio", lookups == 0 ? 0.0 : (double) hitCount / lookups);
+        metrics.put("expirations", expirations.sum());
+        metrics.put("evictions", evictions.sum());
+        metrics.put("invalidations", invalidations.sum());
+        return metrics;
+    }
+
+    private void evict(String vpa) {
+        synchronized (entries) {
+            if (entries.remove(vpa) != null) {
+                invalidations.increment();
+            }
+        }
+    }
+
+    private void evictUser(Long userId) {
+        synchronized (entries) {
+            Iterator<Entry> it = entries.values().iterator();
+            while (it.hasNext()) {
+                if (userId.equals(it.next().record().getUserId())) {
+                    it.remove();
+                    invalidations.increment();
+                }
+            }
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        }
+    }
+
+    private record Entry(VpaRecord record, long expiresAt) {
+    }
+}
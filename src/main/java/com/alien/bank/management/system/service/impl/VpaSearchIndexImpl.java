@@ -0,0 +1,139 @@
+package com.alien.bank.management.system.service.impl;
+
+import com.alien.bank.management.system.repository.UpiVpaRepository;
+import com.alien.bank.management.system.service.VpaSearchIndex;
+import com.alien.bank.management.system.utils.Utils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Sorted in-memory map of lower-cased VPA -> VPA, so a prefix lookup is a tailMap walk that stops
+ * after limit entries. Loaded in keyset pages once the application is ready; until then suggestions
+ * come from an indexed LIKE 'prefix%' query with the limit applied in SQL.
+ *
+ * Create/delete hooks apply after the writing transaction commits. A suggestion is only a hint:
+ * sending still resolves the VPA against the table.
+ */
+@Service
+public class VpaSearchIndexImpl implements VpaSearchIndex {
+    private static final Logger logger = LoggerFactory.getLogger(VpaSearchIndexImpl.class);
+    private static final int LOAD_PAGE = 5000;
+
+    private final UpiVpaRepository upiVpaRepository;
+    private final boolean enabled;
+    private volatile ConcurrentSkipListMap<String, String> index = new ConcurrentSkipListMap<>();
+    private volatile ConcurrentSkipListMap<String, String> loading;
+    private volatile boolean ready;
+
+    public VpaSearchIndexImpl(UpiVpaRepository upiVpaRepository,
+                              @Value("${upi.vpa-search.index-enabled:true}") boolean enabled) {
+        this.upiVpaRepository = upiVpaRepository;
+        this.enabled = enabled;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        if (enabled) {
+            rebuild();
+        }
+    }
+
+    @Override
+    public List<String> suggest(String prefix, int limit) {
+        String key = normalize(prefix);
+        if (key.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        if (!ready) {
+            return upiVpaRepository.findVpasByPrefix(Utils.escapeLike(key), PageRequest.of(0, limit));
+        }
+        List<String> matches = new ArrayList<>(limit);
+        for (Map.Entry<String, String> entry : index.tailMap(key, true).entrySet()) {
+            if (!entry.getKey().startsWith(key) || matches.size() == limit) {
+                break;
+            }
+            matches.add(entry.getValue());
+        }
+        return matches;
+    }
+
+    @Override
+    public void add(String vpa) {
+        afterCommit(() -> apply(normalize(vpa), vpa));
+    }
+
+    @Override
+    public void remove(String vpa) {
+        afterCommit(() -> apply(normalize(vpa), null));
+    }
+
+    @Override
+    public synchronized int rebuild() {
+        long started = System.currentTimeMillis();
+        // hooks update both maps while the new one loads, so nothing committed meanwhile is lost on the swap
+        ConcurrentSkipListMap<String, String> loaded = new ConcurrentSkipListMap<>();
+        loading = loaded;
+        String after = "";
+        List<String> page;
+        do {
+            page = upiVpaRepository.findVpasAfter(after, PageRequest.of(0, LOAD_PAGE));
+            for (String vpa : page) {
+                loaded.put(normalize(vpa), vpa);
+            }
+            if (!page.isEmpty()) {
+                after = page.get(page.size() - 1);
+            }
+        } while (page.size() == LOAD_PAGE);
+        index = loaded;
+        loading = null;
+        ready = true;
+        logger.info("VPA search index loaded {} VPAs in {} ms", loaded.size(), System.currentTimeMillis() - started);
+        return loaded.size();
+    }
+
+    private void apply(String key, String vpa) {
+        update(index, key, vpa);
+        ConcurrentSkipListMap<String, String> pending = loading;
+        if (pending != null) {
+            update(pending, key, vpa);
+        }
+    }
+
+    private static void update(Map<String, String> map, String key, String vpa) {
+        if (vpa != null) {
+            map.put(key, vpa);
+        } else {
+            map.remove(key);
+        }
+    }
+
+    private static String normalize(String vpa) {
+        return vpa == null ? "" : vpa.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,157 @@
+package com.alien.bank.management.system.simulator;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Outcome of one simulator run. Latencies are kept as raw samples (a run is at most a few hundred
+ * thousand requests) so p99.9 is exact rather than a bucket bound; they are measured from the time
+ * a request was scheduled, not sent, so a stalled server shows up as latency instead of being hidden
+ * by the generator slowing down.
+ */
+public class LoadReport {
+
+    private final Map<LoadSimulator.Operation, OperationStats> operations = new EnumMap<>(LoadSimulator.Operation.class);
+    private final LongAdder dropped = new LongAdder();
+    private final int targetRps;
+    private volatile long elapsedNanos;
+
+    public LoadReport(int targetRps) {
+        this.targetRps = targetRps;
+        for (LoadSimulator.Operation operation : LoadSimulator.Operation.values()) {
+            operations.put(operation, new OperationStats());
+        }
+    }
+
+    void recordSuccess(LoadSimulator.Operation operation, long latencyNanos) {
+        operations.get(operation).record(latencyNanos, null);
+    }
+
+    void recordError(LoadSimulator.Operation operation, long latencyNanos, String error) {
+        operations.get(operation).record(latencyNanos, error);
+    }
+
+    // Scheduled while max-in-flight requests were already outstanding; never sent
+    void recordDropped() {
+        dropped.increment();
+    }
+
+    void finish(long elapsedNanos) {
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    public long getCompleted() {
+        long completed = 0;
+        for (OperationStats stats : operations.values()) {
+            completed += stats.count();
+        }
+        return completed;
+    }
+
+    public long getSucceeded(LoadSimulator.Operation operation) {
+        return operations.get(operation).succeeded.sum();
+    }
+
+    public long getErrors() {
+        long errors = 0;
+        for (OperationStats stats : operations.values()) {
+            errors += stats.count() - stats.succeeded.sum();
+        }
+        return errors;
+    }
+
+    public double getThroughput() {
+        return elapsedNanos == 0 ? 0.0 : getCompleted() * 1e9 / elapsedNanos;
+    }
+
+    public Map<String, Object> toMap() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("targetRps", targetRps);
+        result.put("throughput", getThroughput());
+        result.put("completed", getCompleted());
+        result.put("errors", getErrors());
+        result.put("dropped", dropped.sum());
+        result.put("elapsedMs", elapsedNanos / 1_000_000);
+        Map<String, Object> byOperation = new LinkedHashMap<>();
+        operations.forEach((operation, stats) -> byOperation.put(operation.name().toLowerCase(), stats.toMap()));
+        result.put("operations", byOperation);
+        return result;
+    }
+
+    /** Fixed-width table for the log. */
+    public String format() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("%n%-10s %8s %8s %8s %9s %9s %9s %9s%n", "operation", "count", "ok", "errors", "p50 ms", "p99 ms", "p99.9 ms", "max ms"));
+        operations.forEach((operation, stats) -> {
+            long[] sorted = stats.sorted();
+            sb.append(String.format("%-10s %8d %8d %8d %9.1f %9.1f %9.1f %9.1f%n",
+                    operation.name().toLowerCase(), sorted.length, stats.succeeded.sum(), sorted.length - stats.succeeded.sum(),
+                    percentileMs(sorted, 0.50), percentileMs(sorted, 0.99), percentileMs(sorted, 0.999),
+                    sorted.length == 0 ? 0.0 : sorted[sorted.length - 1] / 1e6));
+        });
+        sb.append(String.format("throughput %.1f req/s (target %d), dropped %d, elapsed %d ms%n",
+                getThroughput(), targetRps, dropped.sum(), elapsedNanos / 1_000_000));
+        operations.forEach((operation, stats) -> {
+            if (!stats.errors.isEmpty()) {
+                sb.append(operation.name().toLowerCase()).append(" errors: ").append(stats.errorCounts()).append(System.lineSeparator());
+            }
+        });
+        return sb.toString();
+    }
+
+    private static double percentileMs(long[] sorted, double quantile) {
+        if (sorted.length == 0) {
+            return 0.0;
+        }
+        int index = (int) Math.ceil(quantile * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))] / 1e6;
+    }
+
+    private static final class OperationStats {
+        private long[] samples = new long[1024];
+        private int size;
+        private final LongAdder succeeded = new LongAdder();
+        private final Map<String, LongAdder> errors = new ConcurrentHashMap<>();
+
+        synchronized void record(long latencyNanos, String error) {
+            if (size == samples.length) {
+                samples = Arrays.copyOf(samples, size * 2);
+            }
+            samples[size++] = latencyNanos;
+            if (error == null) {
+                succeeded.increment();
+            } else {
+                errors.computeIfAbsent(error, e -> new LongAdder()).increment();
+            }
+        }
+
+        synchronized int count() {
+            return size;
+        }
+
+        synchronized long[] sorted() {
+            long[] copy = Arrays.copyOf(samples, size);
+            Arrays.sort(copy);
+            return copy;
+        }
+
+        Map<String, Long> errorCounts() {
+            Map<String, Long> counts = new TreeMap<>();
+            errors.forEach((error, count) -> counts.put(error, count.sum()));
+            return counts;
+        }
+
+        Map<String, Object> toMap() {
+            long[] sorted = sorted();
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put("count", sorted.length);
+            map.put("succeeded", succeeded.sum());
+            map.put("p50Ms", percentileMs(sorted, 0.50));
+            map.put("p99Ms", percentileMs(sorted, 0.99));
+            map.put("p999Ms", percentileMs(sorted, 0.999));
+            map.put("errors", errorCounts());
+            return map;
+        }
+    }
+}
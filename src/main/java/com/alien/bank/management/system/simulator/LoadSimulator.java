@@ -0,0 +1,287 @@
+package com.alien.bank.management.system.simulator;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Local UPI traffic generator, active with the loadsim profile (mvn -Ploadsim spring-boot:run).
+ * Once the app is up it seeds loadsim.users users and then drives this instance's own HTTP API in
+ * an open loop: one request every 1/loadsim.rps seconds for loadsim.duration-seconds, whatever the
+ * server's latency, with at most loadsim.max-in-flight outstanding (the rest are counted as
+ * dropped). Operations are drawn from loadsim.mix; payees follow a Zipf distribution with
+ * loadsim.zipf-exponent, payers are uniform. Approve and reject consume collect requests created
+ * earlier in the run and fall back to creating one when none are waiting.
+ */
+@Component
+@Profile("loadsim")
+@RequiredArgsConstructor
+public class LoadSimulator {
+    private static final Logger log = LoggerFactory.getLogger(LoadSimulator.class);
+
+    public enum Operation { SEND, REQUEST, APPROVE, REJECT, PAYMENT }
+
+    private final SimulatorSeeder seeder;
+    private final ObjectMapper objectMapper;
+    private final Environment environment;
+    private final ConfigurableApplicationContext context;
+
+    @Value("${loadsim.autostart:true}")
+    private boolean autostart;
+
+    @Value("${loadsim.exit-when-done:true}")
+    private boolean exitWhenDone;
+
+    @Value("${loadsim.users:200}")
+    private int userCount;
+
+    @Value("${loadsim.opening-balance:1000000}")
+    private double openingBalance;
+
+    @Value("${loadsim.rps:50}")
+    private int rps;
+
+    @Value("${loadsim.duration-seconds:60}")
+    private int durationSeconds;
+
+    @Value("${loadsim.max-in-flight:256}")
+    private int maxInFlight;
+
+    @Value("${loadsim.mix:send=60,request=15,approve=10,reject=5,payment=10}")
+    private String mix;
+
+    @Value("${loadsim.zipf-exponent:1.1}")
+    private double zipfExponent;
+
+    @Value("${loadsim.seed:42}")
+    private long seed;
+
+    @Value("${loadsim.base-url:}")
+    private String baseUrl;
+
+    @Value("${loadsim.request-timeout-ms:10000}")
+    private long requestTimeoutMs;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!autostart) {
+            return;
+        }
+        Thread runner = new Thread(() -> {
+            int exitCode = 0;
+            try {
+                LoadReport report = run();
+                exitCode = report.getCompleted() > 0 ? 0 : 1;
+            } catch (Exception e) {
+                log.error("Load simulation failed: {}", e.getMessage(), e);
+                exitCode = 1;
+            }
+            if (exitWhenDone) {
+                int code = exitCode;
+                System.exit(SpringApplication.exit(context, () -> code));
+            }
+        }, "loadsim");
+        runner.start();
+    }
+
+    public LoadReport run() throws InterruptedException {
+        List<SimulatorSeeder.SimulatedUser> users = seeder.seed(userCount, openingBalance);
+        if (users.size() < 2) {
+            throw new IllegalStateException("loadsim.users must be at least 2");
+        }
+        String target = baseUrl.isBlank() ? "http://localhost:" + environment.getProperty("local.server.port", "8080") : baseUrl;
+        Operation[] schedule = parseMix(mix);
+        ZipfSampler payees = new ZipfSampler(users.size(), zipfExponent);
+        SplittableRandom random = new SplittableRandom(seed);
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        Queue<PendingCollect> pending = new ConcurrentLinkedQueue<>();
+        Semaphore permits = new Semaphore(maxInFlight);
+        LoadReport report = new LoadReport(rps);
+
+        log.info("Load simulation: {} req/s for {} s against {}, mix {}, zipf exponent {}", rps, durationSeconds, target, mix, zipfExponent);
+        long intervalNanos = TimeUnit.SECONDS.toNanos(1) / Math.max(1, rps);
+        long started = System.nanoTime();
+        long end = started + TimeUnit.SECONDS.toNanos(durationSeconds);
+        for (long n = 0; ; n++) {
+            long scheduledAt = started + n * intervalNanos;
+            if (scheduledAt >= end) {
+                break;
+            }
+            long wait = scheduledAt - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            if (!permits.tryAcquire()) {
+                report.recordDropped();
+                continue;
+            }
+            Operation operation = schedule[random.nextInt(schedule.length)];
+            PendingCollect collect = null;
+            if (operation == Operation.APPROVE || operation == Operation.REJECT) {
+                collect = pending.poll();
+                if (collect == null) {
+                    operation = Operation.REQUEST;
+                }
+            }
+            SimulatedCall call = buildCall(operation, collect, users, payees, random, target);
+            Operation recorded = operation;
+            client.sendAsync(call.request(), HttpResponse.BodyHandlers.ofString())
+                    .whenComplete((response, error) -> {
+                        try {
+                            long latency = System.nanoTime() - scheduledAt;
+                            if (error != null) {
+                                report.recordError(recorded, latency, rootCause(error).getClass().getSimpleName() + ": " + rootCause(error).getMessage());
+                            } else if (response.statusCode() >= 400) {
+                                report.recordError(recorded, latency, "HTTP " + response.statusCode());
+                            } else {
+                                report.recordSuccess(recorded, latency);
+                                if (recorded == Operation.REQUEST) {
+                                    pendingFrom(response.body(), call.payer()).ifPresent(pending::add);
+                                }
+                            }
+                        } finally {
+                            permits.release();
+                        }
+                    });
+        }
+        // let the requests still in flight finish before reporting
+        if (!permits.tryAcquire(maxInFlight, requestTimeoutMs * 2, TimeUnit.MILLISECONDS)) {
+            log.warn("{} simulated requests were still outstanding when the report was taken", maxInFlight - permits.availablePermits());
+        }
+        report.finish(System.nanoTime() - started);
+        log.info("Load simulation finished:{}", report.format());
+        return report;
+    }
+
+    private SimulatedCall buildCall(Operation operation, PendingCollect collect, List<SimulatorSeeder.SimulatedUser> users,
+                                    ZipfSampler payees, SplittableRandom random, String target) {
+        if (collect != null) {
+            SimulatorSeeder.SimulatedUser payer = users.get(collect.payerIndex());
+            String path = "/upi/request/" + collect.requestId() + (operation == Operation.APPROVE ? "/approve?pin=" + SimulatorSeeder.PIN : "/reject");
+            return new SimulatedCall(post(target + path, payer, null), collect.payerIndex());
+        }
+        int payeeIndex = payees.sample(random);
+        int payerIndex = random.nextInt(users.size() - 1);
+        if (payerIndex >= payeeIndex) {
+            payerIndex++;
+        }
+        SimulatorSeeder.SimulatedUser payer = users.get(payerIndex);
+        SimulatorSeeder.SimulatedUser payee = users.get(payeeIndex);
+        double amount = 1 + random.nextInt(500);
+
+        Map<String, Object> body = new LinkedHashMap<>();
+        String path;
+        switch (operation) {
+            case SEND -> {
+                path = "/upi/send";
+                body.put("fromVpa", payer.vpa());
+                body.put("toVpa", payee.vpa());
+                body.put("amount", amount);
+                body.put("note", "loadsim");
+                body.put("pin", SimulatorSeeder.PIN);
+            }
+            case PAYMENT -> {
+                path = "/api/payments/upi";
+                body.put("accountId", payer.accountId());
+                body.put("vpa", payee.vpa());
+                body.put("amount", amount);
+                body.put("category", SimulatorSeeder.CATEGORY);
+                body.put("note", "loadsim");
+            }
+            default -> {
+                // the payee asks the payer for money
+                path = "/upi/request";
+                body.put("payerVpa", payer.vpa());
+                body.put("payeeVpa", payee.vpa());
+                body.put("amount", amount);
+                body.put("reason", "loadsim");
+                return new SimulatedCall(post(target + path, payee, body), payerIndex);
+            }
+        }
+        return new SimulatedCall(post(target + path, payer, body), payerIndex);
+    }
+
+    private HttpRequest post(String url, SimulatorSeeder.SimulatedUser caller, Map<String, Object> body) {
+        HttpRequest.BodyPublisher publisher;
+        try {
+            publisher = body == null ? HttpRequest.BodyPublishers.noBody()
+                    : HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(body));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+        return HttpRequest.newBuilder(URI.create(url))
+                .timeout(Duration.ofMillis(requestTimeoutMs))
+                .header("Content-Type", "application/json")
+                .header("Authorization", "Bearer " + caller.token())
+                .POST(publisher)
+                .build();
+    }
+
+    private Optional<PendingCollect> pendingFrom(String body, int payerIndex) {
+        try {
+            JsonNode id = objectMapper.readTree(body).path("data").path("id");
+            return id.canConvertToLong() ? Optional.of(new PendingCollect(id.asLong(), payerIndex)) : Optional.empty();
+        } catch (JsonProcessingException e) {
+            return Optional.empty();
+        }
+    }
+
+    // "send=60,request=15" -> 100 slots, drawn uniformly
+    static Operation[] parseMix(String mix) {
+        List<Operation> slots = new ArrayList<>();
+        for (String part : mix.split(",")) {
+            String[] kv = part.trim().split("=");
+            if (kv.length != 2) {
+                throw new IllegalArgumentException("Bad loadsim.mix entry: " + part);
+            }
+            Operation operation = Operation.valueOf(kv[0].trim().toUpperCase());
+            int weight = Integer.parseInt(kv[1].trim());
+            for (int i = 0; i < weight; i++) {
+                slots.add(operation);
+            }
+        }
+        if (slots.isEmpty()) {
+            throw new IllegalArgumentException("loadsim.mix has no weight");
+        }
+        return slots.toArray(new Operation[0]);
+    }
+
+    private static Throwable rootCause(Throwable error) {
+        Throwable cause = error;
+        while (cause.getCause() != null && cause.getCause() != cause) {
+            cause = cause.getCause();
+        }
+        return cause;
+    }
+
+    private record PendingCollect(long requestId, int payerIndex) {
+    }
+
+    private record SimulatedCall(HttpRequest request, int payer) {
+    }
+}
@@ -0,0 +1,94 @@
+package com.alien.bank.management.system.simulator;
+
+import com.alien.bank.management.system.entity.*;
+import com.alien.bank.management.system.model.upi.VpaRecord;
+import com.alien.bank.management.system.repository.AccountRepository;
+import com.alien.bank.management.system.repository.PaymentCategoryRepository;
+import com.alien.bank.management.system.repository.UpiVpaRepository;
+import com.alien.bank.management.system.repository.UserRepository;
+import com.alien.bank.management.system.security.JwtService;
+import com.alien.bank.management.system.utils.EncryptionUtil;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Profile;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Creates the simulated population straight through the repositories: user loadsim-{i}@loadsim.local
+ * with one funded account and a default VPA loadsim{i}@mybank, all sharing one UPI PIN. Users left
+ * by an earlier run against the same database are reused as they are.
+ */
+@Component
+@Profile("loadsim")
+@RequiredArgsConstructor
+public class SimulatorSeeder {
+    private static final Logger log = LoggerFactory.getLogger(SimulatorSeeder.class);
+
+    static final String PIN = "1234";
+    static final String CATEGORY = "FOOD";
+
+    private final UserRepository userRepository;
+    private final AccountRepository accountRepository;
+    private final UpiVpaRepository upiVpaRepository;
+    private final PaymentCategoryRepository categoryRepository;
+    private final PasswordEncoder passwordEncoder;
+    private final EncryptionUtil encryptionUtil;
+    private final JwtService jwtService;
+
+    public List<SimulatedUser> seed(int count, double openingBalance) {
+        if (categoryRepository.findByCode(CATEGORY).isEmpty()) {
+            categoryRepository.save(PaymentCategory.builder().code(CATEGORY).label("Food").build());
+        }
+        // one BCrypt hash for everybody; hashing per user would dominate seeding time
+        String hash = passwordEncoder.encode(PIN);
+        String encryptedPan = encryptionUtil.encryptPan("4111111111111111");
+
+        long started = System.currentTimeMillis();
+        int created = 0;
+        List<SimulatedUser> users = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String email = "loadsim-" + i + "@loadsim.local";
+            String vpa = "loadsim" + i + "@mybank";
+            Optional<User> existing = userRepository.findByEmail(email);
+            Optional<VpaRecord> record = existing.flatMap(u -> upiVpaRepository.findRecordByVpa(vpa));
+            if (existing.isPresent() && record.isPresent()) {
+                users.add(new SimulatedUser(existing.get().getId(), record.get().getAccountId(), vpa, jwtService.generateToken(existing.get())));
+                continue;
+            }
+            String name = "Load Sim " + i;
+            User user = existing.orElseGet(() -> userRepository.save(User.builder()
+                    .name(name)
+                    .email(email)
+                    .password(hash)
+                    .role(Role.USER)
+                    .upiPinHash(hash)
+                    .build()));
+            Account account = accountRepository.save(Account.builder()
+                    .encryptedPan(encryptedPan)
+                    .last4Digits("1111")
+                    .balance(openingBalance)
+                    .user(user)
+                    .build());
+            upiVpaRepository.save(UpiVpa.builder()
+                    .vpa(vpa)
+                    .user(user)
+                    .account(account)
+                    .isDefault(true)
+                    .upiPinHash(hash)
+                    .build());
+            users.add(new SimulatedUser(user.getId(), account.getId(), vpa, jwtService.generateToken(user)));
+            created++;
+        }
+        log.info("Load simulator population ready: {} users ({} created) in {} ms", count, created, System.currentTimeMillis() - started);
+        return users;
+    }
+
+    public record SimulatedUser(Long userId, Long accountId, String vpa, String token) {
+    }
+}
@@ -0,0 +1,142 @@
+package com.alien.bank.management.system.utils;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Hierarchical timing wheel: level 0 has wheelSize slots of tickMs each, every further level has
+ * wheelSize slots as wide as the whole level below. Adding and expiring an entry is O(1) whatever
+ * the number of entries; an entry on a coarse level is moved down when its slot comes up, so it is
+ * handled at most once per level.
+ *
+ * Deadlines are rounded up to the next tick, so an entry never fires early and at most one tick
+ * late. The clock only moves through {@link #advance}, which makes the wheel easy to drive from a
+ * scheduled job and from tests. Methods are synchronized; callers do their work outside.
+ */
+public class HierarchicalTimingWheel<T> {
+
+    private final Level<T> root;
+    private final long tickMs;
+    private int size;
+
+    public HierarchicalTimingWheel(long tickMs, int wheelSize, long startMs) {
+        if (tickMs <= 0 || wheelSize < 2) {
+            throw new IllegalArgumentException("tickMs must be positive and wheelSize at least 2");
+        }
+        this.tickMs = tickMs;
+        this.root = new Level<>(tickMs, wheelSize, startMs - Math.floorMod(startMs, tickMs));
+    }
+
+    /**
+     * Schedules item at deadlineMs. Returns false, without keeping the item, when the deadline has
+     * already been reached; the caller runs it right away.
+     */
+    public synchronized boolean add(long deadlineMs, T item) {
+        long due = deadlineMs + Math.floorMod(-deadlineMs, tickMs);
+        if (!root.add(new Entry<>(due, item))) {
+            return false;
+        }
+        size++;
+        return true;
+    }
+
+    /** Moves the clock to nowMs and hands every entry whose deadline has been reached to expired. */
+    public synchronized int advance(long nowMs, Consumer<T> expired) {
+        int[] fired = {0};
+        root.advance(nowMs, entry -> {
+            // an entry cascading down from a coarser level is either re-slotted or due now
+            if (!root.add(entry)) {
+                fired[0]++;
+                expired.accept(entry.item);
+            }
+        });
+        size -= fired[0];
+        return fired[0];
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    public synchronized long currentTime() {
+        return root.currentTime;
+    }
+
+    /** Entries per level and the span each level covers. */
+    public synchronized List<Map<String, Object>> levels() {
+        List<Map<String, Object>> levels = new ArrayList<>();
+        for (Level<T> level = root; level != null; level = level.overflow) {
+            Map<String, Object> m = new LinkedHashMap<>();
+            m.put("tickMs", level.tickMs);
+            m.put("spanMs", level.interval);
+            m.put("entries", level.entries());
+            levels.add(m);
+        }
+        return levels;
+    }
+
+    private record Entry<T>(long deadlineMs, T item) {
+    }
+
+    private static final class Level<T> {
+        private final long tickMs;
+        private final int wheelSize;
+        private final long interval;
+        private final List<List<Entry<T>>> slots;
+        private long currentTime;
+        private Level<T> overflow;
+
+        Level(long tickMs, int wheelSize, long startMs) {
+            this.tickMs = tickMs;
+            this.wheelSize = wheelSize;
+            this.interval = tickMs * wheelSize;
+            this.currentTime = startMs;
+            this.slots = new ArrayList<>(wheelSize);
+            for (int i = 0; i < wheelSize; i++) {
+                slots.add(new ArrayList<>());
+            }
+        }
+
+        boolean add(Entry<T> entry) {
+            if (entry.deadlineMs < currentTime + tickMs) {
+                return false;
+            }
+            if (entry.deadlineMs < currentTime + interval) {
+                slots.get((int) Math.floorMod(entry.deadlineMs / tickMs, (long) wheelSize)).add(entry);
+                return true;
+            }
+            if (overflow == null) {
+                overflow = new Level<>(interval, wheelSize, currentTime - Math.floorMod(currentTime, interval));
+            }
+            // the overflow clock is ours rounded down to its tick, so anything past our span is past its current slot
+            return overflow.add(entry);
+        }
+
+        void advance(long nowMs, Consumer<Entry<T>> sink) {
+            while (currentTime + tickMs <= nowMs) {
+                currentTime += tickMs;
+                if (overflow != null) {
+                    // coarser slots first, so what they hand down can still fire in this tick
+                    overflow.advance(currentTime, sink);
+                }
+                List<Entry<T>> slot = slots.get((int) Math.floorMod(currentTime / tickMs, (long) wheelSize));
+                if (!slot.isEmpty()) {
+                    List<Entry<T>> drained = new ArrayList<>(slot);
+                    slot.clear();
+                    drained.forEach(sink);
+                }
+            }
+        }
+
+        int entries() {
+            int n = 0;
+            for (List<Entry<T>> slot : slots) {
+                n += slot.size();
+            }
+            return n;
+        }
+    }
+}
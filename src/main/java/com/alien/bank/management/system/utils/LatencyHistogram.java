@@ -0,0 +1,74 @@
+package com.alien.bank.management.system.utils;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free latency histogram with fixed millisecond buckets. Each bucket counts samples at or
+ * below its bound; the last one is open-ended. Percentiles are read off the bucket bounds, which
+ * is as precise as the buckets and good enough for spotting saturation.
+ */
+public class LatencyHistogram {
+    private static final long[] BOUNDS_MS = {1, 2, 5, 10, 25, 50, 100, 250, 500, 1000, 2500, 5000};
+
+    private final LongAdder[] buckets = new LongAdder[BOUNDS_MS.length + 1];
+    private final LongAdder count = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+
+    public LatencyHistogram() {
+        for (int i = 0; i < buckets.length; i++) {
+            buckets[i] = new LongAdder();
+        }
+    }
+
+    public void record(long nanos) {
+        long millis = nanos / 1_000_000;
+        int i = 0;
+        while (i < BOUNDS_MS.length && millis > BOUNDS_MS[i]) {
+            i++;
+        }
+        buckets[i].increment();
+        count.increment();
+        totalNanos.add(nanos);
+    }
+
+    public long getCount() {
+        return count.sum();
+    }
+
+    // Upper bound in ms of the bucket holding the given quantile (0..1); -1 for the open-ended bucket
+    public long percentileMs(double quantile) {
+        long total = count.sum();
+        if (total == 0) {
+            return 0;
+        }
+        long rank = (long) Math.ceil(quantile * total);
+        long seen = 0;
+        for (int i = 0; i < BOUNDS_MS.length; i++) {
+            seen += buckets[i].sum();
+            if (seen >= rank) {
+                return BOUNDS_MS[i];
+            }
+        }
+        return -1;
+    }
+
+    public Map<String, Object> snapshot() {
+        long total = count.sum();
+        Map<String, Object> bucketCounts = new LinkedHashMap<>();
+        for (int i = 0; i < BOUNDS_MS.length; i++) {
+            bucketCounts.put("le" + BOUNDS_MS[i] + "ms", buckets[i].sum());
+        }
+        bucketCounts.put("gt" + BOUNDS_MS[BOUNDS_MS.length - 1] + "ms", buckets[BOUNDS_MS.length].sum());
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("count", total);
+        result.put("meanMs", total == 0 ? 0.0 : totalNanos.sum() / 1_000_000.0 / total);
+        result.put("p50Ms", percentileMs(0.50));
+        result.put("p95Ms", percentileMs(0.95));
+        result.put("p99Ms", percentileMs(0.99));
+        result.put("buckets", bucketCounts);
+        return result;
+    }
+}
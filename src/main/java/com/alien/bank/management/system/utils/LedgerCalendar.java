@@ -0,0 +1,47 @@
+package com.alien.bank.management.system.utils;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Date;
+
+/**
+ * Day and month buckets used by the ledger read models (daily snapshots, monthly rollups).
+ * Buckets follow the server's default time zone, same as the statement date filters.
+ */
+public final class LedgerCalendar {
+
+    private LedgerCalendar() {
+    }
+
+    public static Date startOfDay(Date date) {
+        return toDate(toLocalDate(date));
+    }
+
+    public static Date nextDay(Date day) {
+        return toDate(toLocalDate(day).plusDays(1));
+    }
+
+    public static Date startOfMonth(Date date) {
+        return toDate(toLocalDate(date).withDayOfMonth(1));
+    }
+
+    public static Date nextMonth(Date month) {
+        return toDate(toLocalDate(month).withDayOfMonth(1).plusMonths(1));
+    }
+
+    // "yyyy-MM", the key the analytics trends are grouped by
+    public static String monthKey(Date date) {
+        LocalDate day = toLocalDate(date);
+        return String.format("%d-%02d", day.getYear(), day.getMonthValue());
+    }
+
+    // Not date.toInstant(): DATE columns come back as java.sql.Date, which does not support it
+    private static LocalDate toLocalDate(Date date) {
+        return Instant.ofEpochMilli(date.getTime()).atZone(ZoneId.systemDefault()).toLocalDate();
+    }
+
+    private static Date toDate(LocalDate day) {
+        return Date.from(day.atStartOfDay(ZoneId.systemDefault()).toInstant());
+    }
+}
@@ -1,61 +1,37 @@
 package com.alien.bank.management.system.utils;
 
 import org.springframework.stereotype.Component;
-import java.util.regex.Pattern;
 
+/**
+ * Masks card numbers, PANs, CVV-like short numbers, emails and phone numbers in one left-to-right
+ * walk of the input, writing into a per-thread buffer that is reused across calls. Input with no
+ * digit and no '@' is returned as is without allocating.
+ *
+ * Rules, applied to tokens that start and end on a word boundary like the regexes they replaced:
+ * 16 digits, optionally in groups of four separated by a space or '-', become ****-****-****-****;
+ * an email keeps only its domain (***@domain); other digit runs of 3-4 digits become ***; runs of
+ * 2-15 digits not starting with 0 keep their last four digits (***1234).
+ *
+ * Log statements should pass {@link #lazy(Object)} so the walk only happens when the line is
+ * actually written.
+ */
 @Component
 public class LogRedactionUtil {
-    
-    // Patterns for sensitive data
-    private static final Pattern CARD_NUMBER_PATTERN = Pattern.compile("\\b\\d{4}[\\s-]?\\d{4}[\\s-]?\\d{4}[\\s-]?\\d{4}\\b");
-    private static final Pattern CVV_PATTERN = Pattern.compile("\\b\\d{3,4}\\b");
-    private static final Pattern PAN_PATTERN = Pattern.compile("\\b\\d{16}\\b");
-    private static final Pattern EMAIL_PATTERN = Pattern.compile("\\b[A-Za-z0-9._%+-]+@[A-Za-z0-9.-]+\\.[A-Z|a-z]{2,}\\b");
-    private static final Pattern PHONE_PATTERN = Pattern.compile("\\b\\+?[1-9]\\d{1,14}\\b");
-    
+
+    private static final String CARD_MASK = "****-****-****-****";
+    private static final int MAX_RETAINED_BUFFER = 4096;
+
+    private static final ThreadLocal<StringBuilder> BUFFER = ThreadLocal.withInitial(() -> new StringBuilder(128));
+
     /**
      * Redacts sensitive information from a string for logging purposes
      * @param input The string to redact
      * @return Redacted string with sensitive data masked
      */
     public String redactSensitiveData(String input) {
-        if (input == null || input.trim().isEmpty()) {
-            return input;
-        }
-        
-        String redacted = input;
-        
-        // Redact card numbers (16 digits with optional separators)
-        redacted = CARD_NUMBER_PATTERN.matcher(redacted).replaceAll("****-****-****-****");
-        
-        // Redact CVV (3-4 digits)
-        redacted = CVV_PATTERN.matcher(redacted).replaceAll("***");
-        
-        // Redact PAN (16 digits)
-        redacted = PAN_PATTERN.matcher(redacted).replaceAll("****-****-****-****");
-        
-        // Redact email addresses (keep domain)
-        redacted = EMAIL_PATTERN.matcher(redacted).replaceAll(matchResult -> {
-            String email = matchResult.group();
-            String[] parts = email.split("@");
-            if (parts.length == 2) {
-                return "***@" + parts[1];
-            }
-            return "***@***";
-        });
-        
-        // Redact phone numbers (keep last 4 digits)
-        redacted = PHONE_PATTERN.matcher(redacted).replaceAll(matchResult -> {
-            String phone = matchResult.group();
-            if (phone.length() >= 4) {
-                return "***" + phone.substring(phone.length() - 4);
-            }
-            return "***";
-        });
-        
-        return redacted;
+        return redact(input);
     }
-    
+
     /**
      * Redacts sensitive information from an object for logging
      * @param obj The object to redact
@@ -65,24 +41,212 @@ public class LogRedactionUtil {
         if (obj == null) {
             return "null";
         }
-        
-        return redactSensitiveData(obj.toString());
+        return redact(obj.toString());
     }
-    
+
+    /**
+     * Wraps a value for use as an SLF4J argument; it is converted and redacted only if the
+     * message is formatted, i.e. when the log level is enabled
+     * @param value The value to log
+     * @return Argument whose toString() is the redacted value
+     */
+    public Object lazy(Object value) {
+        return new Redacted(value);
+    }
+
     /**
      * Checks if a string contains sensitive data
      * @param input The string to check
      * @return true if sensitive data is detected
      */
     public boolean containsSensitiveData(String input) {
-        if (input == null || input.trim().isEmpty()) {
+        if (input == null || !mayContainSensitiveData(input)) {
             return false;
         }
-        
-        return CARD_NUMBER_PATTERN.matcher(input).find() ||
-               CVV_PATTERN.matcher(input).find() ||
-               PAN_PATTERN.matcher(input).find() ||
-               EMAIL_PATTERN.matcher(input).find() ||
-               PHONE_PATTERN.matcher(input).find();
+        return scan(input, null);
+    }
+
+    static String redact(String input) {
+        if (input == null || !mayContainSensitiveData(input)) {
+            return input;
+        }
+        StringBuilder out = BUFFER.get();
+        out.setLength(0);
+        String result = scan(input, out) ? out.toString() : input;
+        if (out.capacity() > MAX_RETAINED_BUFFER) {
+            // one huge message must not pin a huge buffer to the thread
+            BUFFER.remove();
+        }
+        return result;
+    }
+
+    // Every rule needs a digit or an '@'
+    private static boolean mayContainSensitiveData(String input) {
+        for (int i = 0; i < input.length(); i++) {
+            char c = input.charAt(i);
+            if ((c >= '0' && c <= '9') || c == '@') {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Single pass over the input. With a null buffer it stops at the first match; otherwise it
+     * writes the redacted text into out. Returns whether anything was masked.
+     */
+    private static boolean scan(String s, StringBuilder out) {
+        int n = s.length();
+        boolean masked = false;
+        // every start inside a local-part run that failed once fails the same way
+        int noEmailBefore = s.indexOf('@') < 0 ? n : 0;
+        int i = 0;
+        while (i < n) {
+            char c = s.charAt(i);
+            boolean boundaryBefore = i == 0 || !isWordChar(s.charAt(i - 1));
+
+            if (boundaryBefore && isWordChar(c) && i >= noEmailBefore) {
+                int at = emailEnd(s, i);
+                if (at < 0) {
+                    noEmailBefore = -at;
+                } else {
+                    if (out == null) {
+                        return true;
+                    }
+                    int domainStart = s.indexOf('@', i) + 1;
+                    out.append("***@").append(s, domainStart, at);
+                    masked = true;
+                    i = at;
+                    continue;
+                }
+            }
+
+            if (boundaryBefore && isDigit(c)) {
+                int cardEnd = cardEnd(s, i);
+                if (cardEnd > 0) {
+                    if (out == null) {
+                        return true;
+                    }
+                    out.append(CARD_MASK);
+                    masked = true;
+                    i = cardEnd;
+                    continue;
+                }
+                int end = i;
+                while (end < n && isDigit(s.charAt(end))) {
+                    end++;
+                }
+                int length = end - i;
+                boolean boundaryAfter = end == n || !isWordChar(s.charAt(end));
+                if (boundaryAfter && (length == 3 || length == 4)) {
+                    if (out == null) {
+                        return true;
+                    }
+                    out.append("***");
+                    masked = true;
+                } else if (boundaryAfter && length >= 2 && length <= 15 && c != '0') {
+                    if (out == null) {
+                        return true;
+                    }
+                    out.append("***");
+                    if (length >= 4) {
+                        out.append(s, end - 4, end);
+                    }
+                    masked = true;
+                } else if (out != null) {
+                    out.append(s, i, end);
+                }
+                i = end;
+                continue;
+            }
+
+            if (out != null) {
+                out.append(c);
+            }
+            i++;
+        }
+        return masked;
+    }
+
+    // Four groups of four digits, each of the first three optionally followed by one space or '-'
+    private static int cardEnd(String s, int start) {
+        int n = s.length();
+        int i = start;
+        for (int group = 0; group < 4; group++) {
+            for (int d = 0; d < 4; d++) {
+                if (i >= n || !isDigit(s.charAt(i))) {
+                    return -1;
+                }
+                i++;
+            }
+            if (group < 3 && i < n && isCardSeparator(s.charAt(i)) && i + 1 < n && isDigit(s.charAt(i + 1))) {
+                i++;
+            }
+        }
+        return i == n || !isWordChar(s.charAt(i)) ? i : -1;
+    }
+
+    // local@domain.tld where tld is two or more letters ending on a word boundary. Returns the end of
+    // the email, or minus the end of the local-part run when there is none.
+    private static int emailEnd(String s, int start) {
+        int n = s.length();
+        int i = start;
+        while (i < n && isEmailLocalChar(s.charAt(i))) {
+            i++;
+        }
+        if (i >= n || s.charAt(i) != '@') {
+            return -i;
+        }
+        int domainStart = i + 1;
+        int domainEnd = domainStart;
+        while (domainEnd < n && isDomainChar(s.charAt(domainEnd))) {
+            domainEnd++;
+        }
+        // the last '.' that is followed by at least two letters and then a boundary
+        for (int dot = domainEnd - 1; dot > domainStart; dot--) {
+            if (s.charAt(dot) != '.') {
+                continue;
+            }
+            int tldEnd = dot + 1;
+            while (tldEnd < domainEnd && isLetter(s.charAt(tldEnd))) {
+                tldEnd++;
+            }
+            if (tldEnd - dot - 1 >= 2 && (tldEnd == n || !isWordChar(s.charAt(tldEnd)))) {
+                return tldEnd;
+            }
+        }
+        return -i;
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static boolean isLetter(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z');
+    }
+
+    // \w in the regexes this replaced
+    private static boolean isWordChar(char c) {
+        return isLetter(c) || isDigit(c) || c == '_';
+    }
+
+    private static boolean isEmailLocalChar(char c) {
+        return isWordChar(c) || c == '.' || c == '%' || c == '+' || c == '-';
+    }
+
+    private static boolean isDomainChar(char c) {
+        return isLetter(c) || isDigit(c) || c == '.' || c == '-';
+    }
+
+    private static boolean isCardSeparator(char c) {
+        return c == ' ' || c == '-' || c == '\t' || c == '\n' || c == '\r' || c == '\f' || c == '\u000B';
+    }
+
+    private record Redacted(Object value) {
+        @Override
+        public String toString() {
+            return value == null ? "null" : redact(value.toString());
+        }
     }
 }
@@ -0,0 +1,32 @@
+package com.alien.bank.management.system.utils;
+
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Trigram extraction for the transaction notes search index.
+ *
+ * Notes are indexed as " " + lower(notes), so every trigram of a contains-search term and of a
+ * word-prefix term (" " + term) appears in the indexed text whenever the term matches. The index
+ * only narrows the candidates; the LIKE on the notes still decides the final match.
+ */
+public final class NoteTrigrams {
+
+    public static final int GRAM_LENGTH = 3;
+
+    private NoteTrigrams() {
+    }
+
+    public static String normalize(String notes) {
+        return " " + notes.toLowerCase(Locale.ROOT);
+    }
+
+    public static Set<String> of(String text) {
+        Set<String> grams = new LinkedHashSet<>();
+        for (int i = 0; i + GRAM_LENGTH <= text.length(); i++) {
+            grams.add(text.substring(i, i + GRAM_LENGTH));
+        }
+        return grams;
+    }
+}
@@ -0,0 +1,164 @@
+package com.alien.bank.management.system.utils;
+
+import com.alien.bank.management.system.exception.ConcurrentUpdateException;
+import jakarta.persistence.LockTimeoutException;
+import jakarta.persistence.OptimisticLockException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.SQLException;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Runs a balance-changing unit of work in its own transaction and retries it when an @Version
+ * check on Account fails. Attempts are bounded and separated by full-jitter exponential backoff so
+ * contending writers spread out instead of colliding again in lockstep.
+ *
+ * A conflict is a failed version check, a row-lock timeout or deadlock abort, or the loser of two
+ * writers racing to insert the same unique row (e.g. the first daily snapshot of an account); all
+ * of them succeed on a re-read.
+ *
+ * Conflicts, retries and aborts are counted per operation, and conflicts per caller-supplied key
+ * (account id or VPA), so hot accounts show up in GET /admin/metrics/contention. The key is passed
+ * in because a batched version check does not report which row went stale.
+ */
+@Component
+public class OptimisticRetryExecutor {
+    private static final Logger log = LoggerFactory.getLogger(OptimisticRetryExecutor.class);
+    private static final int MAX_TRACKED_KEYS = 10_000;
+    private static final int HOT_ACCOUNTS_REPORTED = 10;
+
+    private final TransactionTemplate transactionTemplate;
+    private final int maxAttempts;
+    private final long baseBackoffMs;
+    private final long maxBackoffMs;
+
+    private final Map<String, OperationStats> operations = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> conflictsByKey = new ConcurrentHashMap<>();
+
+    public OptimisticRetryExecutor(PlatformTransactionManager transactionManager,
+                                   @Value("${ledger.retry.max-attempts:6}") int maxAttempts,
+                                   @Value("${ledger.retry.base-backoff-ms:10}") long baseBackoffMs,
+                                   @Value("${ledger.retry.max-backoff-ms:250}") long maxBackoffMs) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.baseBackoffMs = baseBackoffMs;
+        this.maxBackoffMs = maxBackoffMs;
+    }
+
+    public <T> T execute(String operation, Object key, Supplier<T> work) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            // A conflict marks the surrounding transaction rollback-only, so only its owner can retry
+            return work.get();
+        }
+        OperationStats stats = operations.computeIfAbsent(operation, k -> new OperationStats());
+        stats.calls.increment();
+        for (int attempt = 1; ; attempt++) {
+            try {
+                T result = transactionTemplate.execute(status -> work.get());
+                stats.succeeded.increment();
+                return result;
+            } catch (RuntimeException e) {
+                if (!isConflict(e)) {
+                    throw e;
+                }
+                stats.conflicts.increment();
+                recordConflict(key);
+                if (attempt >= maxAttempts) {
+                    stats.aborted.increment();
+                    log.warn("{} gave up after {} conflicting attempts", operation, attempt);
+                    throw new ConcurrentUpdateException("Account is busy, please retry", e);
+                }
+                sleep(backoff(attempt));
+            }
+        }
+    }
+
+    public Map<String, Object> getMetrics() {
+        Map<String, Object> byOperation = new TreeMap<>();
+        operations.forEach((name, stats) -> {
+            long calls = stats.calls.sum();
+            long aborted = stats.aborted.sum();
+            Map<String, Object> m = new LinkedHashMap<>();
+            m.put("calls", calls);
+            m.put("succeeded", stats.succeeded.sum());
+            m.put("conflicts", stats.conflicts.sum());
+            m.put("retries", stats.conflicts.sum() - aborted);
+            m.put("aborted", aborted);
+            m.put("abortRate", calls == 0 ? 0.0 : (double) aborted / calls);
+            byOperation.put(name, m);
+        });
+
+        List<Map<String, Object>> hotAccounts = conflictsByKey.entrySet().stream()
+                .map(e -> Map.<String, Object>of("key", e.getKey(), "conflicts", e.getValue().sum()))
+                .sorted((a, b) -> Long.compare((Long) b.get("conflicts"), (Long) a.get("conflicts")))
+                .limit(HOT_ACCOUNTS_REPORTED)
+                .toList();
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("maxAttempts", maxAttempts);
+        result.put("operations", byOperation);
+        result.put("hotAccounts", hotAccounts);
+        return result;
+    }
+
+    private void recordConflict(Object key) {
+        if (key == null) {
+            return;
+        }
+        String k = key.toString();
+        if (conflictsByKey.size() < MAX_TRACKED_KEYS || conflictsByKey.containsKey(k)) {
+            conflictsByKey.computeIfAbsent(k, x -> new LongAdder()).increment();
+        }
+    }
+
+    static boolean isConflict(Throwable e) {
+        if (e instanceof OptimisticLockingFailureException || e instanceof OptimisticLockException
+                || e instanceof PessimisticLockingFailureException || e instanceof LockTimeoutException) {
+            return true;
+        }
+        if (e instanceof DataIntegrityViolationException) {
+            for (Throwable t = e; t != null; t = t.getCause()) {
+                // 23505: unique violation (H2, PostgreSQL); 1062: duplicate entry (MySQL)
+                if (t instanceof SQLException sql && ("23505".equals(sql.getSQLState()) || sql.getErrorCode() == 1062)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    // Full jitter: uniform in [0, min(max, base * 2^(attempt-1))]
+    private long backoff(int attempt) {
+        long ceiling = Math.min(maxBackoffMs, baseBackoffMs << Math.min(attempt - 1, 20));
+        return ThreadLocalRandom.current().nextLong(ceiling + 1);
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ConcurrentUpdateException("Interrupted while waiting to retry", e);
+        }
+    }
+
+    private static class OperationStats {
+        private final LongAdder calls = new LongAdder();
+        private final LongAdder succeeded = new LongAdder();
+        private final LongAdder conflicts = new LongAdder();
+        private final LongAdder aborted = new LongAdder();
+    }
+}
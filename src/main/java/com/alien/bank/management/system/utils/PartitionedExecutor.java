@@ -0,0 +1,113 @@
+package com.alien.bank.management.system.utils;
+
+import com.alien.bank.management.system.exception.ServiceBusyException;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Single-thread executors selected by key, so work for one key (e.g. a sender account) runs in
+ * submission order while different keys proceed in parallel. At most maxInFlight tasks may be
+ * queued or running; past that submit throws ServiceBusyException instead of growing the queues.
+ *
+ * Completions are counted in a one-minute ring of per-second slots, so throughput can be read
+ * independently of how long callers waited to submit.
+ */
+public class PartitionedExecutor {
+    private static final int WINDOW_SECONDS = 60;
+
+    private final ThreadPoolExecutor[] partitions;
+    private final int maxInFlight;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final AtomicLongArray slotSecond = new AtomicLongArray(WINDOW_SECONDS);
+    private final AtomicLongArray slotCount = new AtomicLongArray(WINDOW_SECONDS);
+
+    public PartitionedExecutor(String name, int partitionCount, int maxInFlight) {
+        this.partitions = new ThreadPoolExecutor[Math.max(1, partitionCount)];
+        this.maxInFlight = maxInFlight;
+        for (int i = 0; i < partitions.length; i++) {
+            String threadName = name + "-" + i;
+            partitions[i] = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(), r -> {
+                Thread t = new Thread(r, threadName);
+                t.setDaemon(true);
+                return t;
+            });
+        }
+    }
+
+    public void submit(long key, Runnable task) {
+        if (inFlight.incrementAndGet() > maxInFlight) {
+            inFlight.decrementAndGet();
+            throw new ServiceBusyException("Too many transfers in flight, please retry");
+        }
+        partitions[(int) Math.floorMod(key, (long) partitions.length)].execute(() -> {
+            try {
+                task.run();
+                completed.increment();
+            } catch (RuntimeException e) {
+                failed.increment();
+                throw e;
+            } finally {
+                tick();
+                inFlight.decrementAndGet();
+            }
+        });
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    public Map<String, Object> getMetrics() {
+        List<Integer> queueDepths = new ArrayList<>(partitions.length);
+        for (ThreadPoolExecutor partition : partitions) {
+            queueDepths.add(partition.getQueue().size());
+        }
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("partitions", partitions.length);
+        metrics.put("inFlight", inFlight.get());
+        metrics.put("maxInFlight", maxInFlight);
+        metrics.put("queueDepths", queueDepths);
+        metrics.put("completed", completed.sum());
+        metrics.put("failed", failed.sum());
+        metrics.put("throughputPerSecond1m", lastMinute() / (double) WINDOW_SECONDS);
+        return metrics;
+    }
+
+    public void shutdown() {
+        for (ThreadPoolExecutor partition : partitions) {
+            partition.shutdown();
+        }
+    }
+
+    private void tick() {
+        long second = System.currentTimeMillis() / 1000;
+        int slot = (int) (second % WINDOW_SECONDS);
+        long stamped = slotSecond.get(slot);
+        if (stamped != second && slotSecond.compareAndSet(slot, stamped, second)) {
+            slotCount.set(slot, 0);
+        }
+        slotCount.incrementAndGet(slot);
+    }
+
+    private long lastMinute() {
+        long now = System.currentTimeMillis() / 1000;
+        long total = 0;
+        for (int i = 0; i < WINDOW_SECONDS; i++) {
+            if (now - slotSecond.get(i) < WINDOW_SECONDS) {
+                total += slotCount.get(i);
+            }
+        }
+        return total;
+    }
+}
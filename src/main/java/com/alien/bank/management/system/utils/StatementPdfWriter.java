@@ -0,0 +1,288 @@
+package com.alien.bank.management.system.utils;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Minimal streaming PDF writer for account statements.
+ *
+ * Each page is laid out in its own content stream and written to the output as soon as it is
+ * full, so memory use is bounded by one page of rows regardless of how long the statement is.
+ * Only the object offsets and page ids are kept until the end, where the page tree and the
+ * cross-reference table are written. Text uses the built-in Helvetica fonts, so no font files
+ * are embedded.
+ */
+public class StatementPdfWriter {
+
+    private static final float PAGE_WIDTH = 595f;   // A4 portrait, in points
+    private static final float PAGE_HEIGHT = 842f;
+    private static final float MARGIN = 40f;
+    private static final float ROW_HEIGHT = 14f;
+    private static final float FONT_SIZE = 9f;
+    private static final int NOTES_MAX_CHARS = 32;
+
+    // Column x positions: date, reference, type, notes, amount (right edge), balance (right edge)
+    private static final float COL_DATE = MARGIN;
+    private static final float COL_REF = 130f;
+    private static final float COL_TYPE = 190f;
+    private static final float COL_NOTES = 270f;
+    private static final float COL_AMOUNT_RIGHT = 470f;
+    private static final float COL_BALANCE_RIGHT = PAGE_WIDTH - MARGIN;
+
+    // Fixed object ids; everything after these is allocated as pages are written
+    private static final int CATALOG_ID = 1;
+    private static final int PAGES_ID = 2;
+    private static final int FONT_REGULAR_ID = 3;
+    private static final int FONT_BOLD_ID = 4;
+
+    private final CountingOutputStream out;
+    private final List<Long> objectOffsets = new ArrayList<>();
+    private final List<Integer> pageIds = new ArrayList<>();
+    private final SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd HH:mm");
+
+    private StringBuilder page;
+    private float cursorY;
+
+    public StatementPdfWriter(OutputStream outputStream) {
+        this.out = new CountingOutputStream(new BufferedOutputStream(outputStream));
+        objectOffsets.add(0L); // object 0 is the free-list head
+        for (int i = CATALOG_ID; i <= FONT_BOLD_ID; i++) {
+            objectOffsets.add(-1L);
+        }
+        write("%PDF-1.4\n%âãÏÓ\n");
+        writeObject(FONT_REGULAR_ID, "<< /Type /Font /Subtype /Type1 /BaseFont /Helvetica /Encoding /WinAnsiEncoding >>");
+        writeObject(FONT_BOLD_ID, "<< /Type /Font /Subtype /Type1 /BaseFont /Helvetica-Bold /Encoding /WinAnsiEncoding >>");
+    }
+
+    /** Writes the statement title block on a fresh page. */
+    public void writeHeader(String cardNumber, Long accountId, Date fromDate, Date toDate, Double openingBalance) {
+        ensurePage();
+        text(MARGIN, cursorY, "Account Statement", true, 16f);
+        cursorY -= 24f;
+        text(MARGIN, cursorY, "Account: " + accountId + "   Card: " + cardNumber, false, 10f);
+        cursorY -= ROW_HEIGHT;
+        text(MARGIN, cursorY, "Period: " + dateFormat.format(fromDate) + " to " + dateFormat.format(toDate), false, 10f);
+        cursorY -= ROW_HEIGHT;
+        text(MARGIN, cursorY, "Generated: " + dateFormat.format(new Date()), false, 10f);
+        cursorY -= ROW_HEIGHT;
+        text(MARGIN, cursorY, "Opening balance: " + formatAmount(openingBalance), true, 10f);
+        cursorY -= ROW_HEIGHT * 1.5f;
+        writeColumnHeadings();
+    }
+
+    /** Adds one transaction line, starting a new page first if the current one is full. */
+    public void addRow(Date timestamp, String reference, String type, String notes, Double amount, Double balanceAfter) {
+        if (cursorY - ROW_HEIGHT < MARGIN + ROW_HEIGHT) {
+            finishPage();
+            ensurePage();
+            writeColumnHeadings();
+        }
+        text(COL_DATE, cursorY, dateFormat.format(timestamp), false, FONT_SIZE);
+        text(COL_REF, cursorY, reference, false, FONT_SIZE);
+        text(COL_TYPE, cursorY, type, false, FONT_SIZE);
+        text(COL_NOTES, cursorY, truncate(notes), false, FONT_SIZE);
+        textRight(COL_AMOUNT_RIGHT, cursorY, formatAmount(amount), FONT_SIZE);
+        textRight(COL_BALANCE_RIGHT, cursorY, formatAmount(balanceAfter), FONT_SIZE);
+        cursorY -= ROW_HEIGHT;
+    }
+
+    /** Writes the closing summary as label/value pairs, then the page tree and trailer. */
+    public void finish(List<String[]> summaryLines) {
+        float needed = ROW_HEIGHT * (summaryLines.size() + 2);
+        if (page == null || cursorY - needed < MARGIN + ROW_HEIGHT) {
+            finishPage();
+            ensurePage();
+        }
+        cursorY -= ROW_HEIGHT;
+        text(MARGIN, cursorY, "Summary", true, 11f);
+        cursorY -= ROW_HEIGHT;
+        for (String[] line : summaryLines) {
+            text(MARGIN, cursorY, line[0], false, 10f);
+            textRight(COL_AMOUNT_RIGHT, cursorY, line[1], 10f);
+            cursorY -= ROW_HEIGHT;
+        }
+        finishPage();
+
+        StringBuilder kids = new StringBuilder();
+        for (Integer id : pageIds) {
+            kids.append(id).append(" 0 R ");
+        }
+        writeObject(PAGES_ID, "<< /Type /Pages /Kids [" + kids.toString().trim() + "] /Count " + pageIds.size() + " >>");
+        writeObject(CATALOG_ID, "<< /Type /Catalog /Pages " + PAGES_ID + " 0 R >>");
+
+        long xrefOffset = out.count;
+        StringBuilder xref = new StringBuilder("xref\n0 ").append(objectOffsets.size()).append('\n');
+        xref.append("0000000000 65535 f \n");
+        for (int i = 1; i < objectOffsets.size(); i++) {
+            xref.append(String.format(Locale.ROOT, "%010d 00000 n \n", objectOffsets.get(i)));
+        }
+        write(xref.toString());
+        write("trailer\n<< /Size " + objectOffsets.size() + " /Root " + CATALOG_ID + " 0 R >>\nstartxref\n" + xrefOffset + "\n%%EOF\n");
+        flush();
+    }
+
+    public static String formatAmount(Double amount) {
+        return amount == null ? "-" : String.format(Locale.ROOT, "%,.2f", amount);
+    }
+
+    private void writeColumnHeadings() {
+        text(COL_DATE, cursorY, "Date", true, FONT_SIZE);
+        text(COL_REF, cursorY, "Reference", true, FONT_SIZE);
+        text(COL_TYPE, cursorY, "Type", true, FONT_SIZE);
+        text(COL_NOTES, cursorY, "Notes", true, FONT_SIZE);
+        textRight(COL_AMOUNT_RIGHT, cursorY, "Amount", FONT_SIZE);
+        textRight(COL_BALANCE_RIGHT, cursorY, "Balance", FONT_SIZE);
+        cursorY -= 4f;
+        page.append(String.format(Locale.ROOT, "%.2f %.2f m %.2f %.2f l S\n", MARGIN, cursorY, PAGE_WIDTH - MARGIN, cursorY));
+        cursorY -= ROW_HEIGHT;
+    }
+
+    private void ensurePage() {
+        if (page == null) {
+            page = new StringBuilder(8192);
+            cursorY = PAGE_HEIGHT - MARGIN;
+        }
+    }
+
+    private void finishPage() {
+        if (page == null) {
+            return;
+        }
+        int pageNumber = pageIds.size() + 1;
+        text(PAGE_WIDTH / 2 - 15f, MARGIN / 2, "Page " + pageNumber, false, 8f);
+
+        byte[] content = page.toString().getBytes(StandardCharsets.ISO_8859_1);
+        int contentId = allocateObject();
+        beginObject(contentId);
+        write("<< /Length " + content.length + " >>\nstream\n");
+        writeBytes(content);
+        write("\nendstream\nendobj\n");
+
+        int pageId = allocateObject();
+        writeObject(pageId, "<< /Type /Page /Parent " + PAGES_ID + " 0 R /MediaBox [0 0 " + (int) PAGE_WIDTH + " " + (int) PAGE_HEIGHT + "]"
+                + " /Resources << /Font << /F1 " + FONT_REGULAR_ID + " 0 R /F2 " + FONT_BOLD_ID + " 0 R >> >>"
+                + " /Contents " + contentId + " 0 R >>");
+        pageIds.add(pageId);
+        page = null;
+        flush();
+    }
+
+    private void text(float x, float y, String value, boolean bold, float size) {
+        page.append("BT /").append(bold ? "F2" : "F1").append(' ')
+                .append(String.format(Locale.ROOT, "%.1f", size)).append(" Tf ")
+                .append(String.format(Locale.ROOT, "%.2f %.2f", x, y)).append(" Td (")
+                .append(escape(value)).append(") Tj ET\n");
+    }
+
+    private void textRight(float rightX, float y, String value, float size) {
+        text(rightX - width(value, size), y, value, false, size);
+    }
+
+    // Helvetica advance widths (per 1000 em) for the characters amounts are made of
+    private static float width(String value, float size) {
+        float units = 0;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '.' || c == ',' || c == ' ') {
+                units += 278;
+            } else if (c == '-') {
+                units += 333;
+            } else {
+                units += 556;
+            }
+        }
+        return units * size / 1000f;
+    }
+
+    private static String truncate(String notes) {
+        if (notes == null) {
+            return "";
+        }
+        return notes.length() <= NOTES_MAX_CHARS ? notes : notes.substring(0, NOTES_MAX_CHARS - 3) + "...";
+    }
+
+    private static String escape(String value) {
+        StringBuilder sb = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '(' || c == ')' || c == '\\') {
+                sb.append('\\').append(c);
+            } else if (c < 32 || c > 255) {
+                sb.append('?'); // outside WinAnsi; the standard fonts cannot render it
+            } else {
+                sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+
+    private int allocateObject() {
+        objectOffsets.add(-1L);
+        return objectOffsets.size() - 1;
+    }
+
+    private void beginObject(int id) {
+        objectOffsets.set(id, out.count);
+        write(id + " 0 obj\n");
+    }
+
+    private void writeObject(int id, String body) {
+        beginObject(id);
+        write(body + "\nendobj\n");
+    }
+
+    private void write(String s) {
+        writeBytes(s.getBytes(StandardCharsets.ISO_8859_1));
+    }
+
+    private void writeBytes(byte[] bytes) {
+        try {
+            out.write(bytes);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write statement PDF", e);
+        }
+    }
+
+    private void flush() {
+        try {
+            out.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write statement PDF", e);
+        }
+    }
+
+    // Tracks the byte position so the xref table can point at each object
+    private static class CountingOutputStream extends OutputStream {
+        private final OutputStream delegate;
+        private long count;
+
+        CountingOutputStream(OutputStream delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            delegate.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            delegate.write(b, off, len);
+            count += len;
+        }
+
+        @Override
+        public void flush() throws IOException {
+            delegate.flush();
+        }
+    }
+}
@@ -18,6 +18,11 @@ public class Utils {
         return generateRandomNumber(3);
     }
 
+    // Escapes LIKE wildcards for queries declared with ESCAPE '!'
+    public static String escapeLike(String value) {
+        return value.replace("!", "!!").replace("%", "!%").replace("_", "!_");
+    }
+
     private static String generateRandomNumber(int len) {
         StringBuilder number = new StringBuilder();
 
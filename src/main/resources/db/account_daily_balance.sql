@@ -0,0 +1,19 @@
+-- Daily balance snapshots (AccountDailyBalance). Production runs with ddl-auto=none, so create this
+-- before deploying. Statements fall back to the transactions for days the snapshots do not cover;
+-- POST /admin/ledger/backfill (or ledger.backfill-on-startup=true) rebuilds existing history.
+-- The day column is balance_day: DAY is a reserved word in H2, which the tests run on.
+CREATE TABLE IF NOT EXISTS account_daily_balance (
+    id                BIGINT      NOT NULL AUTO_INCREMENT,
+    account_id        BIGINT      NOT NULL,
+    balance_day       DATE        NOT NULL,
+    closing_balance   DOUBLE      NOT NULL,
+    total_deposits    DOUBLE      NOT NULL DEFAULT 0,
+    total_withdrawals DOUBLE      NOT NULL DEFAULT 0,
+    total_fees        DOUBLE      NOT NULL DEFAULT 0,
+    total_interest    DOUBLE      NOT NULL DEFAULT 0,
+    tx_count          BIGINT      NOT NULL DEFAULT 0,
+    last_txn_at       DATETIME(6) NOT NULL,
+    last_txn_id       BIGINT      NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_account_daily_balance UNIQUE (account_id, balance_day)
+) ENGINE = InnoDB;
@@ -0,0 +1,16 @@
+-- Per-account monthly rollups (AccountMonthlyRollup). Production runs with ddl-auto=none, so create
+-- this before deploying. Months older than the rollups are read from the transactions until
+-- POST /admin/ledger/backfill (or ledger.backfill-on-startup=true) rebuilds them.
+-- The month column is rollup_month: MONTH is a reserved word in H2, which the tests run on.
+CREATE TABLE IF NOT EXISTS account_monthly_rollup (
+    id           BIGINT      NOT NULL AUTO_INCREMENT,
+    account_id   BIGINT      NOT NULL,
+    rollup_month DATE        NOT NULL,
+    type         VARCHAR(20) NOT NULL,
+    total_amount DOUBLE      NOT NULL DEFAULT 0,
+    tx_count     BIGINT      NOT NULL DEFAULT 0,
+    max_amount   DOUBLE      NOT NULL DEFAULT 0,
+    first_txn_at DATETIME(6) NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_account_monthly_rollup UNIQUE (account_id, rollup_month, type)
+) ENGINE = InnoDB;
@@ -0,0 +1,13 @@
+-- Trigram index over transaction notes (TransactionNoteTrigram). Production runs with ddl-auto=none,
+-- so create this before deploying. Transactions older than an account's first indexed one are
+-- matched by the LIKE alone until POST /admin/ledger/backfill (or ledger.backfill-on-startup=true)
+-- indexes them.
+CREATE TABLE IF NOT EXISTS transaction_note_trigram (
+    id             BIGINT     NOT NULL AUTO_INCREMENT,
+    account_id     BIGINT     NOT NULL,
+    trigram        VARCHAR(3) NOT NULL,
+    transaction_id BIGINT     NOT NULL,
+    PRIMARY KEY (id),
+    INDEX idx_note_trigram_lookup (account_id, trigram, transaction_id),
+    INDEX idx_note_trigram_account_txn (account_id, transaction_id)
+) ENGINE = InnoDB;
@@ -0,0 +1,138 @@
+package com.alien.bank.management.system.service;
+
+import com.alien.bank.management.system.entity.*;
+import com.alien.bank.management.system.repository.*;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Writes the rows of a seeder-sized unit of work (payments, their ledger rows and reward entries)
+// once with JDBC batching switched off for the session and once with the configured batch size,
+// and counts the statements Hibernate sends.
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestPropertySource(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import(LedgerBatchRepository.class)
+public class JdbcBatchingBenchmarkTest {
+    private static final Logger log = LoggerFactory.getLogger(JdbcBatchingBenchmarkTest.class);
+    private static final int PAYMENTS = 1000;
+
+    @MockBean private PasswordEncoder passwordEncoder;
+    @Autowired private EntityManager entityManager;
+    @Autowired private EntityManagerFactory entityManagerFactory;
+    @Autowired private PlatformTransactionManager transactionManager;
+    @Autowired private UserRepository userRepository;
+    @Autowired private AccountRepository accountRepository;
+    @Autowired private PaymentCategoryRepository categoryRepository;
+    @Autowired private PaymentRepository paymentRepository;
+    @Autowired private TransactionRepository transactionRepository;
+    @Autowired private RewardLedgerRepository rewardLedgerRepository;
+    @Autowired private LedgerBatchRepository ledgerBatchRepository;
+
+    @Test
+    void batchedInsertsNeedAFractionOfTheRoundTrips() {
+        User user = userRepository.save(User.builder().name("Batch").email("batch@bench.com").phone("batch").role(Role.USER).password("p").build());
+        Account account = accountRepository.save(Account.builder().encryptedPan("pan").last4Digits("0000").balance(0.0).user(user).build());
+        PaymentCategory category = categoryRepository.save(PaymentCategory.builder().code("BENCH").label("Bench").build());
+
+        Run unbatched = run(user, account, category, 1);
+        Run batched = run(user, account, category, null);
+
+        log.info("{} payments with ledger and reward rows: {} statements in {} ms unbatched, {} statements in {} ms batched",
+                PAYMENTS, unbatched.statements(), unbatched.elapsedMs(), batched.statements(), batched.elapsedMs());
+        assertThat(unbatched.statements()).isGreaterThanOrEqualTo(3L * PAYMENTS);
+        // one INSERT batch per 50 rows of each entity, plus the sequence calls for the id blocks
+        assertThat(batched.statements()).isLessThanOrEqualTo(2L * 3 * PAYMENTS / 50 + 10);
+        assertThat(paymentRepository.count()).isEqualTo(2L * PAYMENTS);
+        assertThat(rewardLedgerRepository.count()).isEqualTo(2L * PAYMENTS);
+    }
+
+    @Test
+    void jdbcInsertedRowsShareTheEntityIdSequence() {
+        User user = userRepository.save(User.builder().name("Mixed").email("mixed@bench.com").phone("mixed").role(Role.USER).password("p").build());
+        Account account = accountRepository.save(Account.builder().encryptedPan("pan").last4Digits("0000").balance(0.0).user(user).build());
+
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        List<Long> ids = transactionTemplate.execute(status -> {
+            List<Long> out = new ArrayList<>();
+            for (int i = 0; i < 120; i++) {
+                if (i % 3 == 0) {
+                    out.add(transactionRepository.save(transaction(account, i)).getId());
+                } else {
+                    List<Transaction> rows = List.of(transaction(account, i));
+                    ledgerBatchRepository.insertTransactions(rows);
+                    out.add(rows.get(0).getId());
+                }
+            }
+            return out;
+        });
+
+        assertThat(new HashSet<>(ids)).hasSize(120);
+        assertThat(transactionRepository.findAllById(ids)).hasSize(120);
+    }
+
+    private Run run(User user, Account account, PaymentCategory category, Integer batchSize) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        statistics.clear();
+        long started = System.nanoTime();
+        transactionTemplate.executeWithoutResult(status -> {
+            entityManager.unwrap(Session.class).setJdbcBatchSize(batchSize);
+            List<Payment> payments = new ArrayList<>();
+            List<Transaction> transactions = new ArrayList<>();
+            List<RewardLedger> rewards = new ArrayList<>();
+            for (int i = 0; i < PAYMENTS; i++) {
+                Payment payment = Payment.builder()
+                        .user(user)
+                        .account(account)
+                        .category(category)
+                        .method(PaymentMethod.UPI)
+                        .amount(10.0)
+                        .status(PaymentStatus.SUCCESS)
+                        .refId(UUID.randomUUID().toString())
+                        .build();
+                payments.add(payment);
+                transactions.add(transaction(account, i));
+                rewards.add(RewardLedger.builder().user(user).payment(payment).type(RewardType.EARN).coins(1).note("bench").build());
+            }
+            paymentRepository.saveAll(payments);
+            transactionRepository.saveAll(transactions);
+            rewardLedgerRepository.saveAll(rewards);
+        });
+        long elapsedMs = (System.nanoTime() - started) / 1_000_000;
+        return new Run(statistics.getPrepareStatementCount(), elapsedMs);
+    }
+
+    private static Transaction transaction(Account account, int i) {
+        return Transaction.builder()
+                .type(TransactionType.WITHDRAW)
+                .amount(10.0)
+                .balanceAfter(0.0)
+                .timestamp(new Date())
+                .notes("bench " + i)
+                .account(account)
+                .build();
+    }
+
+    private record Run(long statements, long elapsedMs) {
+    }
+}
@@ -0,0 +1,158 @@
+package com.alien.bank.management.system.service;
+
+import com.alien.bank.management.system.entity.*;
+import com.alien.bank.management.system.exception.ConcurrentUpdateException;
+import com.alien.bank.management.system.exception.LowBalanceException;
+import com.alien.bank.management.system.model.transaction.JournalReceipt;
+import com.alien.bank.management.system.repository.AccountRepository;
+import com.alien.bank.management.system.repository.LedgerJournalRepository;
+import com.alien.bank.management.system.repository.TransactionRepository;
+import com.alien.bank.management.system.repository.UserRepository;
+import com.alien.bank.management.system.utils.OptimisticRetryExecutor;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Date;
+import java.util.concurrent.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+
+// One writer thread, so a slow append holds up every posting queued behind it
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestPropertySource(properties = {"ledger.engine=journal", "ledger.journal.writers=1", "ledger.journal.timeout-ms=1000"})
+@Import({com.alien.bank.management.system.service.impl.LedgerJournalServiceImpl.class,
+        com.alien.bank.management.system.service.impl.LedgerServiceImpl.class,
+        com.alien.bank.management.system.service.impl.BalanceSnapshotServiceImpl.class,
+        com.alien.bank.management.system.service.impl.MonthlyRollupServiceImpl.class,
+        com.alien.bank.management.system.service.impl.NotesSearchServiceImpl.class,
+        com.alien.bank.management.system.repository.LedgerBatchRepository.class,
+        OptimisticRetryExecutor.class})
+public class LedgerJournalServiceTest {
+
+    @MockBean private PasswordEncoder passwordEncoder;
+    @SpyBean private OptimisticRetryExecutor retryExecutor;
+    @Autowired private LedgerJournalService ledgerJournalService;
+    @Autowired private UserRepository userRepository;
+    @Autowired private AccountRepository accountRepository;
+    @Autowired private LedgerJournalRepository journalRepository;
+    @Autowired private TransactionRepository transactionRepository;
+
+    @Test
+    void postingsAreCheckedAgainstTheJournalAndProjected() {
+        Account from = account("post-1", 100.0);
+        Account to = account("post-2", 0.0);
+
+        JournalReceipt deposit = ledgerJournalService.post(from.getId(), TransactionType.DEPOSIT, 50.0, null);
+        assertThat(deposit.isProjected()).isTrue();
+        assertThat(deposit.getBalanceAfter()).isEqualTo(150.0);
+        assertThrows(LowBalanceException.class, () -> ledgerJournalService.post(from.getId(), TransactionType.WITHDRAW, 200.0, null));
+
+        ledgerJournalService.transfer(from.getId(), to.getId(), 40.0, "out", "in");
+        ledgerJournalService.project(to.getId());
+
+        assertThat(accountRepository.findById(from.getId()).orElseThrow().getBalance()).isEqualTo(110.0);
+        assertThat(accountRepository.findById(to.getId()).orElseThrow().getBalance()).isEqualTo(40.0);
+        assertThat(ledgerJournalService.replay(from.getId(), false)).containsEntry("drift", 0.0);
+    }
+
+    @Test
+    void onlyPostingsThatNeverStartedAreReportedAsFailed() throws Exception {
+        Account slow = account("timeout-1", 100.0);
+        Account queued = account("timeout-2", 100.0);
+        CountDownLatch appending = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(inv -> {
+            appending.countDown();
+            release.await(10, TimeUnit.SECONDS);
+            return inv.callRealMethod();
+        }).when(retryExecutor).execute(eq("journalAppend"), eq("account:" + slow.getId()), any());
+
+        ExecutorService caller = Executors.newSingleThreadExecutor();
+        try {
+            Future<JournalReceipt> taken = caller.submit(() -> ledgerJournalService.post(slow.getId(), TransactionType.WITHDRAW, 30.0, "slow"));
+            assertThat(appending.await(5, TimeUnit.SECONDS)).isTrue();
+
+            // still queued behind the slow append when the caller gives up: reported failed and never applied
+            assertThrows(ConcurrentUpdateException.class,
+                    () -> ledgerJournalService.post(queued.getId(), TransactionType.WITHDRAW, 30.0, "queued"));
+
+            // the slow one was already being appended: its caller waits past the timeout for the real outcome
+            release.countDown();
+            assertThat(taken.get(10, TimeUnit.SECONDS).getBalanceAfter()).isEqualTo(70.0);
+        } finally {
+            release.countDown();
+            caller.shutdownNow();
+        }
+
+        // the writer has skipped the cancelled posting by the time it runs this
+        assertThat(ledgerJournalService.project(queued.getId())).isZero();
+        assertThat(accountRepository.findById(queued.getId()).orElseThrow().getBalance()).isEqualTo(100.0);
+        assertThat(journalRepository.sumByAccountId(queued.getId())).isZero();
+        assertThat(accountRepository.findById(slow.getId()).orElseThrow().getBalance()).isEqualTo(70.0);
+    }
+
+    @Test
+    void replayOnlyRebuildsBalancesTheJournalFullyExplains() {
+        Account journalOnly = account("replay-1", 100.0);
+        Account paidOutside = account("replay-2", 100.0);
+        ledgerJournalService.post(journalOnly.getId(), TransactionType.DEPOSIT, 10.0, null);
+        ledgerJournalService.post(paidOutside.getId(), TransactionType.DEPOSIT, 10.0, null);
+
+        // a stray balance change with no transaction behind it is what apply repairs
+        Account drifted = accountRepository.findById(journalOnly.getId()).orElseThrow();
+        drifted.setBalance(95.0);
+        accountRepository.save(drifted);
+        // a payment made while the engine was off debits the balance and records its transaction without the journal
+        Account paying = accountRepository.findById(paidOutside.getId()).orElseThrow();
+        paying.setBalance(80.0);
+        accountRepository.save(paying);
+        transactionRepository.save(Transaction.builder().type(TransactionType.PAYMENT).amount(30.0).balanceAfter(80.0)
+                .timestamp(new Date()).notes("UPI payment").account(paying).build());
+
+        assertThat(ledgerJournalService.replay(journalOnly.getId(), true))
+                .containsEntry("rebuilt", true).containsEntry("writesOutsideJournal", 0L);
+        assertThat(accountRepository.findById(journalOnly.getId()).orElseThrow().getBalance()).isEqualTo(110.0);
+
+        assertThat(ledgerJournalService.replay(paidOutside.getId(), true))
+                .containsEntry("rebuilt", false).containsEntry("writesOutsideJournal", 1L).containsEntry("drift", -30.0);
+        assertThat(accountRepository.findById(paidOutside.getId()).orElseThrow().getBalance()).isEqualTo(80.0);
+    }
+
+    @Test
+    void projectionDoesNotOverdrawAnAccountChangedOutsideTheJournal() {
+        Account account = account("overdraw-1", 100.0);
+        ledgerJournalService.post(account.getId(), TransactionType.DEPOSIT, 10.0, null);
+
+        // an instance still on the direct engine spends most of it
+        Account spent = accountRepository.findById(account.getId()).orElseThrow();
+        spent.setBalance(20.0);
+        accountRepository.save(spent);
+        // the append checks the committed balance, not what this JVM last projected
+        assertThrows(LowBalanceException.class, () -> ledgerJournalService.post(account.getId(), TransactionType.WITHDRAW, 50.0, null));
+
+        // a debit appended without that check is held back instead of applied
+        journalRepository.save(LedgerJournalEntry.builder().postingId("stray").accountId(account.getId())
+                .type(TransactionType.WITHDRAW).amount(-50.0).createdAt(new Date()).build());
+        assertThrows(IllegalStateException.class, () -> ledgerJournalService.project(account.getId()));
+        assertThrows(IllegalStateException.class, () -> ledgerJournalService.project(account.getId()));
+        assertThat(accountRepository.findById(account.getId()).orElseThrow().getBalance()).isEqualTo(20.0);
+    }
+
+    private Account account(String key, double balance) {
+        User user = userRepository.save(User.builder().name(key).email(key + "@journal.com").phone(key).role(Role.USER).password("p").build());
+        return accountRepository.save(Account.builder().encryptedPan("pan-" + key).last4Digits("0000").balance(balance).user(user).build());
+    }
+}
@@ -0,0 +1,184 @@
+package com.alien.bank.management.system.service;
+
+import com.alien.bank.management.system.config.MandateSchedulerJob;
+import com.alien.bank.management.system.entity.MandateFrequency;
+import com.alien.bank.management.system.entity.UpiMandate;
+import com.alien.bank.management.system.entity.UpiMandateStatus;
+import com.alien.bank.management.system.exception.LowBalanceException;
+import com.alien.bank.management.system.repository.UpiMandateRepository;
+import com.alien.bank.management.system.service.impl.MandateServiceImpl;
+import com.alien.bank.management.system.utils.LogRedactionUtil;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.when;
+
+// Real rows and claims; the money movement itself is mocked
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({MandateSchedulerJob.class, MandateServiceImpl.class, LogRedactionUtil.class})
+@TestPropertySource(properties = {
+        "mandate.scheduler-enabled=false",
+        "mandate.retry.max-attempts=2",
+        "mandate.retry.base-backoff-ms=60000",
+        "mandate.horizon-ms=600000"})
+public class MandateSchedulerTest {
+
+    @MockBean private PasswordEncoder passwordEncoder;
+    @MockBean private UpiService upiService;
+    @MockBean private VpaResolver vpaResolver;
+    @MockBean private PinVerificationService pinVerificationService;
+    @Autowired private UpiMandateRepository mandateRepository;
+    @Autowired private MandateSchedulerJob schedulerJob;
+    @Autowired private MandateService mandateService;
+
+    @Test
+    void dueMandatesRunOncePerCycleAndFailuresBackOffThenSkip() throws Exception {
+        Map<String, List<String>> threadsByPayer = new ConcurrentHashMap<>();
+        when(upiService.sendMoneyPreAuthorized(anyString(), anyString(), anyDouble(), any())).thenAnswer(inv -> {
+            String payee = inv.getArgument(1);
+            threadsByPayer.computeIfAbsent(inv.getArgument(0), k -> Collections.synchronizedList(new ArrayList<>()))
+                    .add(Thread.currentThread().getName());
+            if (payee.startsWith("broke")) {
+                throw new LowBalanceException("Insufficient balance");
+            }
+            return 42L;
+        });
+
+        long now = System.currentTimeMillis();
+        List<Long> rent = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            rent.add(save("tenant@mybank", 501L, "landlord" + i + "@mybank", new Date(now - 1000 - i)).getId());
+        }
+        Long sip = save("saver@mybank", 502L, "fund@mybank", new Date(now - 500)).getId();
+        Long failing = save("saver@mybank", 502L, "broke@mybank", new Date(now - 400)).getId();
+        Long soon = save("tenant@mybank", 501L, "later@mybank", new Date(now + 1500)).getId();
+        Long farOff = save("tenant@mybank", 501L, "far@mybank", new Date(now + 3_600_000)).getId();
+
+        // five due now are dispatched by the load itself, the sixth goes on the wheel, the last is past the horizon
+        assertThat(schedulerJob.load()).isEqualTo(6);
+        awaitRuns(5);
+        assertThat(schedulerJob.tick(now + 500)).isZero();
+        // the claim checks next_run_at against the real clock
+        Thread.sleep(Math.max(0, now + 2600 - System.currentTimeMillis()));
+        assertThat(schedulerJob.tick(System.currentTimeMillis())).isEqualTo(1);
+        awaitRuns(6);
+
+        for (Long id : rent) {
+            UpiMandate m = mandateRepository.findById(id).orElseThrow();
+            assertThat(m.getRuns()).isEqualTo(1);
+            assertThat(m.getCycle()).isEqualTo(1);
+            assertThat(m.getRunningSince()).isNull();
+            assertThat(m.getNextRunAt().getTime()).isEqualTo(MandateFrequency.MONTHLY.occurrence(m.getStartAt(), 1).getTime());
+        }
+        assertThat(mandateRepository.findById(soon).orElseThrow().getRuns()).isEqualTo(1);
+        assertThat(mandateRepository.findById(farOff).orElseThrow().getRuns()).isZero();
+        // one payer account's runs share one runner thread
+        assertThat(new HashSet<>(threadsByPayer.get("tenant@mybank"))).hasSize(1);
+
+        UpiMandate failed = mandateRepository.findById(failing).orElseThrow();
+        assertThat(failed.getAttempts()).isEqualTo(1);
+        assertThat(failed.getLastFailureReason()).isEqualTo("INSUFFICIENT_BALANCE");
+        assertThat(failed.getNextRunAt().getTime() - now).isBetween(59_000L, 70_000L);
+        assertThat(mandateRepository.findById(sip).orElseThrow().getRuns()).isEqualTo(1);
+
+        // second and last attempt: the cycle is skipped and the mandate waits for the next one
+        failed.setNextRunAt(new Date(System.currentTimeMillis() - 1));
+        mandateRepository.save(failed);
+        schedulerJob.load();
+        awaitUntil(() -> mandateRepository.findById(failing).orElseThrow().getSkippedRuns() > 0);
+        failed = mandateRepository.findById(failing).orElseThrow();
+        assertThat(failed.getAttempts()).isZero();
+        assertThat(failed.getSkippedRuns()).isEqualTo(1);
+        assertThat(failed.getCycle()).isEqualTo(1);
+        assertThat(failed.getStatus()).isEqualTo(UpiMandateStatus.ACTIVE);
+    }
+
+    @Test
+    void startupRecoveryLeavesRunsOtherInstancesAreStillExecuting() {
+        long now = System.currentTimeMillis();
+        Long live = claim(save("live@mybank", 601L, "shop@mybank", new Date(now - 5000)), new Date(now - 1000));
+        Long crashed = claim(save("crashed@mybank", 602L, "shop@mybank", new Date(now - 3_600_000)), new Date(now - 3_000_000));
+
+        ReflectionTestUtils.setField(schedulerJob, "enabled", true);
+        try {
+            schedulerJob.recoverOnStartup();
+        } finally {
+            ReflectionTestUtils.setField(schedulerJob, "enabled", false);
+        }
+
+        UpiMandate running = mandateRepository.findById(live).orElseThrow();
+        assertThat(running.getRunningSince()).isNotNull();
+        assertThat(running.getCycle()).isZero();
+        assertThat(running.getSkippedRuns()).isZero();
+        UpiMandate recovered = mandateRepository.findById(crashed).orElseThrow();
+        assertThat(recovered.getRunningSince()).isNull();
+        assertThat(recovered.getLastFailureReason()).isEqualTo("INTERRUPTED");
+        assertThat(recovered.getCycle()).isEqualTo(1);
+        assertThat(recovered.getSkippedRuns()).isEqualTo(1);
+    }
+
+    @Test
+    void runRecoveredWhileInFlightDoesNotAdvanceTheCycleAgain() {
+        Long slow = save("slow@mybank", 603L, "shop@mybank", new Date(System.currentTimeMillis() - 1000)).getId();
+        when(upiService.sendMoneyPreAuthorized(eq("slow@mybank"), anyString(), anyDouble(), any())).thenAnswer(inv -> {
+            // the run outlives the timeout and is recovered before it writes its outcome
+            assertThat(mandateService.recoverInterrupted(new Date(System.currentTimeMillis() + 1000))).isEqualTo(1);
+            return 42L;
+        });
+
+        assertThat(mandateService.runDue(slow)).isNull();
+
+        UpiMandate after = mandateRepository.findById(slow).orElseThrow();
+        assertThat(after.getRunningSince()).isNull();
+        assertThat(after.getCycle()).isEqualTo(1);
+        assertThat(after.getRuns()).isZero();
+        assertThat(after.getSkippedRuns()).isEqualTo(1);
+        assertThat(after.getLastFailureReason()).isEqualTo("INTERRUPTED");
+    }
+
+    private Long claim(UpiMandate mandate, Date runningSince) {
+        mandate.setRunningSince(runningSince);
+        return mandateRepository.save(mandate).getId();
+    }
+
+    private UpiMandate save(String payer, Long payerAccountId, String payee, Date startAt) {
+        return mandateRepository.save(UpiMandate.builder()
+                .payerVpa(payer)
+                .payeeVpa(payee)
+                .payerAccountId(payerAccountId)
+                .amount(100.0)
+                .frequency(MandateFrequency.MONTHLY)
+                .startAt(startAt)
+                .nextRunAt(startAt)
+                .build());
+    }
+
+    private void awaitRuns(int runs) throws InterruptedException {
+        awaitUntil(() -> mandateRepository.findAll().stream()
+                .filter(m -> m.getRunningSince() == null)
+                .mapToLong(m -> m.getRuns() + m.getAttempts())
+                .sum() >= runs);
+    }
+
+    private static void awaitUntil(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 30_000;
+        while (!condition.getAsBoolean() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.alien.bank.management.system.service;
+
+import com.alien.bank.management.system.entity.*;
+import com.alien.bank.management.system.model.transaction.NotesSearch;
+import com.alien.bank.management.system.repository.AccountRepository;
+import com.alien.bank.management.system.repository.LedgerBatchRepository;
+import com.alien.bank.management.system.repository.TransactionRepository;
+import com.alien.bank.management.system.repository.UserRepository;
+import com.alien.bank.management.system.service.impl.NotesSearchServiceImpl;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Date;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// History written before the notes index existed has no trigram rows; searches must still find it
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({NotesSearchServiceImpl.class, LedgerBatchRepository.class})
+public class NotesSearchIndexTest {
+
+    @MockBean private PasswordEncoder passwordEncoder;
+    @Autowired private NotesSearchService notesSearchService;
+    @Autowired private PlatformTransactionManager transactionManager;
+    @Autowired private UserRepository userRepository;
+    @Autowired private AccountRepository accountRepository;
+    @Autowired private TransactionRepository transactionRepository;
+
+    @Test
+    void searchFindsNotesOlderThanTheIndex() {
+        User user = userRepository.save(User.builder().name("Notes").email("notes@search.com").phone("notes").role(Role.USER).password("p").build());
+        Account account = accountRepository.save(Account.builder().encryptedPan("pan").last4Digits("0000").balance(0.0).user(user).build());
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+
+        // written before the index: no trigram rows
+        transactionRepository.save(transaction(account, "Rent for March"));
+        // written since, indexed with the write
+        transactionTemplate.executeWithoutResult(status -> {
+            notesSearchService.index(transactionRepository.save(transaction(account, "Rent for April")));
+            notesSearchService.index(transactionRepository.save(transaction(account, "Groceries")));
+        });
+
+        assertThat(count(account, NotesSearch.of("rent", null).indexedFrom(notesSearchService.getIndexedFrom(account.getId())))).isEqualTo(2);
+        // the index alone only knows the newer row
+        assertThat(count(account, NotesSearch.of("rent", null))).isEqualTo(1);
+
+        // once backfilled the whole history is indexed
+        transactionTemplate.executeWithoutResult(status -> notesSearchService.backfill(account.getId()));
+        assertThat(count(account, NotesSearch.of("rent", null))).isEqualTo(2);
+        assertThat(count(account, NotesSearch.of("groc", NotesSearch.MODE_PREFIX).indexedFrom(notesSearchService.getIndexedFrom(account.getId())))).isEqualTo(1);
+    }
+
+    private long count(Account account, NotesSearch search) {
+        return transactionRepository.countTransactionsWithFilters(account.getId(), null, null, null, null,
+                List.of(TransactionType.values()), search.getPattern(), search.getGrams(), search.getGramCount(), search.getIndexedFrom());
+    }
+
+    private static Transaction transaction(Account account, String notes) {
+        return Transaction.builder()
+                .type(TransactionType.WITHDRAW)
+                .amount(10.0)
+                .balanceAfter(0.0)
+                .timestamp(new Date())
+                .notes(notes)
+                .account(account)
+                .build();
+    }
+}
@@ -0,0 +1,161 @@
+package com.alien.bank.management.system.service;
+
+import com.alien.bank.management.system.entity.*;
+import com.alien.bank.management.system.exception.LowBalanceException;
+import com.alien.bank.management.system.repository.AccountRepository;
+import com.alien.bank.management.system.repository.LedgerPendingCreditRepository;
+import com.alien.bank.management.system.repository.TransactionRepository;
+import com.alien.bank.management.system.repository.UserRepository;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Skewed workload: most transfers credit one merchant account. Runs it through the row-lock
+// TransferService and through the partitioned engine on separate accounts, committing for real.
+// The full-size comparison is a benchmark (mvn -Pbenchmark test); the default suite runs a short one.
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestPropertySource(properties = {"ledger.engine=partitioned", "ledger.partitioned.partitions=4"})
+@Import({com.alien.bank.management.system.service.impl.PartitionedLedgerServiceImpl.class,
+        com.alien.bank.management.system.service.impl.TransferServiceImpl.class,
+        com.alien.bank.management.system.service.impl.LedgerServiceImpl.class,
+        com.alien.bank.management.system.service.impl.LedgerJournalServiceImpl.class,
+        com.alien.bank.management.system.service.impl.BalanceSnapshotServiceImpl.class,
+        com.alien.bank.management.system.service.impl.MonthlyRollupServiceImpl.class,
+        com.alien.bank.management.system.service.impl.NotesSearchServiceImpl.class,
+        com.alien.bank.management.system.repository.LedgerBatchRepository.class,
+        com.alien.bank.management.system.utils.OptimisticRetryExecutor.class})
+public class PartitionedLedgerBenchmarkTest {
+    private static final Logger log = LoggerFactory.getLogger(PartitionedLedgerBenchmarkTest.class);
+    private static final int PAYERS = 40;
+    private static final int COLD_PAYEES = 4;
+    private static final int TRANSFERS = 3000;
+    private static final int THREADS = 16;
+    private static final double OPENING_BALANCE = 200.0;
+
+    @MockBean private PasswordEncoder passwordEncoder;
+    @Autowired private PartitionedLedgerService partitionedLedgerService;
+    @Autowired private TransferService transferService;
+    @Autowired private UserRepository userRepository;
+    @Autowired private AccountRepository accountRepository;
+    @Autowired private TransactionRepository transactionRepository;
+    @Autowired private LedgerPendingCreditRepository pendingCreditRepository;
+
+    @Test
+    void skewedTransfersConserveMoneyOnThePartitionedEngine() throws Exception {
+        run("small", 300, (from, to, amount) -> partitionedLedgerService.transfer(from, to, amount, "out", "in"));
+        assertThat(pendingCreditRepository.count()).isZero();
+    }
+
+    @Test
+    @Tag("benchmark")
+    void hotMerchantWorkloadConservesMoneyOnBothEngines() throws Exception {
+        Run rowLock = run("rowlock", TRANSFERS, (from, to, amount) -> transferService.transfer(from, to, amount, "out", "in"));
+        Run partitioned = run("partitioned", TRANSFERS, (from, to, amount) -> partitionedLedgerService.transfer(from, to, amount, "out", "in"));
+
+        log.info("Skewed transfers: row-lock {} ops/s ({} ok, {} insufficient), partitioned {} ops/s ({} ok, {} insufficient)",
+                rowLock.throughput(), rowLock.succeeded(), rowLock.insufficient(),
+                partitioned.throughput(), partitioned.succeeded(), partitioned.insufficient());
+        log.info("Partition metrics: {}", partitionedLedgerService.getMetrics());
+        assertThat(pendingCreditRepository.count()).isZero();
+    }
+
+    private Run run(String name, int transfers, TransferCall call) throws Exception {
+        User user = userRepository.save(User.builder().name(name).email(name + "@bench.com").phone("bench-" + name).role(Role.USER).password("p").build());
+        List<Long> payers = new ArrayList<>();
+        for (int i = 0; i < PAYERS; i++) {
+            payers.add(openAccount(user, OPENING_BALANCE));
+        }
+        Long merchant = openAccount(user, 0.0);
+        List<Long> payees = new ArrayList<>();
+        for (int i = 0; i < COLD_PAYEES; i++) {
+            payees.add(openAccount(user, 0.0));
+        }
+
+        AtomicInteger succeeded = new AtomicInteger();
+        AtomicInteger insufficient = new AtomicInteger();
+        AtomicInteger toMerchant = new AtomicInteger();
+        List<Throwable> unexpected = new CopyOnWriteArrayList<>();
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> futures = new ArrayList<>();
+        long started = System.nanoTime();
+        for (int n = 0; n < transfers; n++) {
+            Long from = payers.get(n % PAYERS);
+            // nine in ten transfers go to the merchant
+            Long to = n % 10 == 0 ? payees.get(n / 10 % COLD_PAYEES) : merchant;
+            double amount = 1 + n % 5;
+            futures.add(pool.submit(() -> {
+                try {
+                    call.transfer(from, to, amount);
+                    succeeded.incrementAndGet();
+                    if (to.equals(merchant)) {
+                        toMerchant.incrementAndGet();
+                    }
+                } catch (LowBalanceException e) {
+                    insufficient.incrementAndGet();
+                } catch (Throwable e) {
+                    unexpected.add(e);
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get(2, TimeUnit.MINUTES);
+        }
+        pool.shutdown();
+        awaitPendingCredits();
+        long elapsedMs = Math.max(1, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+
+        assertThat(unexpected).isEmpty();
+        assertThat(succeeded.get() + insufficient.get()).isEqualTo(transfers);
+        List<Long> all = new ArrayList<>(payers);
+        all.add(merchant);
+        all.addAll(payees);
+        List<Account> accounts = accountRepository.findAllById(all);
+        assertThat(accounts).allSatisfy(account -> assertThat(account.getBalance()).isGreaterThanOrEqualTo(0.0));
+        assertThat(accounts.stream().mapToDouble(Account::getBalance).sum()).isEqualTo(PAYERS * OPENING_BALANCE);
+        assertThat(transactionRepository.findAll().stream()
+                .filter(t -> t.getAccount().getId().equals(merchant)).count()).isEqualTo(toMerchant.get());
+
+        return new Run(succeeded.get(), insufficient.get(), transfers * 1000L / elapsedMs);
+    }
+
+    private Long openAccount(User user, double balance) {
+        return accountRepository.save(Account.builder()
+                .encryptedPan("pan")
+                .last4Digits("0000")
+                .balance(balance)
+                .user(user)
+                .build()).getId();
+    }
+
+    private void awaitPendingCredits() throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 30_000;
+        while (pendingCreditRepository.count() > 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+    }
+
+    @FunctionalInterface
+    private interface TransferCall {
+        void transfer(Long from, Long to, double amount);
+    }
+
+    private record Run(int succeeded, int insufficient, long throughput) {
+    }
+}
@@ -0,0 +1,125 @@
+package com.alien.bank.management.system.service;
+
+import com.alien.bank.management.system.entity.*;
+import com.alien.bank.management.system.repository.AccountRepository;
+import com.alien.bank.management.system.repository.LedgerPendingCreditRepository;
+import com.alien.bank.management.system.repository.TransactionRepository;
+import com.alien.bank.management.system.repository.UserRepository;
+import com.alien.bank.management.system.service.impl.PartitionedLedgerServiceImpl;
+import com.alien.bank.management.system.utils.OptimisticRetryExecutor;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Date;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+
+// One partition; the pending-credit sweep runs every 100 ms for credits older than half a second
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestPropertySource(properties = {"ledger.engine=partitioned", "ledger.partitioned.partitions=1",
+        "ledger.partitioned.credit-sweep-interval-ms=100", "ledger.partitioned.credit-sweep-min-age-ms=500"})
+@Import({PartitionedLedgerServiceImpl.class,
+        com.alien.bank.management.system.service.impl.LedgerServiceImpl.class,
+        com.alien.bank.management.system.service.impl.BalanceSnapshotServiceImpl.class,
+        com.alien.bank.management.system.service.impl.MonthlyRollupServiceImpl.class,
+        com.alien.bank.management.system.service.impl.NotesSearchServiceImpl.class,
+        com.alien.bank.management.system.repository.LedgerBatchRepository.class,
+        OptimisticRetryExecutor.class})
+public class PartitionedLedgerRecoveryTest {
+
+    @MockBean private PasswordEncoder passwordEncoder;
+    @SpyBean private OptimisticRetryExecutor retryExecutor;
+    @Autowired private PartitionedLedgerServiceImpl partitionedLedgerService;
+    @Autowired private UserRepository userRepository;
+    @Autowired private AccountRepository accountRepository;
+    @Autowired private TransactionRepository transactionRepository;
+    @Autowired private LedgerPendingCreditRepository pendingCreditRepository;
+
+    @Test
+    void creditWhoseBatchFailedIsAppliedByTheSweep() throws Exception {
+        User user = userRepository.save(User.builder().name("Sweep").email("sweep@ledger.com").phone("sweep").role(Role.USER).password("p").build());
+        Account payer = accountRepository.save(Account.builder().encryptedPan("pan-payer").last4Digits("0000").balance(100.0).user(user).build());
+        Account payee = accountRepository.save(Account.builder().encryptedPan("pan-payee").last4Digits("0000").balance(0.0).user(user).build());
+
+        // the debit's batch commits; the credit's first batch hits a lock timeout
+        AtomicInteger batches = new AtomicInteger();
+        doAnswer(inv -> {
+            if (batches.incrementAndGet() == 2) {
+                throw new CannotAcquireLockException("Lock wait timeout exceeded");
+            }
+            return inv.callRealMethod();
+        }).when(retryExecutor).execute(eq("partitionedBatch"), eq("partition:0"), any());
+
+        partitionedLedgerService.transfer(payer.getId(), payee.getId(), 25.0, "out", "in");
+
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (accountRepository.findById(payee.getId()).orElseThrow().getBalance() == 0.0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+        }
+        assertThat(batches.get()).isGreaterThanOrEqualTo(3);
+        assertThat(accountRepository.findById(payer.getId()).orElseThrow().getBalance()).isEqualTo(75.0);
+        assertThat(accountRepository.findById(payee.getId()).orElseThrow().getBalance()).isEqualTo(25.0);
+        assertThat(pendingCreditRepository.count()).isZero();
+        assertThat(partitionedLedgerService.getMetrics().get("creditsRequeued")).isNotEqualTo(0L);
+    }
+
+    @Test
+    void creditQueuedTwiceIsAppliedOnce() throws Exception {
+        User user = userRepository.save(User.builder().name("Recovery").email("recovery@ledger.com").phone("recovery").role(Role.USER).password("p").build());
+        Account busy = accountRepository.save(Account.builder().encryptedPan("pan-busy").last4Digits("0000").balance(100.0).user(user).build());
+        Account receiver = accountRepository.save(Account.builder().encryptedPan("pan-receiver").last4Digits("0000").balance(100.0).user(user).build());
+        // left behind by a crash after the sender's debit committed
+        pendingCreditRepository.save(LedgerPendingCredit.builder().accountId(receiver.getId()).amount(25.0)
+                .notes("in").debitTransactionId(1L).createdAt(new Date()).build());
+
+        CountDownLatch applying = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicBoolean first = new AtomicBoolean(true);
+        doAnswer(inv -> {
+            if (first.compareAndSet(true, false)) {
+                applying.countDown();
+                release.await(10, TimeUnit.SECONDS);
+            }
+            return inv.callRealMethod();
+        }).when(retryExecutor).execute(eq("partitionedBatch"), eq("partition:0"), any());
+
+        ExecutorService caller = Executors.newSingleThreadExecutor();
+        try {
+            Future<?> slow = caller.submit(() -> partitionedLedgerService.debit(busy.getId(), TransactionType.WITHDRAW, 10.0, "slow"));
+            assertThat(applying.await(5, TimeUnit.SECONDS)).isTrue();
+
+            // the live credit and startup recovery both queue it while the partition is busy
+            partitionedLedgerService.recoverPendingCredits();
+            partitionedLedgerService.recoverPendingCredits();
+            release.countDown();
+            slow.get(10, TimeUnit.SECONDS);
+        } finally {
+            release.countDown();
+            caller.shutdownNow();
+        }
+
+        // queued behind both copies of the credit on the only partition
+        partitionedLedgerService.debit(receiver.getId(), TransactionType.WITHDRAW, 5.0, "after");
+
+        assertThat(accountRepository.findById(receiver.getId()).orElseThrow().getBalance()).isEqualTo(120.0);
+        assertThat(transactionRepository.findByAccountId(receiver.getId(), org.springframework.data.domain.Pageable.unpaged()))
+                .extracting(Transaction::getType).containsExactlyInAnyOrder(TransactionType.TRANSFER_IN, TransactionType.WITHDRAW);
+        assertThat(pendingCreditRepository.count()).isZero();
+    }
+}
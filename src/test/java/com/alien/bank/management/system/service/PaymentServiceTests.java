@@ -10,16 +10,36 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.context.annotation.Import;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.TestPropertySource;
 
 import static org.junit.jupiter.api.Assertions.*;
 
 @DataJpaTest
 @AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+// these assertions read the wallet right after the payment, so rewards are applied inline
+@TestPropertySource(properties = {
+        // reward_daily_summary has a column named day
+        "spring.datasource.url=jdbc:h2:mem:payments;NON_KEYWORDS=DAY;DB_CLOSE_DELAY=-1",
+        "rewards.outbox.enabled=false"})
 @Import({com.alien.bank.management.system.service.impl.PaymentServiceImpl.class,
-        com.alien.bank.management.system.service.impl.RewardsServiceImpl.class})
+        com.alien.bank.management.system.service.impl.RewardsServiceImpl.class,
+        com.alien.bank.management.system.service.impl.LedgerServiceImpl.class,
+        com.alien.bank.management.system.service.impl.LedgerJournalServiceImpl.class,
+        com.alien.bank.management.system.service.impl.BalanceSnapshotServiceImpl.class,
+        com.alien.bank.management.system.service.impl.MonthlyRollupServiceImpl.class,
+        com.alien.bank.management.system.service.impl.NotesSearchServiceImpl.class,
+        com.alien.bank.management.system.repository.LedgerBatchRepository.class,
+        com.alien.bank.management.system.utils.OptimisticRetryExecutor.class,
+        com.alien.bank.management.system.service.impl.DailySpendServiceImpl.class,
+        com.alien.bank.management.system.service.impl.PartitionedLedgerServiceImpl.class,
+        com.alien.bank.management.system.service.impl.VpaResolverImpl.class,
+        EncryptionUtil.class})
 public class PaymentServiceTests {
 
+    @MockBean private PasswordEncoder passwordEncoder;
     @Autowired private PaymentService paymentService;
     @Autowired private RewardsService rewardsService;
     @Autowired private UserRepository userRepository;
@@ -31,6 +51,7 @@ public class PaymentServiceTests {
     @Autowired private RewardDailySummaryRepository summaryRepository;
     @Autowired private TransactionRepository transactionRepository;
     @Autowired private EncryptionUtil encryptionUtil;
+    @Autowired private UpiVpaRepository upiVpaRepository;
 
     private User user;
     private Account account;
@@ -50,6 +71,9 @@ public class PaymentServiceTests {
                 .user(user)
                 .build());
                 
+        // the recipient every payment below is sent to
+        upiVpaRepository.save(UpiVpa.builder().vpa("testuser@bank").user(user).account(account).isDefault(true).build());
+
         if (categoryRepository.findByCode("FOOD").isEmpty()) {
             categoryRepository.save(PaymentCategory.builder().code("FOOD").label("Food").build());
         }
@@ -72,7 +96,7 @@ public class PaymentServiceTests {
         assertTrue(paymentRepository.findByRefId(resp.getRefId()).isPresent());
         assertEquals(3, walletRepository.findByUser(user).map(RewardWallet::getCoins).orElse(0));
         assertFalse(ledgerRepository.findByUserOrderByCreatedAtDesc(user, org.springframework.data.domain.PageRequest.of(0, 10)).isEmpty());
-        assertFalse(transactionRepository.findByAccountIdOrderByTimestampDesc(account.getId()).isEmpty());
+        assertFalse(transactionRepository.findByAccountId(account.getId(), org.springframework.data.domain.PageRequest.of(0, 1)).isEmpty());
     }
 
     @Test
@@ -0,0 +1,78 @@
+package com.alien.bank.management.system.service;
+
+import com.alien.bank.management.system.config.RewardOutboxRelayJob;
+import com.alien.bank.management.system.entity.*;
+import com.alien.bank.management.system.repository.*;
+import com.alien.bank.management.system.service.impl.RewardsServiceImpl;
+import com.alien.bank.management.system.utils.OptimisticRetryExecutor;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Queues rewards the way a payment transaction does, then lets the relay credit them
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({RewardsServiceImpl.class, RewardOutboxRelayJob.class, OptimisticRetryExecutor.class})
+@TestPropertySource(properties = {
+        // reward_daily_summary has a column named day
+        "spring.datasource.url=jdbc:h2:mem:outbox;NON_KEYWORDS=DAY;DB_CLOSE_DELAY=-1",
+        "rewards.outbox.enabled=true",
+        "rewards.outbox.batch-size=4"})
+public class RewardOutboxRelayTest {
+
+    @MockBean private PasswordEncoder passwordEncoder;
+    @Autowired private RewardsService rewardsService;
+    @Autowired private RewardOutboxRelayJob relayJob;
+    @Autowired private PlatformTransactionManager transactionManager;
+    @Autowired private UserRepository userRepository;
+    @Autowired private RewardOutboxRepository outboxRepository;
+    @Autowired private RewardWalletRepository walletRepository;
+    @Autowired private RewardLedgerRepository ledgerRepository;
+
+    @Test
+    void queuedRewardsAreCreditedOnceWithTheDailyBonus() {
+        User asha = userRepository.save(User.builder().name("Asha").email("asha@outbox.com").phone("outbox-1").role(Role.USER).password("p").build());
+        User ravi = userRepository.save(User.builder().name("Ravi").email("ravi@outbox.com").phone("outbox-2").role(Role.USER).password("p").build());
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.executeWithoutResult(status -> {
+            for (long payment = 1; payment <= 6; payment++) {
+                rewardsService.accruePaymentReward(asha, 9000 + payment, 2);
+            }
+            rewardsService.accruePaymentReward(ravi, 9100L, 3);
+        });
+
+        // nothing touches the reward rows until the relay runs
+        assertThat(walletRepository.findByUserId(asha.getId())).isEmpty();
+        assertThat(outboxRepository.count()).isEqualTo(7);
+
+        // pages of four: both users' events are applied across two pages
+        assertThat(relayJob.relay()).isEqualTo(7);
+        assertThat(outboxRepository.count()).isZero();
+        // six payments of 2 coins and the bonus for the fifth payment of the day
+        assertThat(walletRepository.findByUserId(asha.getId()).orElseThrow().getCoins()).isEqualTo(6 * 2 + 20);
+        assertThat(walletRepository.findByUserId(ravi.getId()).orElseThrow().getCoins()).isEqualTo(3);
+        assertThat(ledgerRepository.findPaymentIdsWithType(List.of(9001L, 9002L, 9003L, 9004L, 9005L, 9006L, 9100L), RewardType.EARN))
+                .containsExactlyInAnyOrder(9001L, 9002L, 9003L, 9004L, 9005L, 9006L, 9100L);
+
+        // the same payment queued again is dropped, not credited twice
+        transactionTemplate.executeWithoutResult(status -> rewardsService.accruePaymentReward(asha, 9001L, 2));
+        assertThat(relayJob.relay()).isZero();
+        assertThat(outboxRepository.count()).isZero();
+        assertThat(walletRepository.findByUserId(asha.getId()).orElseThrow().getCoins()).isEqualTo(6 * 2 + 20);
+        assertThat(relayJob.getMetrics()).containsEntry("pending", 0L).containsEntry("applied", 7L);
+    }
+}
@@ -0,0 +1,97 @@
+package com.alien.bank.management.system.service;
+
+import com.alien.bank.management.system.entity.*;
+import com.alien.bank.management.system.exception.LowBalanceException;
+import com.alien.bank.management.system.repository.AccountRepository;
+import com.alien.bank.management.system.repository.TransactionRepository;
+import com.alien.bank.management.system.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Commits for real (no test transaction) so the transfers contend on actual row locks
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({com.alien.bank.management.system.service.impl.TransferServiceImpl.class,
+        com.alien.bank.management.system.service.impl.LedgerServiceImpl.class,
+        com.alien.bank.management.system.service.impl.LedgerJournalServiceImpl.class,
+        com.alien.bank.management.system.service.impl.BalanceSnapshotServiceImpl.class,
+        com.alien.bank.management.system.service.impl.MonthlyRollupServiceImpl.class,
+        com.alien.bank.management.system.service.impl.NotesSearchServiceImpl.class,
+        com.alien.bank.management.system.repository.LedgerBatchRepository.class,
+        com.alien.bank.management.system.utils.OptimisticRetryExecutor.class})
+public class TransferServiceConcurrencyTest {
+    private static final int ACCOUNTS = 6;
+    private static final int TRANSFERS = 2000;
+    private static final int THREADS = 12;
+    private static final double OPENING_BALANCE = 500.0;
+
+    @MockBean private PasswordEncoder passwordEncoder;
+    @Autowired private TransferService transferService;
+    @Autowired private UserRepository userRepository;
+    @Autowired private AccountRepository accountRepository;
+    @Autowired private TransactionRepository transactionRepository;
+
+    @Test
+    void crossingTransfersConserveMoneyAndNeverOverdraw() throws Exception {
+        User user = userRepository.save(User.builder().name("stress").email("stress@t.com").phone("1").role(Role.USER).password("p").build());
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < ACCOUNTS; i++) {
+            ids.add(accountRepository.save(Account.builder()
+                    .encryptedPan("pan" + i)
+                    .last4Digits(String.format("%04d", i))
+                    .balance(OPENING_BALANCE)
+                    .user(user)
+                    .build()).getId());
+        }
+
+        AtomicInteger succeeded = new AtomicInteger();
+        AtomicInteger insufficient = new AtomicInteger();
+        List<Throwable> unexpected = new CopyOnWriteArrayList<>();
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int n = 0; n < TRANSFERS; n++) {
+            // consecutive transfers run the same pair in opposite directions
+            int pair = n / 2;
+            Long a = ids.get(pair % ACCOUNTS);
+            Long b = ids.get((pair / ACCOUNTS + pair + 1) % ACCOUNTS);
+            Long from = n % 2 == 0 ? a : b;
+            Long to = n % 2 == 0 ? b : a;
+            double amount = 1 + (n * 37 % 120);
+            futures.add(pool.submit(() -> {
+                try {
+                    transferService.transfer(from, to, amount, "out", "in");
+                    succeeded.incrementAndGet();
+                } catch (LowBalanceException e) {
+                    insufficient.incrementAndGet();
+                } catch (Throwable e) {
+                    unexpected.add(e);
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get(2, TimeUnit.MINUTES);
+        }
+        pool.shutdown();
+
+        assertThat(unexpected).isEmpty();
+        assertThat(succeeded.get() + insufficient.get()).isEqualTo(TRANSFERS);
+
+        List<Account> accounts = accountRepository.findAllById(ids);
+        assertThat(accounts).allSatisfy(account -> assertThat(account.getBalance()).isGreaterThanOrEqualTo(0.0));
+        assertThat(accounts.stream().mapToDouble(Account::getBalance).sum()).isEqualTo(ACCOUNTS * OPENING_BALANCE);
+        assertThat(transactionRepository.count()).isEqualTo(2L * succeeded.get());
+    }
+}
@@ -0,0 +1,108 @@
+package com.alien.bank.management.system.service;
+
+import com.alien.bank.management.system.config.UpiRequestExpiryJob;
+import com.alien.bank.management.system.entity.UpiRequest;
+import com.alien.bank.management.system.entity.UpiRequestStatus;
+import com.alien.bank.management.system.repository.LedgerBatchRepository;
+import com.alien.bank.management.system.repository.UpiRequestRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Commits for real so the concurrent claims contend on the request row
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({UpiRequestExpiryJob.class, LedgerBatchRepository.class})
+@TestPropertySource(properties = "upi.collect.sweep-chunk=3")
+public class UpiRequestLifecycleTest {
+
+    @MockBean private PasswordEncoder passwordEncoder;
+    @Autowired private UpiRequestRepository upiRequestRepository;
+    @Autowired private UpiRequestExpiryJob expiryJob;
+    @Autowired private LedgerBatchRepository ledgerBatchRepository;
+
+    @Test
+    void sweeperExpiresStaleRequestsInChunksAndInboxHidesThem() {
+        long now = System.currentTimeMillis();
+        for (int i = 0; i < 7; i++) {
+            upiRequestRepository.save(request("sweep@mybank", new Date(now - 60_000 - i), new Date(now - 1000)));
+        }
+        List<Long> live = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            live.add(upiRequestRepository.save(request("sweep@mybank", new Date(now - i * 1000L), new Date(now + 3_600_000))).getId());
+        }
+
+        assertThat(expiryJob.sweep()).isEqualTo(7);
+        assertThat(expiryJob.sweep()).isZero();
+
+        List<UpiRequest> first = upiRequestRepository.findPendingPage("sweep@mybank", new Date(), null, null, PageRequest.of(0, 3));
+        UpiRequest last = first.get(first.size() - 1);
+        List<UpiRequest> second = upiRequestRepository.findPendingPage("sweep@mybank", new Date(), last.getCreatedAt(), last.getId(), PageRequest.of(0, 3));
+        assertThat(first).extracting(UpiRequest::getId).containsExactlyElementsOf(live.subList(0, 3));
+        assertThat(second).extracting(UpiRequest::getId).containsExactlyElementsOf(live.subList(3, 5));
+    }
+
+    @Test
+    void onlyOneConcurrentClaimWins() throws Exception {
+        Long id = upiRequestRepository.save(request("claim@mybank", new Date(), new Date(System.currentTimeMillis() + 3_600_000))).getId();
+
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        List<Future<Integer>> claims = new ArrayList<>();
+        CountDownLatch start = new CountDownLatch(1);
+        for (int i = 0; i < 8; i++) {
+            claims.add(pool.submit(() -> {
+                start.await();
+                return upiRequestRepository.claimPending(id, UpiRequestStatus.APPROVED, new Date());
+            }));
+        }
+        start.countDown();
+        int won = 0;
+        for (Future<Integer> claim : claims) {
+            won += claim.get(30, TimeUnit.SECONDS);
+        }
+        pool.shutdown();
+
+        assertThat(won).isEqualTo(1);
+        assertThat(upiRequestRepository.findById(id)).get().extracting(UpiRequest::getStatus).isEqualTo(UpiRequestStatus.APPROVED);
+    }
+
+    @Test
+    void splitBillBatchInsertReturnsIdsAndIsTrackedByGroup() {
+        List<UpiRequest> batch = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            UpiRequest r = request("split" + i + "@mybank", new Date(), new Date(System.currentTimeMillis() + 3_600_000));
+            r.setGroupId("group-1");
+            batch.add(r);
+        }
+        ledgerBatchRepository.insertUpiRequests(batch);
+
+        assertThat(batch).allSatisfy(r -> assertThat(r.getId()).isNotNull());
+        assertThat(upiRequestRepository.findByGroupIdOrderByIdAsc("group-1"))
+                .extracting(UpiRequest::getPayerVpa)
+                .containsExactly("split0@mybank", "split1@mybank", "split2@mybank", "split3@mybank");
+    }
+
+    private static UpiRequest request(String payer, Date createdAt, Date expiresAt) {
+        return UpiRequest.builder()
+                .payerVpa(payer)
+                .payeeVpa("payee@mybank")
+                .amount(10.0)
+                .createdAt(createdAt)
+                .expiresAt(expiresAt)
+                .build();
+    }
+}
@@ -0,0 +1,108 @@
+package com.alien.bank.management.system.service;
+
+import com.alien.bank.management.system.entity.*;
+import com.alien.bank.management.system.repository.AccountRepository;
+import com.alien.bank.management.system.repository.UpiVpaRepository;
+import com.alien.bank.management.system.repository.UserRepository;
+import com.alien.bank.management.system.utils.OptimisticRetryExecutor;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Users whose emails all share one local part get a generated VPA concurrently, committing for
+// real so the allocations contend on the counter row and the unique key. The 10k-user run is a
+// benchmark (mvn -Pbenchmark test); the default suite runs the same check with 200 users.
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({com.alien.bank.management.system.service.impl.VpaHandleAllocatorImpl.class,
+        OptimisticRetryExecutor.class})
+public class VpaHandleAllocatorBenchmarkTest {
+    private static final Logger log = LoggerFactory.getLogger(VpaHandleAllocatorBenchmarkTest.class);
+    private static final int USERS = 10_000;
+    private static final int THREADS = 8;
+
+    @MockBean private PasswordEncoder passwordEncoder;
+    @Autowired private VpaHandleAllocator allocator;
+    @Autowired private OptimisticRetryExecutor retryExecutor;
+    @Autowired private UserRepository userRepository;
+    @Autowired private AccountRepository accountRepository;
+    @Autowired private UpiVpaRepository upiVpaRepository;
+
+    @Test
+    void usersSharingOneHandleGetDistinctVpas() throws Exception {
+        allocateConcurrently("priya", 200);
+    }
+
+    @Test
+    @Tag("benchmark")
+    void tenThousandUsersSharingOneHandleGetDistinctVpas() throws Exception {
+        allocateConcurrently("rahul", USERS);
+    }
+
+    private void allocateConcurrently(String handle, int userCount) throws Exception {
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < userCount; i++) {
+            users.add(User.builder().name(handle + " " + i).email(handle + "@d" + i + ".com").phone(handle + i).role(Role.USER).password("p").build());
+        }
+        users = userRepository.saveAll(users);
+        List<Account> accounts = new ArrayList<>();
+        for (User user : users) {
+            accounts.add(Account.builder().encryptedPan("pan").last4Digits("0000").balance(0.0).user(user).build());
+        }
+        accounts = accountRepository.saveAll(accounts);
+
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        List<Future<String>> futures = new ArrayList<>();
+        long started = System.nanoTime();
+        for (Account account : accounts) {
+            futures.add(pool.submit(() -> retryExecutor.execute("vpaCreate", "handle:" + handle, () ->
+                    upiVpaRepository.save(UpiVpa.builder()
+                            .vpa(allocator.allocate(handle))
+                            .user(account.getUser())
+                            .account(account)
+                            .build()).getVpa())));
+        }
+        Set<String> vpas = new HashSet<>();
+        for (Future<String> future : futures) {
+            vpas.add(future.get(2, TimeUnit.MINUTES));
+        }
+        long elapsedMs = (System.nanoTime() - started) / 1_000_000;
+        pool.shutdown();
+        log.info("Allocated {} VPAs for one handle in {} ms ({} per second)",
+                userCount, elapsedMs, userCount * 1000L / Math.max(1, elapsedMs));
+
+        Set<String> expected = new HashSet<>();
+        expected.add(handle + "@mybank");
+        for (int i = 1; i < userCount; i++) {
+            expected.add(handle + i + "@mybank");
+        }
+        assertThat(vpas).isEqualTo(expected);
+        assertThat(upiVpaRepository.findVpasForHandle(handle, "@mybank")).hasSize(userCount);
+    }
+
+    @Test
+    void firstAllocationStartsAfterSuffixesAlreadyTaken() {
+        User user = userRepository.save(User.builder().name("Asha").email("asha@t.com").phone("asha").role(Role.USER).password("p").build());
+        Account account = accountRepository.save(Account.builder().encryptedPan("pan").last4Digits("0000").balance(0.0).user(user).build());
+        for (String vpa : List.of("asha@mybank", "asha7@mybank", "asha_x@mybank", "ashaq2@mybank")) {
+            upiVpaRepository.save(UpiVpa.builder().vpa(vpa).user(user).account(account).build());
+        }
+
+        assertThat(allocator.allocate("asha")).isEqualTo("asha8@mybank");
+        assertThat(allocator.allocate("asha")).isEqualTo("asha9@mybank");
+        assertThat(allocator.allocate("asha_")).isEqualTo("asha_@mybank");
+    }
+}
@@ -0,0 +1,118 @@
+package com.alien.bank.management.system.service.impl;
+
+import com.alien.bank.management.system.entity.Account;
+import com.alien.bank.management.system.entity.AccountDailyBalance;
+import com.alien.bank.management.system.model.transaction.TransactionStatementResponse;
+import com.alien.bank.management.system.repository.AccountDailyBalanceRepository;
+import com.alien.bank.management.system.repository.AccountMonthlyRollupRepository;
+import com.alien.bank.management.system.repository.TransactionRepository;
+import com.alien.bank.management.system.service.MonthlyRollupService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class BalanceSnapshotServiceImplTest {
+
+    @Mock
+    private AccountDailyBalanceRepository snapshotRepository;
+
+    @Mock
+    private AccountMonthlyRollupRepository rollupRepository;
+
+    @Mock
+    private TransactionRepository transactionRepository;
+
+    @Mock
+    private MonthlyRollupService monthlyRollupService;
+
+    @InjectMocks
+    private BalanceSnapshotServiceImpl balanceSnapshotService;
+
+    @Test
+    void openingBalanceComesFromTransactionsWhenNoSnapshotReachesBackThatFar() {
+        Date from = date(2024, 3, 10, 0);
+        when(snapshotRepository.findFirstByAccountIdAndDayLessThanOrderByDayDesc(7L, from)).thenReturn(Optional.empty());
+        when(transactionRepository.findLastBalanceBefore(7L, from)).thenReturn(420.0);
+
+        assertThat(balanceSnapshotService.getOpeningBalance(7L, from)).isEqualTo(420.0);
+    }
+
+    @Test
+    void openingBalanceUsesTheSnapshotWhenThereIsOne() {
+        Date from = date(2024, 3, 10, 0);
+        when(snapshotRepository.findFirstByAccountIdAndDayLessThanOrderByDayDesc(7L, from))
+                .thenReturn(Optional.of(AccountDailyBalance.builder().day(date(2024, 3, 8, 0)).closingBalance(90.0).build()));
+
+        assertThat(balanceSnapshotService.getOpeningBalance(7L, from)).isEqualTo(90.0);
+    }
+
+    @Test
+    void daysBeforeTheSnapshotsStartAreSummedFromTransactions() {
+        // history since January, snapshots only since they were deployed on March 5th (a partial day)
+        Date from = date(2024, 3, 1, 0);
+        Date to = date(2024, 3, 20, 12);
+        when(transactionRepository.findFirstTimestamp(7L)).thenReturn(date(2024, 1, 2, 9));
+        when(snapshotRepository.findFirstByAccountIdOrderByDayAsc(7L))
+                .thenReturn(Optional.of(AccountDailyBalance.builder().day(date(2024, 3, 5, 0)).txCount(1L).build()));
+        when(transactionRepository.getTransactionSummary(eq(7L), eq(from), any())).thenReturn(summary(4, 400.0));
+        when(snapshotRepository.sumDays(7L, date(2024, 3, 6, 0), date(2024, 3, 20, 0))).thenReturn(summary(10, 1000.0));
+        when(transactionRepository.getTransactionSummary(7L, date(2024, 3, 20, 0), to)).thenReturn(summary(1, 5.0));
+        lenient().when(transactionRepository.findLastBalanceBefore(eq(7L), any())).thenReturn(50.0);
+
+        TransactionStatementResponse.TransactionSummary result = balanceSnapshotService.getStatementSummary(
+                Account.builder().id(7L).balance(0.0).build(), from, to);
+
+        assertThat(result.getTotalTransactions()).isEqualTo(15);
+        assertThat(result.getTotalDeposits()).isEqualTo(1405.0);
+        assertThat(result.getOpeningBalance()).isEqualTo(50.0);
+        // the raw part stops right before the first whole snapshot day
+        verify(transactionRepository).getTransactionSummary(7L, from, new Date(date(2024, 3, 6, 0).getTime() - 1));
+    }
+
+    @Test
+    void backfilledAccountsReadEveryWholeDayFromSnapshots() {
+        Date from = date(2024, 3, 1, 0);
+        Date to = date(2024, 3, 20, 12);
+        when(transactionRepository.findFirstTimestamp(7L)).thenReturn(date(2024, 1, 2, 9));
+        when(snapshotRepository.findFirstByAccountIdOrderByDayAsc(7L))
+                .thenReturn(Optional.of(AccountDailyBalance.builder().day(date(2024, 1, 2, 0)).txCount(2L).build()));
+        when(transactionRepository.getTransactionSummary(eq(7L), eq(date(2024, 1, 2, 0)), any())).thenReturn(summary(2, 10.0));
+        when(snapshotRepository.sumDays(7L, from, date(2024, 3, 20, 0))).thenReturn(summary(10, 1000.0));
+        when(transactionRepository.getTransactionSummary(7L, date(2024, 3, 20, 0), to)).thenReturn(summary(1, 5.0));
+
+        TransactionStatementResponse.TransactionSummary result = balanceSnapshotService.getStatementSummary(
+                Account.builder().id(7L).balance(0.0).build(), from, to);
+
+        assertThat(result.getTotalTransactions()).isEqualTo(11);
+        assertThat(result.getTotalDeposits()).isEqualTo(1005.0);
+    }
+
+    private static Date date(int year, int month, int day, int hour) {
+        return Date.from(LocalDateTime.of(year, month, day, hour, 0).atZone(ZoneId.systemDefault()).toInstant());
+    }
+
+    private static TransactionRepository.TransactionSummaryProjection summary(long count, double deposits) {
+        return new TransactionRepository.TransactionSummaryProjection() {
+            public Long getTotalTransactions() { return count; }
+            public Double getTotalDeposits() { return deposits; }
+            public Double getTotalWithdrawals() { return 0.0; }
+            public Double getTotalFees() { return 0.0; }
+            public Double getTotalInterest() { return 0.0; }
+        };
+    }
+}
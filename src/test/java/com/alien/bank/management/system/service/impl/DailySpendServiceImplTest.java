@@ -0,0 +1,68 @@
+package com.alien.bank.management.system.service.impl;
+
+import com.alien.bank.management.system.entity.AccountDailySpend;
+import com.alien.bank.management.system.repository.AccountDailySpendRepository;
+import com.alien.bank.management.system.repository.TransactionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class DailySpendServiceImplTest {
+
+    @Mock
+    private AccountDailySpendRepository spendRepository;
+
+    @Mock
+    private TransactionRepository transactionRepository;
+
+    @InjectMocks
+    private DailySpendServiceImpl dailySpendService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(dailySpendService, "dailyLimit", 1000.0);
+    }
+
+    @Test
+    void firstSpendOfTheDayIsSeededFromTransactionsAndThenServedFromCache() {
+        when(spendRepository.addWithinLimit(eq(7L), any(), eq(100.0), eq(1000.0))).thenReturn(0);
+        when(spendRepository.findByAccountIdAndDay(eq(7L), any())).thenReturn(Optional.empty());
+        when(transactionRepository.sumOutgoingForRange(eq(7L), any(), any())).thenReturn(250.0);
+
+        assertThat(dailySpendService.getSpentToday(7L)).isEqualTo(250.0);
+        dailySpendService.recordSpend(7L, 100.0);
+
+        ArgumentCaptor<AccountDailySpend> saved = ArgumentCaptor.forClass(AccountDailySpend.class);
+        verify(spendRepository).save(saved.capture());
+        assertThat(saved.getValue().getAmount()).isEqualTo(350.0);
+        assertThat(dailySpendService.getSpentToday(7L)).isEqualTo(350.0);
+        verify(spendRepository, times(2)).findByAccountIdAndDay(eq(7L), any());
+    }
+
+    @Test
+    void rejectsSpendWhenTheCounterWouldPassTheLimit() {
+        when(spendRepository.addWithinLimit(eq(7L), any(), anyDouble(), eq(1000.0))).thenReturn(0);
+        when(spendRepository.findByAccountIdAndDay(eq(7L), any()))
+                .thenReturn(Optional.of(AccountDailySpend.builder().accountId(7L).amount(950.0).build()));
+
+        assertThrows(AccessDeniedException.class, () -> dailySpendService.recordSpend(7L, 100.0));
+        assertThrows(AccessDeniedException.class, () -> dailySpendService.checkLimit(7L, 100.0));
+        verify(spendRepository, never()).save(any());
+    }
+}
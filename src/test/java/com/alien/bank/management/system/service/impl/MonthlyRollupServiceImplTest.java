@@ -0,0 +1,123 @@
+package com.alien.bank.management.system.service.impl;
+
+import com.alien.bank.management.system.entity.AccountMonthlyRollup;
+import com.alien.bank.management.system.entity.TransactionType;
+import com.alien.bank.management.system.model.transaction.MonthlyTypeTotal;
+import com.alien.bank.management.system.repository.AccountMonthlyRollupRepository;
+import com.alien.bank.management.system.repository.TransactionRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.groups.Tuple.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class MonthlyRollupServiceImplTest {
+
+    @Mock
+    private AccountMonthlyRollupRepository rollupRepository;
+
+    @Mock
+    private TransactionRepository transactionRepository;
+
+    @InjectMocks
+    private MonthlyRollupServiceImpl monthlyRollupService;
+
+    @Test
+    void getMonthlyTotalsReadsWholeMonthsFromRollupsAndEdgesFromTransactions() {
+        Date from = date(2024, 1, 15);
+        Date to = date(2024, 4, 10);
+        when(transactionRepository.sumByTypeBetween(eq(7L), eq(from), any()))
+                .thenReturn(List.of(typeTotal(TransactionType.DEPOSIT, 100.0, 1L)));
+        when(transactionRepository.sumByTypeBetween(7L, date(2024, 4, 1), to))
+                .thenReturn(List.of(typeTotal(TransactionType.WITHDRAW, 30.0, 2L)));
+        when(rollupRepository.findMonths(7L, date(2024, 2, 1), date(2024, 4, 1))).thenReturn(List.of(
+                AccountMonthlyRollup.builder().month(date(2024, 2, 1)).type(TransactionType.DEPOSIT).totalAmount(500.0).txCount(5L).build(),
+                AccountMonthlyRollup.builder().month(date(2024, 3, 1)).type(TransactionType.FEE).totalAmount(2.0).txCount(1L).build()
+        ));
+
+        List<MonthlyTypeTotal> totals = monthlyRollupService.getMonthlyTotals(7L, from, to);
+
+        assertThat(totals).extracting(MonthlyTypeTotal::getMonth, MonthlyTypeTotal::getType, MonthlyTypeTotal::getTotalAmount)
+                .containsExactly(
+                        tuple("2024-01", TransactionType.DEPOSIT, 100.0),
+                        tuple("2024-02", TransactionType.DEPOSIT, 500.0),
+                        tuple("2024-03", TransactionType.FEE, 2.0),
+                        tuple("2024-04", TransactionType.WITHDRAW, 30.0)
+                );
+    }
+
+    @Test
+    void monthsOlderThanTheRollupsAreReadFromTransactions() {
+        // history since January, rollups only since they were deployed in the middle of February
+        Date from = date(2024, 1, 1);
+        Date to = date(2024, 4, 10);
+        when(transactionRepository.findFirstTimestamp(7L)).thenReturn(date(2024, 1, 3));
+        when(rollupRepository.findFirstByAccountIdOrderByMonthAsc(7L))
+                .thenReturn(Optional.of(AccountMonthlyRollup.builder().month(date(2024, 2, 1)).build()));
+        when(transactionRepository.sumByTypeBetween(eq(7L), eq(date(2024, 1, 1)), any()))
+                .thenReturn(List.of(typeTotal(TransactionType.DEPOSIT, 100.0, 1L)));
+        when(transactionRepository.sumByTypeBetween(eq(7L), eq(date(2024, 2, 1)), any()))
+                .thenReturn(List.of(typeTotal(TransactionType.DEPOSIT, 250.0, 3L)));
+        when(rollupRepository.findMonths(7L, date(2024, 3, 1), date(2024, 4, 1))).thenReturn(List.of(
+                AccountMonthlyRollup.builder().month(date(2024, 3, 1)).type(TransactionType.FEE).totalAmount(2.0).txCount(1L).build()
+        ));
+        when(transactionRepository.sumByTypeBetween(7L, date(2024, 4, 1), to)).thenReturn(List.of());
+
+        List<MonthlyTypeTotal> totals = monthlyRollupService.getMonthlyTotals(7L, from, to);
+
+        assertThat(totals).extracting(MonthlyTypeTotal::getMonth, MonthlyTypeTotal::getType, MonthlyTypeTotal::getTotalAmount)
+                .containsExactly(
+                        tuple("2024-01", TransactionType.DEPOSIT, 100.0),
+                        tuple("2024-02", TransactionType.DEPOSIT, 250.0),
+                        tuple("2024-03", TransactionType.FEE, 2.0)
+                );
+    }
+
+    @Test
+    void lifetimeTotalsAddHistoryOlderThanTheRollups() {
+        when(transactionRepository.findFirstTimestamp(7L)).thenReturn(date(2023, 6, 3));
+        when(rollupRepository.findFirstByAccountIdOrderByMonthAsc(7L))
+                .thenReturn(Optional.of(AccountMonthlyRollup.builder().month(date(2024, 2, 1)).build()));
+        when(transactionRepository.getLifetimeTotalsBefore(7L, date(2024, 3, 1))).thenReturn(lifetime(40L, 900.0, date(2023, 6, 3)));
+        when(rollupRepository.getLifetimeTotalsFrom(7L, date(2024, 3, 1))).thenReturn(lifetime(10L, 120.0, date(2024, 3, 2)));
+
+        AccountMonthlyRollupRepository.LifetimeTotalsProjection totals = monthlyRollupService.getLifetimeTotals(List.of(7L));
+
+        assertThat(totals.getTxCount()).isEqualTo(50L);
+        assertThat(totals.getMaxAmount()).isEqualTo(900.0);
+        assertThat(totals.getFirstTxnAt()).isEqualTo(date(2023, 6, 3));
+    }
+
+    private static AccountMonthlyRollupRepository.LifetimeTotalsProjection lifetime(Long count, Double max, Date first) {
+        return new AccountMonthlyRollupRepository.LifetimeTotalsProjection() {
+            public Long getTxCount() { return count; }
+            public Double getMaxAmount() { return max; }
+            public Date getFirstTxnAt() { return first; }
+        };
+    }
+
+    private static Date date(int year, int month, int day) {
+        return Date.from(LocalDateTime.of(year, month, day, 0, 0).atZone(ZoneId.systemDefault()).toInstant());
+    }
+
+    private static TransactionRepository.TypeTotalProjection typeTotal(TransactionType type, Double amount, Long count) {
+        return new TransactionRepository.TypeTotalProjection() {
+            public TransactionType getType() { return type; }
+            public Double getTotalAmount() { return amount; }
+            public Long getTxCount() { return count; }
+        };
+    }
+}
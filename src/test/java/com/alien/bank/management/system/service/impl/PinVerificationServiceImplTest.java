@@ -0,0 +1,71 @@
+package com.alien.bank.management.system.service.impl;
+
+import com.alien.bank.management.system.exception.ServiceBusyException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.Map;
+import java.util.concurrent.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class PinVerificationServiceImplTest {
+
+    private final PasswordEncoder passwordEncoder = mock(PasswordEncoder.class);
+    private final ExecutorService callers = Executors.newCachedThreadPool();
+    private PinVerificationServiceImpl service;
+
+    @AfterEach
+    void tearDown() {
+        callers.shutdownNow();
+        service.shutdown();
+    }
+
+    @Test
+    void verifiesOnThePoolAndRecordsLatency() {
+        service = new PinVerificationServiceImpl(passwordEncoder, 2, 4, 1000);
+        when(passwordEncoder.matches("1234", "hash")).thenReturn(true);
+
+        assertThat(service.matches("1234", "hash")).isTrue();
+        assertThat(service.matches("9999", "hash")).isFalse();
+        assertThat(service.matches("1234", null)).isFalse();
+
+        Map<String, Object> metrics = service.getMetrics();
+        assertThat(metrics).containsEntry("mismatches", 1L).containsEntry("rejected", 0L);
+        assertThat((Map<String, Object>) metrics.get("verification")).containsEntry("count", 2L);
+    }
+
+    @Test
+    void rejectsImmediatelyWhenPoolAndQueueAreFull() throws Exception {
+        service = new PinVerificationServiceImpl(passwordEncoder, 1, 1, 5000);
+        CountDownLatch release = new CountDownLatch(1);
+        when(passwordEncoder.matches(anyString(), anyString())).thenAnswer(inv -> release.await(5, TimeUnit.SECONDS));
+
+        Future<Boolean> running = callers.submit(() -> service.matches("1", "hash"));
+        waitUntil(() -> service.getMetrics().get("active").equals(1));
+        Future<Boolean> queued = callers.submit(() -> service.matches("2", "hash"));
+        waitUntil(() -> service.getMetrics().get("queueDepth").equals(1));
+
+        long started = System.nanoTime();
+        assertThatThrownBy(() -> service.matches("3", "hash")).isInstanceOf(ServiceBusyException.class);
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started)).isLessThan(500);
+
+        release.countDown();
+        assertThat(running.get(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(queued.get(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(service.getMetrics()).containsEntry("rejected", 1L);
+    }
+
+    private static void waitUntil(Callable<Boolean> condition) throws Exception {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!condition.call()) {
+            assertThat(System.currentTimeMillis()).isLessThan(deadline);
+            Thread.sleep(5);
+        }
+    }
+}
@@ -1,13 +1,249 @@
-
 package com.alien.bank.management.system.service.impl;
 
+import com.alien.bank.management.system.entity.Account;
+import com.alien.bank.management.system.entity.Role;
+import com.alien.bank.management.system.entity.Transaction;
+import com.alien.bank.management.system.entity.TransactionType;
+import com.alien.bank.management.system.entity.User;
+import com.alien.bank.management.system.exception.LowBalanceException;
+import com.alien.bank.management.system.mapper.TransactionMapper;
+import com.alien.bank.management.system.model.transaction.BatchPostingRequest;
+import com.alien.bank.management.system.model.transaction.BatchPostingResponse;
+import com.alien.bank.management.system.model.transaction.JournalReceipt;
+import com.alien.bank.management.system.model.transaction.TransactionCursor;
+import com.alien.bank.management.system.model.transaction.TransactionHistoryItem;
+import com.alien.bank.management.system.model.transaction.TransactionHistoryPage;
+import com.alien.bank.management.system.model.transaction.TransactionStatementRequest;
+import com.alien.bank.management.system.model.transaction.TransactionStatementResponse;
+import com.alien.bank.management.system.repository.AccountRepository;
+import com.alien.bank.management.system.repository.LedgerBatchRepository;
+import com.alien.bank.management.system.repository.TransactionRepository;
+import com.alien.bank.management.system.repository.UserRepository;
+import com.alien.bank.management.system.service.BalanceSnapshotService;
+import com.alien.bank.management.system.service.LedgerJournalService;
+import com.alien.bank.management.system.service.LedgerService;
+import com.alien.bank.management.system.service.NotesSearchService;
+import com.alien.bank.management.system.service.TransactionService;
+import com.alien.bank.management.system.utils.OptimisticRetryExecutor;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
 
+@ExtendWith(MockitoExtension.class)
 public class TransactionServiceImplTest {
+
+    @Mock
+    private AccountRepository accountRepository;
+
+    @Mock
+    private TransactionRepository transactionRepository;
+
+    @Mock
+    private TransactionMapper transactionMapper;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private LedgerService ledgerService;
+
+    @Mock
+    private BalanceSnapshotService balanceSnapshotService;
+
+    @Mock
+    private LedgerBatchRepository ledgerBatchRepository;
+
+    @Mock
+    private OptimisticRetryExecutor retryExecutor;
+
+    @Mock
+    private LedgerJournalService ledgerJournalService;
+
+    @Mock
+    private NotesSearchService notesSearchService;
+
+    @InjectMocks
+    private TransactionServiceImpl transactionService;
+
+    private User user;
+    private Account account;
+
+    @BeforeEach
+    public void setUp() {
+        user = User.builder().id(1L).email("owner@mybank.com").role(Role.USER).build();
+        account = Account.builder().id(7L).last4Digits("3456").balance(500.0).user(user).build();
+
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(user.getEmail(), "secret"));
+        lenient().when(accountRepository.findById(account.getId())).thenReturn(Optional.of(account));
+        lenient().when(retryExecutor.execute(any(), any(), any())).thenAnswer(inv -> ((Supplier<?>) inv.getArgument(2)).get());
+        lenient().when(userRepository.findByEmail(user.getEmail())).thenReturn(Optional.of(user));
+    }
+
     @Test
     void placeholderTest() {
         // Environment-specific tests require DB; this is a placeholder to be extended in CI with Testcontainers
         assertTrue(true);
     }
+
+    @Test
+    void streamStatementAsCsvWritesEveryStreamedRowAndEscapesNotes() {
+        when(transactionRepository.streamTransactionsWithFilters(eq(account.getId()), any(), any(), any(), any(), any(), any(), any(), anyLong(), anyLong()))
+                .thenReturn(Stream.of(
+                        row(1L, TransactionType.DEPOSIT, 100.0, 100.0, "Salary"),
+                        row(2L, TransactionType.TRANSFER_OUT, 40.0, 60.0, "Dinner, drinks")
+                ));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        TransactionStatementRequest request = TransactionStatementRequest.builder().accountId(account.getId()).build();
+        transactionService.streamStatementAsCsv(transactionService.getStatementAccount(request), request, out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertThat(lines).hasSize(3);
+        assertThat(lines[0]).startsWith("Transaction ID,Type");
+        assertThat(lines[1]).startsWith("1,DEPOSIT,100.00").endsWith("Salary,Income");
+        assertThat(lines[2]).endsWith("\"Dinner, drinks\",Transfer");
+    }
+
+    @Test
+    void statementAccountOfAnotherUserIsRejectedBeforeAnythingIsStreamed() {
+        Account foreign = Account.builder().id(8L).last4Digits("9999").balance(1.0)
+                .user(User.builder().id(2L).build()).build();
+        when(accountRepository.findById(foreign.getId())).thenReturn(Optional.of(foreign));
+
+        assertThrows(IllegalArgumentException.class, () -> transactionService.getStatementAccount(
+                TransactionStatementRequest.builder().accountId(foreign.getId()).build()));
+        verifyNoInteractions(transactionRepository);
+    }
+
+    @Test
+    void cursorModeSeeksWithoutCountingAndReturnsContinuationToken() {
+        Transaction newest = Transaction.builder().id(3L).type(TransactionType.DEPOSIT).amount(5.0).balanceAfter(15.0).timestamp(new Date(3000)).build();
+        Transaction middle = Transaction.builder().id(2L).type(TransactionType.DEPOSIT).amount(5.0).balanceAfter(10.0).timestamp(new Date(2000)).build();
+        Transaction oldest = Transaction.builder().id(1L).type(TransactionType.DEPOSIT).amount(5.0).balanceAfter(5.0).timestamp(new Date(1000)).build();
+        when(transactionRepository.findPageBefore(eq(account.getId()), any(), any(), any(), any(), any(), any(), any(), anyLong(), anyLong(), isNull(), isNull(), any()))
+                .thenReturn(List.of(newest, middle, oldest));
+        when(balanceSnapshotService.getStatementSummary(eq(account), any(), any()))
+                .thenReturn(TransactionStatementResponse.TransactionSummary.builder().build());
+
+        TransactionStatementResponse response = transactionService.getTransactionStatement(TransactionStatementRequest.builder()
+                .accountId(account.getId())
+                .paginationMode("CURSOR")
+                .pageSize(2)
+                .build());
+
+        assertThat(response.getTransactions()).extracting(TransactionStatementResponse.EnhancedTransactionItem::getTransactionId)
+                .containsExactly(3L, 2L);
+        assertThat(response.getPagination().getHasNext()).isTrue();
+        assertThat(response.getPagination().getHasPrevious()).isFalse();
+        assertThat(response.getPagination().getTotalElements()).isNull();
+        TransactionCursor next = TransactionCursor.decode(response.getPagination().getNextCursor());
+        assertThat(next.getId()).isEqualTo(2L);
+        assertThat(next.isForward()).isTrue();
+        verify(transactionRepository, never()).countTransactionsWithFilters(any(), any(), any(), any(), any(), any(), any(), any(), anyLong(), anyLong());
+    }
+
+    @Test
+    void historyPageIsCappedAndContinuesFromLastRow() {
+        when(transactionRepository.findHistoryPage(eq(account.getId()), isNull(), isNull(), any()))
+                .thenReturn(List.of(
+                        row(9L, TransactionType.DEPOSIT, 5.0, 20.0, null),
+                        row(8L, TransactionType.DEPOSIT, 5.0, 15.0, null),
+                        row(7L, TransactionType.DEPOSIT, 5.0, 10.0, null)));
+
+        TransactionHistoryPage page = transactionService.getHistory(account.getId(), null, 2);
+
+        assertThat(page.getItems()).extracting(TransactionHistoryItem::getTransactionId).containsExactly(9L, 8L);
+        assertThat(page.getHasMore()).isTrue();
+        assertThat(TransactionCursor.decode(page.getNextCursor()).getId()).isEqualTo(8L);
+
+        transactionService.getHistory(account.getId(), null, 10_000);
+        verify(transactionRepository).findHistoryPage(eq(account.getId()), isNull(), isNull(),
+                eq(PageRequest.of(0, TransactionService.HISTORY_MAX_LIMIT + 1)));
+    }
+
+    @Test
+    void postBatchLocksOnceAndReportsPerItemResults() {
+        when(ledgerBatchRepository.lockBalances(any())).thenReturn(new java.util.HashMap<>(java.util.Map.of(1L, 100.0, 2L, 10.0)));
+        when(ledgerService.recordAll(any())).thenAnswer(inv -> {
+            List<Transaction> rows = inv.getArgument(0);
+            for (int i = 0; i < rows.size(); i++) {
+                rows.get(i).setId(100L + i);
+            }
+            return rows;
+        });
+
+        BatchPostingResponse response = transactionService.postBatch(BatchPostingRequest.builder().postings(List.of(
+                BatchPostingRequest.Posting.builder().accountId(2L).type("DEPOSIT").amount(50.0).build(),
+                BatchPostingRequest.Posting.builder().accountId(1L).type("WITHDRAW").amount(500.0).build(),
+                BatchPostingRequest.Posting.builder().accountId(9L).type("DEPOSIT").amount(5.0).build(),
+                BatchPostingRequest.Posting.builder().accountId(2L).type("WITHDRAW").amount(60.0).build()
+        )).build());
+
+        assertThat(response.getSucceeded()).isEqualTo(2);
+        assertThat(response.getResults()).extracting(BatchPostingResponse.PostingResult::getStatus)
+                .containsExactly("SUCCESS", "FAILED", "FAILED", "SUCCESS");
+        assertThat(response.getResults().get(1).getError()).isEqualTo("Insufficient balance");
+        assertThat(response.getResults().get(2).getError()).isEqualTo("Account not found");
+        assertThat(response.getResults().get(3).getBalanceAfter()).isEqualTo(0.0);
+        assertThat(response.getResults().get(3).getTransactionId()).isEqualTo(101L);
+        verify(ledgerBatchRepository, times(1)).lockBalances(any());
+        verify(ledgerBatchRepository).updateBalances(java.util.Map.of(2L, 0.0));
+    }
+
+    @Test
+    void postBatchGoesThroughTheJournalWhenItIsEnabled() {
+        when(ledgerJournalService.isEnabled()).thenReturn(true);
+        when(ledgerJournalService.post(2L, TransactionType.DEPOSIT, 50.0, null))
+                .thenReturn(JournalReceipt.builder().transactionId(100L).balanceAfter(60.0).build());
+        when(ledgerJournalService.post(1L, TransactionType.WITHDRAW, 500.0, null))
+                .thenThrow(new LowBalanceException("Insufficient balance"));
+
+        BatchPostingResponse response = transactionService.postBatch(BatchPostingRequest.builder().postings(List.of(
+                BatchPostingRequest.Posting.builder().accountId(2L).type("DEPOSIT").amount(50.0).build(),
+                BatchPostingRequest.Posting.builder().accountId(1L).type("WITHDRAW").amount(500.0).build(),
+                BatchPostingRequest.Posting.builder().accountId(2L).type("REFUND").amount(5.0).build()
+        )).build());
+
+        assertThat(response.getResults()).extracting(BatchPostingResponse.PostingResult::getStatus)
+                .containsExactly("SUCCESS", "FAILED", "FAILED");
+        assertThat(response.getResults().get(0).getBalanceAfter()).isEqualTo(60.0);
+        assertThat(response.getResults().get(1).getError()).isEqualTo("Insufficient balance");
+        assertThat(response.getResults().get(2).getError()).isEqualTo("Type must be DEPOSIT or WITHDRAW");
+        verifyNoInteractions(ledgerBatchRepository);
+    }
+
+    private TransactionRepository.TransactionRowProjection row(Long id, TransactionType type, Double amount, Double balanceAfter, String notes) {
+        Date timestamp = new Date();
+        return new TransactionRepository.TransactionRowProjection() {
+            public Long getId() { return id; }
+            public TransactionType getType() { return type; }
+            public Double getAmount() { return amount; }
+            public Date getTimestamp() { return timestamp; }
+            public Double getBalanceAfter() { return balanceAfter; }
+            public String getNotes() { return notes; }
+        };
+    }
 }
@@ -1,13 +1,210 @@
-
 package com.alien.bank.management.system.service.impl;
 
+import com.alien.bank.management.system.entity.*;
+import com.alien.bank.management.system.model.transaction.TransferResult;
+import com.alien.bank.management.system.model.upi.SplitBillRequest;
+import com.alien.bank.management.system.model.upi.SplitBillStatus;
+import com.alien.bank.management.system.model.upi.VpaRecord;
+import com.alien.bank.management.system.repository.*;
+import com.alien.bank.management.system.service.*;
+import com.alien.bank.management.system.utils.LogRedactionUtil;
+import com.alien.bank.management.system.utils.OptimisticRetryExecutor;
+import jakarta.persistence.EntityNotFoundException;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.offset;
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
 
+@ExtendWith(MockitoExtension.class)
 public class UpiServiceImplTest {
+
+    @Mock
+    private UpiVpaRepository upiVpaRepository;
+
+    @Mock
+    private UpiRequestRepository upiRequestRepository;
+
+    @Mock
+    private LedgerBatchRepository ledgerBatchRepository;
+
+    @Mock
+    private LogRedactionUtil logRedactionUtil;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private AccountRepository accountRepository;
+
+    @Mock
+    private UpiTransferRepository upiTransferRepository;
+
+    @Mock
+    private VpaResolver vpaResolver;
+
+    @Mock
+    private PinVerificationService pinVerificationService;
+
+    @Mock
+    private OptimisticRetryExecutor retryExecutor;
+
+    @Mock
+    private LedgerJournalService ledgerJournalService;
+
+    @Mock
+    private PartitionedLedgerService partitionedLedgerService;
+
+    @Mock
+    private DailySpendService dailySpendService;
+
+    @Mock
+    private TransferService transferService;
+
+    @InjectMocks
+    private UpiServiceImpl upiService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(upiService, "collectExpiryMinutes", 60L);
+    }
+
     @Test
     void placeholderTest() {
         // Placeholder: add integration test with Testcontainers for duplicate VPA creation
         assertTrue(true);
     }
+
+    @Test
+    void splitBillValidatesInOneQueryAndInsertsOneBatch() {
+        when(upiVpaRepository.findExistingVpas(anyCollection())).thenReturn(List.of("payee@mybank", "a@mybank", "b@mybank", "c@mybank"));
+
+        SplitBillStatus status = upiService.createSplitBill(SplitBillRequest.builder()
+                .payeeVpa("payee@mybank")
+                .totalAmount(100.0)
+                .payers(List.of(share("a@mybank", null), share("b@mybank", null), share("c@mybank", null)))
+                .build());
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<UpiRequest>> batch = ArgumentCaptor.forClass(List.class);
+        verify(ledgerBatchRepository).insertUpiRequests(batch.capture());
+        verify(upiVpaRepository, times(1)).findExistingVpas(anyCollection());
+        assertThat(batch.getValue()).extracting(UpiRequest::getAmount).containsExactly(33.34, 33.33, 33.33);
+        assertThat(batch.getValue()).extracting(UpiRequest::getGroupId).containsOnly(status.getGroupId());
+        assertThat(status.getPending()).isEqualTo(3);
+        assertThat(status.getTotalAmount()).isEqualTo(100.0, offset(1e-9));
+        assertThat(status.getSettled()).isFalse();
+    }
+
+    @Test
+    void splitBillRejectsUnknownPayerWithoutInserting() {
+        when(upiVpaRepository.findExistingVpas(anyCollection())).thenReturn(List.of("payee@mybank", "a@mybank"));
+
+        EntityNotFoundException e = assertThrows(EntityNotFoundException.class, () -> upiService.createSplitBill(SplitBillRequest.builder()
+                .payeeVpa("payee@mybank")
+                .payers(List.of(share("a@mybank", 10.0), share("ghost@mybank", 5.0)))
+                .build()));
+
+        assertThat(e.getMessage()).contains("ghost@mybank");
+        verify(ledgerBatchRepository, never()).insertUpiRequests(any());
+    }
+
+    @Test
+    void splitBillStatusCountsSettlement() {
+        Date later = new Date(System.currentTimeMillis() + 60_000);
+        Date earlier = new Date(System.currentTimeMillis() - 60_000);
+        when(upiRequestRepository.findByGroupIdOrderByIdAsc("g1")).thenReturn(List.of(
+                request(UpiRequestStatus.APPROVED, 40.0, later),
+                request(UpiRequestStatus.PENDING, 30.0, later),
+                request(UpiRequestStatus.PENDING, 30.0, earlier)));
+
+        SplitBillStatus status = upiService.getSplitBill("g1");
+
+        assertThat(status.getCollectedAmount()).isEqualTo(40.0);
+        assertThat(status.getApproved()).isEqualTo(1);
+        assertThat(status.getPending()).isEqualTo(1);
+        assertThat(status.getExpired()).isEqualTo(1);
+        assertThat(status.getSettled()).isFalse();
+    }
+
+    @Test
+    void pinIsVerifiedOnceEvenWhenTheTransferIsRetried() {
+        when(vpaResolver.resolve("a@mybank")).thenReturn(Optional.of(VpaRecord.builder().vpa("a@mybank").accountId(1L).pinHash("hash").build()));
+        when(vpaResolver.resolve("b@mybank")).thenReturn(Optional.of(VpaRecord.builder().vpa("b@mybank").accountId(2L).build()));
+        when(pinVerificationService.matches("1234", "hash")).thenReturn(true);
+        when(dailySpendService.getDailyLimit()).thenReturn(1000.0);
+        when(transferService.transfer(eq(1L), eq(2L), eq(10.0), any(), any()))
+                .thenReturn(TransferResult.builder().debitTransactionId(77L).build());
+        // a version conflict on the first attempt: the executor runs the work again
+        when(retryExecutor.execute(eq("upiSend"), any(), any())).thenAnswer(inv -> {
+            Supplier<?> work = inv.getArgument(2);
+            work.get();
+            return work.get();
+        });
+
+        assertThat(upiService.sendMoney("a@mybank", "b@mybank", 10.0, null, "1234")).isEqualTo(77L);
+        verify(pinVerificationService, times(1)).matches(any(), any());
+        verify(transferService, times(2)).transfer(eq(1L), eq(2L), eq(10.0), any(), any());
+    }
+
+    @Test
+    void wrongPinRejectsTheSendBeforeAnyAttempt() {
+        when(vpaResolver.resolve("a@mybank")).thenReturn(Optional.of(VpaRecord.builder().vpa("a@mybank").accountId(1L).pinHash("hash").build()));
+        when(vpaResolver.resolve("b@mybank")).thenReturn(Optional.of(VpaRecord.builder().vpa("b@mybank").accountId(2L).build()));
+
+        assertThrows(BadCredentialsException.class, () -> upiService.sendMoney("a@mybank", "b@mybank", 10.0, null, "0000"));
+        verifyNoInteractions(retryExecutor, transferService);
+    }
+
+    @Test
+    void transfersAreOnlyVisibleToTheirSender() {
+        User sender = User.builder().id(1L).email("sender@mybank.com").build();
+        User other = User.builder().id(2L).email("other@mybank.com").build();
+        UpiTransfer transfer = UpiTransfer.builder().reference("ref-1").fromAccountId(10L).status(UpiTransferStatus.COMPLETED).build();
+        when(upiTransferRepository.findByReference("ref-1")).thenReturn(Optional.of(transfer));
+        when(userRepository.findByEmail(sender.getEmail())).thenReturn(Optional.of(sender));
+        when(userRepository.findByEmail(other.getEmail())).thenReturn(Optional.of(other));
+        when(accountRepository.existsByIdAndUser(10L, sender)).thenReturn(true);
+
+        try {
+            SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(sender.getEmail(), null));
+            assertThat(upiService.getTransfer("ref-1")).isSameAs(transfer);
+            assertThat(upiService.awaitTransfer("ref-1", 0L).join()).isSameAs(transfer);
+
+            // a guessed or leaked reference reads like one that does not exist
+            SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(other.getEmail(), null));
+            assertThrows(EntityNotFoundException.class, () -> upiService.getTransfer("ref-1"));
+            assertThrows(EntityNotFoundException.class, () -> upiService.awaitTransfer("ref-1", 0L));
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+
+    private static SplitBillRequest.Share share(String vpa, Double amount) {
+        return SplitBillRequest.Share.builder().payerVpa(vpa).amount(amount).build();
+    }
+
+    private static UpiRequest request(UpiRequestStatus status, double amount, Date expiresAt) {
+        return UpiRequest.builder().payerVpa("p@mybank").payeeVpa("payee@mybank").amount(amount)
+                .status(status).groupId("g1").createdAt(new Date()).expiresAt(expiresAt).build();
+    }
 }
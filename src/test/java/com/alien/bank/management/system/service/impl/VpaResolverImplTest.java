@@ -0,0 +1,58 @@
+package com.alien.bank.management.system.service.impl;
+
+import com.alien.bank.management.system.model.upi.VpaRecord;
+import com.alien.bank.management.system.repository.UpiVpaRepository;
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+public class VpaResolverImplTest {
+
+    private final UpiVpaRepository upiVpaRepository = mock(UpiVpaRepository.class);
+
+    @Test
+    void servesRepeatLookupsFromCacheUntilInvalidated() {
+        VpaResolverImpl resolver = new VpaResolverImpl(upiVpaRepository, 100, 300);
+        when(upiVpaRepository.findRecordByVpa("ann@mybank"))
+                .thenReturn(Optional.of(record("ann@mybank", 1L, 10L)));
+
+        assertThat(resolver.resolve("ann@mybank")).map(VpaRecord::getAccountId).contains(10L);
+        assertThat(resolver.exists("ann@mybank")).isTrue();
+        verify(upiVpaRepository, times(1)).findRecordByVpa("ann@mybank");
+
+        resolver.invalidateUser(1L);
+        resolver.resolve("ann@mybank");
+        verify(upiVpaRepository, times(2)).findRecordByVpa("ann@mybank");
+        assertThat(resolver.getMetrics()).containsEntry("hits", 1L).containsEntry("misses", 2L)
+                .containsEntry("invalidations", 1L);
+    }
+
+    @Test
+    void evictsLeastRecentlyUsedAndDoesNotCacheUnknownVpas() {
+        VpaResolverImpl resolver = new VpaResolverImpl(upiVpaRepository, 2, 300);
+        when(upiVpaRepository.findRecordByVpa(anyString()))
+                .thenAnswer(inv -> Optional.of(record(inv.getArgument(0), 1L, 10L)));
+        when(upiVpaRepository.findRecordByVpa("ghost@mybank")).thenReturn(Optional.empty());
+
+        resolver.resolve("a@mybank");
+        resolver.resolve("b@mybank");
+        resolver.resolve("a@mybank");
+        resolver.resolve("c@mybank");   // evicts b, the least recently used
+        resolver.resolve("a@mybank");
+        resolver.resolve("b@mybank");
+        assertThat(resolver.exists("ghost@mybank")).isFalse();
+        assertThat(resolver.exists("ghost@mybank")).isFalse();
+
+        verify(upiVpaRepository, times(1)).findRecordByVpa("a@mybank");
+        verify(upiVpaRepository, times(2)).findRecordByVpa("b@mybank");
+        verify(upiVpaRepository, times(2)).findRecordByVpa("ghost@mybank");
+        assertThat(resolver.getMetrics()).containsEntry("size", 2).containsEntry("evictions", 2L);
+    }
+
+    private static VpaRecord record(String vpa, Long userId, Long accountId) {
+        return VpaRecord.builder().vpa(vpa).userId(userId).accountId(accountId).pinHash("hash").isDefault(false).build();
+    }
+}
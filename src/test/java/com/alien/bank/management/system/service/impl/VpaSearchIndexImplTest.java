@@ -0,0 +1,42 @@
+package com.alien.bank.management.system.service.impl;
+
+import com.alien.bank.management.system.repository.UpiVpaRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+public class VpaSearchIndexImplTest {
+
+    private final UpiVpaRepository upiVpaRepository = mock(UpiVpaRepository.class);
+    private final VpaSearchIndexImpl index = new VpaSearchIndexImpl(upiVpaRepository, true);
+
+    @Test
+    void returnsTopKPrefixMatchesFromTheLoadedIndex() {
+        when(upiVpaRepository.findVpasAfter(eq(""), any(Pageable.class)))
+                .thenReturn(List.of("ann1@mybank", "Ann@mybank", "anna@mybank", "bob@mybank"));
+
+        assertThat(index.rebuild()).isEqualTo(4);
+        index.add("anu@mybank");
+        index.remove("anna@mybank");
+
+        assertThat(index.suggest("AN", 10)).containsExactly("ann1@mybank", "Ann@mybank", "anu@mybank");
+        assertThat(index.suggest("an", 2)).containsExactly("ann1@mybank", "Ann@mybank");
+        assertThat(index.suggest("bz", 10)).isEmpty();
+        assertThat(index.suggest("  ", 10)).isEmpty();
+        verify(upiVpaRepository, never()).findVpasByPrefix(any(), any());
+    }
+
+    @Test
+    void fallsBackToEscapedPrefixQueryUntilLoaded() {
+        when(upiVpaRepository.findVpasByPrefix(eq("a!_b"), any(Pageable.class))).thenReturn(List.of("a_b@mybank"));
+
+        assertThat(index.suggest("A_b", 5)).containsExactly("a_b@mybank");
+        verify(upiVpaRepository).findVpasByPrefix(eq("a!_b"), argThat(p -> p.getPageSize() == 5));
+    }
+}
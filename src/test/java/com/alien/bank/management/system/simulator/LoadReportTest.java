@@ -0,0 +1,35 @@
+package com.alien.bank.management.system.simulator;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LoadReportTest {
+
+    @Test
+    void countsOutcomesAndReportsExactPercentiles() {
+        LoadReport report = new LoadReport(100);
+        for (int ms = 1; ms <= 1000; ms++) {
+            report.recordSuccess(LoadSimulator.Operation.SEND, ms * 1_000_000L);
+        }
+        report.recordError(LoadSimulator.Operation.PAYMENT, 5_000_000L, "409");
+        report.recordError(LoadSimulator.Operation.PAYMENT, 7_000_000L, "409");
+        report.recordDropped();
+        report.finish(2_000_000_000L);
+
+        assertThat(report.getCompleted()).isEqualTo(1002);
+        assertThat(report.getSucceeded(LoadSimulator.Operation.SEND)).isEqualTo(1000);
+        assertThat(report.getErrors()).isEqualTo(2);
+        assertThat(report.getThroughput()).isEqualTo(501.0);
+
+        Map<String, Object> result = report.toMap();
+        assertThat(result).containsEntry("dropped", 1L).containsEntry("elapsedMs", 2000L);
+        @SuppressWarnings("unchecked")
+        Map<String, Map<String, Object>> operations = (Map<String, Map<String, Object>>) result.get("operations");
+        assertThat(operations.get("send")).containsEntry("p50Ms", 500.0).containsEntry("p99Ms", 990.0).containsEntry("p999Ms", 999.0);
+        assertThat(operations.get("payment")).containsEntry("succeeded", 0L).containsEntry("errors", Map.of("409", 2L));
+        assertThat(report.format()).contains("payment errors: {409=2}");
+    }
+}
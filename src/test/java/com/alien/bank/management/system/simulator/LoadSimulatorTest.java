@@ -0,0 +1,34 @@
+package com.alien.bank.management.system.simulator;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// A short run of the loadsim profile against the embedded server and its H2 (MySQL mode) database.
+// It boots the whole application, so it runs with the benchmarks: mvn -Pbenchmark test
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "loadsim.autostart=false",
+        "loadsim.users=20",
+        "loadsim.rps=10",
+        "loadsim.duration-seconds=3",
+        "spring.jpa.show-sql=false"})
+@ActiveProfiles("loadsim")
+@Tag("benchmark")
+class LoadSimulatorTest {
+
+    @Autowired private LoadSimulator loadSimulator;
+
+    @Test
+    void shortRunExercisesEveryOperation() throws Exception {
+        LoadReport report = loadSimulator.run();
+
+        assertThat(report.getCompleted()).isPositive();
+        assertThat(report.getSucceeded(LoadSimulator.Operation.SEND)).isPositive();
+        assertThat(report.getSucceeded(LoadSimulator.Operation.REQUEST)).isPositive();
+        assertThat(report.toMap()).containsKeys("throughput", "dropped", "operations");
+    }
+}
@@ -0,0 +1,55 @@
+package com.alien.bank.management.system.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HierarchicalTimingWheelTest {
+
+    @Test
+    void entriesOnEveryLevelFireWithinOneTickAfterTheirDeadline() {
+        long start = 1_000_000_500L;
+        // 10 slots of 100 ms: level 0 spans 1 s, level 1 10 s, level 2 100 s
+        HierarchicalTimingWheel<Integer> wheel = new HierarchicalTimingWheel<>(100, 10, start);
+        SplittableRandom random = new SplittableRandom(7);
+        Map<Integer, Long> deadlines = new HashMap<>();
+        for (int i = 0; i < 2000; i++) {
+            long deadline = start + 100 + random.nextLong(250_000);
+            deadlines.put(i, deadline);
+            assertThat(wheel.add(deadline, i)).isTrue();
+        }
+        assertThat(wheel.levels()).hasSizeGreaterThanOrEqualTo(3);
+
+        Map<Integer, Long> firedAt = new HashMap<>();
+        for (long now = start; now <= start + 260_000; now += 37) {
+            long at = now;
+            wheel.advance(now, item -> firedAt.put(item, at));
+        }
+
+        assertThat(firedAt).hasSize(deadlines.size());
+        assertThat(wheel.size()).isZero();
+        deadlines.forEach((item, deadline) ->
+                assertThat(firedAt.get(item)).as("item %d", item).isBetween(deadline, deadline + 100 + 37));
+    }
+
+    @Test
+    void pastDeadlinesAreHandedBackAndLateAdvanceCatchesUp() {
+        HierarchicalTimingWheel<String> wheel = new HierarchicalTimingWheel<>(1000, 60, 0);
+        assertThat(wheel.add(0, "now")).isFalse();
+        assertThat(wheel.add(-5000, "overdue")).isFalse();
+
+        wheel.add(1500, "soon");
+        wheel.add(3_600_000, "in an hour");
+        List<String> fired = new ArrayList<>();
+        assertThat(wheel.advance(1999, fired::add)).isZero();
+        // one advance across many ticks, e.g. after a pause
+        assertThat(wheel.advance(4_000_000, fired::add)).isEqualTo(2);
+        assertThat(fired).containsExactly("soon", "in an hour");
+    }
+}
@@ -0,0 +1,118 @@
+package com.alien.bank.management.system.utils;
+
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.UnaryOperator;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LogRedactionUtilTest {
+    private static final Logger log = LoggerFactory.getLogger(LogRedactionUtilTest.class);
+
+    private static final List<String> LOG_ARGS = List.of(
+            "rahul.sharma@mybank",
+            "9876543210@mybank",
+            "Card 4111 1111 1111 1111 used",
+            "pan 4111111111111111",
+            "card 4111-1111-1111-1111, cvv 123",
+            "user john.doe@gmail.com paid 250",
+            "call +919876543210 now",
+            "merchant_42@mybank",
+            "UPI Collect",
+            "");
+
+    private final LogRedactionUtil util = new LogRedactionUtil();
+
+    @Test
+    void masksEachKindAndLeavesPlainTextAlone() {
+        assertThat(util.redactSensitiveData("card 4111-1111-1111-1111, cvv 123")).isEqualTo("card ****-****-****-****, cvv ***");
+        assertThat(util.redactSensitiveData("pan 4111111111111111")).isEqualTo("pan ****-****-****-****");
+        assertThat(util.redactSensitiveData("mail john.doe@gmail.com")).isEqualTo("mail ***@gmail.com");
+        assertThat(util.redactSensitiveData("call +919876543210 now")).isEqualTo("call +***3210 now");
+        assertThat(util.redactSensitiveData("rahul.sharma@mybank")).isEqualTo("rahul.sharma@mybank");
+        assertThat(util.containsSensitiveData("order 77")).isTrue();
+        assertThat(util.containsSensitiveData("rahul@mybank")).isFalse();
+
+        String plain = "UPI Collect";
+        assertThat(util.redactSensitiveData(plain)).isSameAs(plain);
+    }
+
+    @Test
+    void lazyArgumentRedactsOnlyWhenFormatted() {
+        AtomicInteger rendered = new AtomicInteger();
+        Object value = new Object() {
+            @Override
+            public String toString() {
+                rendered.incrementAndGet();
+                return "9876543210@mybank";
+            }
+        };
+
+        Object argument = util.lazy(value);
+        log.trace("never formatted: {}", argument);
+        assertThat(rendered.get()).isZero();
+
+        assertThat(argument.toString()).isEqualTo("***3210@mybank");
+        assertThat(rendered.get()).isEqualTo(1);
+    }
+
+    // Not a JMH harness: a warmed-up loop against the five-pass regex chain it replaced, which is
+    // enough to see the order of magnitude per call and to check both give the same output here.
+    @Test
+    void singlePassMatchesRegexChainAndIsCheaper() {
+        for (String arg : LOG_ARGS) {
+            assertThat(util.redactSensitiveData(arg)).as(arg).isEqualTo(RegexChain.redact(arg));
+        }
+
+        double regexNs = nanosPerCall(RegexChain::redact);
+        double scanNs = nanosPerCall(util::redactSensitiveData);
+        log.info("Log redaction per call: regex chain {} ns, single pass {} ns", Math.round(regexNs), Math.round(scanNs));
+    }
+
+    private static double nanosPerCall(UnaryOperator<String> redactor) {
+        int sink = 0;
+        int calls = 100_000;
+        long best = Long.MAX_VALUE;
+        // the first rounds are warm-up; the fastest round is reported
+        for (int round = 0; round < 5; round++) {
+            long started = System.nanoTime();
+            for (int i = 0; i < calls; i++) {
+                sink += redactor.apply(LOG_ARGS.get(i % LOG_ARGS.size())).length();
+            }
+            best = Math.min(best, System.nanoTime() - started);
+        }
+        assertThat(sink).isPositive();
+        return (double) best / calls;
+    }
+
+    // The previous implementation, kept as the reference for output and cost
+    private static final class RegexChain {
+        private static final Pattern CARD = Pattern.compile("\\b\\d{4}[\\s-]?\\d{4}[\\s-]?\\d{4}[\\s-]?\\d{4}\\b");
+        private static final Pattern CVV = Pattern.compile("\\b\\d{3,4}\\b");
+        private static final Pattern PAN = Pattern.compile("\\b\\d{16}\\b");
+        private static final Pattern EMAIL = Pattern.compile("\\b[A-Za-z0-9._%+-]+@[A-Za-z0-9.-]+\\.[A-Z|a-z]{2,}\\b");
+        private static final Pattern PHONE = Pattern.compile("\\b\\+?[1-9]\\d{1,14}\\b");
+
+        static String redact(String input) {
+            if (input == null || input.trim().isEmpty()) {
+                return input;
+            }
+            String redacted = CARD.matcher(input).replaceAll("****-****-****-****");
+            redacted = CVV.matcher(redacted).replaceAll("***");
+            redacted = PAN.matcher(redacted).replaceAll("****-****-****-****");
+            redacted = EMAIL.matcher(redacted).replaceAll(m -> {
+                String[] parts = m.group().split("@");
+                return parts.length == 2 ? "***@" + parts[1] : "***@***";
+            });
+            return PHONE.matcher(redacted).replaceAll(m -> {
+                String phone = m.group();
+                return phone.length() >= 4 ? "***" + phone.substring(phone.length() - 4) : "***";
+            });
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.alien.bank.management.system.utils;
+
+import com.alien.bank.management.system.entity.Account;
+import com.alien.bank.management.system.exception.ConcurrentUpdateException;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+
+public class OptimisticRetryExecutorTest {
+
+    private final OptimisticRetryExecutor executor =
+            new OptimisticRetryExecutor(mock(PlatformTransactionManager.class), 3, 1, 2);
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void retriesConflictsUntilSuccessAndTracksHotAccount() {
+        AtomicInteger attempts = new AtomicInteger();
+        String result = executor.execute("deposit", "account:42", () -> {
+            if (attempts.incrementAndGet() < 3) {
+                throw new ObjectOptimisticLockingFailureException(Account.class, 42L);
+            }
+            return "ok";
+        });
+
+        assertThat(result).isEqualTo("ok");
+        Map<String, Object> metrics = executor.getMetrics();
+        Map<String, Object> deposit = (Map<String, Object>) ((Map<String, Object>) metrics.get("operations")).get("deposit");
+        assertThat(deposit).containsEntry("conflicts", 2L).containsEntry("retries", 2L).containsEntry("aborted", 0L);
+        assertThat((List<Map<String, Object>>) metrics.get("hotAccounts"))
+                .containsExactly(Map.of("key", "account:42", "conflicts", 2L));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void abortsAfterMaxAttempts() {
+        AtomicInteger attempts = new AtomicInteger();
+        assertThrows(ConcurrentUpdateException.class, () -> executor.execute("withdraw", "account:7", () -> {
+            attempts.incrementAndGet();
+            throw new ObjectOptimisticLockingFailureException(Account.class, 7L);
+        }));
+
+        assertThat(attempts.get()).isEqualTo(3);
+        Map<String, Object> withdraw = (Map<String, Object>) ((Map<String, Object>) executor.getMetrics().get("operations")).get("withdraw");
+        assertThat(withdraw).containsEntry("aborted", 1L).containsEntry("abortRate", 1.0);
+    }
+
+    @Test
+    void treatsOnlyUniqueViolationsAsConflicts() {
+        SQLException duplicate = new SQLException("duplicate", "23505");
+        SQLException notNull = new SQLException("not null", "23502");
+
+        assertThat(OptimisticRetryExecutor.isConflict(new DataIntegrityViolationException("dup", duplicate))).isTrue();
+        assertThat(OptimisticRetryExecutor.isConflict(new DataIntegrityViolationException("null", notNull))).isFalse();
+        assertThat(OptimisticRetryExecutor.isConflict(new IllegalStateException())).isFalse();
+    }
+}
@@ -0,0 +1,63 @@
+package com.alien.bank.management.system.utils;
+
+import com.alien.bank.management.system.exception.ServiceBusyException;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class PartitionedExecutorTest {
+
+    @Test
+    void runsTasksForOneKeyInSubmissionOrder() throws Exception {
+        PartitionedExecutor executor = new PartitionedExecutor("test", 4, 1000);
+        List<Integer> seen = new CopyOnWriteArrayList<>();
+        CountDownLatch done = new CountDownLatch(200);
+        for (int i = 0; i < 200; i++) {
+            int n = i;
+            executor.submit(7L, () -> {
+                seen.add(n);
+                done.countDown();
+            });
+        }
+        assertThat(done.await(10, TimeUnit.SECONDS)).isTrue();
+        executor.shutdown();
+
+        assertThat(seen).isSorted().hasSize(200);
+    }
+
+    @Test
+    void rejectsPastMaxInFlightAndReportsThroughput() throws Exception {
+        PartitionedExecutor executor = new PartitionedExecutor("test", 1, 2);
+        CountDownLatch release = new CountDownLatch(1);
+        executor.submit(1L, () -> await(release));
+        executor.submit(2L, () -> await(release));
+
+        assertThatThrownBy(() -> executor.submit(3L, () -> { })).isInstanceOf(ServiceBusyException.class);
+
+        release.countDown();
+        long deadline = System.currentTimeMillis() + 5000;
+        while (executor.getInFlight() > 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+        Map<String, Object> metrics = executor.getMetrics();
+        executor.shutdown();
+
+        assertThat(metrics).containsEntry("completed", 2L).containsEntry("inFlight", 0);
+        assertThat((Double) metrics.get("throughputPerSecond1m")).isGreaterThan(0.0);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
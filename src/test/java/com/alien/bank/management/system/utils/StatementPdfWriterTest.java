@@ -0,0 +1,36 @@
+package com.alien.bank.management.system.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class StatementPdfWriterTest {
+
+    @Test
+    void writesOnePageObjectPerFullPageAndValidXrefOffsets() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        StatementPdfWriter pdf = new StatementPdfWriter(out);
+        pdf.writeHeader("****-****-****-3456", 7L, new Date(0), new Date(), 0.0);
+        for (int i = 0; i < 150; i++) {
+            pdf.addRow(new Date(), "TXN" + i, "DEPOSIT", "Salary (March)", 10.0, 10.0 * (i + 1));
+        }
+        pdf.finish(List.<String[]>of(new String[]{"Transactions", "150"}));
+
+        String content = out.toString(StandardCharsets.ISO_8859_1);
+        assertThat(content).startsWith("%PDF-1.4").endsWith("%%EOF\n");
+        assertThat(content).contains("/Count 4").contains("Salary \\(March\\)");
+
+        // every in-use xref entry must point at the start of its object
+        int xref = content.lastIndexOf("\nxref\n") + 1;
+        String[] lines = content.substring(xref).split("\n");
+        for (int id = 1; id < Integer.parseInt(lines[1].split(" ")[1]); id++) {
+            int offset = Integer.parseInt(lines[2 + id].substring(0, 10));
+            assertThat(content.substring(offset)).startsWith(id + " 0 obj");
+        }
+    }
+}